@@ -0,0 +1,22 @@
+CREATE TABLE IF NOT EXISTS email_outbox (
+  email_outbox_id bigserial NOT NULL,
+  recipient varchar(320) NOT NULL,
+  subject varchar(998) NOT NULL,
+  template_page varchar(255) NOT NULL,
+  template_fragment varchar(255) DEFAULT NULL,
+  template_master varchar(255) DEFAULT NULL,
+  variables text NOT NULL,
+  locale varchar(35) NOT NULL,
+  priority smallint NOT NULL,
+  status varchar(10) NOT NULL DEFAULT 'PENDING',
+  attempts int NOT NULL DEFAULT 0,
+  next_attempt_at timestamp NOT NULL DEFAULT now(),
+  last_error varchar(1000) DEFAULT NULL,
+  created_date timestamp NOT NULL DEFAULT now(),
+  PRIMARY KEY (email_outbox_id)
+);
+
+-- Sent emails are deleted, so the index only covers the emails waiting to be claimed
+CREATE INDEX IF NOT EXISTS email_outbox_pending_idx
+  ON email_outbox (priority, next_attempt_at)
+  WHERE status = 'PENDING';
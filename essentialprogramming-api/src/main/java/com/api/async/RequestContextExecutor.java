@@ -0,0 +1,43 @@
+package com.api.async;
+
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executor running each task with the security context and locale of the thread that submitted it,
+ * so work a controller hands off to a pool still sees the authenticated user and the request locale.
+ * The worker's own context is restored afterwards, pool threads never keep a request's context.
+ */
+public final class RequestContextExecutor implements Executor {
+
+    private final Executor delegate;
+
+    public RequestContextExecutor(final Executor delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Executor must not be null");
+        }
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+        final LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+        delegate.execute(() -> {
+            final SecurityContext previousSecurityContext = SecurityContextHolder.getContext();
+            final LocaleContext previousLocaleContext = LocaleContextHolder.getLocaleContext();
+            SecurityContextHolder.setContext(securityContext);
+            LocaleContextHolder.setLocaleContext(localeContext);
+            try {
+                task.run();
+            } finally {
+                SecurityContextHolder.setContext(previousSecurityContext);
+                LocaleContextHolder.setLocaleContext(previousLocaleContext);
+            }
+        });
+    }
+}
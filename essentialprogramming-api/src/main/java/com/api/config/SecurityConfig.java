@@ -2,7 +2,9 @@ package com.api.config;
 
 import com.api.security.Http401AuthenticationEntryPoint;
 import com.api.security.JWTAuthenticationManager;
-import com.authentication.security.KeyStoreService;
+import com.api.security.KeySetJwtDecoder;
+import com.authentication.security.JwksService;
+import com.authentication.service.TokenService;
 import com.spring.ApplicationContextFactory;
 import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
@@ -16,14 +18,12 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.authentication.rememberme.RememberMeAuthenticationFilter;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
-import java.security.interfaces.RSAPublicKey;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -43,7 +43,9 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     };
 
     private static final String[] AUTH_WHITELIST = {
-            "/token"
+            "/token",
+            "/token/refresh",
+            "/.well-known/jwks.json"
     };
 
 
@@ -91,8 +93,9 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
 
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withPublicKey((RSAPublicKey) KeyStoreService.getInstance().getPublicKey()).build();
+    public JwtDecoder jwtDecoder(JwksService jwksService) {
+        // Keys replaced by a reload keep verifying the tokens they signed, for as long as they are published
+        return new KeySetJwtDecoder(jwksService, TokenService.ACCESS_TOKEN_ISSUER, TokenService.ACCESS_TOKEN_AUDIENCE);
     }
 
 
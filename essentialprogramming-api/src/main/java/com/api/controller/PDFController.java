@@ -1,11 +1,15 @@
 package com.api.controller;
 
+import com.api.async.RequestContextExecutor;
 import com.api.config.Anonymous;
 import com.api.entities.User;
 import com.api.service.UserService;
 import com.api.template.Templates;
 import com.google.inject.internal.util.ImmutableMap;
+import com.exception.ExceptionHandler;
 import com.template.service.TemplateService;
+import com.util.async.Computation;
+import com.util.async.ExecutorsProvider;
 import com.util.web.SmartLocaleResolver;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -27,7 +31,10 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Tag(description = "Pdf API", name = "Download PDF")
 @RequestMapping("/pdf")
@@ -35,6 +42,10 @@ import java.util.Map;
 @RestController
 public class PDFController {
 
+    // The users are loaded on the I/O pool, the PDF is rendered on the CPU pool
+    private static final Executor ioExecutor = new RequestContextExecutor(ExecutorsProvider.getIoExecutor());
+    private static final Executor cpuExecutor = new RequestContextExecutor(ExecutorsProvider.getCpuExecutor());
+
     private final SmartLocaleResolver smartLocaleResolver;
 
     private final TemplateService templateService;
@@ -48,13 +59,20 @@ public class PDFController {
                                     schema = @Schema(implementation = String.class)))
             })
     @Anonymous
-    public ResponseEntity<Resource> generatePDF(HttpServletRequest request) {
+    public CompletableFuture<ResponseEntity<Resource>> generatePDF(HttpServletRequest request) {
         final String fileName = String.format("pdf-example-%s.%s",
                 LocalDateTime.now(ZoneOffset.UTC).format(DateTimeFormatter.ofPattern("MM-dd-yyyy-HH-mm")),
                 "pdf");
+        final Locale locale = smartLocaleResolver.resolveLocale(request);
 
-        byte[] pdfByteArray = templateService.generatePDF(Templates.PDF_EXAMPLE, generateTemplateVariables(), smartLocaleResolver.resolveLocale(request));
+        return Computation.computeAsync(this::generateTemplateVariables, ioExecutor)
+                .thenCompose(variables -> Computation.computeAsync(
+                        () -> templateService.generatePDF(Templates.PDF_EXAMPLE, variables, locale), cpuExecutor))
+                .thenApply(pdfByteArray -> download(fileName, pdfByteArray))
+                .exceptionally(ExceptionHandler::handleException);
+    }
 
+    private static ResponseEntity<Resource> download(String fileName, byte[] pdfByteArray) {
         return ResponseEntity.ok()
                 .header("content-disposition", "attachment; filename=" + fileName + "; filename*=UTF-8''" + fileName)
                 .contentType(MediaType.parseMediaType("application/octet-stream"))
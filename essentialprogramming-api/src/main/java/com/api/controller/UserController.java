@@ -1,5 +1,6 @@
 package com.api.controller;
 
+import com.api.async.RequestContextExecutor;
 import com.api.config.Anonymous;
 import com.api.model.UserInput;
 import com.api.output.Response;
@@ -33,8 +34,8 @@ import javax.validation.Valid;
 import java.io.Serializable;
 import java.security.GeneralSecurityException;
 import java.util.Locale;
-import java.util.concurrent.CompletionException;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 
 @Tag(description = "User API", name = "User Services")
@@ -46,6 +47,9 @@ public class UserController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UserController.class);
 
+    // Database work runs on the I/O pool with the caller's security context and locale
+    private static final Executor executor = new RequestContextExecutor(ExecutorsProvider.getIoExecutor());
+
     private final UserService userService;
 
     private final SmartLocaleResolver smartLocaleResolver;
@@ -59,13 +63,13 @@ public class UserController {
                                     schema = @Schema(implementation = UserJSON.class)))
             })
     @Anonymous
-    public ResponseEntity<Serializable> createUser(@RequestBody @Valid UserInput userInput, HttpServletRequest request) throws GeneralSecurityException {
+    public CompletableFuture<ResponseEntity<Serializable>> createUser(@RequestBody @Valid UserInput userInput, HttpServletRequest request) {
 
-        ExecutorService executorService = ExecutorsProvider.getExecutorService();
-        return Computation.computeAsync(() -> createUser(userInput, smartLocaleResolver.resolveLocale(request)), executorService)
-                .thenApplyAsync(Response::created, executorService)
-                .exceptionally(error -> ExceptionHandler.handleException((CompletionException) error))
-                .join();
+        // The request must not be read from another thread
+        final Locale locale = smartLocaleResolver.resolveLocale(request);
+        return Computation.computeAsync(() -> createUser(userInput, locale), executor)
+                .thenApply(Response::created)
+                .exceptionally(ExceptionHandler::handleException);
     }
 
     private Serializable createUser(UserInput userInput, Locale language) throws GeneralSecurityException, ApiException {
@@ -86,17 +90,16 @@ public class UserController {
             })
     @RolesAllowed({"visitor", "administrator"})
     @PreAuthorize("hasAnyRole(@privilegeService.getPrivilegeRoles(\"LOAD.USER\")) AND hasAnyAuthority('PERMISSION_read:user', 'PERMISSION_edit:user')")
-    public ResponseEntity<Serializable> load(@RequestHeader(name = "Authorization", required = false) String authorization,
+    public CompletableFuture<ResponseEntity<Serializable>> load(@RequestHeader(name = "Authorization", required = false) String authorization,
                                              HttpServletRequest request) {
 
         final String bearer = AuthUtils.extractBearerToken(authorization);
         final String email = AuthUtils.getClaim(bearer, "email");
 
-        ExecutorService executorService = ExecutorsProvider.getExecutorService();
-        return Computation.computeAsync(() -> loadUser(email, smartLocaleResolver.resolveLocale(request)), executorService)
-                .thenApplyAsync(Response::ok, executorService)
-                .exceptionally(error -> ExceptionHandler.handleException((CompletionException) error))
-                .join();
+        final Locale locale = smartLocaleResolver.resolveLocale(request);
+        return Computation.computeAsync(() -> loadUser(email, locale), executor)
+                .thenApply(Response::ok)
+                .exceptionally(ExceptionHandler::handleException);
     }
 
     private Serializable loadUser(String email, Locale language) throws ApiException {
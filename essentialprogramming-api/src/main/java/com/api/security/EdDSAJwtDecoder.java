@@ -0,0 +1,74 @@
+package com.api.security;
+
+import com.token.validation.jwt.JwtClaims;
+import com.token.validation.jwt.JwtVerifier;
+import com.token.validation.jwt.ValidationPolicy;
+import com.token.validation.jwt.exception.TokenValidationException;
+import com.token.validation.response.ValidationResponse;
+import com.token.validation.signature.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * {@link JwtDecoder} for EdDSA (Ed25519) signed tokens.
+ * <p>
+ * Nimbus can only verify EdDSA signatures with Google Tink, so the tokens are verified with the
+ * token-validation {@link JwtVerifier} instead and its claims are handed over to Spring Security.
+ * </p>
+ */
+public class EdDSAJwtDecoder implements JwtDecoder {
+
+    private static final String[] TIME_CLAIMS = {JwtClaimNames.EXP, JwtClaimNames.NBF, JwtClaimNames.IAT};
+
+    private final JwtVerifier jwtVerifier;
+
+    public EdDSAJwtDecoder(final PublicKey publicKey) {
+        this(publicKey, ValidationPolicy.builder().build());
+    }
+
+    public EdDSAJwtDecoder(final PublicKey publicKey, final ValidationPolicy validationPolicy) {
+        this.jwtVerifier = JwtVerifier.builder()
+                .key(SignatureAlgorithm.EdDSA, publicKey)
+                .policy(validationPolicy)
+                .build();
+    }
+
+    @Override
+    public Jwt decode(final String token) throws JwtException {
+        final ValidationResponse<JwtClaims> validationResponse;
+        try {
+            validationResponse = jwtVerifier.verify(token);
+        } catch (TokenValidationException exception) {
+            throw new BadJwtException(exception.getMessage(), exception);
+        }
+        if (!validationResponse.isValid()) {
+            throw new BadJwtException("Invalid token: " + validationResponse.getFailure());
+        }
+
+        final JwtClaims claims = validationResponse.getClaims();
+        return Jwt.withTokenValue(token)
+                .header("alg", SignatureAlgorithm.EdDSA.getValue())
+                .claims(jwtClaims -> {
+                    jwtClaims.putAll(claims);
+                    // Spring Security expects the time claims as instants
+                    for (String name : TIME_CLAIMS) {
+                        toInstant(jwtClaims, name);
+                    }
+                })
+                .build();
+    }
+
+    private static void toInstant(final Map<String, Object> claims, final String name) {
+        final Object value = claims.get(name);
+        if (value instanceof Number) {
+            claims.put(name, Instant.ofEpochSecond(((Number) value).longValue()));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.api.security;
+
+import com.authentication.security.KeyStoreService;
+import com.authentication.service.TokenService;
+import com.spring.ApplicationContextFactory;
+import com.token.validation.crypto.EdDSAProvider;
+import com.token.validation.jwt.JwtVerifier;
+import com.token.validation.jwt.ValidationPolicy;
+import com.token.validation.jwt.VerifiedTokenCache;
+import com.token.validation.signature.SignatureAlgorithm;
+import com.util.cloud.Environment;
+
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the {@link JwtVerifier} of the authentication managers from the environment and rebuilds it
+ * when the public key is reloaded. Shared by all managers, so the key store holds a single listener.
+ */
+final class JwtVerifierProvider {
+
+    /**
+     * Number of verified tokens to cache, caching is disabled if not set.
+     */
+    private static final String TOKEN_CACHE_SIZE = "TOKEN_CACHE_SIZE";
+
+    /**
+     * Tolerated clock difference with the token issuer, in seconds.
+     */
+    private static final String TOKEN_CLOCK_SKEW = "TOKEN_CLOCK_SKEW";
+
+    private final VerifiedTokenCache tokenCache;
+    private final ValidationPolicy validationPolicy;
+    private volatile JwtVerifier jwtVerifier;
+
+    private JwtVerifierProvider() {
+        final int tokenCacheSize = Environment.getProperty(TOKEN_CACHE_SIZE, 0);
+        this.tokenCache = tokenCacheSize > 0 ? new VerifiedTokenCache(tokenCacheSize) : null;
+        // Refresh tokens are signed with the same key, only access tokens are let through
+        this.validationPolicy = ValidationPolicy.builder()
+                .issuer(TokenService.ACCESS_TOKEN_ISSUER)
+                .audience(TokenService.ACCESS_TOKEN_AUDIENCE)
+                .clockSkew(Environment.getProperty(TOKEN_CLOCK_SKEW, 0), TimeUnit.SECONDS)
+                .build();
+        // The application's key store, so the verifier follows the same reloads as the token signer
+        final KeyStoreService keyStoreService = ApplicationContextFactory.getBean(KeyStoreService.class);
+        this.jwtVerifier = createVerifier(keyStoreService.getPublicKey());
+        keyStoreService.onPublicKeyChange(publicKey -> jwtVerifier = createVerifier(publicKey));
+    }
+
+    private static class JwtVerifierProviderHolder {
+        static final JwtVerifierProvider INSTANCE = new JwtVerifierProvider();
+    }
+
+    static JwtVerifierProvider getInstance() {
+        return JwtVerifierProviderHolder.INSTANCE;
+    }
+
+    JwtVerifier get() {
+        return jwtVerifier;
+    }
+
+    private JwtVerifier createVerifier(PublicKey publicKey) {
+        return JwtVerifier.builder()
+                .key(EdDSAProvider.isEd25519Key(publicKey) ? SignatureAlgorithm.EdDSA : SignatureAlgorithm.RS256, publicKey)
+                .cache(tokenCache)
+                .policy(validationPolicy)
+                .build();
+    }
+}
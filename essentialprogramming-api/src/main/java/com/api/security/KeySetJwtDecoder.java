@@ -0,0 +1,99 @@
+package com.api.security;
+
+import com.authentication.security.JwksService;
+import com.token.validation.crypto.EdDSAProvider;
+import com.token.validation.jwt.JwtUtil;
+import com.token.validation.jwt.ValidationPolicy;
+import com.token.validation.jwt.exception.TokenValidationException;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link JwtDecoder} selecting the verification key by the key id ({@code kid}) of the token header,
+ * among the keys published by {@link JwksService}.
+ * <p>
+ * Tokens signed before a key rotation stay valid for as long as the replaced key is published, instead of
+ * being rejected as soon as the new key pair is loaded. Tokens without a key id, minted before key ids were
+ * added, are verified with the signing key. A decoder is built per key and kept until the key set changes.
+ * </p>
+ * <p>
+ * Only tokens of the given issuer and audience are accepted, so refresh tokens signed with the same keys
+ * can't be used as access tokens.
+ * </p>
+ */
+public class KeySetJwtDecoder implements JwtDecoder {
+
+    private final class Decoders {
+        private final JwksService.KeySet keySet;
+        private final Map<String, JwtDecoder> byKeyId = new HashMap<>();
+
+        private Decoders(JwksService.KeySet keySet) {
+            this.keySet = keySet;
+            keySet.getKeys().forEach((keyId, key) -> byKeyId.put(keyId, createJwtDecoder(key)));
+        }
+    }
+
+    private final JwksService jwksService;
+    private final String issuer;
+    private final String audience;
+    private volatile Decoders decoders;
+
+    public KeySetJwtDecoder(final JwksService jwksService, final String issuer, final String audience) {
+        this.jwksService = jwksService;
+        this.issuer = issuer;
+        this.audience = audience;
+    }
+
+    @Override
+    public Jwt decode(final String token) throws JwtException {
+        final String keyId;
+        try {
+            keyId = JwtUtil.getKeyId(token);
+        } catch (TokenValidationException exception) {
+            throw new BadJwtException(exception.getMessage(), exception);
+        }
+
+        final Decoders current = getDecoders();
+        final JwtDecoder decoder = current.byKeyId.get(keyId != null ? keyId : current.keySet.getSigningKeyId());
+        if (decoder == null) {
+            throw new BadJwtException("Unknown key id: " + keyId);
+        }
+        return decoder.decode(token);
+    }
+
+    private Decoders getDecoders() {
+        final JwksService.KeySet keySet = jwksService.getKeySet();
+        Decoders current = decoders;
+        if (current == null || current.keySet != keySet) {
+            current = new Decoders(keySet);
+            decoders = current;
+        }
+        return current;
+    }
+
+    private JwtDecoder createJwtDecoder(PublicKey publicKey) {
+        if (EdDSAProvider.isEd25519Key(publicKey)) {
+            return new EdDSAJwtDecoder(publicKey, ValidationPolicy.builder().issuer(issuer).audience(audience).build());
+        }
+        final NimbusJwtDecoder decoder = NimbusJwtDecoder.withPublicKey((RSAPublicKey) publicKey).build();
+        final OAuth2TokenValidator<Jwt> audienceValidator =
+                new JwtClaimValidator<List<String>>(JwtClaimNames.AUD, aud -> aud != null && aud.contains(audience));
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefaultWithIssuer(issuer), audienceValidator));
+        return decoder;
+    }
+}
@@ -1,6 +1,6 @@
 package com.api.security;
 
-import com.token.validation.jwt.JwtClaims;
+import com.token.validation.jwt.ClaimsView;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
@@ -9,7 +9,7 @@ import java.util.stream.Collectors;
 
 public class PermissionsConverter {
 
-    public static Collection<GrantedAuthority> convert(JwtClaims claims) {
+    public static Collection<GrantedAuthority> convert(ClaimsView claims) {
         return claims.getPermissions().stream()
                 .map(permissionName -> "PERMISSION_" + permissionName )
                 .map(SimpleGrantedAuthority::new)
@@ -1,20 +1,18 @@
 package com.api.security;
 
-import com.token.validation.jwt.JwtClaims;
+import com.token.validation.jwt.ClaimsView;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.stream.Collectors;
 
 public class RolesConverter {
 
-    public static Collection<GrantedAuthority> convert(JwtClaims claims) {
-        String[] roles = claims.getRoles() != null ? claims.getRoles().split("\\,") : new String[]{};
-        return Arrays.stream(roles)
+    public static Collection<GrantedAuthority> convert(ClaimsView claims) {
+        return claims.getRoleNames().stream()
                 .map(roleName -> "ROLE_" + roleName)
                 .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,6 @@
 package com.api.security;
 
-import com.token.validation.auth.AuthUtils;
-import com.token.validation.jwt.JwtClaims;
+import com.token.validation.jwt.ClaimsView;
 import com.util.collection.CollectionUtils;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 
@@ -10,9 +9,9 @@ public class TokenAuthentication extends AbstractAuthenticationToken {
     private static final long serialVersionUID = 1L;
     private final String principal;
 
-    public TokenAuthentication(JwtClaims claims) {
+    public TokenAuthentication(ClaimsView claims) {
         super(CollectionUtils.concat(PermissionsConverter.convert(claims), RolesConverter.convert(claims)));
-        this.principal = AuthUtils.getClaim(claims, "email");
+        this.principal = claims.getString("email");
     }
 
     @Override
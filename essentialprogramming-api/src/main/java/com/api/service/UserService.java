@@ -10,6 +10,7 @@ import com.aventrix.jnanoid.jnanoid.NanoIdUtils;
 import com.crypto.Crypt;
 import com.crypto.PasswordHash;
 import com.api.template.Templates;
+import com.email.outbox.EmailPriority;
 import com.email.service.EmailManager;
 import com.google.inject.internal.util.ImmutableMap;
 import com.internationalization.EmailMessages;
@@ -64,7 +65,7 @@ public class UserService {
                 .put("confirmationLink", url)
                 .build();
 
-        emailManager.send(result.getEmail(), EmailMessages.get("new_user.subject", locale), Templates.NEW_USER, templateVariables, locale);
+        emailManager.queue(result.getEmail(), EmailMessages.get("new_user.subject", locale), Templates.NEW_USER, templateVariables, locale, EmailPriority.NORMAL);
 
         return UserMapper.userToJson(result);
 
@@ -0,0 +1,37 @@
+package com.config;
+
+import com.exception.ExceptionHandler;
+import com.util.cloud.Environment;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Asynchronous request processing, for controllers returning a {@link java.util.concurrent.CompletableFuture}
+ * or a {@link DeferredResult}: the container thread is released while the result is computed.
+ * <p>
+ * A request not completed within {@code ASYNC_REQUEST_TIMEOUT} milliseconds (30000) is answered with a
+ * 503 built by {@link ExceptionHandler}, like the other failures of asynchronous handlers.
+ * </p>
+ */
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+
+    private static final int ASYNC_REQUEST_TIMEOUT = Environment.getProperty("ASYNC_REQUEST_TIMEOUT", 30000);
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(ASYNC_REQUEST_TIMEOUT);
+        configurer.registerDeferredResultInterceptors(new DeferredResultProcessingInterceptor() {
+            @Override
+            public <T> boolean handleTimeout(NativeWebRequest request, DeferredResult<T> deferredResult) {
+                deferredResult.setErrorResult(ExceptionHandler.handleException(new AsyncRequestTimeoutException()));
+                return true;
+            }
+        });
+    }
+}
@@ -0,0 +1,27 @@
+package com.config;
+
+import com.util.async.ExecutorsProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runs the requests of the embedded Tomcat on virtual threads when {@link ExecutorsProvider#isVirtualThreadsEnabled()},
+ * instead of its pool of 200 platform threads: a request blocked on the database or a mail server then holds no
+ * platform thread, and the number of requests in flight is bounded by the connections Tomcat accepts.
+ */
+@Configuration
+@Slf4j
+public class TomcatConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsCustomizer() {
+        return protocolHandler -> {
+            if (ExecutorsProvider.isVirtualThreadsEnabled()) {
+                protocolHandler.setExecutor(ExecutorsProvider.newVirtualThreadExecutor("tomcat-handler"));
+                log.info("Tomcat requests run on virtual threads");
+            }
+        };
+    }
+}
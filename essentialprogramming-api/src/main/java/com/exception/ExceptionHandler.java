@@ -8,10 +8,12 @@ import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @Slf4j
 public class ExceptionHandler {
@@ -46,6 +48,28 @@ public class ExceptionHandler {
                 .body(jsonResponse);
     };
 
+    private final static Strategy<AsyncRequestTimeoutException> asyncRequestTimeoutStrategy = (exception) -> {
+        final JsonResponse jsonResponse = new JsonResponse()
+                .with("message", "Request timed out")
+                .with("status", HttpStatus.SERVICE_UNAVAILABLE.value() + " (" + HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase() + ")")
+                .done();
+        log.warn("Client request timed out before its asynchronous processing completed");
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(jsonResponse);
+    };
+
+    private final static Strategy<RejectedExecutionException> rejectedExecutionStrategy = (exception) -> {
+        final JsonResponse jsonResponse = new JsonResponse()
+                .with("message", "Server busy, retry later")
+                .with("status", HttpStatus.SERVICE_UNAVAILABLE.value() + " (" + HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase() + ")")
+                .done();
+        log.warn("Client request can not be processed, executor saturated: {}", exception.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(jsonResponse);
+    };
+
     private final static Strategy<Throwable> defaultStrategy = (exception) -> {
         final JsonResponse jsonResponse = new JsonResponse()
                 .with("message", "INTERNAL SERVER ERROR")
@@ -64,13 +88,26 @@ public class ExceptionHandler {
     static {
         strategiesMap.put(ApiException.class, apiExceptionStrategy);
         strategiesMap.put(HttpClientErrorException.class, httpClientErrorException);
+        strategiesMap.put(AsyncRequestTimeoutException.class, asyncRequestTimeoutStrategy);
+        strategiesMap.put(RejectedExecutionException.class, rejectedExecutionStrategy);
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public static <T> ResponseEntity<T> handleException(CompletionException completionException) {
+        return handleException((Throwable) completionException);
+    }
+
+    /**
+     * Map a failure of an asynchronous handler to a response, unwrapping the CompletionException
+     * a CompletableFuture reports it in.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> ResponseEntity<T> handleException(Throwable exception) {
+        final Throwable cause = exception instanceof CompletionException && exception.getCause() != null
+                ? exception.getCause()
+                : exception;
 
-        Strategy strategy = strategiesMap.getOrDefault(completionException.getCause().getClass(), defaultStrategy);
-        return strategy.getResponse(completionException.getCause());
+        Strategy strategy = strategiesMap.getOrDefault(cause.getClass(), defaultStrategy);
+        return strategy.getResponse(cause);
     }
 
 }
@@ -0,0 +1,51 @@
+package com.api.async;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+class RequestContextExecutorTest {
+
+    private final ExecutorService pool = Executors.newSingleThreadExecutor();
+    private final RequestContextExecutor executor = new RequestContextExecutor(pool);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        LocaleContextHolder.resetLocaleContext();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void tasks_see_the_submitter_context() {
+        final Authentication user = new TestingAuthenticationToken("john.doe@essentialprogramming.com", null, "ROLE_visitor");
+        SecurityContextHolder.getContext().setAuthentication(user);
+        LocaleContextHolder.setLocale(Locale.GERMAN);
+
+        final CompletableFuture<Authentication> authentication =
+                CompletableFuture.supplyAsync(() -> SecurityContextHolder.getContext().getAuthentication(), executor);
+        final CompletableFuture<Locale> locale = CompletableFuture.supplyAsync(LocaleContextHolder::getLocale, executor);
+
+        Assertions.assertSame(user, authentication.join());
+        Assertions.assertEquals(Locale.GERMAN, locale.join());
+    }
+
+    @Test
+    void pool_threads_do_not_keep_the_context() {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("john.doe", null));
+        CompletableFuture.runAsync(() -> { }, executor).join();
+
+        final CompletableFuture<Authentication> leaked =
+                CompletableFuture.supplyAsync(() -> SecurityContextHolder.getContext().getAuthentication(), pool);
+        Assertions.assertNull(leaked.join());
+    }
+}
@@ -0,0 +1,106 @@
+package com.api.security;
+
+import com.authentication.channel.AccessChannel;
+import com.authentication.refresh.InMemoryRefreshTokenStore;
+import com.authentication.security.JwkUtils;
+import com.authentication.security.JwksService;
+import com.authentication.security.KeyStoreService;
+import com.authentication.service.SignedTokens;
+import com.authentication.service.TokenMinter;
+import com.authentication.service.TokenService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+class KeySetJwtDecoderTest {
+
+    private static final String REFRESH_TOKEN_AUDIENCE = "EssentialProgramming Token Refresh";
+
+    private final KeyStoreService keyStoreService = Mockito.mock(KeyStoreService.class);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void tokens_signed_with_a_replaced_key_stay_valid() throws Exception {
+        final KeyPair first = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        final KeyPair second = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        Mockito.when(keyStoreService.getPublicKey()).thenReturn(first.getPublic());
+        final JwksService jwksService = new JwksService(keyStoreService, Collections.emptyList(),
+                TimeUnit.DAYS.toMillis(30), System::currentTimeMillis);
+        final KeySetJwtDecoder decoder = decoder(jwksService);
+        final String token = mint(first, TokenService.ACCESS_TOKEN_AUDIENCE);
+        Assertions.assertEquals(TokenService.ACCESS_TOKEN_ISSUER, decoder.decode(token).getClaimAsString("iss"));
+
+        final ArgumentCaptor<Consumer<PublicKey>> listener = ArgumentCaptor.forClass(Consumer.class);
+        Mockito.verify(keyStoreService).onPublicKeyChange(listener.capture());
+        Mockito.when(keyStoreService.getPublicKey()).thenReturn(second.getPublic());
+        listener.getValue().accept(second.getPublic());
+
+        Assertions.assertEquals(TokenService.ACCESS_TOKEN_ISSUER, decoder.decode(token).getClaimAsString("iss"));
+        Assertions.assertEquals(TokenService.ACCESS_TOKEN_ISSUER,
+                decoder.decode(mint(second, TokenService.ACCESS_TOKEN_AUDIENCE)).getClaimAsString("iss"));
+    }
+
+    @Test
+    void tokens_with_an_unknown_key_id_are_rejected() throws Exception {
+        final KeyPair published = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        final KeyPair unknown = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        Mockito.when(keyStoreService.getPublicKey()).thenReturn(published.getPublic());
+        final KeySetJwtDecoder decoder = decoder(new JwksService(keyStoreService));
+
+        Assertions.assertThrows(BadJwtException.class, () -> decoder.decode(mint(unknown, TokenService.ACCESS_TOKEN_AUDIENCE)));
+    }
+
+    @Test
+    void refresh_tokens_are_rejected_with_eddsa_keys() throws Exception {
+        final KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        Mockito.when(keyStoreService.getPublicKey()).thenReturn(keyPair.getPublic());
+        Mockito.when(keyStoreService.getPrivateKey()).thenReturn(keyPair.getPrivate());
+        final KeySetJwtDecoder decoder = decoder(new JwksService(keyStoreService));
+        final SignedTokens tokens = new TokenService(keyStoreService, new InMemoryRefreshTokenStore(100, 1, TimeUnit.DAYS))
+                .generateTokens(60, null, null, "john.doe@essentialprogramming.com", AccessChannel.PASSWORD);
+
+        Assertions.assertEquals(TokenService.ACCESS_TOKEN_ISSUER,
+                decoder.decode(tokens.getAccessToken()).getClaimAsString("iss"));
+        Assertions.assertThrows(BadJwtException.class, () -> decoder.decode(tokens.getRefreshToken()));
+        Assertions.assertThrows(BadJwtException.class, () -> decoder.decode(mint(keyPair, REFRESH_TOKEN_AUDIENCE)));
+    }
+
+    @Test
+    void refresh_tokens_are_rejected_with_rsa_keys() throws Exception {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        final KeyPair keyPair = generator.generateKeyPair();
+        Mockito.when(keyStoreService.getPublicKey()).thenReturn(keyPair.getPublic());
+        final KeySetJwtDecoder decoder = decoder(new JwksService(keyStoreService));
+
+        Assertions.assertEquals(TokenService.ACCESS_TOKEN_ISSUER,
+                decoder.decode(mint(keyPair, TokenService.ACCESS_TOKEN_AUDIENCE)).getClaimAsString("iss"));
+        Assertions.assertThrows(JwtValidationException.class, () -> decoder.decode(mint(keyPair, REFRESH_TOKEN_AUDIENCE)));
+    }
+
+    private static KeySetJwtDecoder decoder(JwksService jwksService) {
+        return new KeySetJwtDecoder(jwksService, TokenService.ACCESS_TOKEN_ISSUER, TokenService.ACCESS_TOKEN_AUDIENCE);
+    }
+
+    private static String mint(KeyPair keyPair, String audience) throws Exception {
+        final Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("iss", TokenService.ACCESS_TOKEN_ISSUER);
+        claims.put("aud", audience);
+        return new TokenMinter(keyPair.getPrivate(), JwkUtils.keyId(keyPair.getPublic()))
+                .mint(TokenMinter.ClaimsTemplate.of(claims),
+                        Collections.singletonMap("exp", Instant.now().getEpochSecond() + 300));
+    }
+}
@@ -1,5 +1,8 @@
 package com.authentication.security;
 
+import com.authentication.service.TokenMinter;
+import com.token.validation.jwt.JwtVerifier;
+import com.token.validation.signature.SignatureAlgorithm;
 import com.util.exceptions.ServiceException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -8,7 +11,9 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.security.*;
+import java.time.Instant;
 import java.util.Base64;
+import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -57,6 +62,44 @@ class PemUtilsTest {
         Assertions.assertTrue(exception.getMessage().contains("Error trying to load private key from PEM format"));
     }
 
+    @Test
+    void ed25519_keys_are_loaded_from_PEM_and_sign_verifiable_tokens() throws Exception {
+        final KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        final PublicKey publicKey = PemUtils.readPublicKeyFromPEMFile(writePem("PUBLIC KEY", keyPair.getPublic()));
+        final PrivateKey privateKey = PemUtils.readPrivateKeyFromPEMFile(writePem("PRIVATE KEY", keyPair.getPrivate()));
+
+        Assertions.assertTrue(PemUtils.isEd25519Key(publicKey));
+        Assertions.assertTrue(PemUtils.isEd25519Key(privateKey));
+        Assertions.assertArrayEquals(keyPair.getPublic().getEncoded(), publicKey.getEncoded());
+
+        final String token = new TokenMinter(privateKey).mint(TokenMinter.ClaimsTemplate.of(Collections.singletonMap("iss", "issuer")),
+                Collections.singletonMap("exp", Instant.now().getEpochSecond() + 300));
+
+        final JwtVerifier verifier = JwtVerifier.builder().key(SignatureAlgorithm.EdDSA, publicKey).build();
+        Assertions.assertTrue(verifier.verify(token).isValid());
+    }
+
+    @Test
+    void rsa_keys_are_not_taken_for_ed25519_keys() throws NoSuchAlgorithmException {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        KeyPair keyPair = keyGen.generateKeyPair();
+
+        Assertions.assertFalse(PemUtils.isEd25519Key(keyPair.getPublic()));
+        Assertions.assertFalse(PemUtils.isEd25519Key(keyPair.getPrivate()));
+    }
+
+    private static String writePem(String type, Key key) throws IOException {
+        File pemFile = File.createTempFile("key", "pem", null);
+        try (FileOutputStream fileOutputStream = new FileOutputStream(pemFile)) {
+            String pem = "-----BEGIN " + type + "-----\n"
+                    + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(key.getEncoded())
+                    + "\n-----END " + type + "-----";
+            fileOutputStream.write(pem.getBytes());
+        }
+        return pemFile.getPath();
+    }
+
     private String createPublicKeyPem() throws NoSuchAlgorithmException {
 
         KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
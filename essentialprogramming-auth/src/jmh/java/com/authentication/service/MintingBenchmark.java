@@ -0,0 +1,149 @@
+package com.authentication.service;
+
+import com.aventrix.jnanoid.jnanoid.NanoIdUtils;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a login's token minting: one access and one refresh token, RS256 with RSA-2048.
+ * <ul>
+ *     <li>{@code nimbus}: the previous path, claims set, JSON object and signer built per token</li>
+ *     <li>{@code minter}: {@link TokenMinter}, both tokens signed on the benchmark thread</li>
+ *     <li>{@code minterConcurrent}: the refresh token signed on another thread, as {@link TokenService#generateTokens} does</li>
+ * </ul>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="MintingBenchmark"}; with the
+ * default single benchmark thread the scores of the first two are logins per second per core.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MintingBenchmark {
+
+    private static final JWSHeader HEADER = new JWSHeader.Builder(JWSAlgorithm.RS256).type(JOSEObjectType.JWT).build();
+
+    private PrivateKey privateKey;
+    private TokenMinter minter;
+    private ExecutorService executor;
+    private final TokenMinter.ClaimsTemplate accessTemplate = TokenMinter.ClaimsTemplate.of(
+            mapOf("iss", "Essential Programming Auth Service", "aud", "Essential Programming Services"));
+    private final TokenMinter.ClaimsTemplate refreshTemplate = TokenMinter.ClaimsTemplate.of(
+            mapOf("iss", "EssentialProgramming Auth Service"));
+    private final Map<String, String> privateClaims = new HashMap<>();
+    private final Map<String, String[]> arrayClaims = Collections.singletonMap("permissions", new String[]{"read:user"});
+
+    @Setup
+    public void setUp() throws Exception {
+        final KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        final KeyPair keyPair = keyGen.generateKeyPair();
+        privateKey = keyPair.getPrivate();
+        minter = new TokenMinter(privateKey);
+        executor = Executors.newSingleThreadExecutor();
+
+        privateClaims.put("email", "john.doe@essentialprogramming.com");
+        privateClaims.put("roles", "visitor");
+        privateClaims.put("active", "true");
+        privateClaims.put("identityProvider", "MICRO_SERVICE_REFERENCE_PROJECT");
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public void nimbus(Blackhole blackhole) throws Exception {
+        final Instant now = Instant.now();
+        final JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder()
+                .issuer("Essential Programming Auth Service")
+                .audience("Essential Programming Services")
+                .expirationTime(Date.from(now.plus(30, ChronoUnit.DAYS)))
+                .notBeforeTime(Date.from(now))
+                .issueTime(Date.from(now))
+                .jwtID(NanoIdUtils.randomNanoId());
+        privateClaims.forEach(builder::claim);
+        arrayClaims.forEach(builder::claim);
+        final JWSObject access = new JWSObject(HEADER, new Payload(builder.build().toJSONObject()));
+        access.sign(new RSASSASigner(privateKey));
+        blackhole.consume(access.serialize());
+
+        final SignedJWT refresh = new SignedJWT(HEADER, new JWTClaimsSet.Builder()
+                .issuer("EssentialProgramming Auth Service")
+                .claim("email", "john.doe@essentialprogramming.com")
+                .expirationTime(Date.from(now.plus(1, ChronoUnit.DAYS)))
+                .build());
+        refresh.sign(new RSASSASigner(privateKey));
+        blackhole.consume(refresh.serialize());
+    }
+
+    @Benchmark
+    public void minter(Blackhole blackhole) throws Exception {
+        blackhole.consume(minter.mint(accessTemplate, accessClaims()));
+        blackhole.consume(minter.mint(refreshTemplate, refreshClaims()));
+    }
+
+    @Benchmark
+    public void minterConcurrent(Blackhole blackhole) throws Exception {
+        final CompletableFuture<String> refresh = CompletableFuture.supplyAsync(() -> {
+            try {
+                return minter.mint(refreshTemplate, refreshClaims());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }, executor);
+        blackhole.consume(minter.mint(accessTemplate, accessClaims()));
+        blackhole.consume(refresh.join());
+    }
+
+    private Map<String, Object> accessClaims() {
+        final long now = Instant.now().getEpochSecond();
+        final Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("exp", now + TimeUnit.DAYS.toSeconds(30));
+        claims.put("nbf", now);
+        claims.put("iat", now);
+        claims.put("jti", NanoIdUtils.randomNanoId());
+        claims.putAll(privateClaims);
+        claims.putAll(arrayClaims);
+        return claims;
+    }
+
+    private static Map<String, Object> refreshClaims() {
+        final Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("email", "john.doe@essentialprogramming.com");
+        claims.put("exp", Instant.now().plus(1, ChronoUnit.DAYS).getEpochSecond());
+        return claims;
+    }
+
+    private static Map<String, Object> mapOf(String... keyValues) {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put(keyValues[i], keyValues[i + 1]);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,77 @@
+package com.crypto;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The password encoders' primitives, each previous way against the current one:
+ * <ul>
+ *     <li>{@code pbkdf2Sha256Jdk} / {@code pbkdf2Sha256}: the JDK's PBKDF2WithHmacSHA256, looked up per hash, against
+ *     {@link Pbkdf2HmacSha256} with the precomputed pad states, {@code iterations} iterations</li>
+ *     <li>{@code hmacPerCall} / {@code hmac}: Mac and key built per hash against {@link HashHmacPasswordEncoder}'s per-thread Mac</li>
+ *     <li>{@code saltPerCall} / {@code salt}: a new SecureRandom per salt against {@link SaltGenerator}'s shared one</li>
+ * </ul>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="PasswordEncoderBenchmark"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PasswordEncoderBenchmark {
+
+    private static final char[] PASSWORD = "correct horse battery staple".toCharArray();
+    private static final byte[] PASSWORD_BYTES = new String(PASSWORD).getBytes(StandardCharsets.UTF_8);
+
+    @Param({"10000"})
+    public int iterations;
+
+    private final byte[] salt = SaltGenerator.init(16).generateSalt();
+    private final byte[] hmacSalt = SaltGenerator.init(32).generateSalt();
+
+    @Benchmark
+    public byte[] pbkdf2Sha256Jdk() throws Exception {
+        PBEKeySpec keySpec = new PBEKeySpec(PASSWORD, salt, iterations, 256);
+        return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(keySpec).getEncoded();
+    }
+
+    @Benchmark
+    public byte[] pbkdf2Sha256() {
+        return Pbkdf2HmacSha256.derive(PASSWORD_BYTES, salt, iterations, 32);
+    }
+
+    @Benchmark
+    public byte[] hmacPerCall() throws Exception {
+        SecretKeySpec key = new SecretKeySpec("secret".getBytes(), "HMACSHA256");
+        Mac mac = Mac.getInstance(key.getAlgorithm());
+        mac.init(key);
+        byte[] saltPassword = new byte[hmacSalt.length + PASSWORD_BYTES.length];
+        System.arraycopy(hmacSalt, 0, saltPassword, 0, hmacSalt.length);
+        System.arraycopy(PASSWORD_BYTES, 0, saltPassword, hmacSalt.length, PASSWORD_BYTES.length);
+        return mac.doFinal(saltPassword);
+    }
+
+    @Benchmark
+    public boolean hmac() throws Exception {
+        return HashHmacPasswordEncoder.getInstance().matches(PASSWORD, hmacSalt, hmacSalt);
+    }
+
+    @Benchmark
+    public byte[] saltPerCall() {
+        byte[] bytes = new byte[16];
+        new SecureRandom().nextBytes(bytes);
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] salt() {
+        return SaltGenerator.init(16).generateSalt();
+    }
+}
@@ -0,0 +1,27 @@
+package com.authentication.config;
+
+import com.crypto.PasswordHashPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Loads the {@link PasswordHashPolicy} while the application starts, before the server accepts requests.
+ * With {@code PASSWORD_HASH_TARGET_MS} set this runs the calibration, several full-cost hashes, which would
+ * otherwise hold up the first login and every login arriving while the policy is initialized.
+ */
+@Component
+public class PasswordHashPolicyInitializer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PasswordHashPolicyInitializer.class);
+
+    @PostConstruct
+    public void initialize() {
+        final long start = System.nanoTime();
+        final PasswordHashPolicy policy = PasswordHashPolicy.getInstance();
+        LOG.info("Password hashing policy loaded in {} ms:{}{}", (System.nanoTime() - start) / 1_000_000,
+                System.lineSeparator(), policy);
+    }
+}
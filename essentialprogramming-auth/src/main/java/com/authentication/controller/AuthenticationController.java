@@ -3,9 +3,12 @@ package com.authentication.controller;
 import com.authentication.channel.AccessChannel;
 import com.authentication.identityprovider.internal.model.PasswordInput;
 import com.authentication.request.AuthRequest;
+import com.authentication.request.RefreshTokenRequest;
 import com.authentication.response.AccessToken;
 import com.authentication.service.AuthenticationService;
+import com.authentication.throttle.LoginThrottle;
 import com.token.validation.auth.AuthUtils;
+import com.util.enums.HTTPCustomStatus;
 import com.util.exceptions.ApiException;
 import com.util.web.JsonResponse;
 import com.util.web.SessionUtils;
@@ -37,6 +40,8 @@ public class AuthenticationController {
 
     private final SmartLocaleResolver smartLocaleResolver;
 
+    private final LoginThrottle loginThrottle;
+
 
     @PostMapping(value = "/token", consumes = "application/json", produces = "application/json")
     @Operation(summary = "Authenticate user, return JWT token.",
@@ -47,12 +52,33 @@ public class AuthenticationController {
                     @ApiResponse(responseCode = "401", description = "Unauthorized",
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = JsonResponse.class))),
+                    @ApiResponse(responseCode = "429", description = "Too many failed login attempts",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = JsonResponse.class))),
             })
     public ResponseEntity<AccessToken> authenticate(@RequestBody AuthRequest tokenRequest, HttpServletRequest request) {
 
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(authenticationService.authenticate(tokenRequest, AccessChannel.PASSWORD, smartLocaleResolver.resolveLocale(request)));
+                .body(throttledAuthenticate(tokenRequest, AccessChannel.PASSWORD, request));
+    }
+
+
+    @PostMapping(value = "/token/refresh", consumes = "application/json", produces = "application/json")
+    @Operation(summary = "Exchange a refresh token for a new JWT token and refresh token.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Returns JWT token and the next refresh token, the redeemed one can't be used again",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = AccessToken.class))),
+                    @ApiResponse(responseCode = "401", description = "Refresh token invalid, expired or already used",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = JsonResponse.class))),
+            })
+    public ResponseEntity<AccessToken> refresh(@RequestBody RefreshTokenRequest tokenRequest, HttpServletRequest request) {
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(authenticationService.refresh(tokenRequest, smartLocaleResolver.resolveLocale(request)));
     }
 
 
@@ -63,7 +89,7 @@ public class AuthenticationController {
                                      HttpServletRequest httpRequest) {
 
         try {
-            AccessToken accessToken = authenticationService.authenticate(tokenRequest, AccessChannel.PASSWORD, smartLocaleResolver.resolveLocale(httpRequest));
+            AccessToken accessToken = throttledAuthenticate(tokenRequest, AccessChannel.PASSWORD, httpRequest);
 
             if (accessToken != null) {
 
@@ -91,7 +117,7 @@ public class AuthenticationController {
                     .with("status", "Error")
                     .with("error", exception.getMessage()).done();
 
-            return ResponseEntity.status(422)
+            return ResponseEntity.status(exception.getHttpCode() == HTTPCustomStatus.TOO_MANY_REQUESTS ? 429 : 422)
                     .body(response);
         }
 
@@ -136,11 +162,14 @@ public class AuthenticationController {
                     @ApiResponse(responseCode = "401", description = "Unauthorized",
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = JsonResponse.class))),
+                    @ApiResponse(responseCode = "429", description = "Too many failed login attempts",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = JsonResponse.class))),
             })
     public ResponseEntity<AccessToken> otpLogin(@RequestBody AuthRequest tokenRequest, HttpServletRequest request) {
 
         return ResponseEntity.ok()
-                .body(authenticationService.authenticate(tokenRequest, AccessChannel.OTP, smartLocaleResolver.resolveLocale(request)));
+                .body(throttledAuthenticate(tokenRequest, AccessChannel.OTP, request));
     }
 
 
@@ -159,4 +188,27 @@ public class AuthenticationController {
         return ResponseEntity.ok()
                 .body(authenticationService.generateOtp(email, smartLocaleResolver.resolveLocale(request)));
     }
+
+
+    /**
+     * Authenticate unless the email or client address failed too often, checked before the service opens
+     * its transaction. Only wrong credentials count as failures.
+     */
+    private AccessToken throttledAuthenticate(AuthRequest tokenRequest, AccessChannel accessChannel, HttpServletRequest request) {
+        // The client behind the trusted proxies, Tomcat's RemoteIpValve resolves it from X-Forwarded-For
+        // (server.forward-headers-strategy=native), so clients can't pick their own throttling key
+        final String clientAddress = request.getRemoteAddr();
+        loginThrottle.check(tokenRequest.getEmail(), clientAddress);
+
+        try {
+            AccessToken accessToken = authenticationService.authenticate(tokenRequest, accessChannel, smartLocaleResolver.resolveLocale(request));
+            loginThrottle.succeeded(tokenRequest.getEmail());
+            return accessToken;
+        } catch (ApiException exception) {
+            if (exception.getHttpCode() == HTTPCustomStatus.UNAUTHORIZED) {
+                loginThrottle.failed(tokenRequest.getEmail(), clientAddress);
+            }
+            throw exception;
+        }
+    }
 }
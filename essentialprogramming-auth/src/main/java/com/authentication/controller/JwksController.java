@@ -0,0 +1,75 @@
+package com.authentication.controller;
+
+import com.authentication.security.JwksService;
+import com.util.cloud.Environment;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@Tag(description = "Authorization API", name = "Authorization")
+public class JwksController {
+
+    private static final String JWK_SET_MEDIA_TYPE = "application/jwk-set+json";
+
+    private static final CacheControl CACHE_CONTROL =
+            CacheControl.maxAge(Environment.getProperty("JWKS_MAX_AGE", 300), TimeUnit.SECONDS).cachePublic();
+
+
+    private final JwksService jwksService;
+
+
+    @GetMapping(value = "/.well-known/jwks.json")
+    @Operation(summary = "Public keys the JWT tokens are verified with, as a JSON Web Key Set.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Returns the key set, the kid header of a token names its key"),
+                    @ApiResponse(responseCode = "304", description = "The key set matching If-None-Match has not changed"),
+            })
+    public ResponseEntity<byte[]> keySet(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        final JwksService.KeySet keySet = jwksService.getKeySet();
+        if (matches(ifNoneMatch, keySet.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CACHE_CONTROL)
+                    .eTag(keySet.getEtag())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CACHE_CONTROL)
+                .eTag(keySet.getEtag())
+                .header(HttpHeaders.CONTENT_TYPE, JWK_SET_MEDIA_TYPE)
+                .body(keySet.getJson());
+    }
+
+
+    /**
+     * Weak comparison, as required for If-None-Match.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,7 +1,7 @@
 package com.authentication.identityprovider;
 
 
-import com.authentication.identityprovider.internal.entities.Account;
+import com.authentication.identityprovider.internal.model.AccountSummary;
 import com.authentication.identityprovider.internal.model.PasswordInput;
 import com.authentication.identityprovider.internal.model.ResetPasswordInput;
 import com.authentication.request.AuthRequest;
@@ -15,7 +15,8 @@ import java.util.Locale;
 
 public interface AuthenticationProvider {
 
-    Account authenticate(AuthRequest authRequest, Locale locale) throws ApiException;
+    AccountSummary authenticate(AuthRequest authRequest, Locale locale) throws ApiException;
+    AccountSummary authenticateWithOtp(AuthRequest authRequest, Locale locale) throws ApiException;
     Serializable generateOtp(String email, Locale locale) throws ApiException;
 
     Serializable resetPassword(ResetPasswordInput resetPasswordInput, Locale locale) throws ApiException, GeneralSecurityException;
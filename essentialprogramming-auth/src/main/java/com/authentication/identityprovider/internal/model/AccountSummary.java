@@ -0,0 +1,62 @@
+package com.authentication.identityprovider.internal.model;
+
+import java.util.Optional;
+
+/**
+ * Immutable projection of an account with what authentication needs, safe to share between requests.
+ */
+public final class AccountSummary {
+
+    private final int id;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final String password;
+    private final boolean active;
+    private final boolean deleted;
+
+    public AccountSummary(int id, String email, String firstName, String lastName, String password, boolean active, boolean deleted) {
+        this.id = id;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.password = password;
+        this.active = active;
+        this.deleted = deleted;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    /**
+     * The password hash
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public String getFullName() {
+        return Optional.ofNullable(firstName).orElse("") + " " + Optional.ofNullable(lastName).orElse("");
+    }
+}
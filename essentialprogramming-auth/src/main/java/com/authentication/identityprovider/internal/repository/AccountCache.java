@@ -0,0 +1,84 @@
+package com.authentication.identityprovider.internal.repository;
+
+import com.authentication.identityprovider.internal.model.AccountSummary;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.util.cloud.Environment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache of {@link AccountSummary} by email, for the authentication path.
+ * <p>
+ * Entries live {@code ACCOUNT_CACHE_TTL} seconds (60) and at most {@code ACCOUNT_CACHE_SIZE} (10000) are kept.
+ * Keys are normalized emails, but an entry is only returned for the exact email it was loaded with, as the
+ * repository lookup is case sensitive. Unknown emails aren't cached, so a new account is found right away.
+ * Every write to an account must call {@link #invalidate(String)}.
+ * </p>
+ */
+@Component
+public class AccountCache {
+
+    private final AccountRepository accountRepository;
+    private final Cache<String, AccountSummary> accounts;
+
+    @Autowired
+    public AccountCache(AccountRepository accountRepository) {
+        this(accountRepository, Environment.getProperty("ACCOUNT_CACHE_SIZE", 10000),
+                Environment.getProperty("ACCOUNT_CACHE_TTL", 60), TimeUnit.SECONDS);
+    }
+
+    public AccountCache(AccountRepository accountRepository, int maximumSize, long ttl, TimeUnit unit) {
+        this.accountRepository = accountRepository;
+        this.accounts = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl, unit)
+                .build();
+    }
+
+    public Optional<AccountSummary> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        final String key = normalize(email);
+        final AccountSummary cached = accounts.getIfPresent(key);
+        if (cached != null && cached.getEmail().equals(email)) {
+            return Optional.of(cached);
+        }
+
+        final Optional<AccountSummary> account = accountRepository.findSummaryByEmail(email);
+        account.ifPresent(summary -> accounts.put(key, summary));
+        return account;
+    }
+
+    /**
+     * Drop the account now and, inside a transaction, again after the commit, so a concurrent login can't
+     * cache the row as it was before the write.
+     */
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        final String key = normalize(email);
+        accounts.invalidate(key);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    accounts.invalidate(key);
+                }
+            });
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,7 +1,9 @@
 package com.authentication.identityprovider.internal.repository;
 
 import com.authentication.identityprovider.internal.entities.Account;
+import com.authentication.identityprovider.internal.model.AccountSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,4 +16,12 @@ public interface AccountRepository extends JpaRepository<Account,Integer> {
     Optional<Account> findByEmail(String email);
 
     Optional<Account> findByUserKey(String userKey);
+
+    @Query("select new com.authentication.identityprovider.internal.model.AccountSummary(a.id, a.email, a.firstName, a.lastName, a.password, a.active, a.deleted) " +
+            "from account a where a.email = :email")
+    Optional<AccountSummary> findSummaryByEmail(@Param("email") String email);
+
+    @Modifying
+    @Query("update account a set a.password = :password where a.id = :id")
+    int updatePassword(@Param("id") int id, @Param("password") String password);
 }
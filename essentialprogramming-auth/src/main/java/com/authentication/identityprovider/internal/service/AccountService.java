@@ -2,13 +2,16 @@ package com.authentication.identityprovider.internal.service;
 
 import com.authentication.identityprovider.internal.entities.*;
 import com.authentication.identityprovider.AuthenticationProvider;
+import com.authentication.identityprovider.internal.model.AccountSummary;
 import com.authentication.identityprovider.internal.model.PasswordInput;
 import com.authentication.identityprovider.internal.model.ResetPasswordInput;
 import com.authentication.identityprovider.internal.repository.*;
+import com.authentication.otp.OtpStore;
 import com.authentication.request.AuthRequest;
 import com.authentication.template.TemplateEnum;
 import com.aventrix.jnanoid.jnanoid.NanoIdUtils;
 import com.crypto.PasswordHash;
+import com.email.outbox.EmailPriority;
 import com.email.service.EmailManager;
 import com.google.inject.internal.util.ImmutableMap;
 import com.util.password.PasswordException;
@@ -18,14 +21,15 @@ import com.util.enums.HTTPCustomStatus;
 import com.util.enums.Language;
 import com.util.exceptions.ApiException;
 import com.util.password.PasswordStrength;
+import com.util.cloud.Environment;
 import com.util.password.PasswordUtil;
-import com.util.random.XORShiftRandom;
 import com.util.web.JsonResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import static com.resources.AppResources.OTP_LOGIN_URL;
 
@@ -33,12 +37,19 @@ import static com.resources.AppResources.OTP_LOGIN_URL;
 @Service
 public class AccountService implements AuthenticationProvider {
 
+    private static final int OTP_TTL = Environment.getProperty("OTP_TTL", 900);
+
     private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final OtpStore otpStore;
     private final EmailManager emailManager;
 
     @Autowired
-    public AccountService(AccountRepository accountRepository, EmailManager emailManager) {
+    public AccountService(AccountRepository accountRepository, AccountCache accountCache, OtpStore otpStore,
+                          EmailManager emailManager) {
         this.accountRepository = accountRepository;
+        this.accountCache = accountCache;
+        this.otpStore = otpStore;
         this.emailManager = emailManager;
     }
 
@@ -49,8 +60,8 @@ public class AccountService implements AuthenticationProvider {
      * @return Account for the username after authentication.
      */
     @Override
-    public Account authenticate(AuthRequest authRequest, Locale locale) throws ApiException {
-        Optional<Account> account = getAccount(authRequest.getEmail());
+    public AccountSummary authenticate(AuthRequest authRequest, Locale locale) throws ApiException {
+        Optional<AccountSummary> account = accountCache.findByEmail(authRequest.getEmail());
 
         if (!account.isPresent()) {
             throw new ApiException(Messages.get("USER.NOT.EXIST", Locale.ENGLISH), HTTPCustomStatus.UNAUTHORIZED);
@@ -62,13 +73,35 @@ public class AccountService implements AuthenticationProvider {
         boolean isValidPassword = PasswordHash.matches(authRequest.getPassword(), account.get().getPassword());
 
         if (isValidPassword) {
+            // Replace hashes in a legacy format or with outdated costs while the raw password is at hand
+            if (PasswordHash.needsRehash(account.get().getPassword())) {
+                accountRepository.updatePassword(account.get().getId(), PasswordHash.encode(authRequest.getPassword()));
+                accountCache.invalidate(account.get().getEmail());
+            }
             return account.get();
         }
         throw new ApiException(Messages.get("USER.PASSWORD.INVALID", locale), HTTPCustomStatus.UNAUTHORIZED);
     }
 
-    private Optional<Account> getAccount(String email) {
-        return accountRepository.findByEmail(email);
+    /**
+     * Authenticate with the one-time password sent by {@link #generateOtp(String, Locale)}.
+     * The code is consumed, so it authenticates only once.
+     *
+     * @param authRequest AuthRequest
+     * @return Account for the email after authentication.
+     */
+    @Override
+    public AccountSummary authenticateWithOtp(AuthRequest authRequest, Locale locale) throws ApiException {
+        final AccountSummary account = accountCache.findByEmail(authRequest.getEmail()).orElseThrow(() ->
+                new ApiException(Messages.get("USER.NOT.EXIST", locale), HTTPCustomStatus.UNAUTHORIZED));
+        if (account.isDeleted()) {
+            throw new ApiException(Messages.get("USER.ACCOUNT.DELETED", locale), HTTPCustomStatus.UNAUTHORIZED);
+        }
+
+        if (authRequest.getOtp() == null || !otpStore.consume(String.valueOf(account.getId()), authRequest.getOtp())) {
+            throw new ApiException(Messages.get("USER.OTP.INVALID", locale), HTTPCustomStatus.UNAUTHORIZED);
+        }
+        return account;
     }
 
     public Serializable setPassword(PasswordInput passwordInput, Locale locale) throws ApiException, PasswordException {
@@ -91,7 +124,10 @@ public class AccountService implements AuthenticationProvider {
         if (!passwordStrength)
             throw new PasswordException(Messages.get("USER.PASSWORD.STRENGTH", locale), PasswordStrength.get(passwordPower.getValue()));
 
-        account.ifPresent(user -> user.setPassword(PasswordHash.encode(passwordInput.getNewPassword())));
+        account.ifPresent(user -> {
+            user.setPassword(PasswordHash.encode(passwordInput.getNewPassword()));
+            accountCache.invalidate(user.getEmail());
+        });
 
 
         return new JsonResponse()
@@ -102,10 +138,11 @@ public class AccountService implements AuthenticationProvider {
 
     public Serializable generateOtp(String email, Locale locale) throws ApiException {
 
-        final Account account = accountRepository.findByEmail(email).orElseThrow(() ->
+        final AccountSummary account = accountCache.findByEmail(email).orElseThrow(() ->
                 new ApiException(Messages.get("USER.NOT.EXIST", locale), HTTPCustomStatus.UNAUTHORIZED));
 
-        final String otp = NanoIdUtils.randomNanoId(XORShiftRandom.instance(), NanoIdUtils.DEFAULT_ALPHABET, NanoIdUtils.DEFAULT_SIZE);
+        final String otp = NanoIdUtils.randomNanoId();
+        otpStore.put(String.valueOf(account.getId()), otp, OTP_TTL, TimeUnit.SECONDS);
         String url = OTP_LOGIN_URL.value() + "?email=" + account.getEmail() + "&otp=" + otp;
 
         Map<String, Object> templateVariables = ImmutableMap.<String, Object>builder()
@@ -113,7 +150,7 @@ public class AccountService implements AuthenticationProvider {
                 .put("link", url)
                 .build();
 
-        emailManager.send(account.getEmail(), EmailMessages.get("otp_login.subject", locale), TemplateEnum.OTP_LOGIN, templateVariables, locale);
+        emailManager.queue(account.getEmail(), EmailMessages.get("otp_login.subject", locale), TemplateEnum.OTP_LOGIN, templateVariables, locale, EmailPriority.URGENT);
 
         return new JsonResponse()
                 .with("status", "ok")
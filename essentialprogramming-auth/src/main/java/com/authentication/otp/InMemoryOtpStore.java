@@ -0,0 +1,196 @@
+package com.authentication.otp;
+
+import com.google.common.hash.Hashing;
+import com.util.cloud.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link OtpStore} keeping the codes in memory, so redeeming a code costs no database round trip.
+ * <p>
+ * Only a SHA-256 digest of each code is kept, compared with {@link MessageDigest#isEqual}. A code is removed
+ * when it is redeemed or after {@code OTP_MAX_ATTEMPTS} (5) wrong guesses.
+ * </p>
+ * <p>
+ * Expired codes are swept by a hashed timing wheel of {@code OTP_WHEEL_SIZE} (1024) slots, one per
+ * {@code OTP_WHEEL_TICK} milliseconds (1000), advanced by a single shared daemon thread. Each code is queued
+ * in the slot of its expiry tick, so a sweep only visits the codes due in the elapsed ticks, and codes living
+ * longer than a turn of the wheel are requeued until they are due. Expiry is also checked on redemption, so
+ * the tick only bounds how long an expired code takes memory. The sweeper runs between {@link #start()} and
+ * {@link #stop()}, called by the container.
+ * </p>
+ */
+@Component
+public class InMemoryOtpStore implements OtpStore {
+
+    private static final String OTP_MAX_ATTEMPTS = "OTP_MAX_ATTEMPTS";
+    private static final String OTP_WHEEL_TICK = "OTP_WHEEL_TICK";
+    private static final String OTP_WHEEL_SIZE = "OTP_WHEEL_SIZE";
+
+    private static final class SweeperHolder {
+        static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "otp-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static final class Entry {
+        final byte[] digest;
+        final long expiresAt;
+        final AtomicInteger failures = new AtomicInteger();
+
+        Entry(final byte[] digest, final long expiresAt) {
+            this.digest = digest;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Expiry {
+        final String key;
+        final Entry entry;
+
+        Expiry(final String key, final Entry entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Expiry>[] wheel;
+    private final long tickMillis;
+    private final int maxAttempts;
+    private final LongSupplier clock;
+    private long lastTick;
+    private ScheduledFuture<?> sweeper;
+
+    public InMemoryOtpStore() {
+        this(Environment.getProperty(OTP_MAX_ATTEMPTS, 5), Environment.getProperty(OTP_WHEEL_TICK, 1000),
+                Environment.getProperty(OTP_WHEEL_SIZE, 1024), System::currentTimeMillis);
+    }
+
+    /**
+     * Store without a sweeper until {@link #start()}, otherwise {@link #expire()} has to be called every tick.
+     *
+     * @param clock Current time in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    public InMemoryOtpStore(final int maxAttempts, final long tickMillis, final int wheelSize, final LongSupplier clock) {
+        if (maxAttempts <= 0 || tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Attempts, tick and wheel size must be positive");
+        }
+        this.maxAttempts = maxAttempts;
+        this.tickMillis = tickMillis;
+        this.clock = clock;
+        this.wheel = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.lastTick = clock.getAsLong() / tickMillis;
+    }
+
+    /**
+     * Sweep expired codes every tick on the shared sweeper thread.
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (sweeper == null) {
+            sweeper = SweeperHolder.INSTANCE.scheduleWithFixedDelay(this::expire, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (sweeper != null) {
+            sweeper.cancel(false);
+            sweeper = null;
+        }
+    }
+
+    @Override
+    public void put(final String key, final String otp, final long ttl, final TimeUnit unit) {
+        final Entry entry = new Entry(digest(otp), clock.getAsLong() + unit.toMillis(ttl));
+        entries.put(key, entry);
+        schedule(new Expiry(key, entry));
+    }
+
+    @Override
+    public boolean consume(final String key, final String otp) {
+        final Entry entry = entries.get(key);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.expiresAt <= clock.getAsLong()) {
+            entries.remove(key, entry);
+            return false;
+        }
+        if (MessageDigest.isEqual(entry.digest, digest(otp))) {
+            // Only one of concurrent redemptions removes the entry
+            return entries.remove(key, entry);
+        }
+        if (entry.failures.incrementAndGet() >= maxAttempts) {
+            entries.remove(key, entry);
+        }
+        return false;
+    }
+
+    @Override
+    public void remove(final String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Remove the codes expired since the last call.
+     */
+    public synchronized void expire() {
+        final long now = clock.getAsLong();
+        final long currentTick = now / tickMillis;
+        // A full turn visits every slot, there is no point in going around again after a long pause
+        final long firstTick = Math.max(lastTick + 1, currentTick - wheel.length + 1);
+        final List<Expiry> notDue = new ArrayList<>();
+        for (long tick = firstTick; tick <= currentTick; tick++) {
+            final Queue<Expiry> slot = wheel[(int) (tick % wheel.length)];
+            Expiry expiry;
+            while ((expiry = slot.poll()) != null) {
+                if (expiry.entry.expiresAt <= now) {
+                    // No-op if the code was redeemed or replaced meanwhile
+                    entries.remove(expiry.key, expiry.entry);
+                } else {
+                    notDue.add(expiry);
+                }
+            }
+        }
+        lastTick = currentTick;
+        notDue.forEach(this::schedule);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void schedule(final Expiry expiry) {
+        // Round up, a code must not be swept before it expires
+        final long tick = (expiry.entry.expiresAt + tickMillis - 1) / tickMillis;
+        wheel[(int) (tick % wheel.length)].add(expiry);
+    }
+
+    private static byte[] digest(final String otp) {
+        return Hashing.sha256().hashString(otp, StandardCharsets.UTF_8).asBytes();
+    }
+}
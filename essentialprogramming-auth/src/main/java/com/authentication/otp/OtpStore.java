@@ -0,0 +1,31 @@
+package com.authentication.otp;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Storage of one-time passwords, at most one pending code per key.
+ * <p>
+ * {@link InMemoryOtpStore} is enough for a single node. In a multi-node deployment, where the code may be
+ * generated on one node and redeemed on another, register a shared implementation as a
+ * {@link org.springframework.context.annotation.Primary @Primary} bean.
+ * </p>
+ */
+public interface OtpStore {
+
+    /**
+     * Store a code, replacing any code pending for the key.
+     *
+     * @param ttl How long the code can be redeemed
+     */
+    void put(String key, String otp, long ttl, TimeUnit unit);
+
+    /**
+     * Redeem a code. A matching code is removed, so it is accepted only once; a code is also removed once
+     * it has been guessed wrong too many times. Implementations must compare codes in constant time.
+     *
+     * @return true if the code was pending for the key and has not expired
+     */
+    boolean consume(String key, String otp);
+
+    void remove(String key);
+}
@@ -0,0 +1,53 @@
+package com.authentication.refresh;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.util.cloud.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RefreshTokenStore} keeping the current token id of each family in memory.
+ * <p>
+ * A family is forgotten {@code REFRESH_TOKEN_TTL} seconds (86400) after its last rotation, when its current
+ * token has expired anyway, and at most {@code REFRESH_TOKEN_STORE_SIZE} (100000) families are kept. Families
+ * are lost on restart, so their clients have to log in again.
+ * </p>
+ */
+@Component
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final Cache<String, String> families;
+
+    public InMemoryRefreshTokenStore() {
+        this(Environment.getProperty("REFRESH_TOKEN_STORE_SIZE", 100000),
+                Environment.getProperty("REFRESH_TOKEN_TTL", 86400), TimeUnit.SECONDS);
+    }
+
+    public InMemoryRefreshTokenStore(int maximumSize, long ttl, TimeUnit unit) {
+        this.families = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl, unit)
+                .build();
+    }
+
+    @Override
+    public void register(String family, String tokenId) {
+        families.put(family, tokenId);
+    }
+
+    @Override
+    public boolean rotate(String family, String tokenId, String nextTokenId) {
+        if (families.asMap().replace(family, tokenId, nextTokenId)) {
+            return true;
+        }
+        families.invalidate(family);
+        return false;
+    }
+
+    @Override
+    public void revoke(String family) {
+        families.invalidate(family);
+    }
+}
@@ -0,0 +1,30 @@
+package com.authentication.refresh;
+
+/**
+ * Tracks the refresh token that can currently be redeemed in each token family.
+ * <p>
+ * A family starts at a login and each redemption rotates it to the next token. Presenting a token of the
+ * family that was already rotated means it was replayed, possibly stolen, so the whole family is revoked
+ * and the client has to log in again.
+ * </p>
+ * <p>
+ * {@link InMemoryRefreshTokenStore} is enough for a single node. In a multi-node deployment register a
+ * shared implementation as a {@link org.springframework.context.annotation.Primary @Primary} bean.
+ * </p>
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * Start a family with its first token.
+     */
+    void register(String family, String tokenId);
+
+    /**
+     * Replace the current token of a family, atomically.
+     *
+     * @return true if {@code tokenId} was the current token of the family; otherwise the family is revoked
+     */
+    boolean rotate(String family, String tokenId, String nextTokenId);
+
+    void revoke(String family);
+}
@@ -13,6 +13,7 @@ public class AuthRequest implements TokenRequest {
 
     private String email;
     private String password;
+    private String otp;
 
 }
 
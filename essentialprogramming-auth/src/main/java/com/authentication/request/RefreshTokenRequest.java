@@ -0,0 +1,18 @@
+package com.authentication.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Schema(name = "RefreshToken", description = "A refresh token request, containing the refresh token of an earlier authentication.")
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RefreshTokenRequest implements TokenRequest {
+
+    @JsonProperty("refresh_token")
+    private String refreshToken;
+
+}
@@ -0,0 +1,84 @@
+package com.authentication.security;
+
+import com.token.validation.crypto.EdDSAProvider;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JSON Web Key (RFC 7517) representation of the signing public keys.
+ */
+public final class JwkUtils {
+
+    private static final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+    private JwkUtils() {
+    }
+
+    /**
+     * The JWK thumbprint of the key (RFC 7638), used as its key id: every node derives the same id
+     * from the key, without configuration.
+     */
+    public static String keyId(final PublicKey publicKey) {
+        // Required members only, in lexicographic order, without whitespace
+        final String canonical;
+        if (EdDSAProvider.isEd25519Key(publicKey)) {
+            canonical = "{\"crv\":\"Ed25519\",\"kty\":\"OKP\",\"x\":\"" + encoder.encodeToString(EdDSAProvider.toRawKey(publicKey)) + "\"}";
+        } else {
+            final RSAPublicKey rsaKey = rsaKey(publicKey);
+            canonical = "{\"e\":\"" + encode(rsaKey.getPublicExponent()) + "\",\"kty\":\"RSA\",\"n\":\"" + encode(rsaKey.getModulus()) + "\"}";
+        }
+        try {
+            return encoder.encodeToString(MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The members of the JWK of a signature verification key, with its key id.
+     */
+    public static Map<String, Object> toJwk(final PublicKey publicKey) {
+        final Map<String, Object> jwk = new LinkedHashMap<>();
+        if (EdDSAProvider.isEd25519Key(publicKey)) {
+            jwk.put("kty", "OKP");
+            jwk.put("crv", "Ed25519");
+            jwk.put("x", encoder.encodeToString(EdDSAProvider.toRawKey(publicKey)));
+            jwk.put("alg", "EdDSA");
+        } else {
+            final RSAPublicKey rsaKey = rsaKey(publicKey);
+            jwk.put("kty", "RSA");
+            jwk.put("n", encode(rsaKey.getModulus()));
+            jwk.put("e", encode(rsaKey.getPublicExponent()));
+            jwk.put("alg", "RS256");
+        }
+        jwk.put("use", "sig");
+        jwk.put("kid", keyId(publicKey));
+        return jwk;
+    }
+
+    private static RSAPublicKey rsaKey(final PublicKey publicKey) {
+        if (!(publicKey instanceof RSAPublicKey)) {
+            throw new IllegalArgumentException("Only RSA and Ed25519 public keys are supported");
+        }
+        return (RSAPublicKey) publicKey;
+    }
+
+    /**
+     * Base64url encoding of the unsigned big-endian value, without leading zero bytes.
+     */
+    private static String encode(final BigInteger value) {
+        final byte[] bytes = value.toByteArray();
+        return bytes.length > 1 && bytes[0] == 0
+                ? encoder.encodeToString(Arrays.copyOfRange(bytes, 1, bytes.length))
+                : encoder.encodeToString(bytes);
+    }
+}
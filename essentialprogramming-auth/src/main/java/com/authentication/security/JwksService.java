@@ -0,0 +1,205 @@
+package com.authentication.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.util.cloud.Environment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Publishes the token verification keys as a JSON Web Key Set, so resource servers can fetch them
+ * instead of bundling a copy of the public key.
+ * <p>
+ * The set holds the current signing key and, for rotations without rejected tokens:
+ * <ul>
+ * <li>the keys listed in {@code JWKS_PUBLISHED_KEY_FILE_PATHS} (comma separated PEM locations), to publish
+ * the next key before signing with it, or to keep publishing an old key;</li>
+ * <li>each key replaced by a reload of the key pair, for {@code JWKS_RETIRED_KEY_TTL} seconds from the reload
+ * (30 days, the lifetime of the access tokens).</li>
+ * </ul>
+ * The same keys verify the tokens of this application, selected by key id, see {@link KeySet#getKey(String)}.
+ * The document and its ETag are computed once per key set, serving it is a volatile read.
+ * </p>
+ */
+@Service
+public class JwksService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JwksService.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * A serialized key set.
+     */
+    public static final class KeySet {
+        private final PublicKey signingKey;
+        private final String signingKeyId;
+        private final Map<String, PublicKey> keys;
+        private final byte[] json;
+        private final String etag;
+        private final long expiresAt;
+
+        private KeySet(PublicKey signingKey, String signingKeyId, Map<String, PublicKey> keys, byte[] json, long expiresAt) {
+            this.signingKey = signingKey;
+            this.signingKeyId = signingKeyId;
+            this.keys = Collections.unmodifiableMap(keys);
+            this.json = json;
+            this.etag = "\"" + digest(json) + "\"";
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * The published key with the given key id, {@code null} if there is none.
+         */
+        public PublicKey getKey(String keyId) {
+            return keys.get(keyId);
+        }
+
+        /**
+         * The published keys by key id, the signing key first.
+         */
+        public Map<String, PublicKey> getKeys() {
+            return keys;
+        }
+
+        /**
+         * Key id of the key new tokens are signed with.
+         */
+        public String getSigningKeyId() {
+            return signingKeyId;
+        }
+
+        /**
+         * The JSON document, must not be modified.
+         */
+        public byte[] getJson() {
+            return json;
+        }
+
+        /**
+         * Strong entity tag of the document, quoted.
+         */
+        public String getEtag() {
+            return etag;
+        }
+    }
+
+    private final KeyStoreService keyStoreService;
+    private final List<PublicKey> publishedKeys;
+    private final long retiredKeyTtl;
+    private final LongSupplier clock;
+    // Replaced signing keys, by the time they stop being published
+    private final Map<PublicKey, Long> retiredKeys = new LinkedHashMap<>();
+
+    private volatile KeySet keySet;
+
+    @Autowired
+    public JwksService(KeyStoreService keyStoreService) {
+        this(keyStoreService, readKeys(Environment.getProperty("JWKS_PUBLISHED_KEY_FILE_PATHS", "")),
+                TimeUnit.SECONDS.toMillis(Environment.getProperty("JWKS_RETIRED_KEY_TTL", 2592000)),
+                System::currentTimeMillis);
+    }
+
+    /**
+     * @param publishedKeys Keys published besides the signing key
+     * @param retiredKeyTtl Time a replaced signing key stays published, in milliseconds
+     * @param clock         Current time in milliseconds
+     */
+    public JwksService(KeyStoreService keyStoreService, List<PublicKey> publishedKeys, long retiredKeyTtl,
+                       LongSupplier clock) {
+        this.keyStoreService = keyStoreService;
+        this.publishedKeys = Collections.unmodifiableList(new ArrayList<>(publishedKeys));
+        this.retiredKeyTtl = retiredKeyTtl;
+        this.clock = clock;
+        // Built now, so the key replaced by the first reload is known and retired right away
+        rebuild(keyStoreService.getPublicKey());
+        keyStoreService.onPublicKeyChange(this::rebuild);
+    }
+
+    public KeySet getKeySet() {
+        final PublicKey signingKey = keyStoreService.getPublicKey();
+        final KeySet current = keySet;
+        if (current != null && current.signingKey == signingKey && clock.getAsLong() < current.expiresAt) {
+            return current;
+        }
+        return rebuild(signingKey);
+    }
+
+    private synchronized KeySet rebuild(PublicKey signingKey) {
+        final long now = clock.getAsLong();
+        final KeySet previous = keySet;
+        if (previous != null && previous.signingKey == signingKey && now < previous.expiresAt) {
+            return previous;
+        }
+        if (previous != null && previous.signingKey != signingKey) {
+            retiredKeys.put(previous.signingKey, now + retiredKeyTtl);
+        }
+        retiredKeys.remove(signingKey);
+        retiredKeys.values().removeIf(expiresAt -> expiresAt <= now);
+
+        final Map<String, Map<String, Object>> jwks = new LinkedHashMap<>();
+        final Map<String, PublicKey> keys = new LinkedHashMap<>();
+        addKey(jwks, keys, signingKey);
+        publishedKeys.forEach(key -> addKey(jwks, keys, key));
+        retiredKeys.keySet().forEach(key -> addKey(jwks, keys, key));
+
+        final byte[] json;
+        try {
+            json = mapper.writeValueAsBytes(Collections.singletonMap("keys", jwks.values()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize the key set", e);
+        }
+        final long expiresAt = retiredKeys.values().stream().min(Long::compare).orElse(Long.MAX_VALUE);
+        final String signingKeyId = keys.keySet().iterator().next();
+        final KeySet rebuilt = new KeySet(signingKey, signingKeyId, keys, json, expiresAt);
+        keySet = rebuilt;
+        LOG.info("Key set published with {} keys, signing key {}", keys.size(), signingKeyId);
+        return rebuilt;
+    }
+
+    private static void addKey(Map<String, Map<String, Object>> jwks, Map<String, PublicKey> keys, PublicKey key) {
+        final Map<String, Object> jwk = JwkUtils.toJwk(key);
+        final String keyId = (String) jwk.get("kid");
+        if (!jwks.containsKey(keyId)) {
+            jwks.put(keyId, jwk);
+            keys.put(keyId, key);
+        }
+    }
+
+    private static List<PublicKey> readKeys(String locations) {
+        final List<PublicKey> keys = new ArrayList<>();
+        for (String location : locations.split(",")) {
+            if (!location.trim().isEmpty()) {
+                try {
+                    keys.add(PemUtils.readPublicKeyFromPEMFile(location.trim()));
+                } catch (IOException e) {
+                    LOG.error("Public key {} can't be read, it is not published", location, e);
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static String digest(byte[] json) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -7,8 +7,27 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
+
 import java.security.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+/**
+ * Holds the parsed key pair in memory.
+ * <p>
+ * Keys are read on first use and then served without any disk access. Keys read from a file are
+ * checked for changes every {@code KEY_RELOAD_INTERVAL} seconds (30 by default, 0 disables it),
+ * so keys can be rotated by replacing the PEM files, without a restart. The public and the private key
+ * are swapped together, once both files hold the new pair, see {@link ReloadableKeyPair}.
+ * </p>
+ * <p>
+ * Use the Spring bean: every instance checks the files on its own schedule, so signers and verifiers
+ * holding different instances would see a rotation at different times.
+ * </p>
+ */
 @Service
 public class KeyStoreService {
 
@@ -16,29 +35,63 @@ public class KeyStoreService {
 
     private static final String PUBLIC_KEY_FILE_PATH = "PUBLIC_KEY_FILE_PATH";
     private static final String PRIVATE_KEY_FILE_PATH = "PRIVATE_KEY_FILE_PATH";
+    private static final String KEY_RELOAD_INTERVAL = "KEY_RELOAD_INTERVAL";
     private static final String DEFAULT_PUBLIC_KEY_FILE_PATH = "classpath:pem/public-key.pem";
     private static final String DEFAULT_PRIVATE_KEY_FILE_PATH = "classpath:pem/private-key.pem";
+    private static final int DEFAULT_KEY_RELOAD_INTERVAL = 30;
 
-    private final String publicKeyFilePath;
-    private final String privateKeyFilePath;
+    private static final class KeyId {
+        private final PublicKey publicKey;
+        private final String id;
 
-    public KeyStoreService() {
+        private KeyId(PublicKey publicKey) {
+            this.publicKey = publicKey;
+            this.id = JwkUtils.keyId(publicKey);
+        }
+    }
 
-        publicKeyFilePath = Environment.getProperty(PUBLIC_KEY_FILE_PATH, DEFAULT_PUBLIC_KEY_FILE_PATH);
-        privateKeyFilePath = Environment.getProperty(PRIVATE_KEY_FILE_PATH, DEFAULT_PRIVATE_KEY_FILE_PATH);
+    private final ReloadableKeyPair keyPair;
+    private final ScheduledExecutorService scheduler;
+    // Recomputed when the public key changes
+    private volatile KeyId keyId;
+
+    public KeyStoreService() {
+        this(Environment.getProperty(PUBLIC_KEY_FILE_PATH, DEFAULT_PUBLIC_KEY_FILE_PATH),
+             Environment.getProperty(PRIVATE_KEY_FILE_PATH, DEFAULT_PRIVATE_KEY_FILE_PATH),
+             Environment.getProperty(KEY_RELOAD_INTERVAL, DEFAULT_KEY_RELOAD_INTERVAL));
     }
 
-    private static class KeyStoreServiceHolder {
-        static final KeyStoreService INSTANCE = new KeyStoreService();
+    /**
+     * @param reloadInterval seconds between checks for changed key files, 0 to never reload
+     */
+    KeyStoreService(final String publicKeyFilePath, final String privateKeyFilePath, final int reloadInterval) {
+        keyPair = new ReloadableKeyPair(publicKeyFilePath, privateKeyFilePath);
+
+        if (reloadInterval > 0 && keyPair.isReloadable()) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "key-store-reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::reloadIfModified, reloadInterval, reloadInterval, TimeUnit.SECONDS);
+        } else {
+            scheduler = null;
+        }
     }
 
-    public static KeyStoreService getInstance() {
-        return KeyStoreServiceHolder.INSTANCE;
+    /**
+     * Stop checking the key files for changes.
+     */
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
     }
 
     public PublicKey getPublicKey() {
         try {
-            return PemUtils.readPublicKeyFromPEMFile(publicKeyFilePath);
+            return keyPair.get().getPublic();
         } catch (Exception e) {
             LOG.error(ErrorCode.UNABLE_TO_GET_PUBLIC_KEY.getDescription());
             throw new ServiceException(ErrorCode.UNABLE_TO_GET_PUBLIC_KEY, e);
@@ -47,10 +100,35 @@ public class KeyStoreService {
 
     public PrivateKey getPrivateKey() {
         try {
-            return PemUtils.readPrivateKeyFromPEMFile(privateKeyFilePath);
+            return keyPair.get().getPrivate();
         } catch (Exception e) {
             LOG.error(ErrorCode.UNABLE_TO_GET_PRIVATE_KEY.getDescription());
             throw new ServiceException(ErrorCode.UNABLE_TO_GET_PRIVATE_KEY, e);
         }
     }
+
+    /**
+     * The key id of the public key, its JWK thumbprint, see {@link JwkUtils#keyId(PublicKey)}.
+     */
+    public String getKeyId() {
+        final PublicKey key = getPublicKey();
+        KeyId current = keyId;
+        if (current == null || current.publicKey != key) {
+            current = new KeyId(key);
+            keyId = current;
+        }
+        return current.id;
+    }
+
+    /**
+     * Register a listener called with the new public key after the key pair was reloaded,
+     * for components that build state from the key, such as token verifiers.
+     */
+    public void onPublicKeyChange(final Consumer<PublicKey> listener) {
+        keyPair.addListener(reloaded -> listener.accept(reloaded.getPublic()));
+    }
+
+    void reloadIfModified() {
+        keyPair.reloadIfModified();
+    }
 }
@@ -0,0 +1,160 @@
+package com.authentication.security;
+
+import com.util.io.InputResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.Signature;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * A key pair parsed once from two PEM locations and kept in memory.
+ * <p>
+ * Readers only do a volatile read, and always see the public and the private key of the same pair.
+ * When the locations are files on disk, {@link #reloadIfModified()} compares their modification times
+ * with the ones of the loaded pair and atomically swaps in the new pair, once both files hold the two
+ * halves of the same pair. Until then, or if a file can't be parsed, the previous pair stays in use.
+ * </p>
+ */
+final class ReloadableKeyPair {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReloadableKeyPair.class);
+
+    private static final byte[] PROBE = "key-pair-probe".getBytes(StandardCharsets.US_ASCII);
+
+    private static final class Snapshot {
+        private final KeyPair keyPair;
+        private final long publicKeyModified;
+        private final long privateKeyModified;
+
+        private Snapshot(KeyPair keyPair, long publicKeyModified, long privateKeyModified) {
+            this.keyPair = keyPair;
+            this.publicKeyModified = publicKeyModified;
+            this.privateKeyModified = privateKeyModified;
+        }
+    }
+
+    private final String publicKeyLocation;
+    private final String privateKeyLocation;
+    private final File publicKeyFile;
+    private final File privateKeyFile;
+    private final List<Consumer<KeyPair>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Snapshot current;
+
+    ReloadableKeyPair(final String publicKeyLocation, final String privateKeyLocation) {
+        this.publicKeyLocation = publicKeyLocation;
+        this.privateKeyLocation = privateKeyLocation;
+        this.publicKeyFile = toFile(publicKeyLocation);
+        this.privateKeyFile = toFile(privateKeyLocation);
+    }
+
+    KeyPair get() throws IOException {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            snapshot = load();
+        }
+        return snapshot.keyPair;
+    }
+
+    /**
+     * Returns {@code true} if a key is read from a file whose changes can be detected.
+     */
+    boolean isReloadable() {
+        return publicKeyFile != null || privateKeyFile != null;
+    }
+
+    void addListener(final Consumer<KeyPair> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Reload the pair if one of its files changed since it was loaded. A pair never read is left alone.
+     */
+    void reloadIfModified() {
+        final Snapshot snapshot = current;
+        if (snapshot == null
+                || (lastModified(publicKeyFile) == snapshot.publicKeyModified
+                    && lastModified(privateKeyFile) == snapshot.privateKeyModified)) {
+            return;
+        }
+        try {
+            final Snapshot reloaded = read();
+            if (!isKeyPair(reloaded.keyPair)) {
+                // Checked again on the next reload, the other file is likely being replaced
+                LOG.warn("Keys in {} and {} are not a pair, the previous keys are kept in use",
+                        publicKeyLocation, privateKeyLocation);
+                return;
+            }
+            swap(reloaded);
+            LOG.info("Key pair reloaded from {} and {}", publicKeyLocation, privateKeyLocation);
+            listeners.forEach(listener -> listener.accept(reloaded.keyPair));
+        } catch (Exception e) {
+            LOG.warn("Key pair could not be reloaded from {} and {}, the previous keys are kept in use",
+                    publicKeyLocation, privateKeyLocation, e);
+        }
+    }
+
+    private synchronized Snapshot load() throws IOException {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            snapshot = read();
+            current = snapshot;
+        }
+        return snapshot;
+    }
+
+    private synchronized void swap(final Snapshot snapshot) {
+        current = snapshot;
+    }
+
+    private Snapshot read() throws IOException {
+        // Take the modification times first, so a change during the read triggers another reload
+        final long publicKeyModified = lastModified(publicKeyFile);
+        final long privateKeyModified = lastModified(privateKeyFile);
+        final KeyPair keyPair = new KeyPair(PemUtils.readPublicKeyFromPEMFile(publicKeyLocation),
+                PemUtils.readPrivateKeyFromPEMFile(privateKeyLocation));
+        return new Snapshot(keyPair, publicKeyModified, privateKeyModified);
+    }
+
+    /**
+     * Whether the private key signs what the public key verifies.
+     */
+    private static boolean isKeyPair(final KeyPair keyPair) throws GeneralSecurityException {
+        final boolean eddsa = PemUtils.isEd25519Key(keyPair.getPublic());
+        if (eddsa != PemUtils.isEd25519Key(keyPair.getPrivate())) {
+            return false;
+        }
+        final Signature signer = eddsa ? PemUtils.ed25519Signature() : Signature.getInstance("SHA256withRSA");
+        signer.initSign(keyPair.getPrivate());
+        signer.update(PROBE);
+        final byte[] signature = signer.sign();
+
+        final Signature verifier = eddsa ? PemUtils.ed25519Signature() : Signature.getInstance("SHA256withRSA");
+        verifier.initVerify(keyPair.getPublic());
+        verifier.update(PROBE);
+        return verifier.verify(signature);
+    }
+
+    private static long lastModified(final File file) {
+        return file != null ? file.lastModified() : 0L;
+    }
+
+    private static File toFile(final String location) {
+        try {
+            final URL url = InputResource.getURL(location);
+            return "file".equals(url.getProtocol()) ? new File(url.toURI()) : null;
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
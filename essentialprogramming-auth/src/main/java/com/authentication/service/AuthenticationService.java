@@ -5,14 +5,18 @@ import com.authentication.channel.AccessChannel;
 import com.authentication.oauth2.PrivateClaims;
 import com.authentication.identityprovider.AuthenticationProvider;
 import com.authentication.identityprovider.IdentityProviders;
-import com.authentication.identityprovider.internal.entities.Account;
 import com.authentication.exceptions.codes.ErrorCode;
 import com.authentication.identityprovider.internal.model.ResetPasswordInput;
-import com.authentication.identityprovider.internal.repository.AccountRepository;
+import com.authentication.identityprovider.internal.model.AccountSummary;
+import com.authentication.identityprovider.internal.repository.AccountCache;
 import com.authentication.identityprovider.internal.service.AccountService;
 import com.authentication.identityprovider.internal.model.PasswordInput;
 import com.authentication.oauth2.OAuth2Constants;
+import com.authentication.refresh.RefreshTokenStore;
+import com.authentication.request.RefreshTokenRequest;
 import com.authentication.request.TokenRequest;
+import com.aventrix.jnanoid.jnanoid.NanoIdUtils;
+import com.token.validation.jwt.ClaimsView;
 import com.util.date.DateUtil;
 import com.util.password.PasswordException;
 import com.internationalization.Messages;
@@ -22,6 +26,7 @@ import com.util.exceptions.ApiException;
 import com.util.exceptions.ServiceException;
 import com.authentication.request.AuthRequest;
 import com.authentication.response.AccessToken;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -35,19 +40,22 @@ import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 
+@Slf4j
 @Service
 public class AuthenticationService {
 
     private final AuthenticationProvider accountService;
     private final TokenService tokenService;
-    private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final RefreshTokenStore refreshTokenStore;
 
     @Autowired
     public AuthenticationService(AccountService accountService, TokenService tokenService,
-                                 AccountRepository accountRepository) {
+                                 AccountCache accountCache, RefreshTokenStore refreshTokenStore) {
         this.accountService = accountService;
         this.tokenService = tokenService;
-        this.accountRepository = accountRepository;
+        this.accountCache = accountCache;
+        this.refreshTokenStore = refreshTokenStore;
     }
 
     @Transactional
@@ -75,17 +83,79 @@ public class AuthenticationService {
             throw new ApiException(Messages.get("PASSWORD.MANDATORY", locale), HTTPCustomStatus.INVALID_REQUEST);
         }
 
-        Account account = accountService.authenticate(authRequest, locale);
+        AccountSummary account = accountService.authenticate(authRequest, locale);
         Map<String, String> privateClaimMap =
-                privateClaims(account.getEmail(), account.isActive(), Collections.singletonList("visitor"));
+                privateClaims(account.getEmail(), account.isActive(), roles(AccessChannel.PASSWORD));
 
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime expirationTime = now.plus(30, ChronoUnit.DAYS);
 
-        return getAccessToken(now, expirationTime, privateClaimMap, permissionsClaim(), account.isActive(), account.getEmail());
+        return getAccessToken(now, expirationTime, privateClaimMap, permissionsClaim(), account, AccessChannel.PASSWORD);
     }
 
 
+    /**
+     * Exchange a refresh token for new tokens, rotating the refresh token. No password is hashed and the
+     * account is read through the {@link AccountCache}, so no transaction is needed.
+     */
+    public AccessToken refresh(RefreshTokenRequest refreshTokenRequest, Locale locale) throws ApiException {
+        if (StringUtils.isEmpty(refreshTokenRequest.getRefreshToken())) {
+            throw new ApiException(Messages.get("TOKEN.REFRESH.INVALID", locale), HTTPCustomStatus.INVALID_REQUEST);
+        }
+        final ClaimsView claims = tokenService.verifyRefreshToken(refreshTokenRequest.getRefreshToken());
+        if (claims == null) {
+            throw new ApiException(Messages.get("TOKEN.REFRESH.INVALID", locale), HTTPCustomStatus.UNAUTHORIZED);
+        }
+
+        final String family = claims.getString(TokenService.REFRESH_TOKEN_FAMILY);
+        final String email = claims.getString(PrivateClaims.MAIL.getType());
+        final String tokenId = NanoIdUtils.randomNanoId();
+        if (!refreshTokenStore.rotate(family, claims.getID(), tokenId)) {
+            log.warn("Refresh token of {} replayed or unknown, token family revoked", email);
+            throw new ApiException(Messages.get("TOKEN.REFRESH.INVALID", locale), HTTPCustomStatus.UNAUTHORIZED);
+        }
+
+        final AccountSummary account = accountCache.findByEmail(email)
+                .filter(summary -> !summary.isDeleted())
+                .orElse(null);
+        if (account == null) {
+            refreshTokenStore.revoke(family);
+            throw new ApiException(Messages.get("USER.NOT.EXIST", locale), HTTPCustomStatus.UNAUTHORIZED);
+        }
+
+        // Roles are granted again to the account as it is now, never copied from the presented token
+        final AccessChannel channel = loginChannel(claims.getString(TokenService.REFRESH_TOKEN_CHANNEL));
+        Map<String, String> privateClaimMap = privateClaims(account.getEmail(), account.isActive(), roles(channel));
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expirationTime = now.plus(30, ChronoUnit.DAYS);
+
+        SignedTokens tokens = tokenService.generateTokens(ChronoUnit.MINUTES.between(now, expirationTime),
+                privateClaimMap, permissionsClaim(), account.getEmail(), channel, family, tokenId);
+        return accessToken(now, expirationTime, tokens, account.isActive());
+    }
+
+    /**
+     * The roles granted to an account logged in by the given channel. Accounts hold no roles of their own,
+     * a password login makes a visitor.
+     */
+    private static List<String> roles(AccessChannel channel) {
+        return channel == AccessChannel.PASSWORD ? Collections.singletonList("visitor") : null;
+    }
+
+    /**
+     * The channel a refresh token family was started by, {@link AccessChannel#UNDEFINED} for tokens without one,
+     * which are then granted no role.
+     */
+    private static AccessChannel loginChannel(String channel) {
+        for (AccessChannel value : AccessChannel.values()) {
+            if (value.name().equals(channel)) {
+                return value;
+            }
+        }
+        return AccessChannel.UNDEFINED;
+    }
+
     private static Map<String, String> privateClaims(String email, boolean active, List<String> roles) {
         Map<String, String> privateClaimMap = new HashMap<>();
         if (email != null) {
@@ -109,13 +179,18 @@ public class AuthenticationService {
         return privateClaimListMap;
     }
 
-    private AccessToken getAccessToken(LocalDateTime now, LocalDateTime expirationTime, Map<String, String> privateClaimMap, Map<String, String[]> privateClaimTypeAndStringArray, boolean active, String email) {
+    private AccessToken getAccessToken(LocalDateTime now, LocalDateTime expirationTime, Map<String, String> privateClaimMap, Map<String, String[]> privateClaimTypeAndStringArray, AccountSummary account, AccessChannel channel) {
         long expiresIn = ChronoUnit.MINUTES.between(now, expirationTime);
+        SignedTokens tokens = tokenService.generateTokens(expiresIn, privateClaimMap, privateClaimTypeAndStringArray, account.getEmail(), channel);
+        return accessToken(now, expirationTime, tokens, account.isActive());
+    }
+
+    private static AccessToken accessToken(LocalDateTime now, LocalDateTime expirationTime, SignedTokens tokens, boolean active) {
         return AccessToken.builder()
-                .accessToken(tokenService.generateJwtToken(expiresIn, privateClaimMap, privateClaimTypeAndStringArray))
+                .accessToken(tokens.getAccessToken())
                 .tokenType(OAuth2Constants.BEARER_TYPE)
                 .active(active)
-                .refreshToken(tokenService.getRefreshToken(email))
+                .refreshToken(tokens.getRefreshToken())
                 .expireAt(DateUtil.convertToDateViaSqlDate(expirationTime.toLocalDate()))
                 .expiresIn(Period.between(now.toLocalDate(), expirationTime.toLocalDate()).getDays())
                 .expiresIn(ChronoUnit.SECONDS.between(now, expirationTime))
@@ -135,18 +210,15 @@ public class AuthenticationService {
 
     private AccessToken otpLogin(AuthRequest authRequest, Locale locale) throws ApiException {
 
-        Account account = accountRepository.findByEmail(authRequest.getEmail()).orElseThrow(() ->
-                new ApiException(Messages.get("USER.NOT.EXIST", locale), HTTPCustomStatus.UNAUTHORIZED)
-        );
-
+        AccountSummary account = accountService.authenticateWithOtp(authRequest, locale);
 
         Map<String, String> privateClaimMap =
-                privateClaims(account.getEmail(), account.isActive(), null);
+                privateClaims(account.getEmail(), account.isActive(), roles(AccessChannel.OTP));
 
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime expirationTime = now.plus(30, ChronoUnit.DAYS);
 
-        return getAccessToken(now, expirationTime, privateClaimMap, permissionsClaim(), account.isActive(), account.getEmail());
+        return getAccessToken(now, expirationTime, privateClaimMap, permissionsClaim(), account, AccessChannel.OTP);
     }
 
     @Transactional
@@ -0,0 +1,23 @@
+package com.authentication.service;
+
+/**
+ * The access and the refresh token issued by a login.
+ */
+public final class SignedTokens {
+
+    private final String accessToken;
+    private final String refreshToken;
+
+    SignedTokens(String accessToken, String refreshToken) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+}
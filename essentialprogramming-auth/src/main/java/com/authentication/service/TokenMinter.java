@@ -0,0 +1,130 @@
+package com.authentication.service;
+
+import com.authentication.security.PemUtils;
+import net.minidev.json.JSONValue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Signs JWS compact serialized tokens with a private key, without the per-token work of the
+ * Nimbus path: the header is encoded once, claims that never change are serialized once
+ * in a {@link ClaimsTemplate}, and each thread reuses a JCA signature already initialized with the key.
+ * <p>
+ * RSA keys sign with RS256, Ed25519 keys with EdDSA. When a key id is given it is set as the {@code kid}
+ * header, so verifiers can pick the key from a key set. Instances are thread-safe;
+ * create a new one when the private key changes.
+ * </p>
+ */
+public final class TokenMinter {
+
+    private static final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+    private final PrivateKey privateKey;
+    private final String keyId;
+    private final String encodedHeader;
+    private final ThreadLocal<Signature> signatures;
+
+    public TokenMinter(final PrivateKey privateKey) throws GeneralSecurityException {
+        this(privateKey, null);
+    }
+
+    /**
+     * @param keyId The {@code kid} header, omitted if null
+     */
+    public TokenMinter(final PrivateKey privateKey, final String keyId) throws GeneralSecurityException {
+        if (privateKey == null) {
+            throw new IllegalArgumentException("Private key must not be null");
+        }
+        final boolean eddsa = PemUtils.isEd25519Key(privateKey);
+        final String header = "{\"typ\":\"JWT\",\"alg\":\"" + (eddsa ? "EdDSA" : "RS256") + "\""
+                + (keyId == null ? "" : ",\"kid\":\"" + JSONValue.escape(keyId) + "\"") + "}";
+
+        this.privateKey = privateKey;
+        this.keyId = keyId;
+        this.encodedHeader = encoder.encodeToString(header.getBytes(StandardCharsets.UTF_8)) + ".";
+        // Fail fast on a key that can't sign instead of on the first login
+        newSignature(eddsa);
+        this.signatures = ThreadLocal.withInitial(() -> {
+            try {
+                return newSignature(eddsa);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialize token signature", e);
+            }
+        });
+    }
+
+    /**
+     * Sign a token made of the template claims and the given claims.
+     * Values are serialized as JSON: strings, numbers, booleans and arrays or collections of them.
+     */
+    public String mint(final ClaimsTemplate template, final Map<String, ?> claims) throws GeneralSecurityException {
+        final StringBuilder payload = new StringBuilder(256).append('{').append(template.fragment);
+        boolean first = template.fragment.isEmpty();
+        for (Map.Entry<String, ?> claim : claims.entrySet()) {
+            if (!first) {
+                payload.append(',');
+            }
+            appendClaim(payload, claim.getKey(), claim.getValue());
+            first = false;
+        }
+        payload.append('}');
+
+        final String signingInput = encodedHeader + encoder.encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+        final Signature signature = signatures.get();
+        try {
+            signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + encoder.encodeToString(signature.sign());
+        } catch (GeneralSecurityException e) {
+            // Don't reuse a signature left in an unknown state
+            signatures.remove();
+            throw e;
+        }
+    }
+
+    public PrivateKey getPrivateKey() {
+        return privateKey;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    private Signature newSignature(final boolean eddsa) throws GeneralSecurityException {
+        final Signature signature = eddsa ? PemUtils.ed25519Signature() : Signature.getInstance("SHA256withRSA");
+        // sign() resets the signature to its initialized state, so it is initialized only once
+        signature.initSign(privateKey);
+        return signature;
+    }
+
+    private static void appendClaim(final StringBuilder payload, final String name, final Object value) {
+        payload.append('"').append(JSONValue.escape(name)).append("\":").append(JSONValue.toJSONString(value));
+    }
+
+    /**
+     * Claims shared by all tokens of a kind, such as the issuer and the audience, serialized once.
+     */
+    public static final class ClaimsTemplate {
+
+        private final String fragment;
+
+        private ClaimsTemplate(final String fragment) {
+            this.fragment = fragment;
+        }
+
+        public static ClaimsTemplate of(final Map<String, ?> claims) {
+            final StringBuilder fragment = new StringBuilder();
+            for (Map.Entry<String, ?> claim : claims.entrySet()) {
+                if (fragment.length() > 0) {
+                    fragment.append(',');
+                }
+                appendClaim(fragment, claim.getKey(), claim.getValue());
+            }
+            return new ClaimsTemplate(fragment.toString());
+        }
+    }
+}
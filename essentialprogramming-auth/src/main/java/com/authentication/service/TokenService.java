@@ -1,16 +1,26 @@
 package com.authentication.service;
 
+import com.authentication.channel.AccessChannel;
 import com.authentication.exceptions.codes.ErrorCode;
+import com.authentication.refresh.RefreshTokenStore;
 import com.authentication.security.KeyStoreService;
 import com.aventrix.jnanoid.jnanoid.NanoIdUtils;
 import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jwt.SignedJWT;
+import com.token.validation.crypto.EdDSAProvider;
+import com.token.validation.jwt.ClaimsView;
+import com.token.validation.jwt.JwtVerifier;
+import com.token.validation.jwt.ValidationPolicy;
+import com.token.validation.jwt.exception.TokenValidationException;
+import com.token.validation.response.ValidationResponse;
+import com.token.validation.signature.SignatureAlgorithm;
+import com.util.async.ExecutorsProvider;
+import com.util.cloud.Environment;
 import com.util.exceptions.ServiceException;
 import com.nimbusds.jose.*;
+import io.micrometer.core.instrument.Metrics;
 import com.nimbusds.jose.crypto.AESEncrypter;
 import com.nimbusds.jose.crypto.RSASSASigner;
-import com.nimbusds.jwt.JWTClaimsSet;
 import com.util.cloud.Configuration;
 import com.util.cloud.ConfigurationManager;
 import org.slf4j.Logger;
@@ -18,29 +28,90 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.security.GeneralSecurityException;
 import java.security.PrivateKey;
+import java.security.PublicKey;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class TokenService {
     private static final Logger LOG = LoggerFactory.getLogger(TokenService.class);
 
-    //Always RSA 256, but could be parametrized
-    private final JWSHeader jwsHeader = new JWSHeader.Builder(JWSAlgorithm.RS256)
-            .type(JOSEObjectType.JWT)
-            .build();
+    /**
+     * Issuer and audience of access tokens, resource servers must accept no other token.
+     */
+    public static final String ACCESS_TOKEN_ISSUER = "Essential Programming Auth Service";
+    public static final String ACCESS_TOKEN_AUDIENCE = "Essential Programming Services";
+
+    // Refresh tokens are signed with the same key, they are told apart by their issuer and audience
+    private static final String REFRESH_TOKEN_ISSUER = "EssentialProgramming Auth Service";
+    private static final String REFRESH_TOKEN_AUDIENCE = "EssentialProgramming Token Refresh";
+
+    /**
+     * Claim naming the family of a refresh token, see {@link RefreshTokenStore}.
+     */
+    public static final String REFRESH_TOKEN_FAMILY = "fid";
+
+    /**
+     * Claim naming the {@link AccessChannel} the refresh token's family was started by. Refresh tokens carry
+     * no roles, they are granted again from the account and this channel on every refresh.
+     */
+    public static final String REFRESH_TOKEN_CHANNEL = "chn";
+
+    private static final TokenMinter.ClaimsTemplate ACCESS_TOKEN_CLAIMS = TokenMinter.ClaimsTemplate.of(
+            staticClaims(ACCESS_TOKEN_ISSUER, ACCESS_TOKEN_AUDIENCE));
+    private static final TokenMinter.ClaimsTemplate REFRESH_TOKEN_CLAIMS = TokenMinter.ClaimsTemplate.of(
+            staticClaims(REFRESH_TOKEN_ISSUER, REFRESH_TOKEN_AUDIENCE));
+
+    private static final int REFRESH_TOKEN_TTL = Environment.getProperty("REFRESH_TOKEN_TTL", 86400);
+
+    /**
+     * Signs refresh tokens while the calling thread signs the access token, apart from the shared CPU
+     * executor so logins don't queue behind PDF renders. When all threads are busy, the caller signs both.
+     */
+    private static class SigningExecutorHolder {
+        static final ExecutorService INSTANCE = ExecutorsProvider.newBoundedExecutor("signing",
+                Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors(),
+                new ThreadPoolExecutor.CallerRunsPolicy(), Metrics.globalRegistry);
+    }
+
+    /**
+     * Verifies refresh tokens with the public key it was built for.
+     */
+    private static final class RefreshTokenVerifier {
+        final PublicKey publicKey;
+        final JwtVerifier verifier;
+
+        RefreshTokenVerifier(PublicKey publicKey) {
+            this.publicKey = publicKey;
+            this.verifier = JwtVerifier.builder()
+                    .key(EdDSAProvider.isEd25519Key(publicKey) ? SignatureAlgorithm.EdDSA : SignatureAlgorithm.RS256, publicKey)
+                    .policy(ValidationPolicy.builder().issuer(REFRESH_TOKEN_ISSUER).audience(REFRESH_TOKEN_AUDIENCE).build())
+                    .build();
+        }
+    }
 
     private final KeyStoreService keyStoreService;
+    private final RefreshTokenStore refreshTokenStore;
 
-    private final Configuration configuration = ConfigurationManager.getConfiguration();
+    // Rebuilt when the key store returns another private key, after a reload
+    private volatile TokenMinter tokenMinter;
+    // Rebuilt when the key store returns another public key, after a reload
+    private volatile RefreshTokenVerifier refreshTokenVerifier;
 
 
     @Autowired
-    public TokenService(KeyStoreService keyStoreService) {
+    public TokenService(KeyStoreService keyStoreService, RefreshTokenStore refreshTokenStore) {
         this.keyStoreService = keyStoreService;
+        this.refreshTokenStore = refreshTokenStore;
     }
 
 
@@ -66,16 +137,12 @@ public class TokenService {
             throws ServiceException {
         LOG.info("Creating signed JWT token");
 
-        // Create the payload
-        Payload payload = createTokenPayload(expiresIn, privateClaimTypeAndString,
-                privateClaimTypeAndStringArray);
-
-
         // Create the JWT containing the payload
         // Sign the JWT to create the JWS token
         // Result: nested signed token containing the payload
 
-        return createSignedToken(payload, keyStoreService.getPrivateKey());
+        return mint(ACCESS_TOKEN_CLAIMS, accessTokenClaims(expiresIn, privateClaimTypeAndString,
+                privateClaimTypeAndStringArray));
 
         // Encrypt the JWS token
         // Create the encrypted JWE token containing the nested token
@@ -85,58 +152,102 @@ public class TokenService {
     }
 
 
-    private Payload createTokenPayload(long expiresIn,
-                                       Map<String, String> privateClaimTypeAndString,
-                                       Map<String, String[]> privateClaimTypeAndStringArray) {
+    /**
+     * Generates the access and the refresh token of a login, signing them concurrently.
+     * The refresh token starts a new family.
+     *
+     * @param channel The channel the user logged in by
+     */
+    public SignedTokens generateTokens(final long expiresIn,
+                                       final Map<String, String> privateClaimTypeAndString,
+                                       final Map<String, String[]> privateClaimTypeAndStringArray,
+                                       final String email,
+                                       final AccessChannel channel)
+            throws ServiceException {
+        final String family = NanoIdUtils.randomNanoId();
+        final String tokenId = NanoIdUtils.randomNanoId();
+        refreshTokenStore.register(family, tokenId);
+        return generateTokens(expiresIn, privateClaimTypeAndString, privateClaimTypeAndStringArray, email, channel,
+                family, tokenId);
+    }
+
+    /**
+     * Generates the access token and the given refresh token of a family, signing them concurrently.
+     *
+     * @param channel The channel the family was started by
+     * @param tokenId The id of the refresh token, already current in its family
+     */
+    public SignedTokens generateTokens(final long expiresIn,
+                                       final Map<String, String> privateClaimTypeAndString,
+                                       final Map<String, String[]> privateClaimTypeAndStringArray,
+                                       final String email,
+                                       final AccessChannel channel,
+                                       final String family,
+                                       final String tokenId)
+            throws ServiceException {
+        final CompletableFuture<String> refreshToken = CompletableFuture.supplyAsync(
+                () -> getRefreshToken(email, channel, family, tokenId), SigningExecutorHolder.INSTANCE);
+        final String accessToken = generateJwtToken(expiresIn, privateClaimTypeAndString, privateClaimTypeAndStringArray);
+        try {
+            return new SignedTokens(accessToken, refreshToken.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ServiceException) {
+                throw (ServiceException) e.getCause();
+            }
+            throw new ServiceException(ErrorCode.UNABLE_TO_SIGN_TOKEN, e);
+        }
+    }
+
+    private static Map<String, Object> accessTokenClaims(long expiresIn,
+                                                         Map<String, String> privateClaimTypeAndString,
+                                                         Map<String, String[]> privateClaimTypeAndStringArray) {
 
-        Instant now = Instant.now();
-        Date expirationTime = Date.from(now.plus(expiresIn, ChronoUnit.MINUTES));
+        final long now = Instant.now().getEpochSecond();
 
         //3. JWT Payload or claims
-        JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder()
-                .issuer("Essential Programming Auth Service")
-                .audience("Essential Programming Services")
-                .expirationTime(expirationTime) // expires in 30 minutes
-                .notBeforeTime(Date.from(now))
-                .issueTime(Date.from(now))
-                .jwtID(NanoIdUtils.randomNanoId());
+        final Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("exp", now + TimeUnit.MINUTES.toSeconds(expiresIn));
+        claims.put("nbf", now);
+        claims.put("iat", now);
+        claims.put("jti", NanoIdUtils.randomNanoId());
 
         if (privateClaimTypeAndString != null) {
-            for (Map.Entry<String, String> entry : privateClaimTypeAndString.entrySet()) {
-                builder.claim(entry.getKey(), entry.getValue());
-            }
+            claims.putAll(privateClaimTypeAndString);
         }
 
         if (privateClaimTypeAndStringArray != null) {
-            for (Map.Entry<String, String[]> entry : privateClaimTypeAndStringArray.entrySet()) {
-                builder.claim(entry.getKey(), entry.getValue());
-            }
+            claims.putAll(privateClaimTypeAndStringArray);
         }
-
-        JWTClaimsSet jwtClaims = builder.build();
-        // return payload
-        return new Payload(jwtClaims.toJSONObject());
+        return claims;
     }
 
+    private static Map<String, Object> staticClaims(String issuer, String audience) {
+        final Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("iss", issuer);
+        if (audience != null) {
+            claims.put("aud", audience);
+        }
+        return claims;
+    }
 
-    private String createSignedToken(Payload payload, PrivateKey privateSigningKey)
-            throws ServiceException {
-
+    private String mint(TokenMinter.ClaimsTemplate template, Map<String, ?> claims) throws ServiceException {
+        final PrivateKey privateSigningKey = keyStoreService.getPrivateKey();
         if (privateSigningKey == null) {
             throw new ServiceException(ErrorCode.PRIVATE_KEY_IS_NULL);
         }
 
-        JWSObject jwsObject = new JWSObject(jwsHeader, payload);
-
         try {
-            JWSSigner signer = new RSASSASigner(privateSigningKey);
-            jwsObject.sign(signer);
-        } catch (JOSEException e) {
+            final String keyId = keyStoreService.getKeyId();
+            TokenMinter minter = tokenMinter;
+            if (minter == null || minter.getPrivateKey() != privateSigningKey || !Objects.equals(minter.getKeyId(), keyId)) {
+                minter = new TokenMinter(privateSigningKey, keyId);
+                tokenMinter = minter;
+            }
+            return minter.mint(template, claims);
+        } catch (GeneralSecurityException e) {
             LOG.error(ErrorCode.UNABLE_TO_SIGN_TOKEN.getDescription());
             throw new ServiceException(ErrorCode.UNABLE_TO_SIGN_TOKEN, e);
         }
-
-        return jwsObject.serialize();
     }
 
     private String encryptToken(String nestedJwt,
@@ -185,31 +296,51 @@ public class TokenService {
     }
 
     protected JWSSigner getJwsSigner() throws Exception {
+        Configuration configuration = ConfigurationManager.getConfiguration();
         String signingKey = configuration.getPropertyAsString("signingKey");
         String pemEncodedRSAPrivateKey = signingKey;
         RSAKey rsaKey = (RSAKey) JWK.parseFromPEMEncodedObjects(pemEncodedRSAPrivateKey);
         return new RSASSASigner(rsaKey.toRSAPrivateKey());
     }
 
-    protected String getRefreshToken(String email) {
-        JWSSigner jwsSigner = new RSASSASigner(keyStoreService.getPrivateKey());
-        Instant now = Instant.now();
+    protected String getRefreshToken(String email, AccessChannel channel, String family, String tokenId) {
+        final Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("email", email);
+        claims.put(REFRESH_TOKEN_CHANNEL, channel.name());
+        claims.put("exp", Instant.now().getEpochSecond() + REFRESH_TOKEN_TTL);
+        claims.put("jti", tokenId);
+        claims.put(REFRESH_TOKEN_FAMILY, family);
+        return mint(REFRESH_TOKEN_CLAIMS, claims);
+    }
+
+    /**
+     * Verifies the signature, issuer, audience and expiration time of a refresh token. Whether the token is still
+     * current in its family is up to the {@link RefreshTokenStore}.
+     *
+     * @return the claims of the token, {@code null} if it is malformed or invalid
+     */
+    public ClaimsView verifyRefreshToken(String refreshToken) {
+        final PublicKey publicKey = keyStoreService.getPublicKey();
+        RefreshTokenVerifier verifier = refreshTokenVerifier;
+        if (verifier == null || verifier.publicKey != publicKey) {
+            verifier = new RefreshTokenVerifier(publicKey);
+            refreshTokenVerifier = verifier;
+        }
 
-        JWTClaimsSet refreshTokenClaims = new JWTClaimsSet.Builder()
-                .issuer("EssentialProgramming Auth Service")
-                .claim("email", email)
-                //refresh token for 1 day.
-                .expirationTime(Date.from(now.plus(1, ChronoUnit.DAYS)))
-                .build();
-        SignedJWT signedRefreshToken = new SignedJWT(jwsHeader, refreshTokenClaims);
         try {
-            signedRefreshToken.sign(jwsSigner);
-        } catch (JOSEException e) {
-            LOG.error(ErrorCode.UNABLE_TO_SIGN_TOKEN.getDescription());
-            throw new ServiceException(ErrorCode.UNABLE_TO_SIGN_TOKEN, e);
+            final ValidationResponse<ClaimsView> response = verifier.verifier.verifyView(refreshToken);
+            if (!response.isValid()) {
+                LOG.info("Refresh token rejected: {}", response.getFailure());
+                return null;
+            }
+            final ClaimsView claims = response.getClaims();
+            return claims.getID() != null && claims.getString(REFRESH_TOKEN_FAMILY) != null
+                    && claims.getString("email") != null ? claims : null;
+        } catch (TokenValidationException e) {
+            LOG.info("Malformed refresh token: {}", e.getMessage());
+            return null;
         }
-        return signedRefreshToken.serialize();
     }
 
 
-}
\ No newline at end of file
+}
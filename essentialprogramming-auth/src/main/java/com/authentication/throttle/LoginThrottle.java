@@ -0,0 +1,126 @@
+package com.authentication.throttle;
+
+import com.util.cloud.Environment;
+import com.util.enums.HTTPCustomStatus;
+import com.util.exceptions.ApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles failed logins per email and per client address, so credential stuffing is rejected
+ * with a 429 before any account lookup or password hashing.
+ * <p>
+ * Failures are counted over a sliding window of {@code LOGIN_THROTTLE_WINDOW} seconds, 15 minutes by default.
+ * An email with {@code LOGIN_THROTTLE_EMAIL_LIMIT} failures (10) or an address with
+ * {@code LOGIN_THROTTLE_ADDRESS_LIMIT} failures (100) is rejected until the count slides below the limit;
+ * a successful login clears the email's failures. Each key type uses a table of
+ * {@code LOGIN_THROTTLE_CAPACITY} counters (2^20, 8 MiB), see {@link SlidingWindowCounters}.
+ * </p>
+ */
+@Slf4j
+@Component
+public class LoginThrottle {
+
+    private static final String LOGIN_THROTTLE_WINDOW = "LOGIN_THROTTLE_WINDOW";
+    private static final String LOGIN_THROTTLE_EMAIL_LIMIT = "LOGIN_THROTTLE_EMAIL_LIMIT";
+    private static final String LOGIN_THROTTLE_ADDRESS_LIMIT = "LOGIN_THROTTLE_ADDRESS_LIMIT";
+    private static final String LOGIN_THROTTLE_CAPACITY = "LOGIN_THROTTLE_CAPACITY";
+
+    private final SlidingWindowCounters failuresByEmail;
+    private final SlidingWindowCounters failuresByAddress;
+    private final int emailLimit;
+    private final int addressLimit;
+
+    private final Counter emailRejections;
+    private final Counter addressRejections;
+
+    public LoginThrottle() {
+        this(new SlidingWindowCounters(Environment.getProperty(LOGIN_THROTTLE_CAPACITY, 1 << 20),
+                        Environment.getProperty(LOGIN_THROTTLE_WINDOW, 900), TimeUnit.SECONDS),
+                Environment.getProperty(LOGIN_THROTTLE_EMAIL_LIMIT, 10),
+                new SlidingWindowCounters(Environment.getProperty(LOGIN_THROTTLE_CAPACITY, 1 << 20),
+                        Environment.getProperty(LOGIN_THROTTLE_WINDOW, 900), TimeUnit.SECONDS),
+                Environment.getProperty(LOGIN_THROTTLE_ADDRESS_LIMIT, 100),
+                Metrics.globalRegistry);
+    }
+
+    public LoginThrottle(final SlidingWindowCounters failuresByEmail, final int emailLimit,
+                         final SlidingWindowCounters failuresByAddress, final int addressLimit,
+                         final MeterRegistry registry) {
+        this.failuresByEmail = failuresByEmail;
+        this.failuresByAddress = failuresByAddress;
+        this.emailLimit = emailLimit;
+        this.addressLimit = addressLimit;
+
+        this.emailRejections = Counter.builder("login.throttle.rejected")
+                .description("Login attempts rejected because of too many failures")
+                .tag("key", "email")
+                .register(registry);
+        this.addressRejections = Counter.builder("login.throttle.rejected")
+                .description("Login attempts rejected because of too many failures")
+                .tag("key", "address")
+                .register(registry);
+        FunctionCounter.builder("login.throttle.evicted", failuresByEmail, SlidingWindowCounters::getEvictions)
+                .description("Failure counters evicted by other keys")
+                .tag("key", "email")
+                .register(registry);
+        FunctionCounter.builder("login.throttle.evicted", failuresByAddress, SlidingWindowCounters::getEvictions)
+                .description("Failure counters evicted by other keys")
+                .tag("key", "address")
+                .register(registry);
+        FunctionCounter.builder("login.throttle.dropped", failuresByEmail, SlidingWindowCounters::getDropped)
+                .description("Failures not counted because the key's counters were taken by hotter keys")
+                .tag("key", "email")
+                .register(registry);
+        FunctionCounter.builder("login.throttle.dropped", failuresByAddress, SlidingWindowCounters::getDropped)
+                .description("Failures not counted because the key's counters were taken by hotter keys")
+                .tag("key", "address")
+                .register(registry);
+    }
+
+    /**
+     * Check a login attempt before doing any work for it.
+     *
+     * @throws ApiException with status {@link HTTPCustomStatus#TOO_MANY_REQUESTS} if the email or the
+     *                      client address failed too many times recently
+     */
+    public void check(final String email, final String clientAddress) throws ApiException {
+        if (clientAddress != null && failuresByAddress.count(clientAddress) >= addressLimit) {
+            addressRejections.increment();
+            // Counted by the rejection metrics, a warning per attempt would let an attacker flood the logs
+            log.debug("Login from {} throttled", clientAddress);
+            throw new ApiException("Too many failed login attempts, retry later", HTTPCustomStatus.TOO_MANY_REQUESTS);
+        }
+        if (email != null && failuresByEmail.count(normalize(email)) >= emailLimit) {
+            emailRejections.increment();
+            log.debug("Login of {} from {} throttled", email, clientAddress);
+            throw new ApiException("Too many failed login attempts, retry later", HTTPCustomStatus.TOO_MANY_REQUESTS);
+        }
+    }
+
+    public void failed(final String email, final String clientAddress) {
+        if (clientAddress != null) {
+            failuresByAddress.increment(clientAddress);
+        }
+        if (email != null) {
+            failuresByEmail.increment(normalize(email));
+        }
+    }
+
+    public void succeeded(final String email) {
+        if (email != null) {
+            failuresByEmail.reset(normalize(email));
+        }
+    }
+
+    private static String normalize(final String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,239 @@
+package com.authentication.throttle;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.primitives.Longs;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Approximate sliding-window event counters per key, in a fixed-size table.
+ * <p>
+ * Each counter is a single {@code long} updated by compare-and-set, packing a key fingerprint, the current
+ * window and the event counts of the current and the previous window. The count over the last window is
+ * estimated as {@code previous * (1 - elapsed fraction of the current window) + current}, so counters expire
+ * by themselves once their key goes quiet.
+ * </p>
+ * <p>
+ * A key can live in two slots. When both are taken by other keys, the one with the lower count is evicted,
+ * but only if that count is at most 1, the count of the new key: memory stays at 8 bytes per slot however many
+ * distinct keys are counted, and a flood of new keys only evicts counters no hotter than its own. The event of
+ * a new key finding both slots hotter is dropped; the key gets a slot once one of them goes quiet, within
+ * two windows. As the slots depend on a per-instance seed, keys can't be crafted to keep a given key's slots hot.
+ * </p>
+ */
+public final class SlidingWindowCounters {
+
+    private static final int COUNT_BITS = 12;
+    private static final int WINDOW_BITS = 20;
+    private static final int FINGERPRINT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final long WINDOW_MASK = (1L << WINDOW_BITS) - 1;
+    private static final long FINGERPRINT_MASK = (1L << FINGERPRINT_BITS) - 1;
+    private static final int CURRENT_SHIFT = COUNT_BITS;
+    private static final int WINDOW_SHIFT = 2 * COUNT_BITS;
+    private static final int FINGERPRINT_SHIFT = 2 * COUNT_BITS + WINDOW_BITS;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Counts saturate at this value.
+     */
+    public static final int MAX_COUNT = (int) COUNT_MASK;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final long windowMillis;
+    private final LongSupplier clock;
+    // Seeded per instance, so colliding keys can't be crafted offline
+    private final HashFunction hashFunction = Hashing.murmur3_128(new SecureRandom().nextInt());
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param capacity Number of slots, rounded up to a power of two
+     */
+    public SlidingWindowCounters(final int capacity, final long window, final TimeUnit unit) {
+        this(capacity, unit.toMillis(window), System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock Current time in milliseconds
+     */
+    public SlidingWindowCounters(final int capacity, final long windowMillis, final LongSupplier clock) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY || windowMillis <= 0) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30, window positive");
+        }
+        final int size = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        this.slots = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Count an event.
+     *
+     * @return the number of events of the key in the last window, this one included; 1 if the event was
+     * dropped because both slots of the key hold hotter counters
+     */
+    public int increment(final String key) {
+        final HashCode hash = hashFunction.hashString(key, StandardCharsets.UTF_8);
+        final byte[] bytes = hash.asBytes();
+        final long indexes = hash.asLong();
+        final long fingerprint = fingerprint(bytes);
+        final int first = (int) indexes & mask;
+        final int second = secondIndex(indexes, first);
+
+        final long now = clock.getAsLong();
+        final long window = now / windowMillis;
+        while (true) {
+            final long firstState = slots.get(first);
+            final long secondState = slots.get(second);
+
+            final int index;
+            final long state;
+            if (fingerprintOf(firstState) == fingerprint) {
+                index = first;
+                state = firstState;
+            } else if (fingerprintOf(secondState) == fingerprint) {
+                index = second;
+                state = secondState;
+            } else {
+                final int firstCount = estimate(firstState, now);
+                final int secondCount = estimate(secondState, now);
+                final boolean evictFirst = firstCount <= secondCount;
+                if ((evictFirst ? firstCount : secondCount) > 1) {
+                    dropped.increment();
+                    return 1;
+                }
+                if (slots.compareAndSet(evictFirst ? first : second, evictFirst ? firstState : secondState,
+                        pack(fingerprint, window, 1, 0))) {
+                    if ((evictFirst ? firstCount : secondCount) > 0) {
+                        evictions.increment();
+                    }
+                    return 1;
+                }
+                continue;
+            }
+
+            final long rolled = roll(state, window);
+            final long next = pack(fingerprint, window, Math.min(COUNT_MASK, currentOf(rolled) + 1), previousOf(rolled));
+            if (slots.compareAndSet(index, state, next)) {
+                return estimate(next, now);
+            }
+        }
+    }
+
+    /**
+     * @return the number of events of the key in the last window
+     */
+    public int count(final String key) {
+        final int index = find(key);
+        return index < 0 ? 0 : estimate(slots.get(index), clock.getAsLong());
+    }
+
+    /**
+     * Forget the events of the key.
+     */
+    public void reset(final String key) {
+        final int index = find(key);
+        if (index >= 0) {
+            final long state = slots.get(index);
+            if (fingerprintOf(state) == fingerprintOfKey(key)) {
+                slots.compareAndSet(index, state, 0);
+            }
+        }
+    }
+
+    /**
+     * Number of counters still counting that were evicted by other keys.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Number of events dropped because both slots of their key held hotter counters.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    private int find(final String key) {
+        final HashCode hash = hashFunction.hashString(key, StandardCharsets.UTF_8);
+        final long fingerprint = fingerprint(hash.asBytes());
+        final int first = (int) hash.asLong() & mask;
+        final int second = secondIndex(hash.asLong(), first);
+        if (fingerprintOf(slots.get(first)) == fingerprint) {
+            return first;
+        }
+        return fingerprintOf(slots.get(second)) == fingerprint ? second : -1;
+    }
+
+    /**
+     * The alternative slot, never the first one, or a key with both slots in the same place could
+     * be evicted by a colder one.
+     */
+    private int secondIndex(final long indexes, final int first) {
+        final int second = (int) (indexes >>> 32) & mask;
+        return second == first ? first ^ 1 : second;
+    }
+
+    private long fingerprintOfKey(final String key) {
+        return fingerprint(hashFunction.hashString(key, StandardCharsets.UTF_8).asBytes());
+    }
+
+    /**
+     * The upper half of the hash, never 0 which marks a free slot.
+     */
+    private static long fingerprint(final byte[] hash) {
+        final long fingerprint = Longs.fromBytes(hash[8], hash[9], hash[10], hash[11], hash[12], hash[13], hash[14], hash[15])
+                & FINGERPRINT_MASK;
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    /**
+     * The state moved to the given window: the current count becomes the previous one if the state is
+     * from the window before, both are dropped if it's older.
+     */
+    private static long roll(final long state, final long window) {
+        final long stateWindow = (state >>> WINDOW_SHIFT) & WINDOW_MASK;
+        if (stateWindow == (window & WINDOW_MASK)) {
+            return state;
+        }
+        final long previous = ((stateWindow + 1) & WINDOW_MASK) == (window & WINDOW_MASK) ? currentOf(state) : 0;
+        return pack(fingerprintOf(state), window, 0, previous);
+    }
+
+    private int estimate(final long state, final long now) {
+        final long rolled = roll(state, now / windowMillis);
+        final long remaining = windowMillis - now % windowMillis;
+        return (int) (previousOf(rolled) * remaining / windowMillis + currentOf(rolled));
+    }
+
+    private static long pack(final long fingerprint, final long window, final long current, final long previous) {
+        return fingerprint << FINGERPRINT_SHIFT | (window & WINDOW_MASK) << WINDOW_SHIFT | current << CURRENT_SHIFT | previous;
+    }
+
+    private static long fingerprintOf(final long state) {
+        return state >>> FINGERPRINT_SHIFT;
+    }
+
+    private static long currentOf(final long state) {
+        return (state >>> CURRENT_SHIFT) & COUNT_MASK;
+    }
+
+    private static long previousOf(final long state) {
+        return state & COUNT_MASK;
+    }
+}
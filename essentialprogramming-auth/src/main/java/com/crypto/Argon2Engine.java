@@ -0,0 +1,320 @@
+package com.crypto;
+
+import org.bouncycastle.crypto.digests.Blake2bDigest;
+import org.bouncycastle.util.Pack;
+import org.bouncycastle.util.Strings;
+
+import java.util.Arrays;
+
+/**
+ * Argon2id (RFC 9106) computed in a block matrix that is allocated once and reused for every hash.
+ * <p>
+ * BouncyCastle's {@code Argon2BytesGenerator} allocates the whole matrix, 64 MiB with the default costs,
+ * for each hash and drops it right after, so under login load the garbage grows with the login rate.
+ * Here the matrix is a single {@code long[]} that is pooled by {@link Argon2PasswordEncoder}; the hashes are
+ * identical to BouncyCastle's. An engine is not thread safe.
+ * </p>
+ */
+final class Argon2Engine {
+
+    private static final int ARGON2_ID = 2;
+    private static final int ARGON2_VERSION_10 = 0x10;
+
+    private static final int BLOCK_SIZE = 1024;
+    private static final int QWORDS_IN_BLOCK = BLOCK_SIZE / 8;
+    private static final int SYNC_POINTS = 4;
+    private static final int MIN_PARALLELISM = 1;
+    private static final int MAX_PARALLELISM = 16777216;
+
+    private final long[] memory;
+    private final int memoryBlocks;
+
+    private final long[] r = new long[QWORDS_IN_BLOCK];
+    private final long[] z = new long[QWORDS_IN_BLOCK];
+    private final long[] addressBlock = new long[QWORDS_IN_BLOCK];
+    private final long[] inputBlock = new long[QWORDS_IN_BLOCK];
+    private final long[] zeroBlock = new long[QWORDS_IN_BLOCK];
+    private final byte[] blockBytes = new byte[BLOCK_SIZE];
+    private final Blake2bDigest digest = new Blake2bDigest(512);
+
+    private int lanes;
+    private int laneLength;
+    private int segmentLength;
+
+    /**
+     * @param memoryBlocks Size of the block matrix, see {@link #memoryBlocks(int, int)}
+     */
+    Argon2Engine(final int memoryBlocks) {
+        this.memoryBlocks = memoryBlocks;
+        this.memory = new long[memoryBlocks * QWORDS_IN_BLOCK];
+    }
+
+    /**
+     * Number of 1 KiB blocks used for a memory cost: at least 8 per lane, rounded down to a multiple of 4 per lane.
+     */
+    static int memoryBlocks(final int memory, final int parallelism) {
+        final int blocks = Math.max(memory, 2 * SYNC_POINTS * parallelism);
+        return blocks / (SYNC_POINTS * parallelism) * (SYNC_POINTS * parallelism);
+    }
+
+    int getMemoryBlocks() {
+        return memoryBlocks;
+    }
+
+    /**
+     * Hash a password. The memory cost must fit the engine, {@code memoryBlocks(memory, parallelism) == getMemoryBlocks()}.
+     *
+     * @param memory Memory cost in KiB
+     */
+    byte[] hash(final char[] password, final byte[] salt, final int memory, final int iterations, final int parallelism,
+                final int version, final int hashLength) {
+        if (parallelism < MIN_PARALLELISM || parallelism > MAX_PARALLELISM || iterations < 1) {
+            throw new IllegalArgumentException("Invalid Argon2 parameters");
+        }
+        if (memoryBlocks(memory, parallelism) != memoryBlocks) {
+            throw new IllegalArgumentException("Memory cost does not fit the engine");
+        }
+        lanes = parallelism;
+        laneLength = memoryBlocks / parallelism;
+        segmentLength = laneLength / SYNC_POINTS;
+
+        try {
+            initialize(Strings.toUTF8ByteArray(password), salt, memory, iterations, version, hashLength);
+            for (int pass = 0; pass < iterations; pass++) {
+                for (int slice = 0; slice < SYNC_POINTS; slice++) {
+                    for (int lane = 0; lane < lanes; lane++) {
+                        fillSegment(pass, lane, slice, iterations, version);
+                    }
+                }
+            }
+            return digestResult(hashLength);
+        } finally {
+            clear();
+        }
+    }
+
+    /**
+     * H0 and the first two blocks of each lane.
+     */
+    private void initialize(final byte[] password, final byte[] salt, final int memoryCost, final int iterations,
+                            final int version, final int hashLength) {
+        final byte[] initialHash = new byte[64 + 8];
+        addInt(digest, lanes);
+        addInt(digest, hashLength);
+        addInt(digest, memoryCost);
+        addInt(digest, iterations);
+        addInt(digest, version);
+        addInt(digest, ARGON2_ID);
+        addBytes(digest, password);
+        addBytes(digest, salt);
+        addBytes(digest, new byte[0]); // secret
+        addBytes(digest, new byte[0]); // associated data
+        digest.doFinal(initialHash, 0);
+
+        for (int lane = 0; lane < lanes; lane++) {
+            Pack.intToLittleEndian(lane, initialHash, 68);
+            for (int block = 0; block < 2; block++) {
+                Pack.intToLittleEndian(block, initialHash, 64);
+                hashPrime(blockBytes, initialHash);
+                final int offset = (lane * laneLength + block) * QWORDS_IN_BLOCK;
+                for (int i = 0; i < QWORDS_IN_BLOCK; i++) {
+                    memory[offset + i] = Pack.littleEndianToLong(blockBytes, 8 * i);
+                }
+            }
+        }
+    }
+
+    private void fillSegment(final int pass, final int lane, final int slice, final int iterations, final int version) {
+        final boolean dataIndependent = pass == 0 && slice < SYNC_POINTS / 2;
+        final int startIndex = pass == 0 && slice == 0 ? 2 : 0;
+        final boolean withXor = pass != 0 && version != ARGON2_VERSION_10;
+
+        if (dataIndependent) {
+            Arrays.fill(inputBlock, 0);
+            inputBlock[0] = pass;
+            inputBlock[1] = lane;
+            inputBlock[2] = slice;
+            inputBlock[3] = memoryBlocks;
+            inputBlock[4] = iterations;
+            inputBlock[5] = ARGON2_ID;
+            if (startIndex == 2) {
+                nextAddresses();
+            }
+        }
+
+        int currentOffset = lane * laneLength + slice * segmentLength + startIndex;
+        int prevOffset = currentOffset % laneLength == 0 ? currentOffset + laneLength - 1 : currentOffset - 1;
+
+        for (int index = startIndex; index < segmentLength; index++, currentOffset++, prevOffset++) {
+            if (currentOffset % laneLength == 1) {
+                prevOffset = currentOffset - 1;
+            }
+
+            final long pseudoRandom;
+            if (dataIndependent) {
+                if (index % QWORDS_IN_BLOCK == 0) {
+                    nextAddresses();
+                }
+                pseudoRandom = addressBlock[index % QWORDS_IN_BLOCK];
+            } else {
+                pseudoRandom = memory[prevOffset * QWORDS_IN_BLOCK];
+            }
+
+            final int refLane = pass == 0 && slice == 0 ? lane : (int) ((pseudoRandom >>> 32) % lanes);
+            final int refIndex = referenceIndex(pass, slice, index, pseudoRandom & 0xFFFFFFFFL, refLane == lane);
+
+            compress(memory, prevOffset * QWORDS_IN_BLOCK, memory, (refLane * laneLength + refIndex) * QWORDS_IN_BLOCK,
+                    memory, currentOffset * QWORDS_IN_BLOCK, withXor);
+        }
+    }
+
+    private void nextAddresses() {
+        inputBlock[6]++;
+        compress(zeroBlock, 0, inputBlock, 0, addressBlock, 0, false);
+        compress(zeroBlock, 0, addressBlock, 0, addressBlock, 0, false);
+    }
+
+    private int referenceIndex(final int pass, final int slice, final int index, final long pseudoRandom, final boolean sameLane) {
+        final int finishedBlocks = pass == 0 ? slice * segmentLength : laneLength - segmentLength;
+        final int referenceAreaSize = sameLane
+                ? finishedBlocks + index - 1
+                : finishedBlocks + (index == 0 ? -1 : 0);
+
+        long relativePosition = (pseudoRandom * pseudoRandom) >>> 32;
+        relativePosition = referenceAreaSize - 1 - ((referenceAreaSize * relativePosition) >>> 32);
+
+        final int startPosition = pass != 0 && slice != SYNC_POINTS - 1 ? (slice + 1) * segmentLength : 0;
+        return (int) ((startPosition + relativePosition) % laneLength);
+    }
+
+    /**
+     * The compression function G: {@code out (^)= P(x ^ y) ^ x ^ y}.
+     */
+    private void compress(final long[] x, final int xOffset, final long[] y, final int yOffset,
+                          final long[] out, final int outOffset, final boolean withXor) {
+        for (int i = 0; i < QWORDS_IN_BLOCK; i++) {
+            r[i] = x[xOffset + i] ^ y[yOffset + i];
+        }
+        System.arraycopy(r, 0, z, 0, QWORDS_IN_BLOCK);
+
+        for (int i = 0; i < 8; i++) {
+            final int row = 16 * i;
+            permute(z, row, row + 1, row + 2, row + 3, row + 4, row + 5, row + 6, row + 7,
+                    row + 8, row + 9, row + 10, row + 11, row + 12, row + 13, row + 14, row + 15);
+        }
+        for (int i = 0; i < 8; i++) {
+            final int column = 2 * i;
+            permute(z, column, column + 1, column + 16, column + 17, column + 32, column + 33, column + 48, column + 49,
+                    column + 64, column + 65, column + 80, column + 81, column + 96, column + 97, column + 112, column + 113);
+        }
+
+        if (withXor) {
+            for (int i = 0; i < QWORDS_IN_BLOCK; i++) {
+                out[outOffset + i] ^= z[i] ^ r[i];
+            }
+        } else {
+            for (int i = 0; i < QWORDS_IN_BLOCK; i++) {
+                out[outOffset + i] = z[i] ^ r[i];
+            }
+        }
+    }
+
+    private static void permute(final long[] v, final int v0, final int v1, final int v2, final int v3,
+                                final int v4, final int v5, final int v6, final int v7,
+                                final int v8, final int v9, final int v10, final int v11,
+                                final int v12, final int v13, final int v14, final int v15) {
+        mix(v, v0, v4, v8, v12);
+        mix(v, v1, v5, v9, v13);
+        mix(v, v2, v6, v10, v14);
+        mix(v, v3, v7, v11, v15);
+        mix(v, v0, v5, v10, v15);
+        mix(v, v1, v6, v11, v12);
+        mix(v, v2, v7, v8, v13);
+        mix(v, v3, v4, v9, v14);
+    }
+
+    private static void mix(final long[] v, final int a, final int b, final int c, final int d) {
+        v[a] = blaMka(v[a], v[b]);
+        v[d] = Long.rotateRight(v[d] ^ v[a], 32);
+        v[c] = blaMka(v[c], v[d]);
+        v[b] = Long.rotateRight(v[b] ^ v[c], 24);
+        v[a] = blaMka(v[a], v[b]);
+        v[d] = Long.rotateRight(v[d] ^ v[a], 16);
+        v[c] = blaMka(v[c], v[d]);
+        v[b] = Long.rotateRight(v[b] ^ v[c], 63);
+    }
+
+    private static long blaMka(final long x, final long y) {
+        return x + y + 2 * (x & 0xFFFFFFFFL) * (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The tag is H' of the XOR of the last blocks of all lanes.
+     */
+    private byte[] digestResult(final int hashLength) {
+        final int lastBlock = laneLength - 1;
+        System.arraycopy(memory, lastBlock * QWORDS_IN_BLOCK, r, 0, QWORDS_IN_BLOCK);
+        for (int lane = 1; lane < lanes; lane++) {
+            final int offset = (lane * laneLength + lastBlock) * QWORDS_IN_BLOCK;
+            for (int i = 0; i < QWORDS_IN_BLOCK; i++) {
+                r[i] ^= memory[offset + i];
+            }
+        }
+        Pack.longToLittleEndian(r, blockBytes, 0);
+
+        final byte[] result = new byte[hashLength];
+        hashPrime(result, blockBytes);
+        return result;
+    }
+
+    /**
+     * The variable length hash function H'.
+     */
+    private void hashPrime(final byte[] out, final byte[] input) {
+        if (out.length <= 64) {
+            final Blake2bDigest shortDigest = new Blake2bDigest(out.length * 8);
+            addInt(shortDigest, out.length);
+            shortDigest.update(input, 0, input.length);
+            shortDigest.doFinal(out, 0);
+            return;
+        }
+
+        final byte[] v = new byte[64];
+        addInt(digest, out.length);
+        digest.update(input, 0, input.length);
+        digest.doFinal(v, 0);
+        System.arraycopy(v, 0, out, 0, 32);
+
+        final int rounds = (out.length + 31) / 32 - 2;
+        int position = 32;
+        for (int i = 2; i <= rounds; i++, position += 32) {
+            digest.update(v, 0, v.length);
+            digest.doFinal(v, 0);
+            System.arraycopy(v, 0, out, position, 32);
+        }
+
+        final Blake2bDigest lastDigest = new Blake2bDigest((out.length - 32 * rounds) * 8);
+        lastDigest.update(v, 0, v.length);
+        lastDigest.doFinal(out, position);
+    }
+
+    private static void addInt(final Blake2bDigest digest, final int value) {
+        final byte[] bytes = Pack.intToLittleEndian(value);
+        digest.update(bytes, 0, bytes.length);
+    }
+
+    private static void addBytes(final Blake2bDigest digest, final byte[] bytes) {
+        addInt(digest, bytes.length);
+        digest.update(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The matrix is derived from the password, it's wiped before the engine is reused.
+     */
+    private void clear() {
+        Arrays.fill(memory, 0);
+        Arrays.fill(r, 0);
+        Arrays.fill(z, 0);
+        Arrays.fill(blockBytes, (byte) 0);
+    }
+}
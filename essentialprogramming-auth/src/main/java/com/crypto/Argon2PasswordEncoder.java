@@ -1,24 +1,58 @@
 package com.crypto;
 
-import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
-import org.bouncycastle.crypto.params.Argon2Parameters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
 
 public class Argon2PasswordEncoder extends AbstractPasswordEncoder {
 
     final static Logger logger = LoggerFactory.getLogger(Argon2PasswordEncoder.class);
 
-    private static final int ARGON2_HASH_ALGORITHM = 2;
+    static final String ALGORITHM_ID = "argon2id";
+
+    private static final int ARGON2_VERSION = 0x13;
     private static final int ARGON2_SALT_LENGTH = 16;
     private static final int ARGON2_HASH_LENGTH = 32;
-    private static final int ARGON2_PARALLELISM = 1;
-    private static final int ARGON2_MEMORY = 65536;
-    private static final int ARGON2_ITERATIONS = 2;
+
+    private final int memory;
+    private final int iterations;
+    private final int parallelism;
+
+    /**
+     * Block matrices of the engines, kept for reuse instead of allocating one per hash.
+     */
+    private final BlockingQueue<Argon2Engine> engines;
+
+    /**
+     * @param memory      Memory cost in KiB
+     * @param iterations  Time cost, the number of passes over the memory
+     * @param parallelism Number of lanes
+     */
+    public Argon2PasswordEncoder(final int memory, final int iterations, final int parallelism) {
+        this(memory, iterations, parallelism, Math.max(1, HashingScheduler.getInstance().getMemoryBudget() / memory));
+    }
+
+    /**
+     * @param poolSize Maximum number of block matrices kept for reuse. The pool grows on demand, up to
+     *                 the number of hashes the {@link HashingScheduler} lets run concurrently by default.
+     */
+    public Argon2PasswordEncoder(final int memory, final int iterations, final int parallelism, final int poolSize) {
+        this.memory = memory;
+        this.iterations = iterations;
+        this.parallelism = parallelism;
+        this.engines = new ArrayBlockingQueue<>(poolSize);
+    }
 
     private static final class Argon2PasswordEncoderHolder {
-        static final Argon2PasswordEncoder INSTANCE = new Argon2PasswordEncoder();
+        static final Argon2PasswordEncoder INSTANCE = new Argon2PasswordEncoder(
+                PasswordHashPolicy.getInstance().getArgon2Memory(),
+                PasswordHashPolicy.getInstance().getArgon2Iterations(),
+                PasswordHashPolicy.getInstance().getArgon2Parallelism());
     }
 
     public static Argon2PasswordEncoder getInstance() {
@@ -30,7 +64,7 @@ public class Argon2PasswordEncoder extends AbstractPasswordEncoder {
      * Generate an encoded password hash value for storage in a user's account.
      *
      * @param password the password to hash
-     * @return a hash of the password in the form of HASH:SALT:ALGORITHM
+     * @return a hash of the password in the form of $argon2id$v=19$m=MEMORY,t=ITERATIONS,p=PARALLELISM$SALT$HASH
      */
     String createHash(char[] password) {
         logger.debug("create hash");
@@ -39,35 +73,93 @@ public class Argon2PasswordEncoder extends AbstractPasswordEncoder {
         byte[] salt = SaltGenerator.init(ARGON2_SALT_LENGTH).generateSalt();
 
         // Hash the password
-        byte[] hash = encodeWithSalt(password, salt);
+        byte[] hash = encodeWithSalt(password, salt, memory, iterations, parallelism, ARGON2_VERSION);
+
+        final Map<String, Integer> params = new LinkedHashMap<>();
+        params.put("v", ARGON2_VERSION);
+        params.put("m", memory);
+        params.put("t", iterations);
+        params.put("p", parallelism);
+        return new HashFormat(ALGORITHM_ID, params, salt, hash).format();
+    }
 
-        // Format hash:salt:algorithm
-        return EncodingUtils.toHex(hash) + ":" + EncodingUtils.toHex(salt) + ":" + "2";
+    /**
+     * Each computation uses {@code memory} KiB, so it only starts once the
+     * {@link HashingScheduler} admits it.
+     */
+    private byte[] encodeWithSalt(char[] password, byte[] salt, int memory, int iterations, int parallelism, int version) {
+        return HashingScheduler.getInstance().run(memory, () -> {
+            final int blocks = Argon2Engine.memoryBlocks(memory, parallelism);
+            final boolean pooled = blocks == Argon2Engine.memoryBlocks(this.memory, this.parallelism);
+
+            // Hashes with other costs than the current ones are rehashed on login, their matrices aren't kept
+            Argon2Engine engine = pooled ? engines.poll() : null;
+            if (engine == null) {
+                engine = new Argon2Engine(blocks);
+            }
+            try {
+                return engine.hash(password, salt, memory, iterations, parallelism, version, ARGON2_HASH_LENGTH);
+            } finally {
+                if (pooled) {
+                    engines.offer(engine);
+                }
+            }
+        });
     }
 
-    private static byte[] encodeWithSalt(char[] password, byte[] salt) {
-        byte[] hash = new byte[ARGON2_HASH_LENGTH];
-        Argon2Parameters params = new Argon2Parameters.Builder(ARGON2_HASH_ALGORITHM)
-                .withSalt(salt)
-                .withParallelism(ARGON2_PARALLELISM)
-                .withMemoryAsKB(ARGON2_MEMORY)
-                .withIterations(ARGON2_ITERATIONS)
-                .build();
-        Argon2BytesGenerator generator = new Argon2BytesGenerator();
-        generator.init(params);
-        generator.generateBytes(password, hash);
-        return hash;
+    /**
+     * Computes a hash without admission control or pooling, e.g. to calibrate the costs.
+     */
+    static byte[] computeHash(char[] password, byte[] salt, int memory, int iterations, int parallelism) {
+        return new Argon2Engine(Argon2Engine.memoryBlocks(memory, parallelism))
+                .hash(password, salt, memory, iterations, parallelism, ARGON2_VERSION, ARGON2_HASH_LENGTH);
     }
 
+    /**
+     * Hashes in the legacy HASH:SALT:2 format were computed with the default costs.
+     */
+    @Override
+    public boolean matches(CharSequence passwordSequence, String encodedPassword) {
+        if (!HashFormat.isFormatted(encodedPassword)) {
+            return super.matches(passwordSequence, encodedPassword);
+        }
+        final HashFormat hash = HashFormat.parse(encodedPassword);
+        if (hash == null || !ALGORITHM_ID.equals(hash.getAlgorithm())) {
+            return false;
+        }
+
+        byte[] testHash = encodeWithSalt(passwordSequence.toString().toCharArray(), hash.getSalt(),
+                hash.getParam("m", PasswordHashPolicy.DEFAULT_ARGON2_MEMORY),
+                hash.getParam("t", PasswordHashPolicy.DEFAULT_ARGON2_ITERATIONS),
+                hash.getParam("p", PasswordHashPolicy.DEFAULT_ARGON2_PARALLELISM),
+                hash.getParam("v", ARGON2_VERSION));
+        return EncodingUtils.slowEquals(hash.getHash(), testHash);
+    }
 
     boolean matches(char[] password, byte[] hash, byte[] salt) {
 
         // Compute the hash of the provided password, using the same salt
-        byte[] testHash = encodeWithSalt(password, salt);
+        byte[] testHash = encodeWithSalt(password, salt, PasswordHashPolicy.DEFAULT_ARGON2_MEMORY,
+                PasswordHashPolicy.DEFAULT_ARGON2_ITERATIONS, PasswordHashPolicy.DEFAULT_ARGON2_PARALLELISM, ARGON2_VERSION);
 
         // Compare the hashes in constant time. The password is correct if the two hashes match.
         return EncodingUtils.slowEquals(hash, testHash);
 
     }
 
+    /**
+     * A hash needs upgrading if it is in the legacy format or was computed with lower costs than this encoder's.
+     * Hashes computed with higher costs, e.g. on a stronger node, are kept.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        final HashFormat hash = HashFormat.parse(encodedPassword);
+        return hash == null
+                || hash.getParam("m", 0) < memory
+                || hash.getParam("t", 0) < iterations;
+    }
+
+    public int getMemory() {
+        return memory;
+    }
 }
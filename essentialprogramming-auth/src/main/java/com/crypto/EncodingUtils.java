@@ -23,6 +23,13 @@ class EncodingUtils {
         return Base64.getEncoder().encodeToString(array);
     }
 
+    /**
+     * Converts a byte array into a base64 string without the trailing padding.
+     */
+    static String toUnpaddedBase64(byte[] array) {
+        return Base64.getEncoder().withoutPadding().encodeToString(array);
+    }
+
     /**
      * Converts a string of base64 characters into a byte array.
      *
@@ -0,0 +1,106 @@
+package com.crypto;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Self-describing password hash in the PHC string format:
+ * {@code $<algorithm>[$v=<version>]$<param>=<value>(,<param>=<value>)*$<salt>$<hash>},
+ * salt and hash Base64 encoded without padding.
+ * <p>
+ * Unlike the legacy {@code HASH:SALT:ALGORITHM} format, the hash carries the cost parameters it was
+ * computed with, so the costs can be raised without breaking the existing hashes.
+ * </p>
+ */
+final class HashFormat {
+
+    private static final String SEPARATOR = "$";
+
+    private final String algorithm;
+    private final Map<String, Integer> params;
+    private final byte[] salt;
+    private final byte[] hash;
+
+    HashFormat(final String algorithm, final Map<String, Integer> params, final byte[] salt, final byte[] hash) {
+        this.algorithm = algorithm;
+        this.params = params;
+        this.salt = salt;
+        this.hash = hash;
+    }
+
+    static boolean isFormatted(final String encodedPassword) {
+        return encodedPassword.startsWith(SEPARATOR);
+    }
+
+    /**
+     * Returns the algorithm identifier of a PHC formatted hash, or null for the legacy format.
+     */
+    static String algorithmOf(final String encodedPassword) {
+        if (!isFormatted(encodedPassword)) {
+            return null;
+        }
+        final int end = encodedPassword.indexOf(SEPARATOR, 1);
+        return end < 0 ? null : encodedPassword.substring(1, end);
+    }
+
+    /**
+     * @return the parsed hash, or null if it isn't a well formed PHC string
+     */
+    static HashFormat parse(final String encodedPassword) {
+        if (!isFormatted(encodedPassword)) {
+            return null;
+        }
+        final String[] parts = encodedPassword.substring(1).split("\\$", -1);
+        if (parts.length < 4) {
+            return null;
+        }
+        try {
+            final Map<String, Integer> params = new LinkedHashMap<>();
+            for (int i = 1; i < parts.length - 2; i++) {
+                for (String param : parts[i].split(",")) {
+                    final int separator = param.indexOf('=');
+                    if (separator <= 0) {
+                        return null;
+                    }
+                    params.put(param.substring(0, separator), Integer.valueOf(param.substring(separator + 1)));
+                }
+            }
+            return new HashFormat(parts[0], Collections.unmodifiableMap(params),
+                    EncodingUtils.fromBase64(parts[parts.length - 2]), EncodingUtils.fromBase64(parts[parts.length - 1]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parameters are written in iteration order, a {@code v} parameter as its own field.
+     */
+    String format() {
+        final StringBuilder builder = new StringBuilder(SEPARATOR).append(algorithm);
+        String separator = SEPARATOR;
+        for (Map.Entry<String, Integer> param : params.entrySet()) {
+            builder.append(separator).append(param.getKey()).append('=').append(param.getValue());
+            separator = "v".equals(param.getKey()) ? SEPARATOR : ",";
+        }
+        return builder.append(SEPARATOR).append(EncodingUtils.toUnpaddedBase64(salt))
+                .append(SEPARATOR).append(EncodingUtils.toUnpaddedBase64(hash))
+                .toString();
+    }
+
+    String getAlgorithm() {
+        return algorithm;
+    }
+
+    int getParam(final String name, final int fallback) {
+        return params.getOrDefault(name, fallback);
+    }
+
+    byte[] getSalt() {
+        return salt;
+    }
+
+    byte[] getHash() {
+        return hash;
+    }
+}
@@ -19,6 +19,20 @@ public class HashHmacPasswordEncoder extends AbstractPasswordEncoder {
     private static final String HASH_ALGORITHM = "HMACSHA256";
     private static final int SALT_LENGTH = 32; // bytes
 
+    /**
+     * Macs keyed once per thread, the key is read from the environment on first use.
+     */
+    private static final ThreadLocal<Mac> macs = ThreadLocal.withInitial(() -> {
+        try {
+            Key sk = new SecretKeySpec(Environment.getProperty(SECRET_KEY, "secret").getBytes(), HASH_ALGORITHM);
+            Mac mac = Mac.getInstance(sk.getAlgorithm());
+            mac.init(sk);
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Cannot initialize " + HASH_ALGORITHM, e);
+        }
+    });
+
 
     private static final class HashHmacPasswordEncoderHolder {
         static final HashHmacPasswordEncoder INSTANCE = new HashHmacPasswordEncoder();
@@ -49,15 +63,10 @@ public class HashHmacPasswordEncoder extends AbstractPasswordEncoder {
         return EncodingUtils.toHex(hash) + ":" + EncodingUtils.toHex(salt) + ":" + "4";
     }
 
-    private static byte[] encodeWithSalt(char[] password, byte[] salt) throws NoSuchAlgorithmException, InvalidKeyException {
-        Key sk = new SecretKeySpec(Environment.getProperty(SECRET_KEY, "secret").getBytes(), HASH_ALGORITHM);
-        Mac mac = Mac.getInstance(sk.getAlgorithm());
-        mac.init(sk);
-        byte[] passwordBytes = new String(password).getBytes();
-        byte[] saltPassword = new byte[salt.length + passwordBytes.length];
-        System.arraycopy(salt, 0, saltPassword, 0, salt.length);
-        System.arraycopy(passwordBytes, 0, saltPassword, salt.length, passwordBytes.length);
-        return mac.doFinal(saltPassword);
+    private static byte[] encodeWithSalt(char[] password, byte[] salt) {
+        Mac mac = macs.get();
+        mac.update(salt);
+        return mac.doFinal(new String(password).getBytes());
     }
 
 
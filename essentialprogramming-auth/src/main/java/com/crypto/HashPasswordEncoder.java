@@ -13,6 +13,14 @@ public class HashPasswordEncoder extends AbstractPasswordEncoder {
     private static final String HASH_ALGORITHM = "SHA-256";
     private static final int SALT_LENGTH = 32; // bytes
 
+    private static final ThreadLocal<MessageDigest> digests = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(HASH_ALGORITHM + " is not available", e);
+        }
+    });
+
     private static final class HashPasswordEncoderHolder {
         static final HashPasswordEncoder INSTANCE = new HashPasswordEncoder();
     }
@@ -49,7 +57,8 @@ public class HashPasswordEncoder extends AbstractPasswordEncoder {
         //System.arraycopy(salt, 0, saltPassword, 0, salt.length);
         //System.arraycopy(passwordBytes, 0, saltPassword, salt.length, passwordBytes.length);
 
-        MessageDigest md = MessageDigest.getInstance(HASH_ALGORITHM);
+        MessageDigest md = digests.get();
+        md.reset();
         md.update(salt);
         return md.digest(passwordBytes);
 
@@ -0,0 +1,168 @@
+package com.crypto;
+
+import com.util.cloud.Environment;
+import com.util.enums.HTTPCustomStatus;
+import com.util.exceptions.ApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for memory-hard password hashing.
+ * <p>
+ * Each computation reserves the memory it is going to allocate from a fixed budget before it starts,
+ * so a login burst can't allocate more than the budget at once. Computations that don't fit wait in line,
+ * up to {@code ARGON2_QUEUE_TIMEOUT} milliseconds. When the line already holds {@code ARGON2_MAX_QUEUE}
+ * computations, or the wait times out, an {@link ApiException} with status
+ * {@link HTTPCustomStatus#SERVICE_UNAVAILABLE} is thrown, so the client can retry later.
+ * </p>
+ * <p>
+ * The budget is {@code ARGON2_MEMORY_BUDGET} MiB, a quarter of the maximum heap by default.
+ * Queue depth, memory in use, wait time and rejections are exported as metrics.
+ * </p>
+ */
+public final class HashingScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HashingScheduler.class);
+
+    private static final String ARGON2_MEMORY_BUDGET = "ARGON2_MEMORY_BUDGET";
+    private static final String ARGON2_MAX_QUEUE = "ARGON2_MAX_QUEUE";
+    private static final String ARGON2_QUEUE_TIMEOUT = "ARGON2_QUEUE_TIMEOUT";
+    private static final int DEFAULT_QUEUE_TIMEOUT = 5000;
+
+    private final int memoryBudget;
+    private final int maxQueue;
+    private final long queueTimeout;
+    private final Semaphore memory;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Timer waitTimer;
+    private final Counter queueFullRejections;
+    private final Counter timeoutRejections;
+
+    /**
+     * @param memoryBudget Memory all concurrent computations may use together, in KiB
+     * @param maxQueue     Maximum number of computations waiting for memory
+     * @param queueTimeout Maximum time a computation waits for memory
+     * @param registry     Registry the metrics are published to
+     */
+    public HashingScheduler(final int memoryBudget, final int maxQueue, final long queueTimeout, final TimeUnit unit,
+                            final MeterRegistry registry) {
+        if (memoryBudget <= 0 || maxQueue < 0) {
+            throw new IllegalArgumentException("Memory budget must be positive and queue size not negative");
+        }
+        this.memoryBudget = memoryBudget;
+        this.maxQueue = maxQueue;
+        this.queueTimeout = unit.toNanos(queueTimeout);
+        this.memory = new Semaphore(memoryBudget, true);
+
+        Gauge.builder("password.hashing.queue", waiting, AtomicInteger::get)
+                .description("Password hashing computations waiting for memory")
+                .register(registry);
+        Gauge.builder("password.hashing.memory.used", memory, semaphore -> 1024.0 * (this.memoryBudget - semaphore.availablePermits()))
+                .description("Memory reserved by running password hashing computations")
+                .baseUnit("bytes")
+                .register(registry);
+        this.waitTimer = Timer.builder("password.hashing.wait")
+                .description("Time password hashing computations waited for memory")
+                .register(registry);
+        this.queueFullRejections = Counter.builder("password.hashing.rejected")
+                .tag("reason", "queue_full")
+                .register(registry);
+        this.timeoutRejections = Counter.builder("password.hashing.rejected")
+                .tag("reason", "timeout")
+                .register(registry);
+    }
+
+    private static class HashingSchedulerHolder {
+        static final HashingScheduler INSTANCE = new HashingScheduler(
+                defaultMemoryBudget(),
+                Environment.getProperty(ARGON2_MAX_QUEUE, 4 * Math.max(1, defaultMemoryBudget() / PasswordHashPolicy.getInstance().getArgon2Memory())),
+                Environment.getProperty(ARGON2_QUEUE_TIMEOUT, DEFAULT_QUEUE_TIMEOUT), TimeUnit.MILLISECONDS,
+                Metrics.globalRegistry);
+    }
+
+    public static HashingScheduler getInstance() {
+        return HashingSchedulerHolder.INSTANCE;
+    }
+
+    /**
+     * Run a computation once the memory it needs is available.
+     *
+     * @param requiredMemory Memory the computation allocates, in KiB
+     * @throws ApiException with status {@link HTTPCustomStatus#SERVICE_UNAVAILABLE} if the computation
+     *                      could not be admitted in time
+     */
+    public <T> T run(final int requiredMemory, final Supplier<T> computation) throws ApiException {
+        // A computation larger than the whole budget runs alone
+        final int permits = Math.min(Math.max(1, requiredMemory), memoryBudget);
+
+        // The untimed tryAcquire ignores fairness, it must not barge ahead of computations already waiting
+        if (memory.hasQueuedThreads() || !memory.tryAcquire(permits)) {
+            acquire(permits);
+        }
+        try {
+            return computation.get();
+        } finally {
+            memory.release(permits);
+        }
+    }
+
+    private void acquire(final int permits) {
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            queueFullRejections.increment();
+            throw new ApiException("Too many concurrent password verifications, retry later", HTTPCustomStatus.SERVICE_UNAVAILABLE);
+        }
+
+        final long start = System.nanoTime();
+        boolean acquired = false;
+        try {
+            acquired = memory.tryAcquire(permits, queueTimeout, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        if (!acquired) {
+            timeoutRejections.increment();
+            LOG.warn("Password hashing waited more than {} ms for memory", TimeUnit.NANOSECONDS.toMillis(queueTimeout));
+            throw new ApiException("Too many concurrent password verifications, retry later", HTTPCustomStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    /**
+     * Returns the memory all concurrent computations may use together, in KiB.
+     */
+    public int getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    public int getQueueDepth() {
+        return waiting.get();
+    }
+
+    /**
+     * Returns the memory currently available to new computations, in KiB.
+     */
+    public int getAvailableMemory() {
+        return memory.availablePermits();
+    }
+
+    private static int defaultMemoryBudget() {
+        final int quarterOfHeap = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 4 / 1024);
+        final int budget = Environment.getProperty(ARGON2_MEMORY_BUDGET, 0);
+        return Math.max(PasswordHashPolicy.getInstance().getArgon2Memory(), budget > 0 ? budget * 1024 : quarterOfHeap);
+    }
+}
@@ -7,4 +7,12 @@ public interface PasswordEncoder {
 
     boolean matches(CharSequence password, String encodedPassword);
 
+    /**
+     * Returns true if the encoded password should be encoded again for better security,
+     * e.g. because it was computed with lower costs than the current ones.
+     */
+    default boolean upgradeEncoding(String encodedPassword) {
+        return false;
+    }
+
 }
\ No newline at end of file
@@ -24,6 +24,14 @@ public final class PasswordHash {
         passwordEncoder.put(2, Argon2PasswordEncoder.getInstance());
         passwordEncoder.put(3, Pbkdf2PasswordEncoder.getInstance());
         passwordEncoder.put(4, HashHmacPasswordEncoder.getInstance());
+        passwordEncoder.put(5, Pbkdf2Sha256PasswordEncoder.getInstance());
+    }
+
+    private final static Map<String, PasswordEncoder> formattedPasswordEncoder = new HashMap<>();
+    static {
+        formattedPasswordEncoder.put(Argon2PasswordEncoder.ALGORITHM_ID, Argon2PasswordEncoder.getInstance());
+        formattedPasswordEncoder.put(Pbkdf2PasswordEncoder.ALGORITHM_ID, Pbkdf2PasswordEncoder.getInstance());
+        formattedPasswordEncoder.put(Pbkdf2Sha256PasswordEncoder.ALGORITHM_ID, Pbkdf2Sha256PasswordEncoder.getInstance());
     }
 
     private PasswordHash() {
@@ -43,10 +51,40 @@ public final class PasswordHash {
             logger.warn("password hash is null");
             return false;
         }
+        final PasswordEncoder encoder = encoderOf(encodedPassword);
+        if (encoder == null) {
+            logger.warn("password hash algorithm is not supported");
+            return false;
+        }
+
+        return encoder.matches(password, encodedPassword);
+    }
+
+    /**
+     * Check whether a stored password hash should be replaced by a new one, computed by {@link #encode(String)}.
+     * That is the case for hashes computed with another algorithm than Argon2, in the legacy
+     * {@code hash:salt:algorithm} format or with lower costs than the current {@link PasswordHashPolicy}.
+     * Call it only after the password matched.
+     *
+     * @param encodedPassword the stored hashed password with salt
+     * @return true if the password should be hashed again
+     */
+    public static boolean needsRehash(String encodedPassword) {
+        if (StringUtils.isEmpty(encodedPassword)) {
+            return false;
+        }
+        final PasswordEncoder encoder = encoderOf(encodedPassword);
+        return encoder != Argon2PasswordEncoder.getInstance() || encoder.upgradeEncoding(encodedPassword);
+    }
+
+    private static PasswordEncoder encoderOf(String encodedPassword) {
+        if (HashFormat.isFormatted(encodedPassword)) {
+            return formattedPasswordEncoder.get(HashFormat.algorithmOf(encodedPassword));
+        }
         final String[] params = encodedPassword.split(":");
-        final Integer alg = Integer.valueOf(params[2]);
+        final Integer alg = params.length > 2 ? Integer.valueOf(params[2]) : null;
 
-        return passwordEncoder.getOrDefault(alg, Pbkdf2PasswordEncoder.getInstance()).matches(password, encodedPassword);
+        return passwordEncoder.getOrDefault(alg, Pbkdf2PasswordEncoder.getInstance());
     }
 
     /**
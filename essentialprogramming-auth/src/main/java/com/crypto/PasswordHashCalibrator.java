@@ -0,0 +1,91 @@
+package com.crypto;
+
+import com.authentication.exceptions.codes.ErrorCode;
+import com.util.exceptions.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+/**
+ * Picks the password hashing time costs that take about a target latency on the current hardware,
+ * so the security/CPU trade-off can be tuned per node class. The memory cost and parallelism are kept,
+ * they are bounded by the {@link HashingScheduler} memory budget rather than by latency.
+ * <p>
+ * Run it on a node of the class to tune and copy the printed settings to its environment:
+ * <pre>
+ * java -cp essentialprogramming-auth.jar com.crypto.PasswordHashCalibrator [target-ms]
+ * </pre>
+ * or set {@code PASSWORD_HASH_TARGET_MS} to calibrate on startup.
+ * </p>
+ */
+public final class PasswordHashCalibrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashCalibrator.class);
+
+    private static final int DEFAULT_TARGET_MILLIS = 500;
+    private static final int WARMUPS = 3;
+    private static final int SAMPLES = 3;
+    private static final int PBKDF2_SAMPLE_ITERATIONS = 100000;
+
+    private static final char[] PASSWORD = "calibration".toCharArray();
+    private static final byte[] SALT = new byte[16];
+
+    private PasswordHashCalibrator() {
+    }
+
+    public static void main(String[] args) {
+        final int targetMillis = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TARGET_MILLIS;
+        System.out.println(calibrate(PasswordHashPolicy.getInstance(), targetMillis));
+    }
+
+    /**
+     * @param policy       Policy whose memory cost and parallelism are kept
+     * @param targetMillis Time a single hash computation should take
+     * @return a policy with the calibrated time costs, never lower than the defaults
+     */
+    public static PasswordHashPolicy calibrate(final PasswordHashPolicy policy, final int targetMillis) {
+        final long target = targetMillis * 1_000_000L;
+
+        final long argon2Pass = median(() -> Argon2PasswordEncoder.computeHash(PASSWORD, SALT,
+                policy.getArgon2Memory(), 1, policy.getArgon2Parallelism()));
+        final long pbkdf2Batch = median(() -> pbkdf2(PBKDF2_SAMPLE_ITERATIONS));
+
+        final PasswordHashPolicy calibrated = new PasswordHashPolicy(
+                policy.getArgon2Memory(),
+                (int) Math.min(Integer.MAX_VALUE, target / argon2Pass),
+                policy.getArgon2Parallelism(),
+                (int) Math.min(Integer.MAX_VALUE, target / pbkdf2Batch * PBKDF2_SAMPLE_ITERATIONS));
+
+        logger.info("Calibrated password hashing to {} ms: Argon2 {} passes of {} ms, PBKDF2 {} iterations",
+                targetMillis, calibrated.getArgon2Iterations(), argon2Pass / 1_000_000, calibrated.getPbkdf2Iterations());
+        return calibrated;
+    }
+
+    /**
+     * Median duration in nanoseconds of a few runs, after a few warm-up runs to let the JIT compile the hot loops.
+     */
+    private static long median(final Runnable computation) {
+        for (int i = 0; i < WARMUPS; i++) {
+            computation.run();
+        }
+        final long[] durations = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            final long start = System.nanoTime();
+            computation.run();
+            durations[i] = Math.max(1, System.nanoTime() - start);
+        }
+        Arrays.sort(durations);
+        return durations[SAMPLES / 2];
+    }
+
+    private static void pbkdf2(final int iterations) {
+        try {
+            Pbkdf2PasswordEncoder.encodeWithSalt(PASSWORD, SALT, iterations);
+        } catch (GeneralSecurityException e) {
+            logger.error(ErrorCode.PASSWORD_HASH_CREATION_NOT_SUCCESSFUL.getDescription(), e);
+            throw new ServiceException(ErrorCode.PASSWORD_HASH_CREATION_NOT_SUCCESSFUL);
+        }
+    }
+}
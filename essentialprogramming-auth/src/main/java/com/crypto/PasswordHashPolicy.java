@@ -0,0 +1,81 @@
+package com.crypto;
+
+import com.util.cloud.Environment;
+
+/**
+ * Cost parameters new password hashes are computed with. Stored hashes computed with lower costs
+ * are rehashed on the next successful login, see {@link PasswordHash#needsRehash(String)}.
+ * <p>
+ * The costs are read from {@code ARGON2_MEMORY_COST} (KiB), {@code ARGON2_TIME_COST},
+ * {@code ARGON2_PARALLELISM} and {@code PBKDF2_ITERATIONS}. When {@code PASSWORD_HASH_TARGET_MS} is set,
+ * the time costs are instead calibrated to take about that long on the current hardware, see
+ * {@link PasswordHashCalibrator}. This happens on first use, which the auth module brings forward to the
+ * application startup. The costs are never set below the defaults.
+ * </p>
+ */
+public final class PasswordHashPolicy {
+
+    static final int DEFAULT_ARGON2_MEMORY = 65536;
+    static final int DEFAULT_ARGON2_ITERATIONS = 2;
+    static final int DEFAULT_ARGON2_PARALLELISM = 1;
+    static final int DEFAULT_PBKDF2_ITERATIONS = 200000;
+
+    private final int argon2Memory;
+    private final int argon2Iterations;
+    private final int argon2Parallelism;
+    private final int pbkdf2Iterations;
+
+    public PasswordHashPolicy(final int argon2Memory, final int argon2Iterations, final int argon2Parallelism,
+                              final int pbkdf2Iterations) {
+        this.argon2Memory = Math.max(DEFAULT_ARGON2_MEMORY, argon2Memory);
+        this.argon2Iterations = Math.max(DEFAULT_ARGON2_ITERATIONS, argon2Iterations);
+        this.argon2Parallelism = Math.max(DEFAULT_ARGON2_PARALLELISM, argon2Parallelism);
+        this.pbkdf2Iterations = Math.max(DEFAULT_PBKDF2_ITERATIONS, pbkdf2Iterations);
+    }
+
+    private static class PasswordHashPolicyHolder {
+        static final PasswordHashPolicy INSTANCE = load();
+    }
+
+    public static PasswordHashPolicy getInstance() {
+        return PasswordHashPolicyHolder.INSTANCE;
+    }
+
+    private static PasswordHashPolicy load() {
+        final PasswordHashPolicy configured = new PasswordHashPolicy(
+                Environment.getProperty("ARGON2_MEMORY_COST", DEFAULT_ARGON2_MEMORY),
+                Environment.getProperty("ARGON2_TIME_COST", DEFAULT_ARGON2_ITERATIONS),
+                Environment.getProperty("ARGON2_PARALLELISM", DEFAULT_ARGON2_PARALLELISM),
+                Environment.getProperty("PBKDF2_ITERATIONS", DEFAULT_PBKDF2_ITERATIONS));
+
+        final int targetMillis = Environment.getProperty("PASSWORD_HASH_TARGET_MS", 0);
+        return targetMillis > 0 ? PasswordHashCalibrator.calibrate(configured, targetMillis) : configured;
+    }
+
+    /**
+     * Argon2 memory cost in KiB
+     */
+    public int getArgon2Memory() {
+        return argon2Memory;
+    }
+
+    public int getArgon2Iterations() {
+        return argon2Iterations;
+    }
+
+    public int getArgon2Parallelism() {
+        return argon2Parallelism;
+    }
+
+    public int getPbkdf2Iterations() {
+        return pbkdf2Iterations;
+    }
+
+    @Override
+    public String toString() {
+        return "ARGON2_MEMORY_COST=" + argon2Memory + System.lineSeparator()
+                + "ARGON2_TIME_COST=" + argon2Iterations + System.lineSeparator()
+                + "ARGON2_PARALLELISM=" + argon2Parallelism + System.lineSeparator()
+                + "PBKDF2_ITERATIONS=" + pbkdf2Iterations;
+    }
+}
@@ -1,6 +1,8 @@
 package com.crypto;
 
 
+import com.authentication.exceptions.codes.ErrorCode;
+import com.util.exceptions.ServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,6 +10,7 @@ import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
+import java.util.Collections;
 
 public class Pbkdf2PasswordEncoder extends AbstractPasswordEncoder {
 
@@ -17,12 +20,27 @@ public class Pbkdf2PasswordEncoder extends AbstractPasswordEncoder {
      * Length of salt for PBKDF2 hashed password
      */
     private static final int PBKDF2_SALT_LENGTH = 16; // bytes
-    private static final int PBKDF2_ITERATIONS = 200000;
     private static final int PBKDF2_HASH_BYTE_SIZE = 64;
     private static final String HASH_ALGORITHM = "PBKDF2WithHmacSHA1"; // can also be PBKDF2WithHmacSHA256, PBKDF2WithHmacMD5 etc.
 
+    static final String ALGORITHM_ID = "pbkdf2-sha1";
+
+    private static final ThreadLocal<SecretKeyFactory> secretKeyFactories = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(HASH_ALGORITHM + " is not available", e);
+        }
+    });
+
+    private final int iterations;
+
+    public Pbkdf2PasswordEncoder(final int iterations) {
+        this.iterations = iterations;
+    }
+
     private static class Pbkdf2PasswordEncoderHolder {
-        static final Pbkdf2PasswordEncoder INSTANCE = new Pbkdf2PasswordEncoder();
+        static final Pbkdf2PasswordEncoder INSTANCE = new Pbkdf2PasswordEncoder(PasswordHashPolicy.getInstance().getPbkdf2Iterations());
     }
 
     public static Pbkdf2PasswordEncoder getInstance() {
@@ -34,7 +52,7 @@ public class Pbkdf2PasswordEncoder extends AbstractPasswordEncoder {
      * Returns a salted hash of the password.
      *
      * @param password the password to hash
-     * @return a salted hash of the password in the form of SALT:HASH
+     * @return a salted hash of the password in the form of $pbkdf2-sha1$i=ITERATIONS$SALT$HASH
      * @throws InvalidKeySpecException, NoSuchAlgorithmException
      */
     String createHash(char[] password) throws NoSuchAlgorithmException, InvalidKeySpecException {
@@ -44,18 +62,19 @@ public class Pbkdf2PasswordEncoder extends AbstractPasswordEncoder {
         byte[] salt = SaltGenerator.init(PBKDF2_SALT_LENGTH).generateSalt();
 
         // Hash the password
-        byte[] hash = encodeWithSalt(password, salt);
+        byte[] hash = encodeWithSalt(password, salt, iterations);
 
-        // Format hash:salt:algorithm
-        return EncodingUtils.toBase64(hash) + ":" + EncodingUtils.toBase64(salt)+ ":"+ "3";
+        return new HashFormat(ALGORITHM_ID, Collections.singletonMap("i", iterations), salt, hash).format();
     }
 
-    private static byte[] encodeWithSalt(char[] password, byte[] salt) throws InvalidKeySpecException, NoSuchAlgorithmException {
+    static byte[] encodeWithSalt(char[] password, byte[] salt, int iterations) throws InvalidKeySpecException, NoSuchAlgorithmException {
         logger.debug("Encode with salt");
-        PBEKeySpec keySpec = new PBEKeySpec(password, salt, PBKDF2_ITERATIONS, PBKDF2_HASH_BYTE_SIZE * 8);
-        SecretKeyFactory secretKeyFactory = SecretKeyFactory.getInstance(HASH_ALGORITHM);
-
-        return secretKeyFactory.generateSecret(keySpec).getEncoded();
+        PBEKeySpec keySpec = new PBEKeySpec(password, salt, iterations, PBKDF2_HASH_BYTE_SIZE * 8);
+        try {
+            return secretKeyFactories.get().generateSecret(keySpec).getEncoded();
+        } finally {
+            keySpec.clearPassword();
+        }
     }
 
 
@@ -71,6 +90,15 @@ public class Pbkdf2PasswordEncoder extends AbstractPasswordEncoder {
     @Override
     public boolean matches(CharSequence passwordSequence, String encodedPassword) {
         String password = passwordSequence.toString();
+        if (HashFormat.isFormatted(encodedPassword)) {
+            final HashFormat hash = HashFormat.parse(encodedPassword);
+            if (hash == null || !ALGORITHM_ID.equals(hash.getAlgorithm())) {
+                return false;
+            }
+            return matches(password, hash.getHash(), hash.getSalt(), hash.getParam("i", PasswordHashPolicy.DEFAULT_PBKDF2_ITERATIONS));
+        }
+
+        // Legacy HASH:SALT:3 format, computed with the default iterations
         String[] parts = encodedPassword.split(":");
         if (parts.length < 2) {
             return false;
@@ -80,18 +108,34 @@ public class Pbkdf2PasswordEncoder extends AbstractPasswordEncoder {
         byte[] salt = EncodingUtils.fromBase64(parts[1]);
 
 
-        return matches(password, hash, salt);
+        return matches(password, hash, salt, PasswordHashPolicy.DEFAULT_PBKDF2_ITERATIONS);
     }
 
-
+    private boolean matches(String password, byte[] hash, byte[] salt, int iterations) {
+        try {
+            return EncodingUtils.slowEquals(hash, encodeWithSalt(password.toCharArray(), salt, iterations));
+        } catch (InvalidKeySpecException | NoSuchAlgorithmException e) {
+            logger.error(ErrorCode.PASSWORD_HASH_CREATION_NOT_SUCCESSFUL.getDescription(), e);
+            throw new ServiceException(ErrorCode.PASSWORD_HASH_CREATION_NOT_SUCCESSFUL);
+        }
+    }
 
     boolean matches(char[] password, byte[] hash, byte[] salt) throws Exception {
 
         // Compute the hash of the provided password, using the same salt
-        byte[] testHash = encodeWithSalt(password, salt);
+        byte[] testHash = encodeWithSalt(password, salt, PasswordHashPolicy.DEFAULT_PBKDF2_ITERATIONS);
 
         // Compare the hashes in constant time. The password is correct if the two hashes match.
         return EncodingUtils.slowEquals(hash, testHash);
 
     }
+
+    /**
+     * A hash needs upgrading if it is in the legacy format or was computed with fewer iterations.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        final HashFormat hash = HashFormat.parse(encodedPassword);
+        return hash == null || hash.getParam("i", 0) < iterations;
+    }
 }
@@ -0,0 +1,97 @@
+package com.crypto;
+
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+/**
+ * PBKDF2 with HMAC-SHA256, computed by {@link Pbkdf2HmacSha256}. The derived key is a single SHA-256 output:
+ * longer keys would cost the server a full run of iterations per extra block, but not an attacker,
+ * who only has to compare the first block.
+ */
+public class Pbkdf2Sha256PasswordEncoder extends AbstractPasswordEncoder {
+
+    final static Logger logger = LoggerFactory.getLogger(Pbkdf2Sha256PasswordEncoder.class);
+
+    private static final int PBKDF2_SALT_LENGTH = 16; // bytes
+    private static final int PBKDF2_HASH_BYTE_SIZE = 32;
+
+    static final String ALGORITHM_ID = "pbkdf2-sha256";
+
+    private final int iterations;
+
+    public Pbkdf2Sha256PasswordEncoder(final int iterations) {
+        this.iterations = iterations;
+    }
+
+    private static class Pbkdf2Sha256PasswordEncoderHolder {
+        static final Pbkdf2Sha256PasswordEncoder INSTANCE = new Pbkdf2Sha256PasswordEncoder(PasswordHashPolicy.getInstance().getPbkdf2Iterations());
+    }
+
+    public static Pbkdf2Sha256PasswordEncoder getInstance() {
+        return Pbkdf2Sha256PasswordEncoderHolder.INSTANCE;
+    }
+
+
+    /**
+     * Returns a salted hash of the password.
+     *
+     * @param password the password to hash
+     * @return a salted hash of the password in the form of $pbkdf2-sha256$i=ITERATIONS$SALT$HASH
+     */
+    String createHash(char[] password) {
+        logger.debug("create hash");
+
+        // Generate a random salt
+        byte[] salt = SaltGenerator.init(PBKDF2_SALT_LENGTH).generateSalt();
+
+        // Hash the password
+        byte[] hash = encodeWithSalt(password, salt, iterations);
+
+        return new HashFormat(ALGORITHM_ID, Collections.singletonMap("i", iterations), salt, hash).format();
+    }
+
+    /**
+     * The password is encoded as UTF-8, as the JDK's PBKDF2WithHmacSHA256 does.
+     */
+    static byte[] encodeWithSalt(char[] password, byte[] salt, int iterations) {
+        return Pbkdf2HmacSha256.derive(new String(password).getBytes(StandardCharsets.UTF_8), salt, iterations, PBKDF2_HASH_BYTE_SIZE);
+    }
+
+    /**
+     * There is no legacy format for this algorithm, only $pbkdf2-sha256$ hashes match.
+     */
+    @Override
+    public boolean matches(CharSequence passwordSequence, String encodedPassword) {
+        final HashFormat hash = HashFormat.parse(encodedPassword);
+        if (hash == null || !ALGORITHM_ID.equals(hash.getAlgorithm())) {
+            return false;
+        }
+
+        byte[] testHash = encodeWithSalt(passwordSequence.toString().toCharArray(), hash.getSalt(),
+                hash.getParam("i", PasswordHashPolicy.DEFAULT_PBKDF2_ITERATIONS));
+        return EncodingUtils.slowEquals(hash.getHash(), testHash);
+    }
+
+    boolean matches(char[] password, byte[] hash, byte[] salt) {
+
+        // Compute the hash of the provided password, using the same salt
+        byte[] testHash = encodeWithSalt(password, salt, iterations);
+
+        // Compare the hashes in constant time. The password is correct if the two hashes match.
+        return EncodingUtils.slowEquals(hash, testHash);
+
+    }
+
+    /**
+     * A hash needs upgrading if it was computed with fewer iterations.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        final HashFormat hash = HashFormat.parse(encodedPassword);
+        return hash == null || hash.getParam("i", 0) < iterations;
+    }
+}
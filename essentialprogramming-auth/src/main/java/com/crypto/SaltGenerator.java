@@ -10,12 +10,19 @@ public class SaltGenerator {
     private final int keyLength;
     private static final int DEFAULT_KEY_LENGTH = 8;
 
+    /**
+     * Seeding a SecureRandom is expensive and SecureRandom is thread safe, so all salts come from one instance.
+     */
+    private static final class SecureRandomHolder {
+        static final SecureRandom INSTANCE = new SecureRandom();
+    }
+
     SaltGenerator() {
         this(DEFAULT_KEY_LENGTH);
     }
 
     SaltGenerator(int keyLength) {
-        this.random = new SecureRandom();
+        this.random = SecureRandomHolder.INSTANCE;
         this.keyLength = keyLength;
     }
 
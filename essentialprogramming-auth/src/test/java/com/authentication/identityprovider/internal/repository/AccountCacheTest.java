@@ -0,0 +1,59 @@
+package com.authentication.identityprovider.internal.repository;
+
+import com.authentication.identityprovider.internal.model.AccountSummary;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AccountCacheTest {
+
+    private static final AccountSummary ACCOUNT =
+            new AccountSummary(1, "user@mail.com", "First", "Last", "$argon2id$hash", true, false);
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Test
+    void account_should_be_loaded_once() {
+        when(accountRepository.findSummaryByEmail("user@mail.com")).thenReturn(Optional.of(ACCOUNT));
+        AccountCache cache = new AccountCache(accountRepository, 100, 1, TimeUnit.MINUTES);
+
+        Assertions.assertSame(ACCOUNT, cache.findByEmail("user@mail.com").orElse(null));
+        Assertions.assertSame(ACCOUNT, cache.findByEmail("user@mail.com").orElse(null));
+
+        verify(accountRepository, times(1)).findSummaryByEmail("user@mail.com");
+    }
+
+    @Test
+    void invalidated_account_should_be_reloaded() {
+        when(accountRepository.findSummaryByEmail("user@mail.com")).thenReturn(Optional.of(ACCOUNT));
+        AccountCache cache = new AccountCache(accountRepository, 100, 1, TimeUnit.MINUTES);
+
+        cache.findByEmail("user@mail.com");
+        cache.invalidate("User@Mail.com");
+        cache.findByEmail("user@mail.com");
+
+        verify(accountRepository, times(2)).findSummaryByEmail("user@mail.com");
+    }
+
+    @Test
+    void lookup_should_stay_case_sensitive_and_skip_unknown_emails() {
+        when(accountRepository.findSummaryByEmail("user@mail.com")).thenReturn(Optional.of(ACCOUNT));
+        when(accountRepository.findSummaryByEmail("USER@mail.com")).thenReturn(Optional.empty());
+        AccountCache cache = new AccountCache(accountRepository, 100, 1, TimeUnit.MINUTES);
+
+        cache.findByEmail("user@mail.com");
+        Assertions.assertFalse(cache.findByEmail("USER@mail.com").isPresent());
+        Assertions.assertFalse(cache.findByEmail("USER@mail.com").isPresent());
+
+        verify(accountRepository, times(2)).findSummaryByEmail("USER@mail.com");
+    }
+}
@@ -0,0 +1,91 @@
+package com.authentication.otp;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class InMemoryOtpStoreTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final InMemoryOtpStore store = new InMemoryOtpStore(3, 1000, 8, now::get);
+
+    @Test
+    void code_is_accepted_once() {
+        store.put("1", "V1StGXR8_Z5jdHi6B-myT", 15, TimeUnit.MINUTES);
+
+        Assertions.assertFalse(store.consume("2", "V1StGXR8_Z5jdHi6B-myT"));
+        Assertions.assertTrue(store.consume("1", "V1StGXR8_Z5jdHi6B-myT"));
+        Assertions.assertFalse(store.consume("1", "V1StGXR8_Z5jdHi6B-myT"));
+    }
+
+    @Test
+    void new_code_replaces_pending_one() {
+        store.put("1", "first", 15, TimeUnit.MINUTES);
+        store.put("1", "second", 15, TimeUnit.MINUTES);
+
+        Assertions.assertFalse(store.consume("1", "first"));
+        Assertions.assertTrue(store.consume("1", "second"));
+    }
+
+    @Test
+    void code_is_removed_after_too_many_wrong_guesses() {
+        store.put("1", "secret", 15, TimeUnit.MINUTES);
+
+        Assertions.assertFalse(store.consume("1", "guess-1"));
+        Assertions.assertFalse(store.consume("1", "guess-2"));
+        Assertions.assertTrue(store.consume("1", "secret"));
+
+        store.put("1", "secret", 15, TimeUnit.MINUTES);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertFalse(store.consume("1", "guess-" + i));
+        }
+        Assertions.assertFalse(store.consume("1", "secret"));
+    }
+
+    @Test
+    void expired_codes_are_rejected_and_swept() {
+        store.put("short", "a", 2500, TimeUnit.MILLISECONDS);
+        // Longer than a turn of the wheel, requeued until due
+        store.put("long", "b", 20, TimeUnit.SECONDS);
+
+        advance(2000);
+        Assertions.assertEquals(2, store.size());
+        advance(1000);
+        Assertions.assertEquals(1, store.size());
+        Assertions.assertFalse(store.consume("short", "a"));
+
+        advance(16_000);
+        Assertions.assertEquals(1, store.size());
+        advance(1000);
+        Assertions.assertEquals(0, store.size());
+    }
+
+    @Test
+    void sweeper_runs_until_stopped() throws Exception {
+        final InMemoryOtpStore swept = new InMemoryOtpStore(3, 10, 8, System::currentTimeMillis);
+        swept.start();
+        try {
+            swept.put("1", "a", 20, TimeUnit.MILLISECONDS);
+            final long deadline = System.currentTimeMillis() + 5000;
+            while (swept.size() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assertions.assertEquals(0, swept.size());
+        } finally {
+            swept.stop();
+        }
+
+        swept.put("2", "b", 1, TimeUnit.MILLISECONDS);
+        Thread.sleep(100);
+        Assertions.assertEquals(1, swept.size());
+    }
+
+    private void advance(final long millis) {
+        for (long step = 0; step < millis; step += 1000) {
+            now.addAndGet(Math.min(1000, millis - step));
+            store.expire();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.authentication.refresh;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+class InMemoryRefreshTokenStoreTest {
+
+    private final InMemoryRefreshTokenStore store = new InMemoryRefreshTokenStore(100, 1, TimeUnit.DAYS);
+
+    @Test
+    void tokens_rotate_within_their_family() {
+        store.register("family", "1");
+
+        Assertions.assertTrue(store.rotate("family", "1", "2"));
+        Assertions.assertTrue(store.rotate("family", "2", "3"));
+        Assertions.assertFalse(store.rotate("other", "1", "2"));
+    }
+
+    @Test
+    void replayed_token_revokes_the_family() {
+        store.register("family", "1");
+        Assertions.assertTrue(store.rotate("family", "1", "2"));
+
+        Assertions.assertFalse(store.rotate("family", "1", "3"));
+        // The legitimate holder of the current token is logged out as well
+        Assertions.assertFalse(store.rotate("family", "2", "3"));
+    }
+
+    @Test
+    void revoked_family_cannot_rotate() {
+        store.register("family", "1");
+        store.revoke("family");
+
+        Assertions.assertFalse(store.rotate("family", "1", "2"));
+    }
+}
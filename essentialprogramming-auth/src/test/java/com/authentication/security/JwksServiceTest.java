@@ -0,0 +1,108 @@
+package com.authentication.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.jwk.JWK;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+class JwksServiceTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final KeyStoreService keyStoreService = Mockito.mock(KeyStoreService.class);
+
+    @Test
+    void key_ids_are_jwk_thumbprints() throws Exception {
+        final PublicKey ed25519 = KeyPairGenerator.getInstance("Ed25519").generateKeyPair().getPublic();
+        final KeyPairGenerator rsa = KeyPairGenerator.getInstance("RSA");
+        rsa.initialize(2048);
+        final PublicKey rsaKey = rsa.generateKeyPair().getPublic();
+        Mockito.when(keyStoreService.getPublicKey()).thenReturn(ed25519);
+        final JwksService service = new JwksService(keyStoreService, Collections.singletonList(rsaKey), 1000, now::get);
+
+        final JsonNode keys = mapper.readTree(service.getKeySet().getJson()).get("keys");
+
+        Assertions.assertEquals(2, keys.size());
+        for (JsonNode key : keys) {
+            final JWK jwk = JWK.parse(mapper.writeValueAsString(key));
+            Assertions.assertEquals(jwk.computeThumbprint().toString(), jwk.getKeyID());
+            Assertions.assertEquals("sig", key.get("use").asText());
+        }
+        Assertions.assertEquals("EdDSA", keys.get(0).get("alg").asText());
+        Assertions.assertEquals("RS256", keys.get(1).get("alg").asText());
+    }
+
+    @Test
+    void key_set_is_serialized_once() throws Exception {
+        Mockito.when(keyStoreService.getPublicKey()).thenReturn(newKey());
+        final JwksService service = new JwksService(keyStoreService, Collections.emptyList(), 1000, now::get);
+
+        Assertions.assertSame(service.getKeySet(), service.getKeySet());
+        Assertions.assertTrue(service.getKeySet().getEtag().startsWith("\""));
+    }
+
+    @Test
+    void replaced_key_is_published_until_it_is_retired() throws Exception {
+        final PublicKey first = newKey();
+        final PublicKey second = newKey();
+        Mockito.when(keyStoreService.getPublicKey()).thenReturn(first);
+        final JwksService service = new JwksService(keyStoreService, Collections.emptyList(), 1000, now::get);
+        final JwksService.KeySet initial = service.getKeySet();
+
+        Mockito.when(keyStoreService.getPublicKey()).thenReturn(second);
+        final JwksService.KeySet rotated = service.getKeySet();
+        Assertions.assertNotEquals(initial.getEtag(), rotated.getEtag());
+        Assertions.assertEquals(Arrays.asList(JwkUtils.keyId(second), JwkUtils.keyId(first)), keyIds(rotated));
+
+        now.addAndGet(999);
+        Assertions.assertSame(rotated, service.getKeySet());
+        now.addAndGet(1);
+        Assertions.assertEquals(Collections.singletonList(JwkUtils.keyId(second)), keyIds(service.getKeySet()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replaced_key_is_retired_when_the_key_pair_is_reloaded() throws Exception {
+        final PublicKey first = newKey();
+        final PublicKey second = newKey();
+        Mockito.when(keyStoreService.getPublicKey()).thenReturn(first);
+        final JwksService service = new JwksService(keyStoreService, Collections.emptyList(), 1000, now::get);
+        final ArgumentCaptor<Consumer<PublicKey>> listener = ArgumentCaptor.forClass(Consumer.class);
+        Mockito.verify(keyStoreService).onPublicKeyChange(listener.capture());
+
+        Mockito.when(keyStoreService.getPublicKey()).thenReturn(second);
+        listener.getValue().accept(second);
+        now.addAndGet(500);
+
+        final JwksService.KeySet rotated = service.getKeySet();
+        Assertions.assertEquals(Arrays.asList(JwkUtils.keyId(second), JwkUtils.keyId(first)), keyIds(rotated));
+        Assertions.assertEquals(JwkUtils.keyId(second), rotated.getSigningKeyId());
+        Assertions.assertSame(first, rotated.getKey(JwkUtils.keyId(first)));
+
+        // Retired from the reload on, not from the first request noticing it
+        now.addAndGet(500);
+        Assertions.assertNull(service.getKeySet().getKey(JwkUtils.keyId(first)));
+    }
+
+    private List<String> keyIds(JwksService.KeySet keySet) throws Exception {
+        final List<String> ids = new ArrayList<>();
+        mapper.readTree(keySet.getJson()).get("keys").forEach(key -> ids.add(key.get("kid").asText()));
+        return ids;
+    }
+
+    private static PublicKey newKey() throws Exception {
+        return KeyPairGenerator.getInstance("Ed25519").generateKeyPair().getPublic();
+    }
+}
@@ -0,0 +1,75 @@
+package com.authentication.service;
+
+import com.authentication.security.JwkUtils;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jwt.SignedJWT;
+import com.token.validation.jwt.ClaimsView;
+import com.token.validation.jwt.JwtVerifier;
+import com.token.validation.response.ValidationResponse;
+import com.token.validation.signature.SignatureAlgorithm;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class TokenMinterTest {
+
+    private static final TokenMinter.ClaimsTemplate TEMPLATE = TokenMinter.ClaimsTemplate.of(claims(
+            "iss", "Essential Programming Auth Service", "aud", "Essential Programming Services"));
+
+    @Test
+    void rsa_tokens_are_readable_by_nimbus() throws Exception {
+        final KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        final KeyPair keyPair = keyGen.generateKeyPair();
+        final TokenMinter minter = new TokenMinter(keyPair.getPrivate(), JwkUtils.keyId(keyPair.getPublic()));
+
+        final Map<String, Object> claims = claims("email", "jöhn \"doe\"@essentialprogramming.com");
+        claims.put("exp", Instant.now().getEpochSecond() + 300);
+        claims.put("permissions", new String[]{"read:user", "write:user"});
+
+        for (int i = 0; i < 3; i++) {
+            final SignedJWT jwt = SignedJWT.parse(minter.mint(TEMPLATE, claims));
+
+            Assertions.assertEquals(JWSAlgorithm.RS256, jwt.getHeader().getAlgorithm());
+            Assertions.assertEquals(JwkUtils.keyId(keyPair.getPublic()), jwt.getHeader().getKeyID());
+            Assertions.assertTrue(jwt.verify(new RSASSAVerifier((RSAPublicKey) keyPair.getPublic())));
+            Assertions.assertEquals("Essential Programming Auth Service", jwt.getJWTClaimsSet().getIssuer());
+            Assertions.assertEquals(Collections.singletonList("Essential Programming Services"), jwt.getJWTClaimsSet().getAudience());
+            Assertions.assertEquals("jöhn \"doe\"@essentialprogramming.com", jwt.getJWTClaimsSet().getStringClaim("email"));
+            Assertions.assertEquals(Arrays.asList("read:user", "write:user"), jwt.getJWTClaimsSet().getStringListClaim("permissions"));
+        }
+    }
+
+    @Test
+    void ed25519_keys_mint_EdDSA_tokens() throws Exception {
+        final KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        final TokenMinter minter = new TokenMinter(keyPair.getPrivate());
+        final Map<String, Object> claims = claims("email", "john.doe@essentialprogramming.com");
+        claims.put("exp", Instant.now().getEpochSecond() + 300);
+
+        final ValidationResponse<ClaimsView> response = JwtVerifier.builder()
+                .key(SignatureAlgorithm.EdDSA, keyPair.getPublic())
+                .build()
+                .verifyView(minter.mint(TEMPLATE, claims));
+
+        Assertions.assertTrue(response.isValid());
+        Assertions.assertEquals("john.doe@essentialprogramming.com", response.getClaims().getString("email"));
+    }
+
+    private static Map<String, Object> claims(String... keyValues) {
+        final Map<String, Object> claims = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            claims.put(keyValues[i], keyValues[i + 1]);
+        }
+        return claims;
+    }
+}
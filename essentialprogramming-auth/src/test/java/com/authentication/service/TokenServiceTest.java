@@ -0,0 +1,46 @@
+package com.authentication.service;
+
+import com.authentication.channel.AccessChannel;
+import com.authentication.refresh.InMemoryRefreshTokenStore;
+import com.authentication.refresh.RefreshTokenStore;
+import com.authentication.security.KeyStoreService;
+import com.token.validation.jwt.ClaimsView;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+class TokenServiceTest {
+
+    @Test
+    void refresh_tokens_are_verified_and_rotated() throws Exception {
+        final KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        final KeyStoreService keyStoreService = Mockito.mock(KeyStoreService.class);
+        Mockito.when(keyStoreService.getPrivateKey()).thenReturn(keyPair.getPrivate());
+        Mockito.when(keyStoreService.getPublicKey()).thenReturn(keyPair.getPublic());
+        final RefreshTokenStore store = new InMemoryRefreshTokenStore(100, 1, TimeUnit.DAYS);
+        final TokenService tokenService = new TokenService(keyStoreService, store);
+
+        final SignedTokens tokens = tokenService.generateTokens(60,
+                Collections.singletonMap("roles", "visitor"), null, "john.doe@essentialprogramming.com", AccessChannel.PASSWORD);
+
+        final ClaimsView claims = tokenService.verifyRefreshToken(tokens.getRefreshToken());
+        Assertions.assertNotNull(claims);
+        Assertions.assertEquals("john.doe@essentialprogramming.com", claims.getString("email"));
+        Assertions.assertEquals(AccessChannel.PASSWORD.name(), claims.getString(TokenService.REFRESH_TOKEN_CHANNEL));
+        // Roles are granted again on refresh, a refresh token carries none
+        Assertions.assertNull(claims.getString("roles"));
+
+        final String family = claims.getString(TokenService.REFRESH_TOKEN_FAMILY);
+        Assertions.assertTrue(store.rotate(family, claims.getID(), "next"));
+        Assertions.assertFalse(store.rotate(family, claims.getID(), "again"));
+
+        // Access tokens have another issuer and audience
+        Assertions.assertNull(tokenService.verifyRefreshToken(tokens.getAccessToken()));
+        Assertions.assertNull(tokenService.verifyRefreshToken("not a token"));
+    }
+}
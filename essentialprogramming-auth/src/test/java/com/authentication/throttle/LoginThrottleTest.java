@@ -0,0 +1,55 @@
+package com.authentication.throttle;
+
+import com.util.enums.HTTPCustomStatus;
+import com.util.exceptions.ApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LoginThrottleTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LoginThrottle throttle = new LoginThrottle(
+            new SlidingWindowCounters(1024, 60_000, now::get), 3,
+            new SlidingWindowCounters(1024, 60_000, now::get), 5,
+            registry);
+
+    @Test
+    void email_should_be_throttled_after_failures() {
+        for (int i = 0; i < 3; i++) {
+            throttle.check("User@Mail.com", "10.0.0." + i);
+            throttle.failed("User@Mail.com", "10.0.0." + i);
+        }
+
+        ApiException exception = Assertions.assertThrows(ApiException.class, () -> throttle.check("user@mail.com ", "10.0.0.9"));
+        Assertions.assertEquals(HTTPCustomStatus.TOO_MANY_REQUESTS, exception.getHttpCode());
+        Assertions.assertEquals(1, registry.get("login.throttle.rejected").tag("key", "email").counter().count());
+
+        throttle.check("other@mail.com", "10.0.0.9");
+        now.addAndGet(120_000);
+        throttle.check("user@mail.com", "10.0.0.9");
+    }
+
+    @Test
+    void address_should_be_throttled_after_failures() {
+        for (int i = 0; i < 5; i++) {
+            throttle.failed("user" + i + "@mail.com", "10.0.0.1");
+        }
+
+        Assertions.assertThrows(ApiException.class, () -> throttle.check("new@mail.com", "10.0.0.1"));
+        Assertions.assertEquals(1, registry.get("login.throttle.rejected").tag("key", "address").counter().count());
+    }
+
+    @Test
+    void success_should_clear_email_failures() {
+        throttle.failed("user@mail.com", "10.0.0.1");
+        throttle.failed("user@mail.com", "10.0.0.1");
+        throttle.succeeded("user@mail.com");
+        throttle.failed("user@mail.com", "10.0.0.1");
+
+        throttle.check("user@mail.com", "10.0.0.2");
+    }
+}
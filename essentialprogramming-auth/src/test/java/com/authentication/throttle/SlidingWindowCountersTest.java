@@ -0,0 +1,98 @@
+package com.authentication.throttle;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SlidingWindowCountersTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    void counts_should_slide_and_expire() {
+        SlidingWindowCounters counters = new SlidingWindowCounters(1024, 1000, now::get);
+        for (int i = 0; i < 10; i++) {
+            counters.increment("a@b.com");
+        }
+        Assertions.assertEquals(10, counters.count("a@b.com"));
+        Assertions.assertEquals(0, counters.count("c@d.com"));
+
+        // Half way through the next window, half of the previous one still counts
+        now.addAndGet(1500);
+        Assertions.assertEquals(5, counters.count("a@b.com"));
+        Assertions.assertEquals(6, counters.increment("a@b.com"));
+
+        now.addAndGet(2000);
+        Assertions.assertEquals(0, counters.count("a@b.com"));
+    }
+
+    @Test
+    void reset_should_forget_the_key() {
+        SlidingWindowCounters counters = new SlidingWindowCounters(1024, 1000, now::get);
+        counters.increment("a@b.com");
+        counters.increment("c@d.com");
+
+        counters.reset("a@b.com");
+        Assertions.assertEquals(0, counters.count("a@b.com"));
+        Assertions.assertEquals(1, counters.count("c@d.com"));
+    }
+
+    @Test
+    void memory_should_stay_bounded_and_keep_hot_keys() {
+        SlidingWindowCounters counters = new SlidingWindowCounters(1024, 60_000, now::get);
+        for (int i = 0; i < 5; i++) {
+            counters.increment("victim@b.com");
+        }
+        for (int i = 0; i < 100_000; i++) {
+            counters.increment("user" + i + "@b.com");
+        }
+
+        Assertions.assertEquals(1024, counters.getCapacity());
+        Assertions.assertEquals(5, counters.count("victim@b.com"));
+        Assertions.assertTrue(counters.getEvictions() > 0);
+    }
+
+    @Test
+    void new_keys_should_not_evict_hotter_counters() {
+        // Two slots, every key maps to both
+        SlidingWindowCounters counters = new SlidingWindowCounters(2, 60_000, now::get);
+        for (int i = 0; i < 9; i++) {
+            counters.increment("a@b.com");
+        }
+        for (int i = 0; i < 3; i++) {
+            counters.increment("c@d.com");
+        }
+
+        Assertions.assertEquals(1, counters.increment("e@f.com"));
+        Assertions.assertEquals(9, counters.count("a@b.com"));
+        Assertions.assertEquals(3, counters.count("c@d.com"));
+        Assertions.assertEquals(0, counters.count("e@f.com"));
+        Assertions.assertEquals(1, counters.getDropped());
+
+        // Once a counter has gone quiet, its slot is taken again
+        now.addAndGet(120_000);
+        counters.increment("e@f.com");
+        Assertions.assertEquals(1, counters.count("e@f.com"));
+    }
+
+    @Test
+    void concurrent_increments_should_not_be_lost() throws Exception {
+        SlidingWindowCounters counters = new SlidingWindowCounters(1024, 60_000, now::get);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    counters.increment("10.0.0.1");
+                }
+            });
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(4000, counters.count("10.0.0.1"));
+    }
+}
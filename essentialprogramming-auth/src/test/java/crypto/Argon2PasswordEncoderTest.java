@@ -2,9 +2,13 @@ package crypto;
 
 import com.crypto.Argon2PasswordEncoder;
 import com.crypto.PasswordHash;
+import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
+import org.bouncycastle.crypto.params.Argon2Parameters;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.Base64;
+
 public class Argon2PasswordEncoderTest {
 
     private final Argon2PasswordEncoder argon2PasswordEncoder = Argon2PasswordEncoder.getInstance();
@@ -24,4 +28,30 @@ public class Argon2PasswordEncoderTest {
         Assertions.assertFalse(PasswordHash.matches("Test456", encodedPassword));
     }
 
+    @Test
+    void hash_should_be_identical_to_bouncy_castle() {
+        int[][] costs = {{64, 1, 1}, {256, 3, 2}, {1000, 2, 4}};
+        for (int[] cost : costs) {
+            Argon2PasswordEncoder encoder = new Argon2PasswordEncoder(cost[0], cost[1], cost[2]);
+            for (int i = 0; i < 2; i++) {
+                // The second hash reuses the pooled block matrix
+                String[] encodedPassword = encoder.encode("password").split("\\$");
+                byte[] salt = Base64.getDecoder().decode(encodedPassword[4]);
+                byte[] expected = new byte[32];
+
+                Argon2BytesGenerator generator = new Argon2BytesGenerator();
+                generator.init(new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
+                        .withVersion(Argon2Parameters.ARGON2_VERSION_13)
+                        .withSalt(salt)
+                        .withMemoryAsKB(cost[0])
+                        .withIterations(cost[1])
+                        .withParallelism(cost[2])
+                        .build());
+                generator.generateBytes("password".toCharArray(), expected);
+
+                Assertions.assertArrayEquals(expected, Base64.getDecoder().decode(encodedPassword[5]));
+            }
+        }
+    }
+
 }
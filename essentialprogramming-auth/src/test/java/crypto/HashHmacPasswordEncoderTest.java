@@ -6,6 +6,9 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
 class HashHmacPasswordEncoderTest {
 
     private final HashHmacPasswordEncoder hashHmacPasswordEncoder = HashHmacPasswordEncoder.getInstance();
@@ -29,4 +32,16 @@ class HashHmacPasswordEncoderTest {
         Assertions.assertFalse(PasswordHash.matches("Test456", encodedPassword));
     }
 
+    @Test
+    void hash_should_be_hmac_of_salt_and_password() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            String[] encodedPassword = hashHmacPasswordEncoder.encode("password").split(":");
+            Mac mac = Mac.getInstance("HMACSHA256");
+            mac.init(new SecretKeySpec("secret".getBytes(), "HMACSHA256"));
+            mac.update(HashPasswordEncoderTest.hexToBytes(encodedPassword[1]));
+
+            Assertions.assertArrayEquals(mac.doFinal("password".getBytes()), HashPasswordEncoderTest.hexToBytes(encodedPassword[0]));
+        }
+    }
+
 }
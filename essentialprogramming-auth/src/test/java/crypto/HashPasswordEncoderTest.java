@@ -5,6 +5,8 @@ import com.crypto.PasswordHash;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.security.MessageDigest;
+
 class HashPasswordEncoderTest {
 
     private final HashPasswordEncoder hashPasswordEncoder = HashPasswordEncoder.getInstance();
@@ -24,4 +26,23 @@ class HashPasswordEncoderTest {
 
         Assertions.assertFalse(hashPasswordEncoder.matches("Test456", encodedPassword));
     }
+
+    @Test
+    void hash_should_be_sha256_of_salt_and_password() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            String[] encodedPassword = hashPasswordEncoder.encode("password").split(":");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(hexToBytes(encodedPassword[1]));
+
+            Assertions.assertArrayEquals(digest.digest("password".getBytes()), hexToBytes(encodedPassword[0]));
+        }
+    }
+
+    static byte[] hexToBytes(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        return bytes;
+    }
 }
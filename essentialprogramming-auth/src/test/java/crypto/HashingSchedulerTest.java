@@ -0,0 +1,116 @@
+package crypto;
+
+import com.crypto.HashingScheduler;
+import com.util.enums.HTTPCustomStatus;
+import com.util.exceptions.ApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class HashingSchedulerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void computation_should_run_when_memory_is_available() {
+        HashingScheduler scheduler = new HashingScheduler(1024, 1, 1, TimeUnit.SECONDS, registry);
+
+        Assertions.assertEquals("hash", scheduler.run(512, () -> "hash"));
+        Assertions.assertEquals(1024, scheduler.getAvailableMemory());
+    }
+
+    @Test
+    void computation_should_be_rejected_when_wait_times_out() throws Exception {
+        HashingScheduler scheduler = new HashingScheduler(1024, 1, 50, TimeUnit.MILLISECONDS, registry);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> running = occupy(scheduler, 1024, release);
+
+        ApiException exception = Assertions.assertThrows(ApiException.class, () -> scheduler.run(1024, () -> "hash"));
+        Assertions.assertEquals(HTTPCustomStatus.SERVICE_UNAVAILABLE, exception.getHttpCode());
+        Assertions.assertEquals(1, registry.get("password.hashing.rejected").tag("reason", "timeout").counter().count());
+        Assertions.assertEquals(1, registry.get("password.hashing.wait").timer().count());
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(1024, scheduler.getAvailableMemory());
+    }
+
+    @Test
+    void computation_should_be_rejected_immediately_when_queue_is_full() throws Exception {
+        HashingScheduler scheduler = new HashingScheduler(1024, 1, 10, TimeUnit.SECONDS, registry);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> running = occupy(scheduler, 1024, release);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> scheduler.run(1024, () -> "queued"), executor);
+        while (scheduler.getQueueDepth() == 0) {
+            Thread.sleep(1);
+        }
+        Assertions.assertEquals(1.0, registry.get("password.hashing.queue").gauge().value());
+        Assertions.assertEquals(1024.0 * 1024, registry.get("password.hashing.memory.used").gauge().value());
+
+        long start = System.nanoTime();
+        Assertions.assertThrows(ApiException.class, () -> scheduler.run(1024, () -> "rejected"));
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        Assertions.assertEquals(1, registry.get("password.hashing.rejected").tag("reason", "queue_full").counter().count());
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, scheduler.getQueueDepth());
+    }
+
+    @Test
+    void new_computation_should_not_barge_ahead_of_waiting_ones() throws Exception {
+        HashingScheduler scheduler = new HashingScheduler(1024, 2, 10, TimeUnit.SECONDS, registry);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> running = occupy(scheduler, 512, release);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> scheduler.run(1024, () -> order.add("waiting")), executor);
+        while (scheduler.getQueueDepth() == 0) {
+            Thread.sleep(1);
+        }
+
+        // Enough memory is free for it, but a computation is already waiting
+        CompletableFuture<Void> arriving = CompletableFuture.runAsync(() -> scheduler.run(512, () -> order.add("arriving")), executor);
+        while (scheduler.getQueueDepth() < 2 && !arriving.isDone()) {
+            Thread.sleep(1);
+        }
+        Assertions.assertTrue(order.isEmpty());
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        waiting.get(5, TimeUnit.SECONDS);
+        arriving.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(Arrays.asList("waiting", "arriving"), order);
+    }
+
+    private CompletableFuture<Void> occupy(HashingScheduler scheduler, int memory, CountDownLatch release) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Void> running = CompletableFuture.runAsync(() -> scheduler.run(memory, () -> {
+            started.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }), executor);
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        return running;
+    }
+}
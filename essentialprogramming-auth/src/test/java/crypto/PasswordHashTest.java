@@ -0,0 +1,57 @@
+package crypto;
+
+import com.crypto.Argon2PasswordEncoder;
+import com.crypto.HashPasswordEncoder;
+import com.crypto.PasswordHash;
+import com.crypto.Pbkdf2PasswordEncoder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PasswordHashTest {
+
+    // "password" hashed in the legacy HASH:SALT:ALGORITHM format
+    private static final String LEGACY_ARGON2 =
+            "76e62f2feb05a44ea7ad7c1aec1947e82ed7c838cb0afda2e6ee5e4d536d273c:5e861a20d0ac33129d3f87b96f4de559:2";
+    private static final String LEGACY_PBKDF2 =
+            "hPSqTKULGs63iH1rsQE6IAOjlXKugW9UBMbr9CcrWbkGLhowvJ84NK3SPV57q6q1aGs0k1Reoe4ABVZWohepUQ==:XUz6BCbzQqAUAklT51gJLA==:3";
+
+    @Test
+    void hash_should_describe_its_parameters() {
+        String encodedPassword = PasswordHash.encode("password");
+
+        Assertions.assertTrue(encodedPassword.startsWith("$argon2id$v=19$m=65536,t=2,p=1$"), encodedPassword);
+        Assertions.assertTrue(PasswordHash.matches("password", encodedPassword));
+        Assertions.assertFalse(PasswordHash.needsRehash(encodedPassword));
+    }
+
+    @Test
+    void legacy_hashes_should_match_and_need_rehash() {
+        Assertions.assertTrue(PasswordHash.matches("password", LEGACY_ARGON2));
+        Assertions.assertFalse(PasswordHash.matches("Test456", LEGACY_ARGON2));
+        Assertions.assertTrue(PasswordHash.needsRehash(LEGACY_ARGON2));
+
+        Assertions.assertTrue(PasswordHash.matches("password", LEGACY_PBKDF2));
+        Assertions.assertTrue(PasswordHash.needsRehash(LEGACY_PBKDF2));
+
+        String digest = HashPasswordEncoder.getInstance().encode("password");
+        Assertions.assertTrue(PasswordHash.needsRehash(digest));
+    }
+
+    @Test
+    void hash_with_lower_costs_should_need_rehash() {
+        String cheaper = new Pbkdf2PasswordEncoder(1000).encode("password");
+        Assertions.assertTrue(cheaper.startsWith("$pbkdf2-sha1$i=1000$"), cheaper);
+        Assertions.assertTrue(PasswordHash.matches("password", cheaper));
+        Assertions.assertTrue(PasswordHash.needsRehash(cheaper));
+
+        String stronger = new Argon2PasswordEncoder(65536, 3, 1).encode("password");
+        Assertions.assertTrue(PasswordHash.matches("password", stronger));
+        Assertions.assertFalse(PasswordHash.needsRehash(stronger));
+    }
+
+    @Test
+    void unknown_algorithm_should_not_match() {
+        Assertions.assertFalse(PasswordHash.matches("password", "$scrypt$ln=15,r=8,p=1$c2FsdA$aGFzaA"));
+        Assertions.assertFalse(PasswordHash.matches("password", "$argon2id$broken"));
+    }
+}
@@ -0,0 +1,52 @@
+package crypto;
+
+import com.crypto.PasswordHash;
+import com.crypto.Pbkdf2Sha256PasswordEncoder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.util.Base64;
+
+public class Pbkdf2Sha256PasswordEncoderTest {
+
+    private final Pbkdf2Sha256PasswordEncoder pbkdf2PasswordEncoder = Pbkdf2Sha256PasswordEncoder.getInstance();
+
+    @Test
+    void password_should_be_equals_after_encoding() {
+        String password = "password";
+        String encodedPassword = pbkdf2PasswordEncoder.encode(password);
+
+        Assertions.assertTrue(encodedPassword.startsWith("$pbkdf2-sha256$i=200000$"), encodedPassword);
+        Assertions.assertTrue(PasswordHash.matches(password, encodedPassword));
+        Assertions.assertTrue(PasswordHash.needsRehash(encodedPassword));
+    }
+
+    @Test
+    void password_should_be_different_after_encoding() {
+        String password = "Test123";
+        String encodedPassword = pbkdf2PasswordEncoder.encode(password);
+
+        Assertions.assertFalse(PasswordHash.matches("Test456", encodedPassword));
+    }
+
+    @Test
+    void hash_should_be_identical_to_jdk() throws Exception {
+        String[] passwords = {"", "password", "pässwörd €", "a password longer than the sixty four bytes of a SHA-256 block......"};
+        SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+
+        for (String password : passwords) {
+            String[] encodedPassword = new Pbkdf2Sha256PasswordEncoder(1000).encode(password).split("\\$");
+            byte[] salt = Base64.getDecoder().decode(encodedPassword[3]);
+            byte[] hash = Base64.getDecoder().decode(encodedPassword[4]);
+
+            // The JDK rejects empty passwords, an empty key is a valid HMAC key though
+            if (!password.isEmpty()) {
+                byte[] expected = factory.generateSecret(new PBEKeySpec(password.toCharArray(), salt, 1000, 256)).getEncoded();
+                Assertions.assertArrayEquals(expected, hash, password);
+            }
+            Assertions.assertTrue(PasswordHash.matches(password, String.join("$", encodedPassword)));
+        }
+    }
+}
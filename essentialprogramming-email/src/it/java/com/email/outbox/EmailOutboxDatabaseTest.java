@@ -0,0 +1,207 @@
+package com.email.outbox;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the outbox SQL against PostgreSQL, {@code FOR UPDATE SKIP LOCKED} and the interval arithmetic
+ * can't be checked with mocks.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class EmailOutboxDatabaseTest {
+
+    private static final Map<String, Object> VARIABLES = Collections.singletonMap("fullName", "John Doe");
+    private static final long LEASE = 60_000;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13-alpine");
+
+    private static PGSimpleDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    private final EmailOutbox outbox = new EmailOutbox(dataSource);
+
+    @BeforeAll
+    static void createTables() throws IOException {
+        dataSource = new PGSimpleDataSource();
+        dataSource.setURL(postgres.getJdbcUrl());
+        dataSource.setUser(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        try (InputStream script = EmailOutboxDatabaseTest.class.getResourceAsStream("/db/V3__create_email_outbox.sql")) {
+            Assertions.assertNotNull(script, "Migration script is not on the test classpath");
+            jdbcTemplate.execute(new String(readAll(script), StandardCharsets.UTF_8));
+        }
+    }
+
+    @BeforeEach
+    void clear() {
+        jdbcTemplate.update("DELETE FROM email_outbox");
+    }
+
+    @Test
+    void emails_are_claimed_by_priority_then_due_time() {
+        add("bulk@mail.com", EmailPriority.BULK);
+        add("normal@mail.com", EmailPriority.NORMAL);
+        add("otp@mail.com", EmailPriority.URGENT);
+
+        final List<OutboxEmail> claimed = outbox.claim(2, LEASE);
+
+        Assertions.assertEquals(2, claimed.size());
+        Assertions.assertEquals("otp@mail.com", claimed.get(0).getRecipient());
+        Assertions.assertEquals("normal@mail.com", claimed.get(1).getRecipient());
+        Assertions.assertEquals(1, claimed.get(0).getAttempts());
+        Assertions.assertEquals(VARIABLES, claimed.get(0).getVariables());
+        Assertions.assertEquals(Locale.ENGLISH, claimed.get(0).getLocale());
+        Assertions.assertEquals("otp", claimed.get(0).getTemplate().getPage().orElse(null));
+    }
+
+    @Test
+    void rows_locked_by_another_claim_are_skipped() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            add("user" + i + "@mail.com", EmailPriority.NORMAL);
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            // Holds the row locks of the two most urgent emails, like a claim still running on another node
+            try (PreparedStatement lock = connection.prepareStatement("SELECT email_outbox_id FROM email_outbox "
+                    + "ORDER BY priority, next_attempt_at, email_outbox_id LIMIT 2 FOR UPDATE")) {
+                lock.executeQuery().close();
+            }
+
+            Assertions.assertEquals(2, outbox.claim(10, LEASE).size());
+            connection.rollback();
+        }
+        Assertions.assertEquals(2, outbox.claim(10, LEASE).size());
+    }
+
+    @Test
+    void concurrent_claims_never_return_the_same_email() throws Exception {
+        final int emails = 200;
+        final int claimers = 8;
+        for (int i = 0; i < emails; i++) {
+            add("user" + i + "@mail.com", EmailPriority.values()[i % EmailPriority.values().length]);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(claimers);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<List<Long>>> results = new ArrayList<>();
+            for (int i = 0; i < claimers; i++) {
+                final Callable<List<Long>> claimer = () -> {
+                    start.await();
+                    final List<Long> ids = new ArrayList<>();
+                    List<OutboxEmail> batch;
+                    while (!(batch = outbox.claim(5, LEASE)).isEmpty()) {
+                        batch.forEach(email -> ids.add(email.getId()));
+                    }
+                    return ids;
+                };
+                results.add(executor.submit(claimer));
+            }
+            start.countDown();
+
+            final List<Long> claimed = new ArrayList<>();
+            for (Future<List<Long>> result : results) {
+                claimed.addAll(result.get());
+            }
+            Assertions.assertEquals(emails, claimed.size());
+            Assertions.assertEquals(emails, new HashSet<>(claimed).size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void emails_are_claimed_again_once_their_lease_expires() throws Exception {
+        add("otp@mail.com", EmailPriority.URGENT);
+
+        final OutboxEmail claimed = outbox.claim(10, 1000).get(0);
+        Assertions.assertTrue(outbox.claim(10, 1000).isEmpty());
+
+        Thread.sleep(1500);
+        final List<OutboxEmail> reclaimed = outbox.claim(10, LEASE);
+        Assertions.assertEquals(1, reclaimed.size());
+        Assertions.assertEquals(claimed.getId(), reclaimed.get(0).getId());
+        Assertions.assertEquals(2, reclaimed.get(0).getAttempts());
+    }
+
+    @Test
+    void retried_emails_wait_for_their_backoff() throws Exception {
+        add("otp@mail.com", EmailPriority.URGENT);
+        final long id = outbox.claim(10, LEASE).get(0).getId();
+
+        outbox.retry(id, 1000, "Connection refused");
+        Assertions.assertTrue(outbox.claim(10, LEASE).isEmpty());
+        Assertions.assertEquals("Connection refused",
+                jdbcTemplate.queryForObject("SELECT last_error FROM email_outbox WHERE email_outbox_id = ?", String.class, id));
+
+        Thread.sleep(1500);
+        Assertions.assertEquals(Collections.singletonList(id), ids(outbox.claim(10, LEASE)));
+    }
+
+    @Test
+    void sent_and_failed_emails_are_not_claimed_again() throws Exception {
+        add("sent@mail.com", EmailPriority.URGENT);
+        add("failed@mail.com", EmailPriority.URGENT);
+        final List<OutboxEmail> claimed = outbox.claim(10, 1000);
+        Assertions.assertEquals(2, claimed.size());
+
+        outbox.sent(claimed.get(0).getId());
+        outbox.failed(claimed.get(1).getId(), "Invalid recipient");
+        Thread.sleep(1500);
+
+        Assertions.assertTrue(outbox.claim(10, LEASE).isEmpty());
+        Assertions.assertEquals(Collections.singletonList("FAILED"),
+                jdbcTemplate.queryForList("SELECT status FROM email_outbox", String.class));
+        // The variables of the OTP email held the login link
+        Assertions.assertEquals("{}", jdbcTemplate.queryForObject("SELECT variables FROM email_outbox", String.class));
+    }
+
+    private void add(String recipient, EmailPriority priority) {
+        outbox.add(recipient, "Subject", new StoredTemplate(priority == EmailPriority.URGENT ? "otp" : "welcome", null, null),
+                VARIABLES, Locale.ENGLISH, priority);
+    }
+
+    private static List<Long> ids(List<OutboxEmail> emails) {
+        return emails.stream().map(OutboxEmail::getId).collect(Collectors.toList());
+    }
+
+    private static byte[] readAll(InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            content.write(buffer, 0, read);
+        }
+        return content.toByteArray();
+    }
+}
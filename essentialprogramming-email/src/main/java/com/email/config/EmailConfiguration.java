@@ -2,6 +2,8 @@ package com.email.config;
 
 import com.email.service.EmailService;
 import com.email.service.SendGridEmailService;
+import com.email.service.StubEmailService;
+import com.util.cloud.Environment;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -9,8 +11,14 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class EmailConfiguration {
 
+    /**
+     * The email provider, SendGrid unless {@code EMAIL_PROVIDER} is {@code stub}.
+     */
     @Bean
     public EmailService loadEmailService() {
+        if ("stub".equalsIgnoreCase(Environment.getProperty("EMAIL_PROVIDER", "sendgrid"))) {
+            return new StubEmailService();
+        }
         return new SendGridEmailService();
     }
 }
@@ -5,7 +5,8 @@ import com.util.exceptions.ErrorCodes;
 public enum EmailErrorCode implements ErrorCodes.ErrorCode{
 
     EMAIL_CLIENT_INITIALIZATION_FAILED(300, "Email client initialization failed"),
-    UNABLE_TO_SEND_EMAIL(301, "Unable to send email");
+    UNABLE_TO_SEND_EMAIL(301, "Unable to send email"),
+    UNABLE_TO_QUEUE_EMAIL(302, "Unable to queue email");
 
 
     private final long code;
@@ -0,0 +1,158 @@
+package com.email.outbox;
+
+import com.email.error.codes.EmailErrorCode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.template.model.Template;
+import com.util.exceptions.ServiceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code email_outbox} table, emails waiting to be sent by the {@link EmailOutboxDispatcher}.
+ * <p>
+ * Emails are inserted through the connection of the surrounding transaction, so an email is sent if and
+ * only if the data it is about is committed, and the caller doesn't wait for the email provider.
+ * </p>
+ */
+@Repository
+public class EmailOutbox {
+
+    private static final String PENDING = "PENDING";
+    private static final String FAILED = "FAILED";
+
+    private static final String INSERT = "INSERT INTO email_outbox "
+            + "(recipient, subject, template_page, template_fragment, template_master, variables, locale, priority, status) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, '" + PENDING + "')";
+
+    // Claimed rows are leased by pushing their next attempt past the time their delivery may take, so the
+    // row locks are only held by this statement and rows of a crashed node are claimed again after the lease
+    private static final String CLAIM = "UPDATE email_outbox "
+            + "SET attempts = attempts + 1, next_attempt_at = now() + ? * interval '1 millisecond' "
+            + "WHERE email_outbox_id IN ("
+            + "SELECT email_outbox_id FROM email_outbox "
+            + "WHERE status = '" + PENDING + "' AND next_attempt_at <= now() "
+            + "ORDER BY priority, next_attempt_at "
+            + "LIMIT ? "
+            + "FOR UPDATE SKIP LOCKED) "
+            + "RETURNING email_outbox_id, recipient, subject, template_page, template_fragment, template_master, "
+            + "variables, locale, priority, attempts";
+
+    private static final String DELETE = "DELETE FROM email_outbox WHERE email_outbox_id = ?";
+
+    private static final String RETRY = "UPDATE email_outbox "
+            + "SET next_attempt_at = now() + ? * interval '1 millisecond', last_error = ? "
+            + "WHERE email_outbox_id = ?";
+
+    // Variables may hold secrets, such as one-time login links, so they are not kept with the failed row
+    private static final String FAIL = "UPDATE email_outbox "
+            + "SET status = '" + FAILED + "', variables = '{}', last_error = ? "
+            + "WHERE email_outbox_id = ?";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> VARIABLES_TYPE = new TypeReference<Map<String, Object>>() {
+    };
+
+    private static final RowMapper<ClaimedRow> CLAIMED_ROW = (resultSet, rowNum) -> new ClaimedRow(
+            resultSet.getInt("priority"),
+            new OutboxEmail(resultSet.getLong("email_outbox_id"),
+                    resultSet.getString("recipient"),
+                    resultSet.getString("subject"),
+                    new StoredTemplate(resultSet.getString("template_page"),
+                            resultSet.getString("template_fragment"),
+                            resultSet.getString("template_master")),
+                    readVariables(resultSet.getString("variables")),
+                    Locale.forLanguageTag(resultSet.getString("locale")),
+                    resultSet.getInt("attempts")));
+
+    private static final class ClaimedRow {
+        final int priority;
+        final OutboxEmail email;
+
+        ClaimedRow(int priority, OutboxEmail email) {
+            this.priority = priority;
+            this.email = email;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public EmailOutbox(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Queue an email, in the current transaction if there is one.
+     */
+    public void add(String recipient, String subject, Template template, Map<String, Object> contentVariables,
+                    Locale locale, EmailPriority priority) {
+        final String page = template.getPage().orElseThrow(() ->
+                new ServiceException(EmailErrorCode.UNABLE_TO_QUEUE_EMAIL, "Template without page"));
+        final String variables;
+        try {
+            variables = objectMapper.writeValueAsString(contentVariables);
+        } catch (JsonProcessingException e) {
+            throw new ServiceException(EmailErrorCode.UNABLE_TO_QUEUE_EMAIL, e);
+        }
+
+        jdbcTemplate.update(INSERT, recipient, subject, page,
+                template.getFragment().orElse(null),
+                template.getMaster().flatMap(Template::getPage).orElse(null),
+                variables, (locale != null ? locale : Locale.getDefault()).toLanguageTag(), priority.getValue());
+    }
+
+    /**
+     * Claim the most urgent emails due, skipping the ones other nodes are claiming.
+     *
+     * @param leaseMillis Time after which the emails are claimed again if they are neither sent nor rescheduled
+     * @return the emails, most urgent first
+     */
+    public List<OutboxEmail> claim(int batchSize, long leaseMillis) {
+        final List<ClaimedRow> rows = jdbcTemplate.query(CLAIM, CLAIMED_ROW, leaseMillis, batchSize);
+        rows.sort(Comparator.comparingInt((ClaimedRow row) -> row.priority).thenComparingLong(row -> row.email.getId()));
+        return rows.stream().map(row -> row.email).collect(Collectors.toList());
+    }
+
+    public void sent(long id) {
+        jdbcTemplate.update(DELETE, id);
+    }
+
+    public void retry(long id, long delayMillis, String error) {
+        jdbcTemplate.update(RETRY, delayMillis, truncate(error), id);
+    }
+
+    /**
+     * Give up on an email, it is kept for inspection without its template variables.
+     */
+    public void failed(long id, String error) {
+        jdbcTemplate.update(FAIL, truncate(error), id);
+    }
+
+    /**
+     * @return the variables, {@code null} if they can't be read, so one broken row doesn't fail its batch
+     */
+    private static Map<String, Object> readVariables(String variables) {
+        try {
+            return objectMapper.readValue(variables, VARIABLES_TYPE);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,194 @@
+package com.email.outbox;
+
+import com.email.service.EmailManager;
+import com.google.common.util.concurrent.RateLimiter;
+import com.util.cloud.Environment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the emails of the {@link EmailOutbox} in the background.
+ * <p>
+ * Every {@code EMAIL_OUTBOX_POLL_INTERVAL} milliseconds (1000) the dispatcher claims up to
+ * {@code EMAIL_OUTBOX_BATCH_SIZE} (50) due emails, most urgent first, and renders and sends them on
+ * {@code EMAIL_OUTBOX_CONCURRENCY} (4) threads, at most {@code EMAIL_OUTBOX_RATE} (10) per second to stay
+ * within the provider limits. Full batches are followed by the next one right away.
+ * </p>
+ * <p>
+ * A failed email is retried after {@code EMAIL_OUTBOX_RETRY_DELAY} milliseconds (30000), doubling up to an
+ * hour, with some jitter so a provider outage doesn't end in a burst. After {@code EMAIL_OUTBOX_MAX_ATTEMPTS}
+ * (8) attempts it is marked as failed. Set {@code EMAIL_OUTBOX_ENABLED} to false to only queue emails on
+ * this node.
+ * </p>
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final long MAX_RETRY_DELAY = TimeUnit.HOURS.toMillis(1);
+    // Longer than the delivery of a batch may take, see EmailOutbox#claim
+    private static final long LEASE = TimeUnit.MINUTES.toMillis(5);
+
+    private final EmailOutbox outbox;
+    private final EmailManager emailManager;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryDelay;
+    private final RateLimiter rateLimiter;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService poller;
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+
+    @Autowired
+    public EmailOutboxDispatcher(EmailOutbox outbox, EmailManager emailManager) {
+        this(outbox, emailManager,
+                Environment.getProperty("EMAIL_OUTBOX_BATCH_SIZE", 50),
+                Environment.getProperty("EMAIL_OUTBOX_CONCURRENCY", 4),
+                Environment.getProperty("EMAIL_OUTBOX_RATE", 10),
+                Environment.getProperty("EMAIL_OUTBOX_MAX_ATTEMPTS", 8),
+                Environment.getProperty("EMAIL_OUTBOX_RETRY_DELAY", 30000),
+                Metrics.globalRegistry);
+    }
+
+    /**
+     * @param ratePerSecond Maximum number of emails sent per second
+     * @param retryDelay    Delay before the first retry of a failed email, in milliseconds
+     */
+    public EmailOutboxDispatcher(EmailOutbox outbox, EmailManager emailManager, int batchSize, int concurrency,
+                                 double ratePerSecond, int maxAttempts, long retryDelay, MeterRegistry registry) {
+        if (batchSize <= 0 || concurrency <= 0 || ratePerSecond <= 0 || maxAttempts <= 0 || retryDelay <= 0) {
+            throw new IllegalArgumentException("Batch size, concurrency, rate, attempts and retry delay must be positive");
+        }
+        this.outbox = outbox;
+        this.emailManager = emailManager;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.rateLimiter = RateLimiter.create(ratePerSecond);
+        this.senders = Executors.newFixedThreadPool(concurrency, daemonThreads("email-outbox-sender"));
+        this.poller = Executors.newSingleThreadScheduledExecutor(daemonThreads("email-outbox-poller"));
+
+        this.sent = Counter.builder("email.outbox.sent")
+                .description("Emails of the outbox sent")
+                .register(registry);
+        this.retried = Counter.builder("email.outbox.retried")
+                .description("Emails of the outbox that failed and will be retried")
+                .register(registry);
+        this.failed = Counter.builder("email.outbox.failed")
+                .description("Emails of the outbox given up on")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (Boolean.parseBoolean(Environment.getProperty("EMAIL_OUTBOX_ENABLED", "true"))) {
+            final int pollInterval = Environment.getProperty("EMAIL_OUTBOX_POLL_INTERVAL", 1000);
+            poller.scheduleWithFixedDelay(this::poll, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        poller.shutdownNow();
+        senders.shutdown();
+    }
+
+    /**
+     * Send the due emails, batch after batch.
+     */
+    void poll() {
+        try {
+            while (dispatch() == batchSize) {
+                // More emails may be due
+            }
+        } catch (RuntimeException e) {
+            // The database may be unavailable, retried on the next poll
+            logger.error("Email outbox dispatch failed", e);
+        }
+    }
+
+    /**
+     * Claim and send one batch of emails, waiting for all of them.
+     *
+     * @return the number of emails claimed
+     */
+    public int dispatch() {
+        final List<OutboxEmail> emails = outbox.claim(batchSize, LEASE);
+        if (emails.isEmpty()) {
+            return 0;
+        }
+
+        final CompletableFuture<?>[] deliveries = new CompletableFuture<?>[emails.size()];
+        for (int i = 0; i < deliveries.length; i++) {
+            final OutboxEmail email = emails.get(i);
+            deliveries[i] = CompletableFuture.runAsync(() -> deliver(email), senders);
+        }
+        CompletableFuture.allOf(deliveries).join();
+        return emails.size();
+    }
+
+    private void deliver(OutboxEmail email) {
+        if (email.getVariables() == null) {
+            outbox.failed(email.getId(), "Template variables can't be read");
+            failed.increment();
+            return;
+        }
+
+        rateLimiter.acquire();
+        try {
+            emailManager.send(email.getRecipient(), email.getSubject(), email.getTemplate(), email.getVariables(),
+                    email.getLocale());
+        } catch (RuntimeException e) {
+            if (email.getAttempts() >= maxAttempts) {
+                logger.error("Giving up on email {} to {} after {} attempts", email.getId(), email.getRecipient(), email.getAttempts(), e);
+                outbox.failed(email.getId(), e.getMessage());
+                failed.increment();
+            } else {
+                logger.warn("Email {} to {} failed, attempt {}: {}", email.getId(), email.getRecipient(), email.getAttempts(), e.getMessage());
+                outbox.retry(email.getId(), retryDelay(email.getAttempts()), e.getMessage());
+                retried.increment();
+            }
+            return;
+        }
+        outbox.sent(email.getId());
+        sent.increment();
+    }
+
+    /**
+     * The delay doubles with every attempt, plus up to a fifth of jitter.
+     */
+    long retryDelay(int attempts) {
+        final long delay = attempts > 20 ? MAX_RETRY_DELAY : Math.min(MAX_RETRY_DELAY, retryDelay << (attempts - 1));
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        final AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
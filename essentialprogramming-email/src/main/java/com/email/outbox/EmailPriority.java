@@ -0,0 +1,32 @@
+package com.email.outbox;
+
+/**
+ * Order in which queued emails are dispatched, a user waiting for an email goes first.
+ */
+public enum EmailPriority {
+
+    /**
+     * Emails a user is waiting for to log in, like one-time passwords.
+     */
+    URGENT(0),
+
+    /**
+     * Emails triggered by a user action, like an account confirmation.
+     */
+    NORMAL(5),
+
+    /**
+     * Mass mailings, sent when nothing else is pending.
+     */
+    BULK(9);
+
+    private final int value;
+
+    EmailPriority(int value) {
+        this.value = value;
+    }
+
+    public int getValue() {
+        return value;
+    }
+}
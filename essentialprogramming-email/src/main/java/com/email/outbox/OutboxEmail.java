@@ -0,0 +1,65 @@
+package com.email.outbox;
+
+import com.template.model.Template;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An email claimed from the outbox for delivery.
+ */
+public final class OutboxEmail {
+
+    private final long id;
+    private final String recipient;
+    private final String subject;
+    private final Template template;
+    private final Map<String, Object> variables;
+    private final Locale locale;
+    private final int attempts;
+
+    OutboxEmail(long id, String recipient, String subject, Template template, Map<String, Object> variables,
+                Locale locale, int attempts) {
+        this.id = id;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.template = template;
+        this.variables = variables;
+        this.locale = locale;
+        this.attempts = attempts;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Template getTemplate() {
+        return template;
+    }
+
+    /**
+     * @return the template variables, {@code null} if the stored ones can't be read
+     */
+    public Map<String, Object> getVariables() {
+        return variables;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Number of deliveries attempted, this one included.
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+}
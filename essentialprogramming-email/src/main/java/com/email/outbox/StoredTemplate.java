@@ -0,0 +1,37 @@
+package com.email.outbox;
+
+import com.template.model.Template;
+
+import java.util.Optional;
+
+/**
+ * A template as stored in the outbox. Rendering only needs the page and fragment of the template and
+ * the page of its master.
+ */
+final class StoredTemplate implements Template {
+
+    private final String page;
+    private final String fragment;
+    private final StoredTemplate master;
+
+    StoredTemplate(String page, String fragment, String masterPage) {
+        this.page = page;
+        this.fragment = fragment;
+        this.master = masterPage != null ? new StoredTemplate(masterPage, null, null) : null;
+    }
+
+    @Override
+    public Optional<String> getPage() {
+        return Optional.ofNullable(page);
+    }
+
+    @Override
+    public Optional<String> getFragment() {
+        return Optional.ofNullable(fragment);
+    }
+
+    @Override
+    public Optional<Template> getMaster() {
+        return Optional.ofNullable(master);
+    }
+}
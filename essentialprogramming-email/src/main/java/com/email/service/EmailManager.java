@@ -1,6 +1,8 @@
 package com.email.service;
 
 import com.email.error.codes.EmailErrorCode;
+import com.email.outbox.EmailOutbox;
+import com.email.outbox.EmailPriority;
 import com.template.model.Template;
 import com.template.service.TemplateService;
 import com.util.exceptions.ServiceException;
@@ -15,13 +17,18 @@ public class EmailManager {
 
     private final EmailService emailService;
     private final TemplateService templateService;
+    private final EmailOutbox emailOutbox;
 
     @Autowired
-    public EmailManager(EmailService emailService, TemplateService templateService) {
+    public EmailManager(EmailService emailService, TemplateService templateService, EmailOutbox emailOutbox) {
         this.emailService = emailService;
         this.templateService = templateService;
+        this.emailOutbox = emailOutbox;
     }
 
+    /**
+     * Render and send an email right away.
+     */
     public void send(String recipient, String subject, Template template, Map<String, Object> contentVariables, Locale locale) {
         if (recipient == null || subject == null || contentVariables == null || template == null) {
             throw new ServiceException(EmailErrorCode.UNABLE_TO_SEND_EMAIL,
@@ -30,4 +37,18 @@ public class EmailManager {
 
         emailService.sendMail(recipient, subject, templateService.generateHTML(template, contentVariables, locale));
     }
+
+    /**
+     * Queue an email in the outbox, within the current transaction. It is rendered and sent in the background
+     * once the transaction commits, and not at all if it rolls back.
+     */
+    public void queue(String recipient, String subject, Template template, Map<String, Object> contentVariables,
+                      Locale locale, EmailPriority priority) {
+        if (recipient == null || subject == null || contentVariables == null || template == null || priority == null) {
+            throw new ServiceException(EmailErrorCode.UNABLE_TO_QUEUE_EMAIL,
+                    "Mandatory non-null parameters: recipient, subject, template, content, priority");
+        }
+
+        emailOutbox.add(recipient, subject, template, contentVariables, locale, priority);
+    }
 }
@@ -0,0 +1,69 @@
+package com.email.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Email service that only logs and records the emails, for local runs and tests.
+ * Selected with {@code EMAIL_PROVIDER=stub}.
+ */
+public class StubEmailService implements EmailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StubEmailService.class);
+
+    // Recent emails only, so a long local run doesn't keep every email
+    private static final int MAX_RECORDED = 1000;
+
+    /**
+     * An email as it would have been sent.
+     */
+    public static final class SentEmail {
+        private final String recipient;
+        private final String subject;
+        private final String content;
+
+        SentEmail(String recipient, String subject, String content) {
+            this.recipient = recipient;
+            this.subject = subject;
+            this.content = content;
+        }
+
+        public String getRecipient() {
+            return recipient;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public String getContent() {
+            return content;
+        }
+    }
+
+    private final List<SentEmail> sent = new ArrayList<>();
+
+    @Override
+    public void sendMail(String to, String subject, String content) {
+        logger.info("Email to {} not sent, stub provider: {}", to, subject);
+        synchronized (sent) {
+            if (sent.size() == MAX_RECORDED) {
+                sent.remove(0);
+            }
+            sent.add(new SentEmail(to, subject, content));
+        }
+    }
+
+    /**
+     * @return the emails sent so far, oldest first
+     */
+    public List<SentEmail> getSentEmails() {
+        synchronized (sent) {
+            return Collections.unmodifiableList(new ArrayList<>(sent));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.email.outbox;
+
+import com.email.service.EmailManager;
+import com.email.service.StubEmailService;
+import com.template.service.TemplateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxDispatcherTest {
+
+    private static final Map<String, Object> VARIABLES = Collections.singletonMap("fullName", "John Doe");
+
+    @Mock
+    private EmailOutbox outbox;
+    @Mock
+    private TemplateService templateService;
+
+    private final StubEmailService emailService = new StubEmailService();
+
+    @Test
+    void emails_are_sent_in_claim_order_and_removed() {
+        when(templateService.generateHTML(any(), any(), any())).thenReturn("<html/>");
+        when(outbox.claim(anyInt(), anyLong())).thenReturn(Arrays.asList(email(1, "otp@mail.com", 1), email(2, "bulk@mail.com", 1)));
+
+        Assertions.assertEquals(2, dispatcher(1).dispatch());
+
+        Assertions.assertEquals(Arrays.asList("otp@mail.com", "bulk@mail.com"), Arrays.asList(
+                emailService.getSentEmails().get(0).getRecipient(), emailService.getSentEmails().get(1).getRecipient()));
+        verify(outbox).sent(1);
+        verify(outbox).sent(2);
+    }
+
+    @Test
+    void failed_emails_are_retried_with_backoff_then_given_up() {
+        when(templateService.generateHTML(any(), any(), any())).thenThrow(new IllegalStateException("provider down"));
+        when(outbox.claim(anyInt(), anyLong())).thenReturn(Arrays.asList(email(1, "a@mail.com", 2), email(2, "b@mail.com", 3)));
+
+        dispatcher(1).dispatch();
+
+        verify(outbox).retry(eq(1L), longThat(delay -> delay >= 2000 && delay <= 2400), eq("provider down"));
+        verify(outbox).failed(2, "provider down");
+        verify(outbox, never()).sent(anyLong());
+    }
+
+    @Test
+    void unreadable_emails_are_given_up_right_away() {
+        when(outbox.claim(anyInt(), anyLong())).thenReturn(Collections.singletonList(
+                new OutboxEmail(1, "a@mail.com", "Subject", new StoredTemplate("html/parent", null, null), null, Locale.ENGLISH, 1)));
+
+        dispatcher(1).dispatch();
+
+        verify(outbox).failed(eq(1L), anyString());
+        Assertions.assertTrue(emailService.getSentEmails().isEmpty());
+    }
+
+    private EmailOutboxDispatcher dispatcher(int concurrency) {
+        return new EmailOutboxDispatcher(outbox, new EmailManager(emailService, templateService, outbox),
+                10, concurrency, 1000, 3, 1000, new SimpleMeterRegistry());
+    }
+
+    private static OutboxEmail email(long id, String recipient, int attempts) {
+        return new OutboxEmail(id, recipient, "Subject", new StoredTemplate("html/otp_login", "otp_login", "html/parent"),
+                VARIABLES, Locale.ENGLISH, attempts);
+    }
+}
@@ -18,35 +18,52 @@ public final class Computation {
 
 	/**
 	 * Wrapper method to return a CompletableFuture that calls the given callable asynchronously. Wraps and handles the
-	 * callable's exceptions by explicitly completing the CompletableFuture exceptionally.
+	 * callable's exceptions by explicitly completing the CompletableFuture exceptionally. When the executor rejects
+	 * the task, because its queue is full, the CompletableFuture is completed exceptionally with the
+	 * RejectedExecutionException.
 	 * @param callable Code to be executed
-	 * @param executorService The ExecutorService
+	 * @param executor The Executor, such as an ExecutorService
 	 */
-	public static <R> CompletableFuture<R> computeAsync(Callable<R> callable, ExecutorService executorService) {
-		return CompletableFuture.supplyAsync(() -> {
-			try {
-				return callable.call();
-			} catch (Exception ex) {
-				LOG.error(ex.getMessage(), ex);
-				throw new CompletionException(ex);
-			}
-		}, executorService);
+	public static <R> CompletableFuture<R> computeAsync(Callable<R> callable, Executor executor) {
+		try {
+			return CompletableFuture.supplyAsync(() -> {
+				try {
+					return callable.call();
+				} catch (Exception ex) {
+					LOG.error(ex.getMessage(), ex);
+					throw new CompletionException(ex);
+				}
+			}, executor);
+		} catch (RejectedExecutionException ex) {
+			return rejected(ex);
+		}
 	}
 
 	/**
 	 * Wrapper method over void tasks that ought to be run asynchronously. Handles logging of checked exceptions.
 	 * @param callable Code to be executed
-	 * @param executorService The ExecutorService
+	 * @param executor The Executor, such as an ExecutorService
 	 */
-	public static CompletableFuture<Void> runAsync(Runnable callable, ExecutorService executorService) {
-		return CompletableFuture.runAsync(() -> {
-			try {
-				callable.run();
-			} catch (Exception ex) {
-				LOG.error(ex.getMessage(), ex);
-				throw new CompletionException(ex);
-			}
-		}, executorService);
+	public static CompletableFuture<Void> runAsync(Runnable callable, Executor executor) {
+		try {
+			return CompletableFuture.runAsync(() -> {
+				try {
+					callable.run();
+				} catch (Exception ex) {
+					LOG.error(ex.getMessage(), ex);
+					throw new CompletionException(ex);
+				}
+			}, executor);
+		} catch (RejectedExecutionException ex) {
+			return rejected(ex);
+		}
+	}
+
+	private static <R> CompletableFuture<R> rejected(RejectedExecutionException ex) {
+		LOG.warn("Task rejected: {}", ex.getMessage());
+		final CompletableFuture<R> future = new CompletableFuture<>();
+		future.completeExceptionally(new CompletionException(ex));
+		return future;
 	}
 
 	/**
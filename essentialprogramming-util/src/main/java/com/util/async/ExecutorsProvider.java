@@ -1,26 +1,175 @@
 package com.util.async;
 
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.util.cloud.Environment.getProperty;
 
 /**
  * ExecutorsProvider class provides static access to application shared ExecutorServices to be used by asynchronous
  * methods (tasks implemented using CompletableFutures that run asynchronously).
+ * <p>
+ * Work is split in bulkheads, so that a slow database or SMTP server can't take the threads CPU-bound work needs:
+ * <ul>
+ * <li>{@link #getCpuExecutor()} for CPU-bound work such as rendering PDFs,
+ * {@code EXECUTOR_CPU_POOL_SIZE} threads (one per processor) and {@code EXECUTOR_CPU_QUEUE_SIZE} queued tasks
+ * (32 per processor);</li>
+ * <li>{@link #getIoExecutor()} for blocking work such as database queries and sending emails,
+ * {@code EXECUTOR_IO_POOL_SIZE} threads (10, or {@code pool.size}) and {@code EXECUTOR_IO_QUEUE_SIZE} queued tasks
+ * (100).</li>
+ * </ul>
+ * Queues are bounded: once an executor's queue is full, further tasks are rejected with a
+ * {@link java.util.concurrent.RejectedExecutionException} instead of piling up, see
+ * {@link Computation#computeAsync}.
+ * </p>
+ * <p>
+ * Each executor publishes {@code executor.active}, {@code executor.queued}, {@code executor.completed},
+ * {@code executor.pool.size} and {@code executor.rejected}, tagged with its name, such as {@code cpu} or {@code io}.
+ * </p>
+ * <p>
+ * On Java 21 and {@code VIRTUAL_THREADS=true}, the I/O executor starts a virtual thread per task instead: a task
+ * blocked on I/O then costs a few kilobytes of heap rather than a platform thread, and the database or mail
+ * server's own limits, such as the connection pool, bound the concurrency. CPU-bound work stays on platform
+ * threads, virtual threads don't make it faster.
+ * </p>
  */
 public class ExecutorsProvider {
 
-	private static final int APP_EXECUTOR_POOL_SIZE = getProperty("pool.size", 5);;
+	private static final Logger LOG = LoggerFactory.getLogger(ExecutorsProvider.class);
+
+	private static final String EXECUTOR_CPU_POOL_SIZE = "EXECUTOR_CPU_POOL_SIZE";
+	private static final String EXECUTOR_CPU_QUEUE_SIZE = "EXECUTOR_CPU_QUEUE_SIZE";
+	private static final String EXECUTOR_IO_POOL_SIZE = "EXECUTOR_IO_POOL_SIZE";
+	private static final String EXECUTOR_IO_QUEUE_SIZE = "EXECUTOR_IO_QUEUE_SIZE";
+
+	private static final String VIRTUAL_THREADS = "VIRTUAL_THREADS";
+
+	private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+	private static class VirtualThreadsHolder {
+		static final boolean enabled = "true".equalsIgnoreCase(getProperty(VIRTUAL_THREADS, "false")) && supported();
+
+		private static boolean supported() {
+			try {
+				newVirtualThreadExecutor("probe").shutdown();
+				return true;
+			} catch (UnsupportedOperationException e) {
+				LOG.warn("{}=true ignored, virtual threads need Java 21", VIRTUAL_THREADS);
+				return false;
+			}
+		}
+	}
+
+	private static class CpuExecutorHolder {
+		static final ExecutorService executorService = newBoundedExecutor("cpu",
+				getProperty(EXECUTOR_CPU_POOL_SIZE, PROCESSORS),
+				getProperty(EXECUTOR_CPU_QUEUE_SIZE, 32 * PROCESSORS),
+				new ThreadPoolExecutor.AbortPolicy(), Metrics.globalRegistry);
+	}
+
+	private static class IoExecutorHolder {
+		static final ExecutorService executorService = isVirtualThreadsEnabled()
+				? ExecutorServiceMetrics.monitor(Metrics.globalRegistry, newVirtualThreadExecutor("io"), "io")
+				: newBoundedExecutor("io",
+						getProperty(EXECUTOR_IO_POOL_SIZE, getProperty("pool.size", 10)),
+						getProperty(EXECUTOR_IO_QUEUE_SIZE, 100),
+						new ThreadPoolExecutor.AbortPolicy(), Metrics.globalRegistry);
+	}
 
-	private static class ExecutorsServiceHolder {
-		static final ExecutorService executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() + 1);
 
+	/**
+	 * Executor for CPU-bound work, it must not block on I/O.
+	 */
+	public static ExecutorService getCpuExecutor() {
+		return CpuExecutorHolder.executorService;
 	}
 
+	/**
+	 * Executor for work blocking on I/O, such as database queries.
+	 */
+	public static ExecutorService getIoExecutor() {
+		return IoExecutorHolder.executorService;
+	}
 
+	/**
+	 * The I/O executor, what asynchronous controllers mostly wait for is the database.
+	 */
 	public static ExecutorService getExecutorService() {
-		return ExecutorsServiceHolder.executorService;
+		return getIoExecutor();
+	}
+
+	/**
+	 * Whether blocking work, and the requests of an embedded container, should run on virtual threads.
+	 */
+	public static boolean isVirtualThreadsEnabled() {
+		return VirtualThreadsHolder.enabled;
+	}
+
+	/**
+	 * Create an executor starting a virtual thread per task, the threads are named after the executor.
+	 * Looked up reflectively, so this class still compiles and runs on Java 8.
+	 *
+	 * @throws UnsupportedOperationException before Java 21
+	 */
+	public static ExecutorService newVirtualThreadExecutor(final String name) {
+		try {
+			final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+			final Object builder = builderType.getMethod("name", String.class, long.class)
+					.invoke(Thread.class.getMethod("ofVirtual").invoke(null), name + "-virtual-", 1L);
+			final ThreadFactory threadFactory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+			return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+					.invoke(null, threadFactory);
+		} catch (ReflectiveOperationException | LinkageError e) {
+			// Missing before Java 19, a preview feature until Java 21
+			throw new UnsupportedOperationException("Virtual threads are not available", e);
+		}
+	}
+
+	/**
+	 * Create a fixed size executor of daemon threads with a bounded queue, instrumented as described above.
+	 *
+	 * @param name              Name of the executor, used for its threads and metrics
+	 * @param rejectionPolicy   Called for the tasks neither a thread nor the queue can take, after they are counted
+	 * @param registry          Registry the metrics are published to
+	 */
+	public static ExecutorService newBoundedExecutor(final String name, final int poolSize, final int queueSize,
+													 final RejectedExecutionHandler rejectionPolicy,
+													 final MeterRegistry registry) {
+		if (poolSize <= 0 || queueSize <= 0) {
+			throw new IllegalArgumentException("Pool and queue size must be positive");
+		}
+		final Counter rejected = Counter.builder("executor.rejected")
+				.description("Tasks rejected because the executor's queue was full")
+				.tag("name", name)
+				.register(registry);
+		final AtomicInteger threads = new AtomicInteger();
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueSize),
+				runnable -> {
+					final Thread thread = new Thread(runnable, name + "-executor-" + threads.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				(task, pool) -> {
+					rejected.increment();
+					rejectionPolicy.rejectedExecution(task, pool);
+				});
+		new ExecutorServiceMetrics(executor, name, Tags.empty()).bindTo(registry);
+		return executor;
 	}
 }
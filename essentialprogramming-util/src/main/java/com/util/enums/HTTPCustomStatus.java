@@ -10,7 +10,15 @@ public enum HTTPCustomStatus {
      * repeats a parameter or is otherwise malformed.
      *
      */
-    INVALID_REQUEST(422)
+    INVALID_REQUEST(422),
+    /**
+     * The client sent too many requests in a given amount of time, it can retry later.
+     */
+    TOO_MANY_REQUESTS(429),
+    /**
+     * The server is temporarily overloaded, the request can be retried later.
+     */
+    SERVICE_UNAVAILABLE(503)
 ;
 
     private final Integer value;
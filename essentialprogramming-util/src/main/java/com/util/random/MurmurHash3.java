@@ -55,6 +55,33 @@ public class MurmurHash3 {
         return finalizeHash(h, data.length);
     }
 
+    /**
+     * Generates 32-bit hash from the UTF-16 code units of a character sequence and a given seed,
+     * without encoding it to bytes first.
+     */
+    public static long hash32(CharSequence data, long seed) {
+        final int length = data.length();
+        long h = seed;
+
+        // Body, two chars per block
+        int i = 0;
+        while (i + 1 < length) {
+            long k = data.charAt(i) | ((long) data.charAt(i + 1) << 16);
+
+            h = mix(h, k);
+
+            i += 2;
+        }
+
+        // Tail
+        if (i < length) {
+            h = mixLast(h, data.charAt(i));
+        }
+
+        // Finalization
+        return finalizeHash(h, 2 * length);
+    }
+
     /**
      * Finalize a hash to incorporate the length and make sure all bits avalanche.
      */
@@ -0,0 +1,80 @@
+package com.util.async;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+class ExecutorsProviderTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService executor =
+            ExecutorsProvider.newBoundedExecutor("test", 1, 1, new ThreadPoolExecutor.AbortPolicy(), registry);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void full_executor_rejects_and_counts() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CompletableFuture<Void> running = Computation.runAsync(() -> {
+            started.countDown();
+            await(release);
+        }, executor);
+        started.await();
+        final CompletableFuture<Void> queued = Computation.runAsync(() -> { }, executor);
+
+        final CompletableFuture<String> rejected = Computation.computeAsync(() -> "rejected", executor);
+
+        final CompletionException failure = Assertions.assertThrows(CompletionException.class, rejected::join);
+        Assertions.assertTrue(failure.getCause() instanceof RejectedExecutionException);
+        Assertions.assertEquals(1.0, registry.get("executor.rejected").tag("name", "test").counter().count());
+        Assertions.assertEquals(1.0, registry.get("executor.active").tag("name", "test").gauge().value());
+        Assertions.assertEquals(1.0, registry.get("executor.queued").tag("name", "test").gauge().value());
+
+        release.countDown();
+        running.join();
+        queued.join();
+    }
+
+    @Test
+    void cpu_and_io_executors_are_distinct() {
+        Assertions.assertNotSame(ExecutorsProvider.getCpuExecutor(), ExecutorsProvider.getIoExecutor());
+        Assertions.assertSame(ExecutorsProvider.getIoExecutor(), ExecutorsProvider.getExecutorService());
+    }
+
+    @Test
+    void virtual_threads_need_java_21() throws Exception {
+        if (Integer.parseInt(System.getProperty("java.specification.version").replaceFirst("^1\\.", "")) < 21) {
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> ExecutorsProvider.newVirtualThreadExecutor("test"));
+            Assertions.assertFalse(ExecutorsProvider.isVirtualThreadsEnabled());
+            return;
+        }
+        final ExecutorService virtual = ExecutorsProvider.newVirtualThreadExecutor("test");
+        try {
+            Assertions.assertEquals("test-virtual-1", virtual.submit(() -> Thread.currentThread().getName()).get());
+        } finally {
+            virtual.shutdown();
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
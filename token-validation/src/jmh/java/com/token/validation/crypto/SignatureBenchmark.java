@@ -0,0 +1,81 @@
+package com.token.validation.crypto;
+
+import com.token.validation.jwt.JwtVerifier;
+import com.token.validation.signature.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of minting (signing) and verifying a token with RS256 (RSA-2048) and EdDSA (Ed25519).
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="SignatureBenchmark"},
+ * add {@code -t <threads>} to measure the throughput of a loaded host.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SignatureBenchmark {
+
+    @Param({"RS256", "EdDSA"})
+    public SignatureAlgorithm algorithm;
+
+    private KeyPair keyPair;
+    private byte[] signingInput;
+    private String jwt;
+    private JwtVerifier verifier;
+
+    @State(Scope.Thread)
+    public static class Signer {
+        private Signature signature;
+
+        @Setup
+        public void setUp(SignatureBenchmark benchmark) throws GeneralSecurityException {
+            signature = Signature.getInstance(benchmark.algorithm.getJcaName());
+            signature.initSign(benchmark.keyPair.getPrivate());
+        }
+    }
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        final KeyPairGenerator keyGen = KeyPairGenerator.getInstance(algorithm.isRsa() ? "RSA" : "Ed25519");
+        if (algorithm.isRsa()) {
+            keyGen.initialize(2048);
+        }
+        keyPair = keyGen.generateKeyPair();
+
+        final String header = "{\"alg\":\"" + algorithm.getValue() + "\",\"typ\":\"JWT\"}";
+        final String payload = "{\"iss\":\"essentialprogramming\",\"exp\":" + (System.currentTimeMillis() / 1000L + 3600)
+                + ",\"email\":\"john.doe@essentialprogramming.com\",\"roles\":\"ADMIN,USER\"}";
+        final String input = Base64.getUrlEncoder().withoutPadding().encodeToString(header.getBytes(StandardCharsets.UTF_8))
+                + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        signingInput = input.getBytes(StandardCharsets.US_ASCII);
+
+        final Signature signature = Signature.getInstance(algorithm.getJcaName());
+        signature.initSign(keyPair.getPrivate());
+        signature.update(signingInput);
+        jwt = input + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature.sign());
+
+        verifier = JwtVerifier.builder().key(algorithm, keyPair.getPublic()).build();
+    }
+
+    @Benchmark
+    public byte[] sign(Signer signer) throws GeneralSecurityException {
+        signer.signature.update(signingInput);
+        return signer.signature.sign();
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return verifier.verify(jwt).isValid();
+    }
+}
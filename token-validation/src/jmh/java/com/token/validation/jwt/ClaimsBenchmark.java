@@ -0,0 +1,56 @@
+package com.token.validation.jwt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the claims needed to authenticate a request (expiration, roles, permissions and email)
+ * through the map based {@link JwtClaims} and through {@link ClaimsView}.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="ClaimsBenchmark -prof gc"}
+ * to also compare the allocation rate.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ClaimsBenchmark {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        payload = ("{\"iss\":\"essentialprogramming\",\"sub\":\"3f0c2a5e-2b8d-4c1f-9f43-6a1d2b7e9c10\","
+                + "\"aud\":\"essentialprogramming-api\",\"iat\":1700000000,\"nbf\":1700000000,\"exp\":1700003600,"
+                + "\"jti\":\"e4b7a3c2-6d1f-4f0a-8b2e-5c9d7a1f3e60\",\"email\":\"john.doe@essentialprogramming.com\","
+                + "\"active\":\"true\",\"roles\":\"ADMIN,USER\",\"permissions\":[\"read:user\",\"write:user\"]}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void jwtClaims(Blackhole blackhole) throws IOException {
+        final JwtClaims claims = mapper.readValue(payload, JwtClaims.class);
+        blackhole.consume(claims.getExpiration());
+        blackhole.consume(claims.getRoles().split("\\,"));
+        blackhole.consume(claims.getPermissions());
+        blackhole.consume(claims.get("email"));
+    }
+
+    @Benchmark
+    public void claimsView(Blackhole blackhole) throws IOException {
+        final ClaimsView claims = ClaimsView.parse(payload);
+        blackhole.consume(claims.getExpiration());
+        blackhole.consume(claims.getRoleNames());
+        blackhole.consume(claims.getPermissions());
+        blackhole.consume(claims.getString("email"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.token.validation.audit;
+
+import com.token.validation.crypto.EdDSAProvider;
+import com.token.validation.jwt.BulkVerifier;
+import com.token.validation.jwt.JwtVerifier;
+import com.token.validation.jwt.ValidationPolicy;
+import com.token.validation.jwt.VerificationSummary;
+import com.token.validation.signature.SignatureAlgorithm;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Command line re-verification of captured tokens, one per line:
+ * <pre>
+ * java -cp token-validation.jar com.token.validation.audit.TokenAudit &lt;token-file&gt; &lt;key-file&gt; &lt;algorithm&gt; [--threads=N] [--at=EPOCH_SECONDS]
+ * </pre>
+ * The key file holds the PEM encoded public key, or the secret for HMAC algorithms. The token file is
+ * memory-mapped and split in byte ranges verified on all cores. {@code --at} checks the time claims
+ * as of the given instant, for instance the time the tokens were captured.
+ */
+public final class TokenAudit {
+
+    private static final String THREADS_OPTION = "--threads=";
+    private static final String AT_OPTION = "--at=";
+
+    private TokenAudit() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final List<String> arguments = new ArrayList<>();
+        int threads = Runtime.getRuntime().availableProcessors();
+        Clock clock = Clock.systemUTC();
+        for (String arg : args) {
+            if (arg.startsWith(THREADS_OPTION)) {
+                threads = Integer.parseInt(arg.substring(THREADS_OPTION.length()));
+            } else if (arg.startsWith(AT_OPTION)) {
+                clock = Clock.fixed(Instant.ofEpochSecond(Long.parseLong(arg.substring(AT_OPTION.length()))), ZoneOffset.UTC);
+            } else {
+                arguments.add(arg);
+            }
+        }
+        if (arguments.size() != 3) {
+            System.err.println("Usage: TokenAudit <token-file> <key-file> <algorithm> [--threads=N] [--at=EPOCH_SECONDS]");
+            System.exit(2);
+        }
+
+        final SignatureAlgorithm algorithm = SignatureAlgorithm.valueOf(arguments.get(2));
+        final JwtVerifier verifier = JwtVerifier.builder()
+                .key(algorithm, readKey(Paths.get(arguments.get(1)), algorithm))
+                .policy(ValidationPolicy.builder().clock(clock).build())
+                .build();
+
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            final long start = System.nanoTime();
+            final VerificationSummary summary = audit(Paths.get(arguments.get(0)),
+                    BulkVerifier.builder().verifier(verifier).pool(pool).build());
+            final long elapsed = Math.max(1, (System.nanoTime() - start) / 1_000_000L);
+
+            System.out.println(summary);
+            System.out.println(summary.getTotal() + " tokens verified in " + elapsed + " ms on " + threads + " threads");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Verify the tokens of a newline-delimited file. Files larger than a mapping can hold
+     * are mapped in several regions, each ending at a line break.
+     */
+    public static VerificationSummary audit(final Path tokenFile, final BulkVerifier bulkVerifier) throws IOException {
+        final VerificationSummary summary = new VerificationSummary();
+        try (FileChannel channel = FileChannel.open(tokenFile, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                final long length = Math.min(Integer.MAX_VALUE, size - position);
+                final MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int limit = (int) length;
+                if (position + length < size) {
+                    while (limit > 0 && region.get(limit - 1) != '\n') {
+                        limit--;
+                    }
+                    if (limit == 0) {
+                        throw new IOException("Line longer than " + Integer.MAX_VALUE + " bytes at offset " + position);
+                    }
+                }
+                region.limit(limit);
+                summary.merge(bulkVerifier.summarize(region));
+                position += limit;
+            }
+        }
+        return summary;
+    }
+
+    private static Key readKey(final Path keyFile, final SignatureAlgorithm algorithm)
+            throws IOException, GeneralSecurityException {
+        final byte[] content = Files.readAllBytes(keyFile);
+        if (algorithm.isHmac()) {
+            return new SecretKeySpec(new String(content, StandardCharsets.UTF_8).trim().getBytes(StandardCharsets.UTF_8),
+                    algorithm.getJcaName());
+        }
+        final String pem = new String(content, StandardCharsets.US_ASCII)
+                .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "");
+        final X509EncodedKeySpec keySpec = new X509EncodedKeySpec(Base64.getMimeDecoder().decode(pem));
+        return keyFactory(algorithm).generatePublic(keySpec);
+    }
+
+    private static KeyFactory keyFactory(final SignatureAlgorithm algorithm) throws GeneralSecurityException {
+        if (algorithm.isRsa()) return KeyFactory.getInstance("RSA");
+        if (algorithm.isEllipticCurve()) return KeyFactory.getInstance("EC");
+        // Ed25519 is only built into Java 15 and later
+        if (algorithm.isEdwardsCurve()) return EdDSAProvider.ed25519KeyFactory();
+        throw new IllegalArgumentException("Unsupported algorithm: " + algorithm);
+    }
+}
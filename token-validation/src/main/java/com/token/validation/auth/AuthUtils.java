@@ -1,7 +1,7 @@
 package com.token.validation.auth;
 
 import com.token.validation.basic.BadCredentialsException;
-import com.token.validation.jwt.Jwt;
+import com.token.validation.jwt.DecodedJwt;
 import com.token.validation.jwt.JwtClaims;
 import com.token.validation.jwt.exception.JwtTokenMissingException;
 
@@ -50,12 +50,11 @@ public final class AuthUtils {
         return jwt;
     }
 
-    @SuppressWarnings("unchecked")
     public static <T> T getClaim(final String jwtToken, final String key) {
-        final Jwt token = Jwt.parse(jwtToken);
+        final DecodedJwt token = DecodedJwt.decode(jwtToken);
         try {
-            JwtClaims claims = token.getClaims();
-            return claims.containsKey(key) ? ((T) claims.get(key)) : null;
+            // Only the requested claim is decoded
+            return token.getClaimsView().get(key);
         } catch (IOException e) {
             return null;
         }
@@ -0,0 +1,144 @@
+package com.token.validation.crypto;
+
+import com.token.validation.jwt.DecodedJwt;
+import com.token.validation.jwt.exception.SignatureVerificationException;
+import com.token.validation.signature.SignatureAlgorithm;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+
+/**
+ * Verifies EdDSA (Ed25519) signatures through the JCA {@code Ed25519} algorithm, built into Java 15 and
+ * later, and taken from BouncyCastle on older runtimes.
+ */
+public class EdDSAProvider implements SignatureVerifier {
+
+    /**
+     * Length in bytes of an Ed25519 public key.
+     */
+    public static final int ED25519_KEY_LENGTH = 32;
+
+    /**
+     * DER encoding of the X.509 SubjectPublicKeyInfo of an Ed25519 key (OID 1.3.101.112), up to the key itself.
+     */
+    private static final byte[] ED25519_KEY_INFO_PREFIX = {
+            0x30, 0x2a, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x70, 0x03, 0x21, 0x00
+    };
+
+    private static final String ED25519 = "Ed25519";
+
+    private EdDSAProvider() {
+    }
+
+    private static class BouncyCastleProviderHolder {
+        static final Provider INSTANCE = new BouncyCastleProvider();
+    }
+
+    private static class EdDSAProviderHolder {
+        static final EdDSAProvider INSTANCE = new EdDSAProvider();
+    }
+
+    public static EdDSAProvider getInstance() {
+        return EdDSAProviderHolder.INSTANCE;
+    }
+
+
+    public boolean verify(final DecodedJwt input, final Key key) throws SignatureVerificationException {
+        if (!isEd25519Key(key))
+            throw new IllegalArgumentException("EdDSA signature validation requires an Ed25519 public key");
+        try {
+            final Signature verifier = getSignature(input.getHeader().getAlgorithm());
+            verifier.initVerify((PublicKey) key);
+            verifier.update(input.getSigningInput());
+
+            return verifier.verify(input.getSignature());
+        } catch (Exception exception) {
+            throw new SignatureVerificationException("Something went wrong on signature verification", exception);
+        }
+    }
+
+    /**
+     * Create a reusable engine initialized for verification with the given public key.
+     *
+     * @throws SignatureVerificationException if the algorithm is not EdDSA or the key is invalid.
+     */
+    public SignatureEngine newEngine(final SignatureAlgorithm algorithm, final Key key) throws SignatureVerificationException {
+        if (!isEd25519Key(key))
+            throw new IllegalArgumentException("EdDSA signature validation requires an Ed25519 public key");
+        try {
+            return new PublicKeySignatureEngine(getSignature(algorithm), (PublicKey) key);
+        } catch (Exception e) {
+            throw new SignatureVerificationException("Cannot initialize " + algorithm + " signature engine", e);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the key is an Ed25519 public key, whichever provider created it.
+     */
+    public static boolean isEd25519Key(final Key key) {
+        if (!(key instanceof PublicKey))
+            return false;
+        // Compare the encoding, the JDK names the algorithm of both Ed25519 and Ed448 keys "EdDSA"
+        final byte[] encoded = key.getEncoded();
+        return encoded != null
+                && encoded.length == ED25519_KEY_INFO_PREFIX.length + ED25519_KEY_LENGTH
+                && Arrays.equals(Arrays.copyOf(encoded, ED25519_KEY_INFO_PREFIX.length), ED25519_KEY_INFO_PREFIX);
+    }
+
+    /**
+     * Create an Ed25519 public key from its raw 32 byte encoding, as found in a JSON Web Key.
+     */
+    public static PublicKey toPublicKey(final byte[] rawKey) throws GeneralSecurityException {
+        if (rawKey == null || rawKey.length != ED25519_KEY_LENGTH)
+            throw new IllegalArgumentException("An Ed25519 public key is " + ED25519_KEY_LENGTH + " bytes long");
+        final byte[] encoded = Arrays.copyOf(ED25519_KEY_INFO_PREFIX, ED25519_KEY_INFO_PREFIX.length + ED25519_KEY_LENGTH);
+        System.arraycopy(rawKey, 0, encoded, ED25519_KEY_INFO_PREFIX.length, ED25519_KEY_LENGTH);
+        return ed25519KeyFactory().generatePublic(new X509EncodedKeySpec(encoded));
+    }
+
+    /**
+     * Returns the raw 32 byte encoding of an Ed25519 public key.
+     */
+    public static byte[] toRawKey(final PublicKey publicKey) {
+        if (!isEd25519Key(publicKey))
+            throw new IllegalArgumentException("Not an Ed25519 public key");
+        final byte[] encoded = publicKey.getEncoded();
+        return Arrays.copyOfRange(encoded, encoded.length - ED25519_KEY_LENGTH, encoded.length);
+    }
+
+    /**
+     * Returns a new Ed25519 signature, built into Java 15 and later, or from BouncyCastle otherwise.
+     */
+    public static Signature ed25519Signature() throws NoSuchAlgorithmException {
+        try {
+            return Signature.getInstance(ED25519);
+        } catch (NoSuchAlgorithmException e) {
+            return Signature.getInstance(ED25519, BouncyCastleProviderHolder.INSTANCE);
+        }
+    }
+
+    /**
+     * Returns an Ed25519 key factory, built into Java 15 and later, or from BouncyCastle otherwise.
+     */
+    public static KeyFactory ed25519KeyFactory() throws NoSuchAlgorithmException {
+        try {
+            return KeyFactory.getInstance(ED25519);
+        } catch (NoSuchAlgorithmException e) {
+            return KeyFactory.getInstance(ED25519, BouncyCastleProviderHolder.INSTANCE);
+        }
+    }
+
+    private static Signature getSignature(SignatureAlgorithm alg) throws NoSuchAlgorithmException {
+        if (!alg.isEdwardsCurve())
+            throw new IllegalArgumentException("Not an EdDSA Algorithm");
+        return ed25519Signature();
+    }
+}
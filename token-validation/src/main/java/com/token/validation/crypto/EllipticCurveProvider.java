@@ -1,10 +1,9 @@
 package com.token.validation.crypto;
 
-import com.token.validation.jwt.Jwt;
+import com.token.validation.jwt.DecodedJwt;
 import com.token.validation.jwt.exception.SignatureVerificationException;
 import com.token.validation.signature.SignatureAlgorithm;
 
-import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
@@ -29,17 +28,17 @@ public class EllipticCurveProvider implements SignatureVerifier {
     }
 
 
-    public boolean verify(final Jwt input, final Key key) throws SignatureVerificationException {
+    public boolean verify(final DecodedJwt input, final Key key) throws SignatureVerificationException {
         return verify(input, (PublicKey) key);
     }
 
-    private static boolean verify(Jwt jwt, PublicKey publicKey) throws SignatureVerificationException {
+    private static boolean verify(DecodedJwt jwt, PublicKey publicKey) throws SignatureVerificationException {
         if (!(publicKey instanceof ECPublicKey))
             throw new IllegalArgumentException("Elliptic Curve signature validation requires an ECPublicKey instance");
         try {
             final Signature verifier = getSignature(jwt.getHeader().getAlgorithm());
             verifier.initVerify(publicKey);
-            verifier.update((jwt.getEncodedHeader() + '.' + jwt.getEncodedContent()).getBytes(StandardCharsets.UTF_8));
+            verifier.update(jwt.getSigningInput());
 
             return verifier.verify(jwt.getSignature());
         } catch (Exception exception) {
@@ -47,6 +46,21 @@ public class EllipticCurveProvider implements SignatureVerifier {
         }
     }
 
+    /**
+     * Create a reusable engine initialized for verification with the given public key.
+     *
+     * @throws SignatureVerificationException if the algorithm is not an ECDSA algorithm or the key is invalid.
+     */
+    public SignatureEngine newEngine(final SignatureAlgorithm algorithm, final Key key) throws SignatureVerificationException {
+        if (!(key instanceof ECPublicKey))
+            throw new IllegalArgumentException("Elliptic Curve signature validation requires an ECPublicKey instance");
+        try {
+            return new PublicKeySignatureEngine(getSignature(algorithm), (PublicKey) key);
+        } catch (Exception e) {
+            throw new SignatureVerificationException("Cannot initialize " + algorithm + " signature engine", e);
+        }
+    }
+
     private static Signature getSignature(SignatureAlgorithm alg) throws NoSuchAlgorithmException {
         return Signature.getInstance(getJavaCryptographicAlgorithm(alg));
     }
@@ -1,12 +1,12 @@
 package com.token.validation.crypto;
 
-import com.token.validation.jwt.Jwt;
+import com.token.validation.jwt.DecodedJwt;
 import com.token.validation.jwt.exception.SignatureVerificationException;
 import com.token.validation.signature.SignatureAlgorithm;
 
 import javax.crypto.Mac;
 import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
 import java.security.InvalidKeyException;
 import java.security.Key;
 import java.security.MessageDigest;
@@ -26,14 +26,13 @@ public class HMACProvider implements SignatureVerifier {
     }
 
 
-    public boolean verify(final Jwt input, final Key key) throws SignatureVerificationException {
+    public boolean verify(final DecodedJwt input, final Key key) throws SignatureVerificationException {
         return verify(input, (SecretKey) key);
     }
 
-    private static boolean verify(Jwt input, SecretKey key) throws SignatureVerificationException {
+    private static boolean verify(DecodedJwt input, SecretKey key) throws SignatureVerificationException {
         try {
-            byte[] signature = sign((input.getEncodedHeader() + '.' + input.getEncodedContent()).getBytes(StandardCharsets.UTF_8),
-                            input.getHeader().getAlgorithm(), key);
+            byte[] signature = sign(input.getSigningInput(), input.getHeader().getAlgorithm(), key);
             return MessageDigest.isEqual(signature, input.getSignature());
         } catch (Exception e) {
             throw new SignatureVerificationException("Something went wrong on signature verification");
@@ -41,7 +40,33 @@ public class HMACProvider implements SignatureVerifier {
     }
 
 
-    private static byte[] sign(byte[] data, SignatureAlgorithm algorithm, SecretKey key) throws InvalidKeyException, NoSuchAlgorithmException {
+    /**
+     * Create a reusable engine initialized with the given secret key.
+     *
+     * @throws SignatureVerificationException if the algorithm is not an HMAC algorithm or the key is invalid.
+     */
+    public SignatureEngine newEngine(final SignatureAlgorithm algorithm, final Key key) throws SignatureVerificationException {
+        try {
+            final Mac mac = Mac.getInstance(getJavaCryptographicAlgorithm(algorithm));
+            mac.init((SecretKey) key);
+            return input -> verify(mac, input);
+        } catch (Exception e) {
+            throw new SignatureVerificationException("Cannot initialize " + algorithm + " signature engine", e);
+        }
+    }
+
+    private static boolean verify(Mac mac, DecodedJwt input) throws SignatureVerificationException {
+        try {
+            // doFinal leaves the Mac initialized with the same key, ready for the next token
+            mac.update(input.getSigningInput());
+            return MessageDigest.isEqual(mac.doFinal(), input.getSignature());
+        } catch (Exception e) {
+            mac.reset();
+            throw new SignatureVerificationException("Something went wrong on signature verification");
+        }
+    }
+
+    private static byte[] sign(ByteBuffer data, SignatureAlgorithm algorithm, SecretKey key) throws InvalidKeyException, NoSuchAlgorithmException {
         final Mac mac = Mac.getInstance(getJavaCryptographicAlgorithm(algorithm));
         mac.init(key);
         mac.update(data);
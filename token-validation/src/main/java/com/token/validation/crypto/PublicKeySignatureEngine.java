@@ -0,0 +1,46 @@
+package com.token.validation.crypto;
+
+import com.token.validation.jwt.DecodedJwt;
+import com.token.validation.jwt.exception.SignatureVerificationException;
+
+import java.security.InvalidKeyException;
+import java.security.PublicKey;
+import java.security.Signature;
+
+/**
+ * {@link SignatureEngine} over a JCA {@link Signature} that was initialized for verification once.
+ * A successful {@code verify} resets the Signature to its initialized state, so it can be reused as is.
+ */
+final class PublicKeySignatureEngine implements SignatureEngine {
+
+    private final Signature verifier;
+    private final PublicKey publicKey;
+
+    PublicKeySignatureEngine(final Signature verifier, final PublicKey publicKey) throws InvalidKeyException {
+        this.verifier = verifier;
+        this.publicKey = publicKey;
+        verifier.initVerify(publicKey);
+    }
+
+    @Override
+    public boolean verify(final DecodedJwt input) throws SignatureVerificationException {
+        try {
+            verifier.update(input.getSigningInput());
+            return verifier.verify(input.getSignature());
+        } catch (Exception e) {
+            reset();
+            throw new SignatureVerificationException("Something went wrong on signature verification", e);
+        }
+    }
+
+    /**
+     * Bring the engine back to its initial state after a failed verification left it half updated.
+     */
+    private void reset() {
+        try {
+            verifier.initVerify(publicKey);
+        } catch (InvalidKeyException e) {
+            throw new SignatureVerificationException("Cannot reset signature engine", e);
+        }
+    }
+}
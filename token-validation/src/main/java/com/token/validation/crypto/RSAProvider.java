@@ -1,10 +1,9 @@
 package com.token.validation.crypto;
 
-import com.token.validation.jwt.Jwt;
+import com.token.validation.jwt.DecodedJwt;
 import com.token.validation.jwt.exception.SignatureVerificationException;
 import com.token.validation.signature.SignatureAlgorithm;
 
-import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
@@ -25,21 +24,34 @@ public class RSAProvider implements SignatureVerifier {
 
 
 
-    public boolean verify(final Jwt input, final Key key) throws SignatureVerificationException {
+    public boolean verify(final DecodedJwt input, final Key key) throws SignatureVerificationException {
         return verify(input, (PublicKey) key);
     }
 
-    private static boolean verify(Jwt input, PublicKey publicKey) throws SignatureVerificationException {
+    private static boolean verify(DecodedJwt input, PublicKey publicKey) throws SignatureVerificationException {
         try {
             Signature verifier = getSignature(input.getHeader().getAlgorithm());
             verifier.initVerify(publicKey);
-            verifier.update((input.getEncodedHeader() + '.' + input.getEncodedContent()).getBytes(StandardCharsets.UTF_8));
+            verifier.update(input.getSigningInput());
             return verifier.verify(input.getSignature());
         } catch (Exception e) {
             throw new SignatureVerificationException("Something went wrong on signature verification", e);
         }
     }
 
+    /**
+     * Create a reusable engine initialized for verification with the given public key.
+     *
+     * @throws SignatureVerificationException if the algorithm is not an RSA algorithm or the key is invalid.
+     */
+    public SignatureEngine newEngine(final SignatureAlgorithm algorithm, final Key key) throws SignatureVerificationException {
+        try {
+            return new PublicKeySignatureEngine(getSignature(algorithm), (PublicKey) key);
+        } catch (Exception e) {
+            throw new SignatureVerificationException("Cannot initialize " + algorithm + " signature engine", e);
+        }
+    }
+
     private static Signature getSignature(SignatureAlgorithm alg) throws NoSuchAlgorithmException {
         return Signature.getInstance(getJavaCryptographicAlgorithm(alg));
     }
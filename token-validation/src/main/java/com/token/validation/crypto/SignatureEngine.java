@@ -0,0 +1,23 @@
+package com.token.validation.crypto;
+
+import com.token.validation.jwt.DecodedJwt;
+import com.token.validation.jwt.exception.SignatureVerificationException;
+
+/**
+ * A signature verification engine that is already initialized with its algorithm and key,
+ * so it can be reused for any number of tokens without JCA lookups or key setup.
+ * <p>
+ * Instances are NOT thread-safe; keep one per thread (see {@link com.token.validation.jwt.JwtVerifier}).
+ * </p>
+ */
+@FunctionalInterface
+public interface SignatureEngine {
+
+    /**
+     * Verify the signature of the given token.
+     *
+     * @param input the JWT that it's going to be verified.
+     * @throws SignatureVerificationException if the signature can't be checked, e.g. it is missing or malformed.
+     */
+    boolean verify(final DecodedJwt input) throws SignatureVerificationException;
+}
@@ -1,7 +1,9 @@
 package com.token.validation.crypto;
 
+import com.token.validation.jwt.DecodedJwt;
 import com.token.validation.jwt.Jwt;
 import com.token.validation.jwt.exception.SignatureVerificationException;
+import com.token.validation.signature.SignatureAlgorithm;
 
 import java.security.Key;
 
@@ -13,5 +15,22 @@ public interface SignatureVerifier {
      * @param input the JWT that it's going to be verified.
      * @throws SignatureVerificationException if the Token's Signature is invalid, meaning that it doesn't match the signatureBytes, or if the Key is invalid.
      */
-    boolean verify(final Jwt input, final Key key) throws SignatureVerificationException;
+    boolean verify(final DecodedJwt input, final Key key) throws SignatureVerificationException;
+
+    /**
+     * Verify the given token using the provided algorithm in the JWT header
+     *
+     * @param input the JWT that it's going to be verified.
+     * @throws SignatureVerificationException if the Token's Signature is invalid, meaning that it doesn't match the signatureBytes, or if the Key is invalid.
+     */
+    default boolean verify(final Jwt input, final Key key) throws SignatureVerificationException {
+        return verify(DecodedJwt.from(input), key);
+    }
+
+    /**
+     * Create a reusable, not thread-safe, engine bound to the given algorithm and key.
+     *
+     * @throws SignatureVerificationException if the algorithm is not supported by this provider or the key is invalid.
+     */
+    SignatureEngine newEngine(final SignatureAlgorithm algorithm, final Key key) throws SignatureVerificationException;
 }
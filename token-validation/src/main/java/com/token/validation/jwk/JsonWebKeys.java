@@ -0,0 +1,183 @@
+package com.token.validation.jwk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.token.validation.crypto.EdDSAProvider;
+import com.token.validation.signature.SignatureAlgorithm;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the signature verification keys of a JSON Web Key Set (RFC 7517).
+ * <p>
+ * RSA, elliptic curve and Ed25519 (OKP) public keys are supported. Keys of other types, keys not meant
+ * for signatures and malformed keys are skipped, so that one bad entry doesn't make the whole set unusable.
+ * </p>
+ */
+final class JsonWebKeys {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final Map<String, PublicKey> keysById;
+    private final List<PublicKey> keys;
+    private final long fetchedAt;
+
+    private JsonWebKeys(final Map<String, PublicKey> keysById, final List<PublicKey> keys, final long fetchedAt) {
+        this.keysById = Collections.unmodifiableMap(keysById);
+        this.keys = Collections.unmodifiableList(keys);
+        this.fetchedAt = fetchedAt;
+    }
+
+    /**
+     * @param json      The JSON Web Key Set document
+     * @param fetchedAt The time the document was fetched, in milliseconds since the epoch
+     * @throws IOException If the document is not a JSON Web Key Set
+     */
+    static JsonWebKeys parse(final byte[] json, final long fetchedAt) throws IOException {
+        final JsonNode keySet = mapper.readTree(json);
+        final JsonNode keyNodes = keySet == null ? null : keySet.get("keys");
+        if (keyNodes == null || !keyNodes.isArray()) {
+            throw new IOException("Invalid JSON Web Key Set: missing keys array");
+        }
+
+        final Map<String, PublicKey> keysById = new HashMap<>();
+        final List<PublicKey> keys = new ArrayList<>();
+        for (JsonNode keyNode : keyNodes) {
+            final String use = text(keyNode, "use");
+            if (use != null && !"sig".equals(use)) {
+                continue;
+            }
+            final PublicKey key = toPublicKey(keyNode);
+            if (key == null) {
+                continue;
+            }
+            keys.add(key);
+            final String keyId = text(keyNode, "kid");
+            if (keyId != null) {
+                keysById.put(keyId, key);
+            }
+        }
+        return new JsonWebKeys(keysById, keys, fetchedAt);
+    }
+
+    /**
+     * Returns the key able to verify a token signed with the given algorithm, {@code null} if none.
+     * Without a key id, a key is only returned if it is the only one of the set suitable for the algorithm.
+     */
+    Key find(final String keyId, final SignatureAlgorithm algorithm) {
+        if (keyId != null) {
+            final PublicKey key = keysById.get(keyId);
+            return key != null && isSuitable(key, algorithm) ? key : null;
+        }
+
+        PublicKey found = null;
+        for (PublicKey key : keys) {
+            if (isSuitable(key, algorithm)) {
+                if (found != null) {
+                    return null;
+                }
+                found = key;
+            }
+        }
+        return found;
+    }
+
+    long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    int size() {
+        return keys.size();
+    }
+
+    private static boolean isSuitable(final Key key, final SignatureAlgorithm algorithm) {
+        if (algorithm == null) {
+            return false;
+        }
+        if (algorithm.isRsa()) {
+            return key instanceof RSAPublicKey;
+        }
+        if (algorithm.isEllipticCurve()) {
+            return key instanceof ECPublicKey;
+        }
+        if (algorithm.isEdwardsCurve()) {
+            return EdDSAProvider.isEd25519Key(key);
+        }
+        return false;
+    }
+
+    private static PublicKey toPublicKey(final JsonNode keyNode) {
+        try {
+            final String keyType = text(keyNode, "kty");
+            if ("RSA".equals(keyType)) {
+                final RSAPublicKeySpec keySpec = new RSAPublicKeySpec(
+                        integer(keyNode, "n"), integer(keyNode, "e"));
+                return KeyFactory.getInstance("RSA").generatePublic(keySpec);
+            }
+            if ("EC".equals(keyType)) {
+                final String curveName = curveName(text(keyNode, "crv"));
+                if (curveName == null) {
+                    return null;
+                }
+                final AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+                parameters.init(new ECGenParameterSpec(curveName));
+                final ECPublicKeySpec keySpec = new ECPublicKeySpec(
+                        new ECPoint(integer(keyNode, "x"), integer(keyNode, "y")),
+                        parameters.getParameterSpec(ECParameterSpec.class));
+                return KeyFactory.getInstance("EC").generatePublic(keySpec);
+            }
+            if ("OKP".equals(keyType) && "Ed25519".equals(text(keyNode, "crv"))) {
+                final String x = text(keyNode, "x");
+                return x == null ? null : EdDSAProvider.toPublicKey(Base64.getUrlDecoder().decode(x));
+            }
+            return null;
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String curveName(final String curve) {
+        if ("P-256".equals(curve)) {
+            return "secp256r1";
+        }
+        if ("P-384".equals(curve)) {
+            return "secp384r1";
+        }
+        if ("P-521".equals(curve)) {
+            return "secp521r1";
+        }
+        return null;
+    }
+
+    private static BigInteger integer(final JsonNode keyNode, final String name) {
+        final String value = text(keyNode, name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing key parameter " + name);
+        }
+        return new BigInteger(1, Base64.getUrlDecoder().decode(value));
+    }
+
+    private static String text(final JsonNode keyNode, final String name) {
+        final JsonNode value = keyNode.get(name);
+        return value != null && value.isTextual() ? value.asText() : null;
+    }
+}
@@ -0,0 +1,234 @@
+package com.token.validation.jwk;
+
+import com.token.validation.jwt.JwtHeader;
+import com.token.validation.jwt.KeyResolver;
+import com.token.validation.jwt.exception.TokenValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.security.Key;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link KeyResolver} backed by a JSON Web Key Set published over HTTP.
+ * <p>
+ * The key set is held in memory. Only the very first lookup waits for it to be fetched; afterwards
+ * lookups never touch the network:
+ * <ul>
+ * <li>once the key set is older than the refresh interval, the cached keys are still returned while
+ * a fresh copy is fetched in the background (stale-while-revalidate), at most once per minimum refetch
+ * interval while the endpoint fails;</li>
+ * <li>a token with an unknown key id is rejected right away and triggers a background fetch, at most
+ * once per minimum refetch interval, so that tokens signed with a newly published key are accepted
+ * shortly after, while a flood of tokens with made up key ids can't hammer the key set endpoint.</li>
+ * </ul>
+ * A failed fetch keeps the previous keys in use.
+ * </p>
+ */
+public final class JwksKeyResolver implements KeyResolver {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JwksKeyResolver.class);
+
+    private static final long DEFAULT_REFRESH_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+    private static final long DEFAULT_MINIMUM_REFETCH_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+    private static final int DEFAULT_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(5);
+
+    private final URL url;
+    private final long refreshInterval;
+    private final long minimumRefetchInterval;
+    private final int timeout;
+    private final Executor executor;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile JsonWebKeys keys;
+    private volatile long lastFetch;
+
+    private JwksKeyResolver(final Builder builder) {
+        this.url = builder.url;
+        this.refreshInterval = builder.refreshInterval;
+        this.minimumRefetchInterval = builder.minimumRefetchInterval;
+        this.timeout = builder.timeout;
+        this.executor = builder.executor != null ? builder.executor : RefreshExecutorHolder.EXECUTOR;
+    }
+
+    private static class RefreshExecutorHolder {
+        static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @throws TokenValidationException If the key set was never fetched and can't be fetched now
+     */
+    @Override
+    public Key resolveKey(final JwtHeader header) throws TokenValidationException {
+        JsonWebKeys current = keys;
+        if (current == null) {
+            current = fetchFirst();
+        }
+
+        final long now = System.currentTimeMillis();
+        final Key key = current.find(header.getKeyId(), header.getAlgorithm());
+        // Failed fetches don't renew the key set, so stale keys are rate limited too
+        if (now - lastFetch >= minimumRefetchInterval
+                && (key == null || now - current.getFetchedAt() >= refreshInterval)) {
+            refreshInBackground();
+        }
+        return key;
+    }
+
+    /**
+     * Fetch the key set now, e.g. to load it before the first token arrives.
+     *
+     * @throws IOException If the key set can't be fetched or parsed, the previous keys are kept
+     */
+    public void refresh() throws IOException {
+        lastFetch = System.currentTimeMillis();
+        final byte[] document = fetch();
+        keys = JsonWebKeys.parse(document, System.currentTimeMillis());
+    }
+
+    private synchronized JsonWebKeys fetchFirst() {
+        final JsonWebKeys current = keys;
+        if (current != null) {
+            return current;
+        }
+        // Don't let every request retry against an endpoint that is down
+        if (System.currentTimeMillis() - lastFetch < minimumRefetchInterval) {
+            throw new TokenValidationException("JSON Web Key Set is not available");
+        }
+        try {
+            refresh();
+            return keys;
+        } catch (IOException e) {
+            throw new TokenValidationException("Cannot fetch JSON Web Key Set from " + url, e);
+        }
+    }
+
+    private void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    refresh();
+                } catch (Exception e) {
+                    LOG.warn("Cannot refresh JSON Web Key Set from {}, the previous keys are kept in use", url, e);
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    private byte[] fetch() throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setConnectTimeout(timeout);
+            connection.setReadTimeout(timeout);
+            connection.setRequestProperty("Accept", "application/json");
+
+            final int status = connection.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Unexpected HTTP status " + status + " fetching " + url);
+            }
+            try (InputStream inputStream = connection.getInputStream()) {
+                final ByteArrayOutputStream document = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[4096];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    document.write(buffer, 0, read);
+                }
+                return document.toByteArray();
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Returns a new {@link Builder}.
+     * @return the {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    public static final class Builder {
+        private URL url;
+        private long refreshInterval = DEFAULT_REFRESH_INTERVAL;
+        private long minimumRefetchInterval = DEFAULT_MINIMUM_REFETCH_INTERVAL;
+        private int timeout = DEFAULT_TIMEOUT;
+        private Executor executor;
+
+        private Builder() {
+        }
+
+        /**
+         * The location of the JSON Web Key Set document, typically ending in {@code /.well-known/jwks.json}.
+         */
+        public Builder url(URL url) {
+            this.url = url;
+            return this;
+        }
+
+        /**
+         * Age after which the key set is refreshed in the background. Defaults to 5 minutes.
+         */
+        public Builder refreshInterval(long refreshInterval, TimeUnit unit) {
+            this.refreshInterval = unit.toMillis(refreshInterval);
+            return this;
+        }
+
+        /**
+         * Minimum time between two background fetches, triggered by unknown key ids or by stale keys.
+         * Defaults to 30 seconds.
+         */
+        public Builder minimumRefetchInterval(long minimumRefetchInterval, TimeUnit unit) {
+            this.minimumRefetchInterval = unit.toMillis(minimumRefetchInterval);
+            return this;
+        }
+
+        /**
+         * Connect and read timeout of a fetch. Defaults to 5 seconds.
+         */
+        public Builder timeout(long timeout, TimeUnit unit) {
+            this.timeout = (int) unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Executor running the background fetches. Defaults to a shared daemon thread.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public JwksKeyResolver build() {
+            if (url == null) {
+                throw new IllegalStateException("JSON Web Key Set url must be configured");
+            }
+            if (refreshInterval < 0 || minimumRefetchInterval < 0 || timeout < 0) {
+                throw new IllegalStateException("Intervals and timeout must not be negative");
+            }
+            return new JwksKeyResolver(this);
+        }
+    }
+}
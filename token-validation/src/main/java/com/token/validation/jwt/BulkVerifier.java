@@ -0,0 +1,213 @@
+package com.token.validation.jwt;
+
+import com.token.validation.jwt.exception.SignatureVerificationException;
+import com.token.validation.jwt.exception.TokenValidationException;
+import com.token.validation.response.ValidationFailure;
+import com.token.validation.response.ValidationResponse;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Verifies large numbers of tokens, for instance captured from gateway logs for an audit,
+ * in parallel on a {@link ForkJoinPool}.
+ * <p>
+ * Unlike single verifications, malformed tokens don't throw, they are reported as
+ * {@link ValidationFailure#MALFORMED}, so that one bad line doesn't abort the whole run.
+ * </p>
+ */
+public final class BulkVerifier {
+
+    /**
+     * Byte ranges of newline-delimited tokens are split until they are about this size.
+     */
+    private static final int SPLIT_THRESHOLD = 256 * 1024;
+
+    private static final ValidationResponse<ClaimsView> MALFORMED =
+            new ValidationResponse<>(false, null, ValidationFailure.MALFORMED);
+    private static final ValidationResponse<ClaimsView> INVALID_SIGNATURE =
+            new ValidationResponse<>(false, null, ValidationFailure.INVALID_SIGNATURE);
+
+    private final JwtVerifier verifier;
+    private final ForkJoinPool pool;
+
+    private BulkVerifier(final JwtVerifier verifier, final ForkJoinPool pool) {
+        this.verifier = verifier;
+        this.pool = pool;
+    }
+
+    /**
+     * Verify all the tokens of the stream.
+     *
+     * @param tokens The JWT tokens Base64 encoded
+     * @return the responses, in the order of the tokens
+     */
+    public List<ValidationResponse<ClaimsView>> verifyAll(final Stream<String> tokens) {
+        return pool.submit(() -> tokens.parallel()
+                .map(jwt -> verify(jwt, null))
+                .collect(Collectors.toList()))
+                .join();
+    }
+
+    /**
+     * Verify all the tokens of the stream and only keep the counts, whatever the order.
+     *
+     * @param tokens The JWT tokens Base64 encoded
+     */
+    public VerificationSummary summarize(final Stream<String> tokens) {
+        final Collector<String, VerificationSummary, VerificationSummary> summarizing = Collector.of(
+                VerificationSummary::new,
+                (summary, jwt) -> verify(jwt, summary),
+                VerificationSummary::merge,
+                Collector.Characteristics.UNORDERED);
+        return pool.submit(() -> tokens.unordered().parallel().collect(summarizing)).join();
+    }
+
+    /**
+     * Verify newline-delimited, ASCII encoded tokens, between the position and the limit of the buffer,
+     * such as a memory-mapped token file. The buffer is split in byte ranges at line boundaries.
+     * Blank lines are skipped.
+     */
+    public VerificationSummary summarize(final ByteBuffer tokens) {
+        return pool.invoke(new RangeTask(tokens.duplicate(), tokens.position(), tokens.limit()));
+    }
+
+    private ValidationResponse<ClaimsView> verify(final String jwt, final VerificationSummary summary) {
+        final DecodedJwt decoded;
+        ValidationResponse<ClaimsView> response;
+        try {
+            decoded = DecodedJwt.decode(jwt);
+        } catch (TokenValidationException | IllegalArgumentException e) {
+            if (summary != null) {
+                summary.add(null, ValidationFailure.MALFORMED);
+            }
+            return MALFORMED;
+        }
+        try {
+            response = verifier.verifyView(jwt, decoded);
+        } catch (SignatureVerificationException e) {
+            // A well-formed token whose signature can't be checked, e.g. of the wrong length
+            response = INVALID_SIGNATURE;
+        } catch (TokenValidationException | IllegalArgumentException e) {
+            if (summary != null) {
+                summary.add(null, ValidationFailure.MALFORMED);
+            }
+            return MALFORMED;
+        }
+        if (summary != null) {
+            final ValidationFailure failure = response.isValid() ? null
+                    : response.getFailure() != null ? response.getFailure() : ValidationFailure.INVALID_SIGNATURE;
+            summary.add(decoded.getHeader().getAlgorithm(), failure);
+        }
+        return response;
+    }
+
+    private final class RangeTask extends RecursiveTask<VerificationSummary> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient ByteBuffer buffer;
+        private final int start;
+        private final int end;
+
+        private RangeTask(final ByteBuffer buffer, final int start, final int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected VerificationSummary compute() {
+            final int middle = end - start > SPLIT_THRESHOLD ? nextLine(start + (end - start) / 2) : end;
+            if (middle >= end) {
+                return summarizeRange();
+            }
+            final RangeTask first = new RangeTask(buffer, start, middle);
+            first.fork();
+            final VerificationSummary second = new RangeTask(buffer, middle, end).compute();
+            return second.merge(first.join());
+        }
+
+        /**
+         * Returns the index of the first byte after the line break at or after the given index.
+         */
+        private int nextLine(final int index) {
+            int i = index;
+            while (i < end && buffer.get(i) != '\n') {
+                i++;
+            }
+            return i + 1;
+        }
+
+        private VerificationSummary summarizeRange() {
+            final VerificationSummary summary = new VerificationSummary();
+            byte[] line = new byte[2048];
+            int length = 0;
+            for (int i = start; i <= end; i++) {
+                final byte b = i < end ? buffer.get(i) : (byte) '\n';
+                if (b != '\n') {
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, 2 * length);
+                    }
+                    line[length++] = b;
+                    continue;
+                }
+                while (length > 0 && (line[length - 1] == '\r' || line[length - 1] == ' ')) {
+                    length--;
+                }
+                if (length > 0) {
+                    verify(new String(line, 0, length, StandardCharsets.US_ASCII), summary);
+                    length = 0;
+                }
+            }
+            return summary;
+        }
+    }
+
+    /**
+     * Returns a new {@link Builder}.
+     * @return the {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    public static final class Builder {
+        private JwtVerifier verifier;
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        private Builder() {
+        }
+
+        public Builder verifier(JwtVerifier verifier) {
+            this.verifier = verifier;
+            return this;
+        }
+
+        /**
+         * The pool the tokens are verified on. Defaults to the common pool.
+         */
+        public Builder pool(ForkJoinPool pool) {
+            if (pool == null) {
+                throw new IllegalArgumentException("Pool must not be null");
+            }
+            this.pool = pool;
+            return this;
+        }
+
+        public BulkVerifier build() {
+            if (verifier == null) {
+                throw new IllegalStateException("A verifier must be configured");
+            }
+            return new BulkVerifier(verifier, pool);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.token.validation.jwt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.token.validation.jwt.exception.TokenValidationException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read-only, typed view over the claims of a token, backed by the decoded payload bytes.
+ * <p>
+ * Unlike {@link JwtClaims}, the payload is not materialized as a map. A single streaming pass reads
+ * the time claims, the token id, and the roles and permissions, whose strings are interned since they
+ * repeat across tokens; every other claim is skipped and only decoded, from the payload, when it is asked for.
+ * Instances are immutable and can be shared between threads.
+ * </p>
+ */
+public final class ClaimsView {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final JsonFactory factory = mapper.getFactory();
+    private static final StringInterner interner = new StringInterner(1024);
+
+    private final byte[] payload;
+    private final long expiration;
+    private final long notBefore;
+    private final long issuedAt;
+    private final String id;
+    private final String roles;
+    private final List<String> roleNames;
+    private final List<String> permissions;
+
+    private ClaimsView(final byte[] payload, final long expiration, final long notBefore, final long issuedAt,
+                       final String id, final String roles, final List<String> roleNames, final List<String> permissions) {
+        this.payload = payload;
+        this.expiration = expiration;
+        this.notBefore = notBefore;
+        this.issuedAt = issuedAt;
+        this.id = id;
+        this.roles = roles;
+        this.roleNames = roleNames;
+        this.permissions = permissions;
+    }
+
+    /**
+     * Parse the claims of a token.
+     *
+     * @param payload The decoded payload, the JSON claims set as UTF-8 bytes. It is kept, not copied.
+     * @return the claims view
+     * @throws IOException If the payload is not a JSON object
+     */
+    public static ClaimsView parse(final byte[] payload) throws IOException {
+        long expiration = 0L;
+        long notBefore = 0L;
+        long issuedAt = 0L;
+        String id = null;
+        String roles = "";
+        List<String> roleNames = Collections.emptyList();
+        List<String> permissions = Collections.emptyList();
+
+        try (JsonParser parser = factory.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("JWT claims set must be a JSON object");
+            }
+            String name;
+            while ((name = parser.nextFieldName()) != null) {
+                final JsonToken token = parser.nextToken();
+                if (Claims.EXP.getValue().equals(name)) {
+                    expiration = longValue(parser, token);
+                } else if (Claims.NBF.getValue().equals(name)) {
+                    notBefore = longValue(parser, token);
+                } else if (Claims.IAT.getValue().equals(name)) {
+                    issuedAt = longValue(parser, token);
+                } else if (Claims.JTI.getValue().equals(name) && token == JsonToken.VALUE_STRING) {
+                    id = parser.getText();
+                } else if (Claims.ROLES.getValue().equals(name) && token == JsonToken.VALUE_STRING) {
+                    roles = intern(parser);
+                    roleNames = split(parser);
+                } else if (Claims.PERMISSIONS.getValue().equals(name) && token == JsonToken.START_ARRAY) {
+                    permissions = readStrings(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT) {
+                throw new IOException("JWT claims set is not a valid JSON object");
+            }
+        }
+        return new ClaimsView(payload, expiration, notBefore, issuedAt, id, roles, roleNames, permissions);
+    }
+
+    public long getExpiration() {
+        return expiration;
+    }
+
+    public long getNotBefore() {
+        return notBefore;
+    }
+
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    /**
+     * Returns the comma separated roles, or an empty string if the token has none.
+     */
+    public String getRoles() {
+        return roles;
+    }
+
+    /**
+     * Returns the roles split on commas, without empty names.
+     */
+    public List<String> getRoleNames() {
+        return roleNames;
+    }
+
+    public List<String> getPermissions() {
+        return permissions;
+    }
+
+    public String getIssuer() {
+        return getString(Claims.ISS.getValue());
+    }
+
+    public String getSubject() {
+        return getString(Claims.SUB.getValue());
+    }
+
+    public String getAudience() {
+        return getString(Claims.AUD.getValue());
+    }
+
+    public String getID() {
+        return id;
+    }
+
+    public String getDomain() {
+        return getString(Claims.DOMAIN.getValue());
+    }
+
+    /**
+     * Returns the claim if it is a string, {@code null} otherwise. The claim is read from the payload on each call.
+     */
+    public String getString(final String name) {
+        try (JsonParser parser = seek(name)) {
+            return parser != null && parser.currentToken() == JsonToken.VALUE_STRING ? parser.getText() : null;
+        } catch (IOException e) {
+            throw new TokenValidationException("Cannot parse claim " + name, e);
+        }
+    }
+
+    /**
+     * Returns the claim decoded the way {@link JwtClaims} does, {@code null} if the token doesn't have it.
+     * The claim is read from the payload on each call.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(final String name) {
+        try (JsonParser parser = seek(name)) {
+            return parser != null ? (T) mapper.readValue(parser, Object.class) : null;
+        } catch (IOException e) {
+            throw new TokenValidationException("Cannot parse claim " + name, e);
+        }
+    }
+
+    public boolean containsKey(final String name) {
+        try (JsonParser parser = seek(name)) {
+            return parser != null;
+        } catch (IOException e) {
+            throw new TokenValidationException("Cannot parse claim " + name, e);
+        }
+    }
+
+    /**
+     * Returns all the claims as a new, mutable {@link JwtClaims}.
+     */
+    public JwtClaims toJwtClaims() throws IOException {
+        return mapper.readValue(payload, JwtClaims.class);
+    }
+
+    /**
+     * Returns a parser positioned on the value of the claim, {@code null} if the token doesn't have it.
+     */
+    private JsonParser seek(final String name) throws IOException {
+        final JsonParser parser = factory.createParser(payload);
+        parser.nextToken();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            if (name.equals(field)) {
+                return parser;
+            }
+            parser.skipChildren();
+        }
+        parser.close();
+        return null;
+    }
+
+    private static long longValue(final JsonParser parser, final JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getLongValue();
+        }
+        // Not a number, treated as missing
+        parser.skipChildren();
+        return 0L;
+    }
+
+    private static String intern(final JsonParser parser) throws IOException {
+        return interner.intern(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+
+    private static List<String> split(final JsonParser parser) throws IOException {
+        final char[] chars = parser.getTextCharacters();
+        final int offset = parser.getTextOffset();
+        final int end = offset + parser.getTextLength();
+        final List<String> values = new ArrayList<>(4);
+        int start = offset;
+        for (int i = offset; i <= end; i++) {
+            if (i == end || chars[i] == ',') {
+                if (i > start) {
+                    values.add(interner.intern(chars, start, i - start));
+                }
+                start = i + 1;
+            }
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    private static List<String> readStrings(final JsonParser parser) throws IOException {
+        final List<String> values = new ArrayList<>(4);
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.VALUE_STRING) {
+                values.add(intern(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return Collections.unmodifiableList(values);
+    }
+}
@@ -0,0 +1,167 @@
+package com.token.validation.jwt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.token.validation.jwt.exception.TokenValidationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Single-pass representation of a compact serialized JWT.
+ * <p>
+ * The token is scanned once to locate the period delimiters, header and payload are Base64 decoded
+ * exactly once, and the signing input ({@code header.payload}) is kept as a byte range of the original
+ * token so that signature verification does not rebuild it.
+ * </p>
+ */
+public final class DecodedJwt {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final Base64.Decoder decoder = Base64.getUrlDecoder();
+
+    private final byte[] token;
+    private final int signingInputLength;
+
+    private final JwtHeader header;
+    private final byte[] payload;
+    private final byte[] signature;
+
+    private JwtClaims claims;
+    private ClaimsView claimsView;
+
+    private DecodedJwt(final byte[] token, final int firstDot, final int secondDot) {
+        this.token = token;
+        this.signingInputLength = secondDot == -1 ? token.length : secondDot;
+
+        this.payload = decode(token, firstDot + 1, signingInputLength);
+        // A trailing period with an empty signature is the same as no signature at all
+        this.signature = secondDot == -1 || secondDot == token.length - 1 ? null : decode(token, secondDot + 1, token.length);
+        try {
+            this.header = mapper.readValue(decode(token, 0, firstDot), JwtHeader.class);
+        } catch (IOException e) {
+            throw new TokenValidationException("Cannot parse header", e);
+        }
+    }
+
+    /**
+     * Decode a compact serialized JWT.
+     *
+     * @param input The JWT token Base64 encoded
+     * @return the decoded token
+     * @throws TokenValidationException If the JWT token is null, has an invalid format or the header can't be parsed
+     */
+    public static DecodedJwt decode(final String input) throws TokenValidationException {
+        if (input == null || input.trim().isEmpty()) {
+            throw new TokenValidationException("JWT string cannot be null or empty");
+        }
+
+        final int length = input.length();
+        final byte[] token = new byte[length];
+        int firstDot = -1;
+        int secondDot = -1;
+        int dots = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = input.charAt(i);
+            if (c == '.') {
+                if (dots == 0) {
+                    firstDot = i;
+                } else if (dots == 1) {
+                    secondDot = i;
+                }
+                dots++;
+            } else if (c > 0x7F) {
+                throw new TokenValidationException("Invalid JWT serialization: Non ASCII character found");
+            }
+            token[i] = (byte) c;
+        }
+
+        if (dots == 0)
+            throw new TokenValidationException("Invalid JWT serialization: Missing dot delimiter(s)");
+        if (dots > 2)
+            throw new TokenValidationException("JWT strings must contain exactly 2 period characters. Found: " + dots);
+
+        return new DecodedJwt(token, firstDot, secondDot);
+    }
+
+    /**
+     * Decode a {@link Jwt} that was already split into its parts.
+     *
+     * @param jwt The parsed JWT
+     * @return the decoded token
+     */
+    public static DecodedJwt from(final Jwt jwt) throws TokenValidationException {
+        return jwt.isDigitallySigned()
+                ? decode(jwt.getEncodedHeader() + '.' + jwt.getEncodedContent() + '.' + jwt.getEncodedSignature())
+                : decode(jwt.getEncodedHeader() + '.' + jwt.getEncodedContent());
+    }
+
+    public JwtHeader getHeader() {
+        return header;
+    }
+
+    /**
+     * Returns the claims, parsed from the payload on first access.
+     */
+    public JwtClaims getClaims() throws IOException {
+        if (claims == null) {
+            claims = mapper.readValue(payload, JwtClaims.class);
+        }
+        return claims;
+    }
+
+    /**
+     * Returns a lazy view of the claims, parsed from the payload on first access.
+     * Prefer it to {@link #getClaims()} when only a few claims are read.
+     */
+    public ClaimsView getClaimsView() throws IOException {
+        if (claimsView == null) {
+            claimsView = ClaimsView.parse(payload);
+        }
+        return claimsView;
+    }
+
+    /**
+     * Returns the decoded payload (the JSON claims set as UTF-8 bytes).
+     * The returned array is shared and must not be modified.
+     */
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public String getContent() {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the decoded signature or {@code null} if the token is not signed.
+     * The returned array is shared and must not be modified.
+     */
+    public byte[] getSignature() {
+        return signature;
+    }
+
+    public boolean isDigitallySigned() {
+        return signature != null;
+    }
+
+    /**
+     * Returns the signing input, the ASCII bytes of {@code base64url(header) '.' base64url(payload)},
+     * as a view over the original token. No copy is made; the buffer must not be modified.
+     */
+    public ByteBuffer getSigningInput() {
+        return ByteBuffer.wrap(token, 0, signingInputLength);
+    }
+
+    private static byte[] decode(final byte[] source, final int from, final int to) {
+        try {
+            final ByteBuffer decoded = decoder.decode(ByteBuffer.wrap(source, from, to - from));
+            final byte[] bytes = decoded.array();
+            return bytes.length == decoded.remaining() ? bytes : Arrays.copyOf(bytes, decoded.remaining());
+        } catch (IllegalArgumentException e) {
+            throw new TokenValidationException("Invalid JWT serialization: Illegal base64url character", e);
+        }
+    }
+}
@@ -30,7 +30,7 @@ public class Jwt {
 
         base64Header = parts[0];
         base64Content = parts[1];
-        base64Signature = isDigitallySigned(input) ? parts[2] : null;
+        base64Signature = parts.length > 2 ? parts[2] : null;
     }
 
     public static Jwt parse(final String input) {
@@ -83,9 +83,4 @@ public class Jwt {
         return mapper.readValue(claimsBytes, JwtClaims.class);
     }
 
-    private static boolean isDigitallySigned(String jwt) {
-        String[] parts = jwt.split("\\.");
-        return parts.length > 2;
-    }
-
 }
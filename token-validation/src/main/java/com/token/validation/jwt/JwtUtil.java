@@ -1,36 +1,25 @@
 package com.token.validation.jwt;
 
+import com.token.validation.crypto.EdDSAProvider;
 import com.token.validation.crypto.EllipticCurveProvider;
 import com.token.validation.crypto.HMACProvider;
 import com.token.validation.crypto.RSAProvider;
 import com.token.validation.crypto.SignatureVerifier;
 import com.token.validation.jwt.exception.TokenValidationException;
+import com.token.validation.response.ValidationFailure;
 import com.token.validation.response.ValidationResponse;
+import com.token.validation.signature.SignatureAlgorithm;
 
 import java.io.IOException;
 import java.security.Key;
-import java.time.Instant;
-import java.util.Date;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Predicate;
 
 public class JwtUtil {
 
-    private static final SignatureVerifier signatureVerifier = (jwt, key) -> {
-        try {
-            switch (jwt.getHeader().getAlgorithm().getSignatureType()) {
-                case "RSA":
-                    return RSAProvider.getInstance().verify(jwt, key);
-                case "HMAC":
-                    return HMACProvider.getInstance().verify(jwt, key);
-                case "ECDSA":
-                    return EllipticCurveProvider.getInstance().verify(jwt, key);
-                default:
-                    return false;
-            }
-        } catch (IOException e) {
-            throw new TokenValidationException("Cannot parse header", e);
-        }
-
-    };
+    private static final Map<SignatureAlgorithm, SignatureVerifier> signatureVerifiers = createSignatureVerifiers();
 
     private JwtUtil() {
     }
@@ -48,28 +37,172 @@ public class JwtUtil {
     public static ValidationResponse<JwtClaims> verifyJwt(final String jwt, final Key key)
             throws TokenValidationException {
 
+        return verifyJwt(jwt, key, ValidationPolicy.defaultPolicy());
+    }
+
+    /**
+     * Verify JWT token format, then the claims against the policy, and only then the signature.
+     *
+     * @param jwt    The JWT token Base64 encoded
+     * @param key    The key used to check signature
+     * @param policy The claim checks run before the signature is verified
+     * @return ValidationResponse, reporting the first rule the token failed
+     * @throws TokenValidationException If the JWT token has invalid format or is otherwise malformed,
+     *                                  the key is null, the signature can't be verified.
+     */
+    public static ValidationResponse<JwtClaims> verifyJwt(final String jwt, final Key key, final ValidationPolicy policy)
+            throws TokenValidationException {
+
         if (key == null) {
             throw new TokenValidationException("Key must not be null");
         }
-        final Jwt jwtToken = Jwt.parse(jwt);
-        final JwtClaims claims;
+        final DecodedJwt jwtToken = DecodedJwt.decode(jwt);
+        return validate(jwtToken, policy, token -> {
+            final SignatureVerifier signatureVerifier = getSignatureVerifier(token.getHeader().getAlgorithm());
+            return signatureVerifier != null && signatureVerifier.verify(token, key);
+        });
+    }
 
-        boolean isSignatureValid;
-        boolean isExpired;
+    /**
+     * Verify JWT token format, signature and expiration time, with the key selected by the token header.
+     * A token for which no key is found is reported as invalid.
+     *
+     * @param jwt         The JWT token Base64 encoded
+     * @param keyResolver Selects the key used to check signature
+     * @return ValidationResponse
+     * @throws TokenValidationException If the JWT token has invalid format or is otherwise malformed,
+     *                                  the signature can't be verified.
+     */
+    public static ValidationResponse<JwtClaims> verifyJwt(final String jwt, final KeyResolver keyResolver)
+            throws TokenValidationException {
 
-        try {
-            isSignatureValid = signatureVerifier.verify(jwtToken, key);
-            claims = jwtToken.getClaims();
+        return verifyJwt(jwt, keyResolver, ValidationPolicy.defaultPolicy());
+    }
+
+    /**
+     * Verify JWT token format, then the claims against the policy, and only then the signature, with the key
+     * selected by the token header. The key is not resolved for tokens failing the claim checks.
+     *
+     * @param jwt         The JWT token Base64 encoded
+     * @param keyResolver Selects the key used to check signature
+     * @param policy      The claim checks run before the signature is verified
+     * @return ValidationResponse, reporting the first rule the token failed
+     * @throws TokenValidationException If the JWT token has invalid format or is otherwise malformed,
+     *                                  the signature can't be verified.
+     */
+    public static ValidationResponse<JwtClaims> verifyJwt(final String jwt, final KeyResolver keyResolver,
+                                                          final ValidationPolicy policy)
+            throws TokenValidationException {
+
+        if (keyResolver == null) {
+            throw new TokenValidationException("Key resolver must not be null");
+        }
+        final DecodedJwt jwtToken = DecodedJwt.decode(jwt);
+        return validate(jwtToken, policy, token -> {
+            final Key key = keyResolver.resolveKey(token.getHeader());
+            final SignatureVerifier signatureVerifier = getSignatureVerifier(token.getHeader().getAlgorithm());
+            return key != null && signatureVerifier != null && signatureVerifier.verify(token, key);
+        });
+    }
+
+    /**
+     * Verify JWT token format, signature and expiration time, reusing the result of an earlier successful
+     * verification of the same token with the same key.
+     *
+     * @param jwt   The JWT token Base64 encoded
+     * @param key   The key used to check signature
+     * @param cache The cache of verified tokens
+     * @return ValidationResponse
+     * @throws TokenValidationException If the JWT token has invalid format or is otherwise malformed,
+     *                                  the key is null, the signature can't be verified.
+     */
+    public static ValidationResponse<JwtClaims> verifyJwt(final String jwt, final Key key, final VerifiedTokenCache cache)
+            throws TokenValidationException {
+
+        return verifyJwt(jwt, key, ValidationPolicy.defaultPolicy(), cache);
+    }
 
-            Instant now = Instant.now();
-            long secondsSinceEpoch = Date.from(now).getTime() / 1000L;
-            isExpired = (secondsSinceEpoch >= claims.getExpiration());
+    /**
+     * Verify JWT token format, then the claims against the policy, and only then the signature, reusing the
+     * result of an earlier successful verification of the same token with the same key and policy.
+     * Cached tokens are checked again against the revocations of the policy.
+     *
+     * @param jwt    The JWT token Base64 encoded
+     * @param key    The key used to check signature
+     * @param policy The claim checks run before the signature is verified
+     * @param cache  The cache of verified tokens
+     * @return ValidationResponse, reporting the first rule the token failed
+     * @throws TokenValidationException If the JWT token has invalid format or is otherwise malformed,
+     *                                  the key is null, the signature can't be verified.
+     */
+    public static ValidationResponse<JwtClaims> verifyJwt(final String jwt, final Key key, final ValidationPolicy policy,
+                                                          final VerifiedTokenCache cache)
+            throws TokenValidationException {
+
+        if (key == null) {
+            throw new TokenValidationException("Key must not be null");
+        }
+        // Tokens verified under another policy must not be served from the cache
+        final ValidationResponse<JwtClaims> response =
+                cache.getOrVerify(jwt, Arrays.asList(key, policy), () -> verifyJwt(jwt, key, policy));
+        return response.isValid() && policy.isRevoked(response.getClaims().getID())
+                ? new ValidationResponse<>(false, response.getClaims(), ValidationFailure.REVOKED)
+                : response;
+    }
+
+    /**
+     * Check the claims of a token against the policy, then, only if they pass, its signature.
+     */
+    static ValidationResponse<JwtClaims> validate(final DecodedJwt jwtToken, final ValidationPolicy policy,
+                                                  final Predicate<DecodedJwt> signatureCheck)
+            throws TokenValidationException {
+
+        final ValidationFailure failure = check(jwtToken, policy, signatureCheck);
+        return new ValidationResponse<>(failure == null, claims(jwtToken), failure);
+    }
+
+    /**
+     * Same as {@link #validate(DecodedJwt, ValidationPolicy, Predicate)}, without materializing the claims.
+     */
+    static ValidationResponse<ClaimsView> validateView(final DecodedJwt jwtToken, final ValidationPolicy policy,
+                                                       final Predicate<DecodedJwt> signatureCheck)
+            throws TokenValidationException {
 
+        final ValidationFailure failure = check(jwtToken, policy, signatureCheck);
+        return new ValidationResponse<>(failure == null, claimsView(jwtToken), failure);
+    }
+
+    private static ValidationFailure check(final DecodedJwt jwtToken, final ValidationPolicy policy,
+                                           final Predicate<DecodedJwt> signatureCheck) {
+
+        final ValidationFailure failure = policy.check(claimsView(jwtToken));
+        if (failure != null) {
+            return failure;
+        }
+        return signatureCheck.test(jwtToken) ? null : ValidationFailure.INVALID_SIGNATURE;
+    }
+
+    static JwtClaims claims(final DecodedJwt jwtToken) {
+        try {
+            return jwtToken.getClaims();
+        } catch (IOException e) {
+            throw new TokenValidationException("Token validation failed");
+        }
+    }
+
+    static ClaimsView claimsView(final DecodedJwt jwtToken) {
+        try {
+            return jwtToken.getClaimsView();
         } catch (IOException e) {
             throw new TokenValidationException("Token validation failed");
         }
+    }
 
-        return new ValidationResponse<>(isSignatureValid  && !isExpired , claims);
+    /**
+     * Returns the provider able to verify the given algorithm, {@code null} if the algorithm is not supported.
+     */
+    static SignatureVerifier getSignatureVerifier(final SignatureAlgorithm algorithm) {
+        return algorithm == null ? null : signatureVerifiers.get(algorithm);
     }
 
     /**
@@ -81,12 +214,23 @@ public class JwtUtil {
      * @throws TokenValidationException If the JWT token has invalid format or is null
      */
     public static String getKeyId(String jwt) throws TokenValidationException {
-        try {
-            Jwt jwtToken = Jwt.parse(jwt);
-            JwtHeader header = jwtToken.getHeader();
-            return header.getKeyId();
-        } catch (IOException e) {
-            throw new TokenValidationException("Error parsing JWT");
+        final DecodedJwt jwtToken = DecodedJwt.decode(jwt);
+        final JwtHeader header = jwtToken.getHeader();
+        return header.getKeyId();
+    }
+
+    private static Map<SignatureAlgorithm, SignatureVerifier> createSignatureVerifiers() {
+        final Map<SignatureAlgorithm, SignatureVerifier> verifiers = new EnumMap<>(SignatureAlgorithm.class);
+        for (SignatureAlgorithm algorithm : SignatureAlgorithm.values()) {
+            if (algorithm.isRsa())
+                verifiers.put(algorithm, RSAProvider.getInstance());
+            else if (algorithm.isHmac())
+                verifiers.put(algorithm, HMACProvider.getInstance());
+            else if (algorithm.isEllipticCurve())
+                verifiers.put(algorithm, EllipticCurveProvider.getInstance());
+            else if (algorithm.isEdwardsCurve())
+                verifiers.put(algorithm, EdDSAProvider.getInstance());
         }
+        return verifiers;
     }
 }
@@ -0,0 +1,206 @@
+package com.token.validation.jwt;
+
+import com.token.validation.crypto.SignatureEngine;
+import com.token.validation.crypto.SignatureVerifier;
+import com.token.validation.jwt.exception.TokenValidationException;
+import com.token.validation.response.ValidationFailure;
+import com.token.validation.response.ValidationResponse;
+import com.token.validation.signature.SignatureAlgorithm;
+
+import java.security.Key;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Immutable, thread-safe JWT verifier configured once with the accepted algorithms and their keys.
+ * <p>
+ * Unlike {@link JwtUtil#verifyJwt(String, Key)}, which looks up and initializes a JCA engine for every
+ * token, each thread keeps its own {@link SignatureEngine} per algorithm, already bound to the key.
+ * Tokens signed with an algorithm that was not configured are reported as invalid.
+ * Create one instance and keep it for as long as the keys are valid.
+ * </p>
+ */
+public final class JwtVerifier {
+
+    private final Map<SignatureAlgorithm, ThreadLocal<SignatureEngine>> engines;
+    private final VerifiedTokenCache cache;
+    private final ValidationPolicy policy;
+    private final Predicate<DecodedJwt> signatureCheck = this::verifySignature;
+
+    private JwtVerifier(final Map<SignatureAlgorithm, Key> keys, final VerifiedTokenCache cache, final ValidationPolicy policy) {
+        final Map<SignatureAlgorithm, ThreadLocal<SignatureEngine>> engineMap = new EnumMap<>(SignatureAlgorithm.class);
+        for (Map.Entry<SignatureAlgorithm, Key> entry : keys.entrySet()) {
+            final SignatureAlgorithm algorithm = entry.getKey();
+            final Key key = entry.getValue();
+            final SignatureVerifier provider = JwtUtil.getSignatureVerifier(algorithm);
+            if (provider == null) {
+                throw new IllegalArgumentException("Unsupported signature algorithm: " + algorithm);
+            }
+            // Fail fast on a wrong key type instead of on the first request
+            provider.newEngine(algorithm, key);
+            engineMap.put(algorithm, ThreadLocal.withInitial(() -> provider.newEngine(algorithm, key)));
+        }
+        this.engines = Collections.unmodifiableMap(engineMap);
+        this.cache = cache;
+        this.policy = policy;
+    }
+
+    /**
+     * Verify JWT token format, then the claims against the policy, and only then the signature.
+     *
+     * @param jwt The JWT token Base64 encoded
+     * @return ValidationResponse
+     * @throws TokenValidationException If the JWT token has invalid format or is otherwise malformed,
+     *                                  or the signature can't be verified.
+     */
+    public ValidationResponse<JwtClaims> verify(final String jwt) throws TokenValidationException {
+        return verifyCached(jwt, () -> JwtUtil.validate(DecodedJwt.decode(jwt), policy, signatureCheck));
+    }
+
+    /**
+     * Verify JWT token format, signature and expiration time, like {@link #verify(String)}, but return
+     * a {@link ClaimsView} that reads the claims from the payload only as they are accessed.
+     *
+     * @param jwt The JWT token Base64 encoded
+     * @return ValidationResponse
+     * @throws TokenValidationException If the JWT token has invalid format or is otherwise malformed,
+     *                                  or the signature can't be verified.
+     */
+    public ValidationResponse<ClaimsView> verifyView(final String jwt) throws TokenValidationException {
+        return verifyViewCached(jwt, () -> JwtUtil.validateView(DecodedJwt.decode(jwt), policy, signatureCheck));
+    }
+
+    /**
+     * Same as {@link #verifyView(String)} for a token already decoded from {@code jwt}.
+     */
+    ValidationResponse<ClaimsView> verifyView(final String jwt, final DecodedJwt decoded) throws TokenValidationException {
+        return verifyViewCached(jwt, () -> JwtUtil.validateView(decoded, policy, signatureCheck));
+    }
+
+    /**
+     * Same as {@link #verify(String)} for a token whose claims already passed {@link #checkClaims(DecodedJwt)},
+     * only its signature is left to verify.
+     *
+     * @param decoded The token decoded from {@code jwt}
+     */
+    ValidationResponse<JwtClaims> verifyChecked(final String jwt, final DecodedJwt decoded) throws TokenValidationException {
+        return verifyCached(jwt, () -> signed(decoded, JwtUtil.claims(decoded)));
+    }
+
+    /**
+     * Same as {@link #verifyView(String)} for a token whose claims already passed {@link #checkClaims(DecodedJwt)},
+     * only its signature is left to verify.
+     *
+     * @param decoded The token decoded from {@code jwt}
+     */
+    ValidationResponse<ClaimsView> verifyViewChecked(final String jwt, final DecodedJwt decoded) throws TokenValidationException {
+        return verifyViewCached(jwt, () -> signed(decoded, JwtUtil.claimsView(decoded)));
+    }
+
+    /**
+     * Run the claim checks of the policy, the part of the verification that needs no cryptography.
+     *
+     * @return the first rule the token fails, {@code null} if its signature must still be verified
+     */
+    ValidationFailure checkClaims(final DecodedJwt jwtToken) throws TokenValidationException {
+        return policy.check(JwtUtil.claimsView(jwtToken));
+    }
+
+    private ValidationResponse<JwtClaims> verifyCached(final String jwt, final Supplier<ValidationResponse<JwtClaims>> verification) {
+        if (cache != null) {
+            // Tokens may have been revoked after they were cached
+            final ValidationResponse<JwtClaims> response = cache.getOrVerify(jwt, this, verification);
+            return response.isValid() && policy.isRevoked(response.getClaims().getID())
+                    ? new ValidationResponse<>(false, response.getClaims(), ValidationFailure.REVOKED)
+                    : response;
+        }
+        return verification.get();
+    }
+
+    private ValidationResponse<ClaimsView> verifyViewCached(final String jwt, final Supplier<ValidationResponse<ClaimsView>> verification) {
+        if (cache != null) {
+            final ValidationResponse<ClaimsView> response = cache.getOrVerifyView(jwt, this, verification);
+            return response.isValid() && policy.isRevoked(response.getClaims().getID())
+                    ? new ValidationResponse<>(false, response.getClaims(), ValidationFailure.REVOKED)
+                    : response;
+        }
+        return verification.get();
+    }
+
+    private <C> ValidationResponse<C> signed(final DecodedJwt jwtToken, final C claims) {
+        final boolean valid = verifySignature(jwtToken);
+        return new ValidationResponse<>(valid, claims, valid ? null : ValidationFailure.INVALID_SIGNATURE);
+    }
+
+    /**
+     * Verify only the signature of an already decoded token.
+     *
+     * @return {@code true} if the signature is valid for the configured key of the token's algorithm
+     */
+    public boolean verifySignature(final DecodedJwt jwt) throws TokenValidationException {
+        final SignatureAlgorithm algorithm = jwt.getHeader().getAlgorithm();
+        final ThreadLocal<SignatureEngine> engine = algorithm == null ? null : engines.get(algorithm);
+        return engine != null && engine.get().verify(jwt);
+    }
+
+    public Set<SignatureAlgorithm> getAlgorithms() {
+        return engines.keySet();
+    }
+
+    /**
+     * Returns a new {@link Builder}.
+     * @return the {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    public static final class Builder {
+        private final Map<SignatureAlgorithm, Key> keys = new EnumMap<>(SignatureAlgorithm.class);
+        private VerifiedTokenCache cache;
+        private ValidationPolicy policy = ValidationPolicy.defaultPolicy();
+
+        private Builder() {
+        }
+
+        public Builder key(SignatureAlgorithm algorithm, Key key) {
+            if (algorithm == null || key == null) {
+                throw new IllegalArgumentException("Algorithm and key must not be null");
+            }
+            keys.put(algorithm, key);
+            return this;
+        }
+
+        /**
+         * Opt in to caching successfully verified tokens.
+         * Cached entries are tied to the built verifier, so the cache can be shared between verifiers.
+         */
+        public Builder cache(VerifiedTokenCache cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        /**
+         * The claim checks run before the signature is verified. Defaults to {@link ValidationPolicy#defaultPolicy()}.
+         */
+        public Builder policy(ValidationPolicy policy) {
+            if (policy == null) {
+                throw new IllegalArgumentException("Policy must not be null");
+            }
+            this.policy = policy;
+            return this;
+        }
+
+        public JwtVerifier build() {
+            if (keys.isEmpty()) {
+                throw new IllegalStateException("At least one algorithm and key must be configured");
+            }
+            return new JwtVerifier(keys, cache, policy);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.token.validation.jwt;
+
+import java.security.Key;
+
+/**
+ * Selects the key used to verify a token, usually by the key id ({@code kid}) of its header,
+ * so signing keys can be rotated without redeploying the services verifying the tokens.
+ */
+@FunctionalInterface
+public interface KeyResolver {
+
+    /**
+     * Returns the key to verify a token with the given header, {@code null} if no suitable key is known.
+     * Implementations are called for every token and must not block in the steady state.
+     *
+     * @param header The header of the token to verify
+     * @return the key or {@code null}
+     */
+    Key resolveKey(JwtHeader header);
+}
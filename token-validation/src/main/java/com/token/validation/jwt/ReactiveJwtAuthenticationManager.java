@@ -0,0 +1,101 @@
+package com.token.validation.jwt;
+
+import com.token.validation.jwt.exception.TokenValidationException;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.server.resource.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link ReactiveAuthenticationManager} of WebFlux security chains, verifying bearer tokens with a
+ * {@link ReactiveJwtVerifier}, so the signature is verified off the event loop.
+ * <p>
+ * Tokens that fail validation are signalled as {@link InvalidBearerTokenException}. Other authentications
+ * are left to the next manager. Spring Security is an optional dependency of this module, services using
+ * this class must bring {@code spring-security-core} and {@code spring-security-oauth2-resource-server}.
+ * </p>
+ */
+public class ReactiveJwtAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final ReactiveJwtVerifier jwtVerifier;
+    private final Function<ClaimsView, ? extends AbstractAuthenticationToken> authenticationConverter;
+
+    /**
+     * Authenticates the "email" claim of the tokens, with their roles as {@code ROLE_} authorities.
+     */
+    public ReactiveJwtAuthenticationManager(final ReactiveJwtVerifier jwtVerifier) {
+        this(jwtVerifier, ClaimsAuthentication::new);
+    }
+
+    /**
+     * @param authenticationConverter Builds the authentication of a valid token from its claims
+     */
+    public ReactiveJwtAuthenticationManager(final ReactiveJwtVerifier jwtVerifier,
+                                            final Function<ClaimsView, ? extends AbstractAuthenticationToken> authenticationConverter) {
+        if (jwtVerifier == null || authenticationConverter == null) {
+            throw new IllegalArgumentException("Verifier and authentication converter must not be null");
+        }
+        this.jwtVerifier = jwtVerifier;
+        this.authenticationConverter = authenticationConverter;
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(final Authentication authentication) {
+        return Mono.justOrEmpty(authentication)
+                .filter(BearerTokenAuthenticationToken.class::isInstance)
+                .cast(BearerTokenAuthenticationToken.class)
+                .flatMap(bearer -> jwtVerifier.verifyView(bearer.getToken()))
+                .flatMap(validationResponse -> {
+                    if (!validationResponse.isValid()) {
+                        return Mono.error(new InvalidBearerTokenException("Invalid token: " + validationResponse.getFailure()));
+                    }
+                    final AbstractAuthenticationToken token = authenticationConverter.apply(validationResponse.getClaims());
+                    token.setAuthenticated(true);
+                    return Mono.<Authentication>just(token);
+                })
+                .onErrorMap(TokenValidationException.class,
+                        exception -> new InvalidBearerTokenException(exception.getMessage(), exception))
+                .onErrorMap(exception -> !(exception instanceof InvalidBearerTokenException),
+                        exception -> new AuthenticationServiceException(exception.getMessage(), exception));
+    }
+
+    /**
+     * Authentication of a verified token, the principal is its "email" claim.
+     */
+    public static class ClaimsAuthentication extends AbstractAuthenticationToken {
+
+        private static final long serialVersionUID = 1L;
+        private final String principal;
+
+        public ClaimsAuthentication(final ClaimsView claims) {
+            super(authorities(claims));
+            this.principal = claims.getString("email");
+        }
+
+        @Override
+        public Object getPrincipal() {
+            return principal;
+        }
+
+        @Override
+        public Object getCredentials() {
+            return null;
+        }
+
+        private static Collection<GrantedAuthority> authorities(final ClaimsView claims) {
+            return claims.getRoleNames().stream()
+                    .map(roleName -> "ROLE_" + roleName)
+                    .map(SimpleGrantedAuthority::new)
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.token.validation.jwt;
+
+import com.token.validation.response.ValidationFailure;
+import com.token.validation.response.ValidationResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking facade of a {@link JwtVerifier} for reactive (WebFlux) applications.
+ * <p>
+ * Decoding the token and checking its claims against the policy are cheap and run on the subscribing
+ * thread, so expired or otherwise rejected tokens never leave the event loop. Only the signature
+ * verification, which takes tens of microseconds for RSA, is offloaded to a bounded {@link Scheduler},
+ * the claims are not checked again there.
+ * By default this is a shared pool of daemon threads, one per processor.
+ * </p>
+ */
+public final class ReactiveJwtVerifier {
+
+    private static final class SchedulerHolder {
+        static final Scheduler INSTANCE =
+                Schedulers.newParallel("jwt-verification", Runtime.getRuntime().availableProcessors(), true);
+    }
+
+    private final JwtVerifier verifier;
+    private final Scheduler scheduler;
+
+    public ReactiveJwtVerifier(final JwtVerifier verifier) {
+        this(verifier, SchedulerHolder.INSTANCE);
+    }
+
+    /**
+     * @param scheduler The scheduler the signatures are verified on, it should be bounded
+     */
+    public ReactiveJwtVerifier(final JwtVerifier verifier, final Scheduler scheduler) {
+        if (verifier == null || scheduler == null) {
+            throw new IllegalArgumentException("Verifier and scheduler must not be null");
+        }
+        this.verifier = verifier;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Same as {@link JwtVerifier#verify(String)}, lazily on subscription.
+     * A malformed token is signalled as a {@link com.token.validation.jwt.exception.TokenValidationException}.
+     *
+     * @param jwt The JWT token Base64 encoded
+     * @return a Mono emitting the ValidationResponse
+     */
+    public Mono<ValidationResponse<JwtClaims>> verify(final String jwt) {
+        return Mono.defer(() -> {
+            final DecodedJwt jwtToken = DecodedJwt.decode(jwt);
+            final ValidationFailure failure = verifier.checkClaims(jwtToken);
+            if (failure != null) {
+                return Mono.just(new ValidationResponse<>(false, JwtUtil.claims(jwtToken), failure));
+            }
+            return Mono.fromCallable(() -> verifier.verifyChecked(jwt, jwtToken)).subscribeOn(scheduler);
+        });
+    }
+
+    /**
+     * Same as {@link JwtVerifier#verifyView(String)}, lazily on subscription.
+     *
+     * @param jwt The JWT token Base64 encoded
+     * @return a Mono emitting the ValidationResponse
+     */
+    public Mono<ValidationResponse<ClaimsView>> verifyView(final String jwt) {
+        return Mono.defer(() -> {
+            final DecodedJwt jwtToken = DecodedJwt.decode(jwt);
+            final ValidationFailure failure = verifier.checkClaims(jwtToken);
+            if (failure != null) {
+                return Mono.just(new ValidationResponse<>(false, JwtUtil.claimsView(jwtToken), failure));
+            }
+            return Mono.fromCallable(() -> verifier.verifyViewChecked(jwt, jwtToken)).subscribeOn(scheduler);
+        });
+    }
+
+    public JwtVerifier getVerifier() {
+        return verifier;
+    }
+}
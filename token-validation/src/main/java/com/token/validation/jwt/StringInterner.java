@@ -0,0 +1,64 @@
+package com.token.validation.jwt;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Small lock-free cache of strings read from a character buffer, so the same role or permission
+ * read from every token is returned as one shared instance instead of a new string per request.
+ * <p>
+ * The table is direct mapped: a colliding string replaces the previous one, which keeps memory bounded
+ * no matter how many distinct values are seen. Unlike {@link String#intern()}, a lookup that hits
+ * allocates nothing.
+ * </p>
+ */
+final class StringInterner {
+
+    private static final int MAX_LENGTH = 256;
+
+    private final AtomicReferenceArray<String> table;
+    private final int mask;
+
+    /**
+     * @param capacity number of cached strings, rounded up to a power of two
+     */
+    StringInterner(final int capacity) {
+        final int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.table = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    String intern(final char[] chars, final int offset, final int length) {
+        if (length == 0) {
+            return "";
+        }
+        if (length > MAX_LENGTH) {
+            return new String(chars, offset, length);
+        }
+
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        final int index = (hash ^ (hash >>> 16)) & mask;
+
+        final String cached = table.get(index);
+        if (cached != null && cached.hashCode() == hash && matches(cached, chars, offset, length)) {
+            return cached;
+        }
+        final String value = new String(chars, offset, length);
+        table.lazySet(index, value);
+        return value;
+    }
+
+    private static boolean matches(final String value, final char[] chars, final int offset, final int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,157 @@
+package com.token.validation.jwt;
+
+import com.token.validation.response.ValidationFailure;
+import com.token.validation.revocation.RevocationRegistry;
+
+import java.time.Clock;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The claim checks a token must pass before its signature is verified.
+ * <p>
+ * These checks only read already decoded claims, so a token that is expired, not yet valid, revoked,
+ * or meant for another issuer or audience is rejected without paying for the signature verification.
+ * Immutable and thread-safe.
+ * </p>
+ */
+public final class ValidationPolicy {
+
+    private static final ValidationPolicy DEFAULT = builder().build();
+
+    private final Clock clock;
+    private final long clockSkew;
+    private final String issuer;
+    private final String audience;
+    private final RevocationRegistry revocations;
+
+    private ValidationPolicy(final Builder builder) {
+        this.clock = builder.clock;
+        this.clockSkew = builder.clockSkew;
+        this.issuer = builder.issuer;
+        this.audience = builder.audience;
+        this.revocations = builder.revocations;
+    }
+
+    /**
+     * Returns the policy checking only the expiration time against the system clock, without skew.
+     */
+    public static ValidationPolicy defaultPolicy() {
+        return DEFAULT;
+    }
+
+    /**
+     * Check the claims of a token.
+     *
+     * @param claims The claims of the token
+     * @return the first rule the claims fail, {@code null} if they pass all of them
+     */
+    public ValidationFailure check(final ClaimsView claims) {
+        final long now = clock.millis() / 1000L;
+
+        if (now - clockSkew >= claims.getExpiration()) {
+            return ValidationFailure.EXPIRED;
+        }
+        if (claims.getNotBefore() > now + clockSkew) {
+            return ValidationFailure.NOT_YET_VALID;
+        }
+        if (isRevoked(claims.getID())) {
+            return ValidationFailure.REVOKED;
+        }
+        if (issuer != null && !issuer.equals(claims.getIssuer())) {
+            return ValidationFailure.INVALID_ISSUER;
+        }
+        if (audience != null && !hasAudience(claims)) {
+            return ValidationFailure.INVALID_AUDIENCE;
+        }
+        return null;
+    }
+
+    /**
+     * Returns {@code true} if a revocation registry is configured and the token with the given id was revoked.
+     * Tokens returned from a cache of verified tokens must still be checked with it.
+     */
+    boolean isRevoked(final String id) {
+        return revocations != null && revocations.isRevoked(id);
+    }
+
+    private boolean hasAudience(final ClaimsView claims) {
+        // A single audience may be a string, several audiences an array
+        final Object value = claims.get(Claims.AUD.getValue());
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).contains(audience);
+        }
+        return audience.equals(value);
+    }
+
+    /**
+     * Returns a new {@link Builder}.
+     * @return the {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    public static final class Builder {
+        private Clock clock = Clock.systemUTC();
+        private long clockSkew;
+        private String issuer;
+        private String audience;
+        private RevocationRegistry revocations;
+
+        private Builder() {
+        }
+
+        /**
+         * The clock the time claims are checked against. Defaults to the system clock.
+         */
+        public Builder clock(Clock clock) {
+            if (clock == null) {
+                throw new IllegalArgumentException("Clock must not be null");
+            }
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Tolerance for clock differences between the issuer and this service,
+         * applied to the "exp" and "nbf" claims. Defaults to none.
+         */
+        public Builder clockSkew(long clockSkew, TimeUnit unit) {
+            if (clockSkew < 0) {
+                throw new IllegalArgumentException("Clock skew must not be negative");
+            }
+            this.clockSkew = unit.toSeconds(clockSkew);
+            return this;
+        }
+
+        /**
+         * The expected "iss" claim. Not checked if not set.
+         */
+        public Builder issuer(String issuer) {
+            this.issuer = issuer;
+            return this;
+        }
+
+        /**
+         * The audience the "aud" claim must contain. Not checked if not set.
+         */
+        public Builder audience(String audience) {
+            this.audience = audience;
+            return this;
+        }
+
+        /**
+         * The registry of revoked tokens. Revocation is not checked if not set.
+         */
+        public Builder revocations(RevocationRegistry revocations) {
+            this.revocations = revocations;
+            return this;
+        }
+
+        public ValidationPolicy build() {
+            return new ValidationPolicy(this);
+        }
+    }
+}
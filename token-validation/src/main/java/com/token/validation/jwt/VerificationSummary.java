@@ -0,0 +1,130 @@
+package com.token.validation.jwt;
+
+import com.token.validation.response.ValidationFailure;
+import com.token.validation.signature.SignatureAlgorithm;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Counts of a bulk verification: valid tokens, failures by rule and tokens by signature algorithm.
+ * <p>
+ * Instances are NOT thread-safe. Each task of a bulk verification fills its own summary,
+ * and the summaries are merged at the end.
+ * </p>
+ */
+public final class VerificationSummary {
+
+    private static final SignatureAlgorithm[] ALGORITHMS = SignatureAlgorithm.values();
+    private static final ValidationFailure[] FAILURES = ValidationFailure.values();
+
+    private long total;
+    private long valid;
+    private final long[] failures = new long[FAILURES.length];
+    private final long[] tokensByAlgorithm = new long[ALGORITHMS.length];
+    private final long[] validByAlgorithm = new long[ALGORITHMS.length];
+
+    /**
+     * @param algorithm The algorithm of the token header, {@code null} if unknown
+     * @param failure   The rule the token failed, {@code null} if it is valid
+     */
+    void add(final SignatureAlgorithm algorithm, final ValidationFailure failure) {
+        total++;
+        if (failure == null) {
+            valid++;
+        } else {
+            failures[failure.ordinal()]++;
+        }
+        if (algorithm != null) {
+            tokensByAlgorithm[algorithm.ordinal()]++;
+            if (failure == null) {
+                validByAlgorithm[algorithm.ordinal()]++;
+            }
+        }
+    }
+
+    /**
+     * Add the counts of another summary to this one.
+     *
+     * @return this summary
+     */
+    public VerificationSummary merge(final VerificationSummary other) {
+        total += other.total;
+        valid += other.valid;
+        for (int i = 0; i < failures.length; i++) {
+            failures[i] += other.failures[i];
+        }
+        for (int i = 0; i < tokensByAlgorithm.length; i++) {
+            tokensByAlgorithm[i] += other.tokensByAlgorithm[i];
+            validByAlgorithm[i] += other.validByAlgorithm[i];
+        }
+        return this;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getValid() {
+        return valid;
+    }
+
+    public long getInvalid() {
+        return total - valid;
+    }
+
+    public long getFailureCount(final ValidationFailure failure) {
+        return failures[failure.ordinal()];
+    }
+
+    public long getTokenCount(final SignatureAlgorithm algorithm) {
+        return tokensByAlgorithm[algorithm.ordinal()];
+    }
+
+    public long getValidCount(final SignatureAlgorithm algorithm) {
+        return validByAlgorithm[algorithm.ordinal()];
+    }
+
+    /**
+     * Returns the number of tokens per failed rule, without the rules no token failed.
+     */
+    public Map<ValidationFailure, Long> getFailures() {
+        final Map<ValidationFailure, Long> counts = new EnumMap<>(ValidationFailure.class);
+        for (ValidationFailure failure : FAILURES) {
+            if (failures[failure.ordinal()] > 0) {
+                counts.put(failure, failures[failure.ordinal()]);
+            }
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Returns the number of tokens per header algorithm, without the algorithms no token used.
+     */
+    public Map<SignatureAlgorithm, Long> getAlgorithms() {
+        final Map<SignatureAlgorithm, Long> counts = new EnumMap<>(SignatureAlgorithm.class);
+        for (SignatureAlgorithm algorithm : ALGORITHMS) {
+            if (tokensByAlgorithm[algorithm.ordinal()] > 0) {
+                counts.put(algorithm, tokensByAlgorithm[algorithm.ordinal()]);
+            }
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder()
+                .append("tokens: ").append(total)
+                .append(", valid: ").append(valid)
+                .append(", invalid: ").append(getInvalid());
+        for (Map.Entry<ValidationFailure, Long> failure : getFailures().entrySet()) {
+            builder.append(System.lineSeparator()).append("  ").append(failure.getKey()).append(": ").append(failure.getValue());
+        }
+        for (SignatureAlgorithm algorithm : getAlgorithms().keySet()) {
+            builder.append(System.lineSeparator()).append("  ").append(algorithm.getValue()).append(": ")
+                    .append(getTokenCount(algorithm)).append(" (").append(getValidCount(algorithm)).append(" valid)");
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,211 @@
+package com.token.validation.jwt;
+
+import com.token.validation.jwt.exception.TokenValidationException;
+import com.token.validation.response.ValidationResponse;
+import com.util.random.MurmurHash3;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Opt-in, size-bounded cache of successfully verified tokens.
+ * <p>
+ * Entries are looked up by a MurmurHash3 pre-hash of the token and confirmed by comparing the SHA-256
+ * digest of the token and the key the token was verified with, so a different key never produces a hit.
+ * The digest is only computed to confirm a candidate entry or to insert one, a miss on the pre-hash costs
+ * no more than the pre-hash.
+ * An entry lives until the token's {@code exp} or the configured time to live, whichever comes first.
+ * Only valid tokens are cached; a miss falls back to full verification.
+ * </p>
+ */
+public final class VerifiedTokenCache {
+
+    private static final long DEFAULT_TIME_TO_LIVE = TimeUnit.MINUTES.toSeconds(5);
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final ThreadLocal<MessageDigest> digest = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", e);
+        }
+    });
+
+    private final ConcurrentHashMap<Long, Entry> entries;
+    private final int maximumSize;
+    private final long timeToLive;
+    private final long seed = ThreadLocalRandom.current().nextLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param maximumSize maximum number of cached tokens
+     * @param timeToLive  upper bound of the time a token stays cached, even if it expires later
+     */
+    public VerifiedTokenCache(final int maximumSize, final long timeToLive, final TimeUnit unit) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.timeToLive = unit.toSeconds(timeToLive);
+        this.entries = new ConcurrentHashMap<>(Math.min(maximumSize, 1024));
+    }
+
+    public VerifiedTokenCache(final int maximumSize) {
+        this(maximumSize, DEFAULT_TIME_TO_LIVE, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Return the cached claims of a token already verified with the given key, or run the verification
+     * and cache its result if the token is valid.
+     *
+     * @param jwt             The JWT token Base64 encoded
+     * @param verificationKey The key (or verifier) the token is checked with
+     * @param verification    The full verification, run on a miss
+     */
+    public ValidationResponse<JwtClaims> getOrVerify(final String jwt, final Object verificationKey,
+                                                     final Supplier<ValidationResponse<JwtClaims>> verification)
+            throws TokenValidationException {
+
+        return getOrVerify(jwt, verificationKey, verification, JwtClaims.class, JwtClaims::new, JwtClaims::getExpiration);
+    }
+
+    /**
+     * Same as {@link #getOrVerify(String, Object, Supplier)} for a verification returning a {@link ClaimsView}.
+     * Views are immutable, so a hit returns the cached instance itself.
+     */
+    public ValidationResponse<ClaimsView> getOrVerifyView(final String jwt, final Object verificationKey,
+                                                          final Supplier<ValidationResponse<ClaimsView>> verification)
+            throws TokenValidationException {
+
+        return getOrVerify(jwt, verificationKey, verification, ClaimsView.class, UnaryOperator.identity(), ClaimsView::getExpiration);
+    }
+
+    private <C> ValidationResponse<C> getOrVerify(final String jwt, final Object verificationKey,
+                                                  final Supplier<ValidationResponse<C>> verification,
+                                                  final Class<C> type, final UnaryOperator<C> copy,
+                                                  final ToLongFunction<C> expiration) {
+
+        if (jwt == null || verificationKey == null) {
+            return verification.get();
+        }
+
+        final byte[] token = jwt.getBytes(StandardCharsets.US_ASCII);
+        final long hash = MurmurHash3.hash32(token, seed);
+        final long now = now();
+
+        byte[] tokenDigest = null;
+        final Entry entry = entries.get(hash);
+        if (entry != null) {
+            if (entry.expiresAt <= now) {
+                if (entries.remove(hash, entry)) {
+                    expirations.increment();
+                }
+            } else if (type.isInstance(entry.claims) && entry.verificationKey.equals(verificationKey)) {
+                tokenDigest = digest.get().digest(token);
+                if (MessageDigest.isEqual(entry.digest, tokenDigest)) {
+                    hits.increment();
+                    return new ValidationResponse<>(true, copy.apply(type.cast(entry.claims)));
+                }
+            }
+        }
+        misses.increment();
+
+        final ValidationResponse<C> response = verification.get();
+        if (response.isValid() && response.getClaims() != null) {
+            final long expiresAt = Math.min(expiration.applyAsLong(response.getClaims()), now + timeToLive);
+            if (expiresAt > now) {
+                if (entries.size() >= maximumSize) {
+                    evict(now);
+                }
+                if (tokenDigest == null) {
+                    tokenDigest = digest.get().digest(token);
+                }
+                entries.put(hash, new Entry(tokenDigest, verificationKey, copy.apply(response.getClaims()), expiresAt));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Drop expired entries, then, if the cache is still full, about a tenth of the remaining ones.
+     */
+    private void evict(final long now) {
+        final Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue().expiresAt <= now) {
+                iterator.remove();
+                expirations.increment();
+            }
+        }
+
+        final int target = maximumSize - Math.max(1, maximumSize / 10);
+        final Iterator<Long> keys = entries.keySet().iterator();
+        while (entries.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of entries removed to keep the cache within its maximum size.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the number of entries removed because the token or the entry expired.
+     */
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    private static long now() {
+        return System.currentTimeMillis() / 1000L;
+    }
+
+    private static final class Entry {
+        private final byte[] digest;
+        private final Object verificationKey;
+        private final Object claims;
+        private final long expiresAt;
+
+        private Entry(byte[] digest, Object verificationKey, Object claims, long expiresAt) {
+            this.digest = digest;
+            this.verificationKey = verificationKey;
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.token.validation.response;
+
+/**
+ * The rule a token failed, in the order the rules are checked: the cheap claim checks first,
+ * the signature last.
+ */
+public enum ValidationFailure {
+
+    /**
+     * The token could not be decoded. Only reported by bulk verification, single verifications throw.
+     */
+    MALFORMED,
+
+    /**
+     * The "exp" claim is in the past, or missing.
+     */
+    EXPIRED,
+
+    /**
+     * The "nbf" claim is in the future.
+     */
+    NOT_YET_VALID,
+
+    /**
+     * The token, identified by its "jti" claim, was revoked.
+     */
+    REVOKED,
+
+    /**
+     * The "iss" claim is not the expected issuer.
+     */
+    INVALID_ISSUER,
+
+    /**
+     * The "aud" claim doesn't contain the expected audience.
+     */
+    INVALID_AUDIENCE,
+
+    /**
+     * The signature doesn't match, or no key is configured for the token's algorithm.
+     */
+    INVALID_SIGNATURE
+}
@@ -4,11 +4,17 @@ public class ValidationResponse<T> {
 
     private final boolean isValid;
     private final T result;
+    private final ValidationFailure failure;
 
 
     public ValidationResponse(boolean isValid, T claims) {
+        this(isValid, claims, null);
+    }
+
+    public ValidationResponse(boolean isValid, T claims, ValidationFailure failure) {
         this.isValid = isValid;
         this.result = claims;
+        this.failure = failure;
     }
 
     public boolean isValid() {
@@ -19,4 +25,11 @@ public class ValidationResponse<T> {
         return result;
     }
 
+    /**
+     * Returns the rule the token failed, {@code null} if the token is valid or the rule is not known.
+     */
+    public ValidationFailure getFailure() {
+        return failure;
+    }
+
 }
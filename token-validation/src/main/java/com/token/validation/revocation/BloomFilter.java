@@ -0,0 +1,60 @@
+package com.token.validation.revocation;
+
+import com.util.random.MurmurHash3;
+
+/**
+ * Bloom filter of strings over a plain {@code long[]} bit set.
+ * <p>
+ * The bit indexes are derived from a single MurmurHash3 of the string (double hashing), so a lookup
+ * hashes the string once and allocates nothing. Not thread-safe on its own: writes must be
+ * synchronized and published by the owner.
+ * </p>
+ */
+final class BloomFilter {
+
+    private static final long SEED = 0x9747b28cL;
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions number of strings the filter is sized for
+     * @param falsePositiveRate  probability that a string never added is reported as present,
+     *                           once {@code expectedInsertions} strings were added
+     */
+    BloomFilter(final int expectedInsertions, final double falsePositiveRate) {
+        final long n = Math.max(1, expectedInsertions);
+        final long optimalBits = (long) (-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new long[(int) Math.max(1, (optimalBits + 63) >>> 6)];
+        this.bitCount = (long) bits.length << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    void put(final CharSequence value) {
+        final long hash = MurmurHash3.hash32(value, SEED);
+        final int hash1 = (int) hash;
+        final int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            final long index = index(hash1 + i * hash2);
+            bits[(int) (index >>> 6)] |= 1L << index;
+        }
+    }
+
+    boolean mightContain(final CharSequence value) {
+        final long hash = MurmurHash3.hash32(value, SEED);
+        final int hash1 = (int) hash;
+        final int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            final long index = index(hash1 + i * hash2);
+            if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long index(final int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % bitCount;
+    }
+}
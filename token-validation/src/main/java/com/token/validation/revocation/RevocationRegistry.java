@@ -0,0 +1,225 @@
+package com.token.validation.revocation;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of revoked tokens, identified by their "jti" claim.
+ * <p>
+ * A Bloom filter answers most lookups: a token that was never revoked is almost always rejected by it,
+ * without allocating and without touching the exact set of revoked ids, which is only consulted when
+ * the filter reports a possible match. A revoked id is kept until the expiration time of its token,
+ * after which the token is rejected anyway; expired ids are evicted and the filter rebuilt at most
+ * once per eviction interval, on the next revocation.
+ * </p>
+ * <p>
+ * The registry can be bulk loaded from a snapshot file with one {@code <jti> <exp>} pair per line,
+ * {@code exp} in seconds since the epoch; blank lines and lines starting with {@code #} are ignored.
+ * Thread-safe; lookups never block.
+ * </p>
+ */
+public final class RevocationRegistry {
+
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+    private static final long EVICTION_INTERVAL = TimeUnit.MINUTES.toSeconds(1);
+
+    private static final class State {
+        private final BloomFilter filter;
+        private final Map<String, Long> revoked;
+        private final int capacity;
+
+        private State(BloomFilter filter, Map<String, Long> revoked, int capacity) {
+            this.filter = filter;
+            this.revoked = revoked;
+            this.capacity = capacity;
+        }
+    }
+
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+    private final Clock clock;
+
+    private volatile State state;
+    private long nextEviction;
+
+    /**
+     * @param expectedRevocations number of revoked, not yet expired, tokens the filter is sized for
+     * @param falsePositiveRate   share of lookups of tokens never revoked that go to the exact set
+     * @param clock               the clock token expiration times are compared with
+     */
+    public RevocationRegistry(final int expectedRevocations, final double falsePositiveRate, final Clock clock) {
+        if (expectedRevocations <= 0) {
+            throw new IllegalArgumentException("Expected revocations must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.clock = clock;
+        this.state = newState(new ConcurrentHashMap<>());
+        this.nextEviction = now() + EVICTION_INTERVAL;
+    }
+
+    public RevocationRegistry(final int expectedRevocations) {
+        this(expectedRevocations, DEFAULT_FALSE_POSITIVE_RATE, Clock.systemUTC());
+    }
+
+    /**
+     * Returns {@code true} if the token with the given id was revoked and has not expired yet.
+     *
+     * @param id The "jti" claim of the token, may be {@code null}
+     */
+    public boolean isRevoked(final String id) {
+        if (id == null) {
+            return false;
+        }
+        final State current = state;
+        if (!current.filter.mightContain(id)) {
+            return false;
+        }
+        final Long expiration = current.revoked.get(id);
+        return expiration != null && expiration > now();
+    }
+
+    /**
+     * Revoke a token until its expiration time. Tokens already expired are ignored.
+     *
+     * @param id         The "jti" claim of the token
+     * @param expiration The "exp" claim of the token, in seconds since the epoch
+     */
+    public synchronized void revoke(final String id, final long expiration) {
+        if (id == null) {
+            throw new IllegalArgumentException("Token id must not be null");
+        }
+        final long now = now();
+        if (expiration <= now) {
+            return;
+        }
+        if (now >= nextEviction || state.revoked.size() >= state.capacity) {
+            // Also grows the filter before it fills up
+            evictExpired(now);
+        }
+
+        final State current = state;
+        current.revoked.merge(id, expiration, Math::max);
+        current.filter.put(id);
+        // Publish the filter bits set above to the lock-free readers
+        state = current;
+    }
+
+    /**
+     * Remove the ids of expired tokens and rebuild the filter without them.
+     */
+    public synchronized void evictExpired() {
+        evictExpired(now());
+    }
+
+    /**
+     * Replace all revocations with the ones of a snapshot file. Expired entries are skipped.
+     *
+     * @throws IOException If the file can't be read or a line is malformed, the current revocations are kept
+     */
+    public void load(final Path snapshot) throws IOException {
+        final long now = now();
+        final Map<String, Long> revoked = new ConcurrentHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(snapshot, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                final String[] fields = line.split("\\s+");
+                if (fields.length != 2) {
+                    throw new IOException("Invalid revocation snapshot line " + lineNumber + ": expected <jti> <exp>");
+                }
+                final long expiration;
+                try {
+                    expiration = Long.parseLong(fields[1]);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid revocation snapshot line " + lineNumber + ": invalid expiration time", e);
+                }
+                if (expiration > now) {
+                    revoked.merge(fields[0], expiration, Math::max);
+                }
+            }
+        }
+
+        synchronized (this) {
+            state = newState(revoked);
+            nextEviction = now + EVICTION_INTERVAL;
+        }
+    }
+
+    /**
+     * Write the current, not yet expired, revocations to a snapshot file that {@link #load(Path)} can read.
+     * The file is replaced atomically where the file system supports it.
+     */
+    public void save(final Path snapshot) throws IOException {
+        final long now = now();
+        final Path temporary = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Long> entry : state.revoked.entrySet()) {
+                if (entry.getValue() > now) {
+                    writer.write(entry.getKey());
+                    writer.write(' ');
+                    writer.write(Long.toString(entry.getValue()));
+                    writer.newLine();
+                }
+            }
+        }
+        try {
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Returns the number of revoked ids held, including expired ones not evicted yet.
+     */
+    public int size() {
+        return state.revoked.size();
+    }
+
+    private void evictExpired(final long now) {
+        final Map<String, Long> revoked = new ConcurrentHashMap<>(state.revoked);
+        final Iterator<Long> expirations = revoked.values().iterator();
+        while (expirations.hasNext()) {
+            if (expirations.next() <= now) {
+                expirations.remove();
+            }
+        }
+        state = newState(revoked);
+        nextEviction = now + EVICTION_INTERVAL;
+    }
+
+    /**
+     * Build a filter holding the given ids, sized for at least twice their number.
+     */
+    private State newState(final Map<String, Long> revoked) {
+        final int capacity = Math.max(expectedRevocations, 2 * revoked.size());
+        final BloomFilter filter = new BloomFilter(capacity, falsePositiveRate);
+        for (String id : revoked.keySet()) {
+            filter.put(id);
+        }
+        return new State(filter, revoked, capacity);
+    }
+
+    private long now() {
+        return clock.millis() / 1000L;
+    }
+}
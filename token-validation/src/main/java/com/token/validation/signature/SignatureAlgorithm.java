@@ -50,7 +50,12 @@ public enum SignatureAlgorithm {
     /**
      * ECDSA using P-521 and SHA-512
      */
-    ES512("ES512", "ECDSA using P-512 and SHA-512", "Elliptic Curve", "SHA512withECDSA");
+    ES512("ES512", "ECDSA using P-512 and SHA-512", "Elliptic Curve", "SHA512withECDSA"),
+
+    /**
+     * EdDSA using Ed25519 (RFC 8037)
+     */
+    EdDSA("EdDSA", "EdDSA using Ed25519", "Edwards Curve", "Ed25519");
 
 
 
@@ -117,10 +122,19 @@ public enum SignatureAlgorithm {
         return name().startsWith("ES");
     }
 
+    /**
+     * Returns {@code true} if the enum instance represents an EdDSA signature algorithm, {@code false}
+     * otherwise.
+     */
+    public boolean isEdwardsCurve() {
+        return this == EdDSA;
+    }
+
     public String getSignatureType() {
         if (isHmac()) return "HMAC";
         if (isRsa())  return "RSA";
         if (isEllipticCurve())  return "ECDSA";
+        if (isEdwardsCurve())  return "EdDSA";
         return "NONE";
     }
 }
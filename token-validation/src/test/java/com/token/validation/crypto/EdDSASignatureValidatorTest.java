@@ -0,0 +1,92 @@
+package com.token.validation.crypto;
+
+import com.token.validation.jwt.Jwt;
+import com.token.validation.jwt.JwtVerifier;
+import com.token.validation.jwt.exception.TokenValidationException;
+import com.token.validation.signature.SignatureAlgorithm;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.security.*;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EdDSASignatureValidatorTest {
+
+
+    @Test
+    void verifyEd25519() throws GeneralSecurityException, TokenValidationException {
+
+        final KeyPair keyPair = generateKeyPair();
+        final String jwt = createJWT(keyPair.getPrivate());
+
+        final Jwt jwtToken = Jwt.parse(jwt);
+
+        SignatureVerifier signatureVerifier = EdDSAProvider.getInstance();
+        Assertions.assertTrue(signatureVerifier.verify(jwtToken, keyPair.getPublic()));
+    }
+
+    @Test
+    void jwt_is_not_valid_if_signature_key_is_invalid() throws GeneralSecurityException, TokenValidationException {
+
+        final KeyPair keyPair = generateKeyPair();
+        final String jwt = createJWT(keyPair.getPrivate());
+
+        final Jwt jwtToken = Jwt.parse(jwt);
+
+        SignatureVerifier signatureVerifier = EdDSAProvider.getInstance();
+        Assertions.assertFalse(signatureVerifier.verify(jwtToken, generateKeyPair().getPublic()));
+    }
+
+    @Test
+    void verifier_accepts_EdDSA_tokens() throws GeneralSecurityException {
+
+        final KeyPair keyPair = generateKeyPair();
+        final JwtVerifier verifier = JwtVerifier.builder()
+                .key(SignatureAlgorithm.EdDSA, keyPair.getPublic())
+                .build();
+
+        Assertions.assertTrue(verifier.verify(createJWT(keyPair.getPrivate())).isValid());
+        Assertions.assertFalse(verifier.verify(createJWT(generateKeyPair().getPrivate())).isValid());
+    }
+
+    @Test
+    void non_Ed25519_keys_are_rejected() throws GeneralSecurityException {
+
+        final KeyPairGenerator keyGen = KeyPairGenerator.getInstance("Ed448");
+        final PublicKey ed448Key = keyGen.generateKeyPair().getPublic();
+
+        Assertions.assertFalse(EdDSAProvider.isEd25519Key(ed448Key));
+        assertThrows(IllegalArgumentException.class, () -> EdDSAProvider.getInstance().newEngine(SignatureAlgorithm.EdDSA, ed448Key));
+    }
+
+    @Test
+    void raw_key_round_trip() throws GeneralSecurityException {
+
+        final PublicKey publicKey = generateKeyPair().getPublic();
+        final byte[] rawKey = EdDSAProvider.toRawKey(publicKey);
+
+        Assertions.assertEquals(EdDSAProvider.ED25519_KEY_LENGTH, rawKey.length);
+        Assertions.assertArrayEquals(publicKey.getEncoded(), EdDSAProvider.toPublicKey(rawKey).getEncoded());
+    }
+
+    private static String createJWT(PrivateKey privateKey) throws GeneralSecurityException {
+
+        String header = "{ \"alg\" : \"EdDSA\", \"typ\" : \"JWT\" }";
+        String payload = "{ \"iss\" : \"issuer\", \"exp\" : " + (Instant.now().getEpochSecond() + 300) + " }";
+
+        String signingInput = Base64.getUrlEncoder().encodeToString(header.getBytes())
+                + "." + Base64.getUrlEncoder().encodeToString(payload.getBytes());
+
+        Signature signer = Signature.getInstance(SignatureAlgorithm.EdDSA.getJcaName());
+        signer.initSign(privateKey);
+        signer.update(signingInput.getBytes());
+        return signingInput + "." + Base64.getUrlEncoder().encodeToString(signer.sign());
+    }
+
+    private static KeyPair generateKeyPair() throws NoSuchAlgorithmException {
+        return KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+    }
+}
@@ -0,0 +1,240 @@
+package com.token.validation.jwk;
+
+import com.sun.net.httpserver.HttpServer;
+import com.token.validation.crypto.EdDSAProvider;
+import com.token.validation.jwt.JwtUtil;
+import com.token.validation.jwt.exception.TokenValidationException;
+import com.token.validation.signature.SignatureAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwksKeyResolverTest {
+
+    private HttpServer server;
+    private URL url;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile String jwks;
+    private volatile int status = 200;
+
+    private KeyPair rsaKeyPair;
+    private KeyPair ecKeyPair;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator rsaKeyGen = KeyPairGenerator.getInstance("RSA");
+        rsaKeyGen.initialize(2048);
+        rsaKeyPair = rsaKeyGen.generateKeyPair();
+
+        KeyPairGenerator ecKeyGen = KeyPairGenerator.getInstance("EC");
+        ecKeyGen.initialize(new ECGenParameterSpec("secp256r1"));
+        ecKeyPair = ecKeyGen.generateKeyPair();
+
+        jwks = keySet(rsaJwk("rsa-1", (RSAPublicKey) rsaKeyPair.getPublic()), ecJwk("ec-1", (ECPublicKey) ecKeyPair.getPublic()));
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/jwks.json", exchange -> {
+            requests.incrementAndGet();
+            final byte[] body = jwks.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+        url = new URL("http://localhost:" + server.getAddress().getPort() + "/jwks.json");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void tokens_are_verified_with_the_key_selected_by_kid() throws GeneralSecurityException {
+        final JwksKeyResolver resolver = JwksKeyResolver.builder().url(url).build();
+
+        final String rsa = createJWT(SignatureAlgorithm.RS256, "rsa-1", rsaKeyPair.getPrivate());
+        final String ec = createJWT(SignatureAlgorithm.ES256, "ec-1", ecKeyPair.getPrivate());
+        final String wrongKid = createJWT(SignatureAlgorithm.RS256, "ec-1", rsaKeyPair.getPrivate());
+
+        Assertions.assertTrue(JwtUtil.verifyJwt(rsa, resolver).isValid());
+        Assertions.assertTrue(JwtUtil.verifyJwt(ec, resolver).isValid());
+        Assertions.assertFalse(JwtUtil.verifyJwt(wrongKid, resolver).isValid());
+        Assertions.assertEquals(1, requests.get());
+    }
+
+    @Test
+    void unknown_kid_triggers_a_rate_limited_refetch() throws Exception {
+        final JwksKeyResolver resolver = JwksKeyResolver.builder()
+                .url(url)
+                .minimumRefetchInterval(0, TimeUnit.SECONDS)
+                .build();
+        resolver.refresh();
+
+        final KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        final KeyPair rotated = keyGen.generateKeyPair();
+        final String jwt = createJWT(SignatureAlgorithm.RS256, "rsa-2", rotated.getPrivate());
+        jwks = keySet(rsaJwk("rsa-1", (RSAPublicKey) rsaKeyPair.getPublic()), rsaJwk("rsa-2", (RSAPublicKey) rotated.getPublic()));
+
+        Assertions.assertFalse(JwtUtil.verifyJwt(jwt, resolver).isValid());
+        awaitRequests(2);
+        awaitValid(resolver, jwt);
+
+        final JwksKeyResolver rateLimited = JwksKeyResolver.builder()
+                .url(url)
+                .minimumRefetchInterval(1, TimeUnit.HOURS)
+                .build();
+        rateLimited.refresh();
+        final int before = requests.get();
+        final String unknown = createJWT(SignatureAlgorithm.RS256, "unknown", rotated.getPrivate());
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertFalse(JwtUtil.verifyJwt(unknown, rateLimited).isValid());
+        }
+        Assertions.assertEquals(before, requests.get());
+    }
+
+    @Test
+    void stale_keys_are_served_while_refreshing() throws Exception {
+        final JwksKeyResolver resolver = JwksKeyResolver.builder()
+                .url(url)
+                .refreshInterval(0, TimeUnit.SECONDS)
+                .minimumRefetchInterval(0, TimeUnit.SECONDS)
+                .build();
+        final String jwt = createJWT(SignatureAlgorithm.RS256, "rsa-1", rsaKeyPair.getPrivate());
+        Assertions.assertTrue(JwtUtil.verifyJwt(jwt, resolver).isValid());
+
+        status = 500;
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertTrue(JwtUtil.verifyJwt(jwt, resolver).isValid());
+        }
+        awaitRequests(2);
+        Assertions.assertTrue(JwtUtil.verifyJwt(jwt, resolver).isValid());
+    }
+
+    @Test
+    void stale_keys_are_refetched_at_most_once_per_minimum_interval() throws Exception {
+        final JwksKeyResolver resolver = JwksKeyResolver.builder()
+                .url(url)
+                .refreshInterval(0, TimeUnit.SECONDS)
+                .minimumRefetchInterval(1, TimeUnit.HOURS)
+                .executor(Runnable::run)
+                .build();
+        final String jwt = createJWT(SignatureAlgorithm.RS256, "rsa-1", rsaKeyPair.getPrivate());
+        Assertions.assertTrue(JwtUtil.verifyJwt(jwt, resolver).isValid());
+
+        status = 500;
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(JwtUtil.verifyJwt(jwt, resolver).isValid());
+        }
+        Assertions.assertEquals(1, requests.get());
+    }
+
+    @Test
+    void unavailable_key_set_is_reported() throws GeneralSecurityException {
+        status = 503;
+        final JwksKeyResolver resolver = JwksKeyResolver.builder().url(url).build();
+        final String jwt = createJWT(SignatureAlgorithm.RS256, "rsa-1", rsaKeyPair.getPrivate());
+
+        assertThrows(TokenValidationException.class, () -> JwtUtil.verifyJwt(jwt, resolver));
+        assertThrows(TokenValidationException.class, () -> JwtUtil.verifyJwt(jwt, resolver));
+        Assertions.assertEquals(1, requests.get());
+    }
+
+    @Test
+    void key_without_kid_is_used_when_it_is_the_only_suitable_one() throws IOException {
+        jwks = keySet(rsaJwk(null, (RSAPublicKey) rsaKeyPair.getPublic()), "{ \"kty\" : \"oct\", \"k\" : \"AAAA\" }");
+        final JsonWebKeys keys = JsonWebKeys.parse(jwks.getBytes(StandardCharsets.UTF_8), 0);
+
+        Assertions.assertEquals(1, keys.size());
+        Assertions.assertEquals(rsaKeyPair.getPublic(), keys.find(null, SignatureAlgorithm.RS256));
+        Assertions.assertNull(keys.find(null, SignatureAlgorithm.ES256));
+    }
+
+    @Test
+    void ed25519_keys_are_read_from_okp_entries() throws Exception {
+        final KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        final String x = Base64.getUrlEncoder().withoutPadding().encodeToString(EdDSAProvider.toRawKey(keyPair.getPublic()));
+        jwks = keySet("{ \"kty\" : \"OKP\", \"crv\" : \"Ed25519\", \"kid\" : \"ed\", \"x\" : \"" + x + "\" }");
+        final JsonWebKeys keys = JsonWebKeys.parse(jwks.getBytes(StandardCharsets.UTF_8), 0);
+
+        Assertions.assertArrayEquals(keyPair.getPublic().getEncoded(), keys.find("ed", SignatureAlgorithm.EdDSA).getEncoded());
+        Assertions.assertNull(keys.find("ed", SignatureAlgorithm.RS256));
+    }
+
+    private void awaitRequests(int count) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (requests.get() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(requests.get() >= count);
+    }
+
+    private static void awaitValid(JwksKeyResolver resolver, String jwt) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (!JwtUtil.verifyJwt(jwt, resolver).isValid() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(JwtUtil.verifyJwt(jwt, resolver).isValid());
+    }
+
+    private static String keySet(String... keys) {
+        return "{ \"keys\" : [" + String.join(",", Arrays.asList(keys)) + "] }";
+    }
+
+    private static String rsaJwk(String keyId, RSAPublicKey key) {
+        return "{ \"kty\" : \"RSA\", \"use\" : \"sig\", "
+                + (keyId != null ? "\"kid\" : \"" + keyId + "\", " : "")
+                + "\"n\" : \"" + base64(key.getModulus()) + "\", \"e\" : \"" + base64(key.getPublicExponent()) + "\" }";
+    }
+
+    private static String ecJwk(String keyId, ECPublicKey key) {
+        return "{ \"kty\" : \"EC\", \"crv\" : \"P-256\", \"kid\" : \"" + keyId + "\", "
+                + "\"x\" : \"" + base64(key.getW().getAffineX()) + "\", \"y\" : \"" + base64(key.getW().getAffineY()) + "\" }";
+    }
+
+    private static String base64(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String createJWT(SignatureAlgorithm signatureAlgorithm, String keyId, PrivateKey key)
+            throws GeneralSecurityException {
+
+        String header = "{ \"alg\" : \"" + signatureAlgorithm.name() + "\", \"typ\" : \"JWT\", \"kid\" : \"" + keyId + "\" }";
+        String payload = "{ \"iss\" : \"issuer\", \"exp\" : " + (Instant.now().getEpochSecond() + 300) + " }";
+
+        String signingInput = Base64.getUrlEncoder().encodeToString(header.getBytes())
+                + "." + Base64.getUrlEncoder().encodeToString(payload.getBytes());
+
+        Signature signer = Signature.getInstance(signatureAlgorithm.getJcaName());
+        signer.initSign(key);
+        signer.update(signingInput.getBytes());
+        return signingInput + "." + Base64.getUrlEncoder().encodeToString(signer.sign());
+    }
+}
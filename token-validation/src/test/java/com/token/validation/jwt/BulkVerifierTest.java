@@ -0,0 +1,158 @@
+package com.token.validation.jwt;
+
+import com.token.validation.audit.TokenAudit;
+import com.token.validation.response.ValidationFailure;
+import com.token.validation.response.ValidationResponse;
+import com.token.validation.signature.SignatureAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPairGenerator;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+class BulkVerifierTest {
+
+    private final Key key = new SecretKeySpec("bulk-verification-secret".getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    private final Key otherKey = new SecretKeySpec("another-secret".getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final BulkVerifier bulkVerifier = BulkVerifier.builder()
+            .verifier(JwtVerifier.builder().key(SignatureAlgorithm.HS256, key).build())
+            .pool(pool)
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void responses_come_back_in_input_order() throws GeneralSecurityException {
+        final long now = Instant.now().getEpochSecond();
+        final List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            switch (i % 4) {
+                case 0: tokens.add(createJWT(key, now + 300, i)); break;
+                case 1: tokens.add(createJWT(key, now - 10, i)); break;
+                case 2: tokens.add(createJWT(otherKey, now + 300, i)); break;
+                default: tokens.add("not a token " + i);
+            }
+        }
+
+        final List<ValidationResponse<ClaimsView>> responses = bulkVerifier.verifyAll(tokens.stream());
+
+        Assertions.assertEquals(tokens.size(), responses.size());
+        for (int i = 0; i < responses.size(); i++) {
+            final ValidationResponse<ClaimsView> response = responses.get(i);
+            switch (i % 4) {
+                case 0:
+                    Assertions.assertTrue(response.isValid());
+                    Assertions.assertEquals(String.valueOf(i), response.getClaims().getID());
+                    break;
+                case 1: Assertions.assertEquals(ValidationFailure.EXPIRED, response.getFailure()); break;
+                case 2: Assertions.assertEquals(ValidationFailure.INVALID_SIGNATURE, response.getFailure()); break;
+                default: Assertions.assertEquals(ValidationFailure.MALFORMED, response.getFailure());
+            }
+        }
+    }
+
+    @Test
+    void summary_counts_failures_and_algorithms() throws GeneralSecurityException {
+        final long now = Instant.now().getEpochSecond();
+        final List<String> tokens = Arrays.asList(
+                createJWT(key, now + 300, 1), createJWT(key, now + 300, 2),
+                createJWT(key, now - 10, 3), createJWT(otherKey, now + 300, 4), "a.b.c.d");
+
+        final VerificationSummary summary = bulkVerifier.summarize(tokens.stream());
+
+        Assertions.assertEquals(5, summary.getTotal());
+        Assertions.assertEquals(2, summary.getValid());
+        Assertions.assertEquals(1, summary.getFailureCount(ValidationFailure.EXPIRED));
+        Assertions.assertEquals(1, summary.getFailureCount(ValidationFailure.INVALID_SIGNATURE));
+        Assertions.assertEquals(1, summary.getFailureCount(ValidationFailure.MALFORMED));
+        Assertions.assertEquals(4, summary.getTokenCount(SignatureAlgorithm.HS256));
+        Assertions.assertEquals(2, summary.getValidCount(SignatureAlgorithm.HS256));
+    }
+
+    @Test
+    void signatures_that_cant_be_checked_are_counted_as_invalid() throws GeneralSecurityException {
+        final KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        final BulkVerifier rsaVerifier = BulkVerifier.builder()
+                .verifier(JwtVerifier.builder().key(SignatureAlgorithm.RS256, keyGen.generateKeyPair().getPublic()).build())
+                .pool(pool)
+                .build();
+        final String payload = "{ \"iss\" : \"issuer\", \"exp\" : " + (Instant.now().getEpochSecond() + 300) + " }";
+        // Far too short for an RSA signature, the signature engine throws instead of returning false
+        final String jwt = base64("{ \"alg\" : \"RS256\", \"typ\" : \"JWT\" }") + "." + base64(payload) + "." + base64("short");
+
+        final VerificationSummary summary = rsaVerifier.summarize(Stream.of(jwt));
+
+        Assertions.assertEquals(1, summary.getFailureCount(ValidationFailure.INVALID_SIGNATURE));
+        Assertions.assertEquals(0, summary.getFailureCount(ValidationFailure.MALFORMED));
+        Assertions.assertEquals(1, summary.getTokenCount(SignatureAlgorithm.RS256));
+        Assertions.assertEquals(ValidationFailure.INVALID_SIGNATURE,
+                rsaVerifier.verifyAll(Stream.of(jwt)).get(0).getFailure());
+    }
+
+    @Test
+    void token_files_are_split_in_byte_ranges() throws GeneralSecurityException, IOException {
+        final long now = Instant.now().getEpochSecond();
+        final StringBuilder lines = new StringBuilder();
+        final int count = 3000;
+        for (int i = 0; i < count; i++) {
+            lines.append(createJWT(i % 10 == 0 ? otherKey : key, now + 300, i)).append(i % 2 == 0 ? "\n" : "\r\n");
+            if (i % 100 == 0) {
+                lines.append("\n");
+            }
+        }
+        final byte[] content = lines.toString().getBytes(StandardCharsets.US_ASCII);
+        Assertions.assertTrue(content.length > 2 * 256 * 1024, "The content must be split");
+
+        final VerificationSummary summary = bulkVerifier.summarize(ByteBuffer.wrap(content));
+        Assertions.assertEquals(count, summary.getTotal());
+        Assertions.assertEquals(count / 10, summary.getFailureCount(ValidationFailure.INVALID_SIGNATURE));
+
+        final Path tokenFile = Files.createTempFile("tokens", ".txt");
+        try {
+            Files.write(tokenFile, content);
+            final VerificationSummary audited = TokenAudit.audit(tokenFile, bulkVerifier);
+            Assertions.assertEquals(count, audited.getTotal());
+            Assertions.assertEquals(count - count / 10, audited.getValid());
+        } finally {
+            Files.delete(tokenFile);
+        }
+    }
+
+    private static String base64(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String createJWT(Key key, long expirationTime, int id) throws GeneralSecurityException {
+        String header = "{ \"alg\" : \"HS256\", \"typ\" : \"JWT\" }";
+        String payload = "{ \"iss\" : \"issuer\", \"jti\" : \"" + id + "\", \"exp\" : " + expirationTime
+                + ", \"email\" : \"john.doe@essentialprogramming.com\" }";
+
+        String signingInput = Base64.getUrlEncoder().withoutPadding().encodeToString(header.getBytes())
+                + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes());
+
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(key);
+        return signingInput + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(signingInput.getBytes()));
+    }
+}
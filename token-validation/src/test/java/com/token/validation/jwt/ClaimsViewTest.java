@@ -0,0 +1,85 @@
+package com.token.validation.jwt;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClaimsViewTest {
+
+    private static final String PAYLOAD = "{ \"iss\" : \"issuer\", \"sub\" : \"subject\", \"exp\" : 1700000000, "
+            + "\"iat\" : 1600000000, \"email\" : \"user@mail.com\", \"roles\" : \"ADMIN,USER\", "
+            + "\"permissions\" : [\"read:user\", \"write:user\"], \"address\" : { \"city\" : \"Cluj\", \"zip\" : [1, 2] }, "
+            + "\"active\" : true }";
+
+    @Test
+    void claims_match_the_map_based_claims() throws IOException {
+        final ClaimsView view = parse(PAYLOAD);
+        final JwtClaims claims = view.toJwtClaims();
+
+        Assertions.assertEquals(claims.getIssuer(), view.getIssuer());
+        Assertions.assertEquals(claims.getSubject(), view.getSubject());
+        Assertions.assertEquals(claims.getExpiration(), view.getExpiration());
+        Assertions.assertEquals(claims.getIssuedAt(), view.getIssuedAt());
+        Assertions.assertEquals(claims.getNotBefore(), view.getNotBefore());
+        Assertions.assertEquals(claims.getRoles(), view.getRoles());
+        Assertions.assertEquals(claims.getPermissions(), view.getPermissions());
+        Assertions.assertEquals(claims.get("address"), view.get("address"));
+        Assertions.assertEquals(Boolean.TRUE, view.get("active"));
+        Assertions.assertNull(view.getAudience());
+        Assertions.assertNull(view.get("missing"));
+        Assertions.assertTrue(view.containsKey("email"));
+        Assertions.assertFalse(view.containsKey("city"));
+    }
+
+    @Test
+    void roles_are_split_and_interned() throws IOException {
+        final ClaimsView first = parse(PAYLOAD);
+        final ClaimsView second = parse(PAYLOAD);
+
+        Assertions.assertEquals(Arrays.asList("ADMIN", "USER"), first.getRoleNames());
+        Assertions.assertSame(first.getRoles(), second.getRoles());
+        Assertions.assertSame(first.getRoleNames().get(0), second.getRoleNames().get(0));
+        Assertions.assertSame(first.getPermissions().get(1), second.getPermissions().get(1));
+    }
+
+    @Test
+    void missing_claims_have_defaults() throws IOException {
+        final ClaimsView view = parse("{ \"roles\" : \"\", \"exp\" : \"soon\" }");
+
+        Assertions.assertEquals(0L, view.getExpiration());
+        Assertions.assertEquals("", view.getRoles());
+        Assertions.assertEquals(Collections.emptyList(), view.getRoleNames());
+        Assertions.assertEquals(Collections.emptyList(), view.getPermissions());
+        Assertions.assertEquals("soon", view.getString("exp"));
+    }
+
+    @Test
+    void invalid_payload_is_rejected() {
+        assertThrows(IOException.class, () -> parse("[1, 2]"));
+        assertThrows(IOException.class, () -> parse("{ \"iss\" : "));
+    }
+
+    @Test
+    void view_is_reused_by_the_decoded_token() throws IOException {
+        final String header = Base64.getUrlEncoder().encodeToString("{ \"alg\" : \"HS256\" }".getBytes());
+        final String payload = Base64.getUrlEncoder().encodeToString(PAYLOAD.getBytes());
+        final DecodedJwt jwt = DecodedJwt.decode(header + "." + payload);
+
+        Assertions.assertSame(jwt.getClaimsView(), jwt.getClaimsView());
+        Assertions.assertEquals("user@mail.com", jwt.getClaimsView().getString("email"));
+        Map<String, Object> address = jwt.getClaimsView().get("address");
+        Assertions.assertEquals("Cluj", address.get("city"));
+    }
+
+    private static ClaimsView parse(String payload) throws IOException {
+        return ClaimsView.parse(payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
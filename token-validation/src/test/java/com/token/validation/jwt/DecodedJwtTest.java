@@ -0,0 +1,102 @@
+package com.token.validation.jwt;
+
+import com.token.validation.jwt.exception.TokenValidationException;
+import com.token.validation.signature.SignatureAlgorithm;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecodedJwtTest {
+
+    private KeyPair keyPair;
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        keyPair = keyGen.generateKeyPair();
+    }
+
+    @Test
+    void decode_signed_jwt_successfully() throws GeneralSecurityException, IOException {
+        String header = "{ \"alg\" : \"RS256\", \"typ\" : \"JWT\", \"kid\" : \"123456\" }";
+        String payload = "{ \"iss\" : \"issuer\", \"exp\" : 2592000 }";
+        String signingInput = Base64.getUrlEncoder().withoutPadding().encodeToString(header.getBytes())
+                + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes());
+
+        final Signature signature = Signature.getInstance(SignatureAlgorithm.RS256.getJcaName());
+        signature.initSign(keyPair.getPrivate());
+        signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+        byte[] sign = signature.sign();
+
+        final DecodedJwt jwt = DecodedJwt.decode(signingInput + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign));
+
+        Assertions.assertEquals(SignatureAlgorithm.RS256, jwt.getHeader().getAlgorithm());
+        Assertions.assertEquals("123456", jwt.getHeader().getKeyId());
+        Assertions.assertEquals(payload, jwt.getContent());
+        Assertions.assertEquals("issuer", jwt.getClaims().getIssuer());
+        Assertions.assertEquals(2592000L, jwt.getClaims().getExpiration());
+        Assertions.assertArrayEquals(sign, jwt.getSignature());
+
+        ByteBuffer input = jwt.getSigningInput();
+        byte[] inputBytes = new byte[input.remaining()];
+        input.get(inputBytes);
+        Assertions.assertEquals(signingInput, new String(inputBytes, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void jwt_with_missing_signature_is_not_digitally_signed() {
+        String header = "{ \"alg\" : \"RS256\", \"typ\" : \"JWT\" }";
+        String payload = "{ \"iss\" : \"issuer\" }";
+        String jwt = Base64.getUrlEncoder().encodeToString(header.getBytes()) + "."
+                + Base64.getUrlEncoder().encodeToString(payload.getBytes());
+
+        assertFalse(DecodedJwt.decode(jwt).isDigitallySigned());
+        assertFalse(DecodedJwt.decode(jwt + ".").isDigitallySigned());
+    }
+
+    @Test
+    void missing_dot_delimiter_will_raise_an_validation_exception() {
+        String header = "{ \"alg\" : \"RS256\", \"typ\" : \"JWT\" }";
+        String jwt = Base64.getUrlEncoder().encodeToString(header.getBytes());
+
+        Exception exception = assertThrows(TokenValidationException.class, () -> DecodedJwt.decode(jwt));
+        Assertions.assertTrue(exception.getMessage().contains("Invalid JWT serialization: Missing dot delimiter(s)"));
+    }
+
+    @Test
+    void jwt_string_composed_of_more_than_3_parts_is_invalid() {
+        Exception exception = assertThrows(TokenValidationException.class, () -> DecodedJwt.decode("a.b.c.d"));
+        Assertions.assertTrue(exception.getMessage().contains("JWT strings must contain exactly 2 period characters. Found: 3"));
+    }
+
+    @Test
+    void malformed_header_will_raise_an_validation_exception() {
+        String jwt = Base64.getUrlEncoder().encodeToString("not json".getBytes()) + ".e30.c2ln";
+
+        assertThrows(TokenValidationException.class, () -> DecodedJwt.decode(jwt));
+        assertThrows(TokenValidationException.class, () -> DecodedJwt.decode("e30.e30.%%%"));
+    }
+
+    @Test
+    void decode_from_parsed_jwt() throws IOException {
+        String header = "{ \"alg\" : \"HS256\", \"typ\" : \"JWT\" }";
+        String payload = "{ \"iss\" : \"issuer\" }";
+        String token = Base64.getUrlEncoder().encodeToString(header.getBytes()) + "."
+                + Base64.getUrlEncoder().encodeToString(payload.getBytes()) + ".c2lnbmF0dXJl";
+
+        final DecodedJwt jwt = DecodedJwt.from(Jwt.parse(token));
+
+        Assertions.assertEquals(SignatureAlgorithm.HS256, jwt.getHeader().getAlgorithm());
+        Assertions.assertEquals("issuer", jwt.getClaims().getIssuer());
+        Assertions.assertArrayEquals("signature".getBytes(), jwt.getSignature());
+    }
+}
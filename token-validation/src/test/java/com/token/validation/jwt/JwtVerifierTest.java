@@ -0,0 +1,151 @@
+package com.token.validation.jwt;
+
+import com.token.validation.jwt.exception.TokenValidationException;
+import com.token.validation.response.ValidationResponse;
+import com.token.validation.signature.SignatureAlgorithm;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.security.*;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtVerifierTest {
+
+    private KeyPair rsaKeyPair;
+    private KeyPair ecKeyPair;
+    private SecretKey secretKey;
+    private JwtVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws GeneralSecurityException {
+        KeyPairGenerator rsaKeyGen = KeyPairGenerator.getInstance("RSA");
+        rsaKeyGen.initialize(2048);
+        rsaKeyPair = rsaKeyGen.generateKeyPair();
+
+        KeyPairGenerator ecKeyGen = KeyPairGenerator.getInstance("EC");
+        ecKeyGen.initialize(new ECGenParameterSpec("secp256r1"));
+        ecKeyPair = ecKeyGen.generateKeyPair();
+
+        secretKey = KeyGenerator.getInstance("HmacSHA256").generateKey();
+
+        verifier = JwtVerifier.builder()
+                .key(SignatureAlgorithm.RS256, rsaKeyPair.getPublic())
+                .key(SignatureAlgorithm.ES256, ecKeyPair.getPublic())
+                .key(SignatureAlgorithm.HS256, secretKey)
+                .build();
+    }
+
+    @Test
+    void verify_tokens_of_all_configured_algorithms_repeatedly() throws GeneralSecurityException {
+        final String rsa = createJWT(SignatureAlgorithm.RS256, rsaKeyPair.getPrivate(), expiresIn(300));
+        final String ec = createJWT(SignatureAlgorithm.ES256, ecKeyPair.getPrivate(), expiresIn(300));
+        final String hmac = createJWT(SignatureAlgorithm.HS256, secretKey, expiresIn(300));
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertTrue(verifier.verify(rsa).isValid());
+            Assertions.assertTrue(verifier.verify(ec).isValid());
+            Assertions.assertTrue(verifier.verify(hmac).isValid());
+        }
+    }
+
+    @Test
+    void token_signed_with_another_key_is_not_valid() throws GeneralSecurityException {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        final String jwt = createJWT(SignatureAlgorithm.RS256, keyGen.generateKeyPair().getPrivate(), expiresIn(300));
+
+        Assertions.assertFalse(verifier.verify(jwt).isValid());
+    }
+
+    @Test
+    void token_signed_with_algorithm_not_configured_is_not_valid() throws GeneralSecurityException {
+        final String jwt = createJWT(SignatureAlgorithm.RS512, rsaKeyPair.getPrivate(), expiresIn(300));
+
+        Assertions.assertFalse(verifier.verify(jwt).isValid());
+    }
+
+    @Test
+    void expired_token_is_not_valid() throws GeneralSecurityException {
+        final String jwt = createJWT(SignatureAlgorithm.RS256, rsaKeyPair.getPrivate(), expiresIn(-300));
+
+        ValidationResponse<JwtClaims> response = verifier.verify(jwt);
+        Assertions.assertFalse(response.isValid());
+        Assertions.assertEquals("issuer", response.getClaims().getIssuer());
+    }
+
+    @Test
+    void engine_is_still_usable_after_a_failed_verification() throws GeneralSecurityException {
+        final String jwt = createJWT(SignatureAlgorithm.ES256, ecKeyPair.getPrivate(), expiresIn(300));
+        final String malformedSignature = jwt.substring(0, jwt.lastIndexOf('.') + 1) + "AAAA";
+
+        assertThrows(TokenValidationException.class, () -> verifier.verify(malformedSignature));
+        Assertions.assertTrue(verifier.verify(jwt).isValid());
+    }
+
+    @Test
+    void verify_concurrently() throws Exception {
+        final String jwt = createJWT(SignatureAlgorithm.RS256, rsaKeyPair.getPrivate(), expiresIn(300));
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(executor.submit(() -> verifier.verify(jwt).isValid()));
+            }
+            for (Future<Boolean> result : results) {
+                Assertions.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void wrong_key_type_is_rejected_when_built() {
+        assertThrows(TokenValidationException.class, () -> JwtVerifier.builder()
+                .key(SignatureAlgorithm.RS256, secretKey)
+                .build());
+        assertThrows(IllegalArgumentException.class, () -> JwtVerifier.builder()
+                .key(SignatureAlgorithm.NONE, secretKey)
+                .build());
+    }
+
+    private static long expiresIn(long seconds) {
+        return Instant.now().getEpochSecond() + seconds;
+    }
+
+    private static String createJWT(SignatureAlgorithm signatureAlgorithm, Key key, long expirationTime)
+            throws GeneralSecurityException {
+
+        String header = "{ \"alg\" : \"" + signatureAlgorithm.name() + "\", \"typ\" : \"JWT\" }";
+        String payload = "{ \"iss\" : \"issuer\", \"exp\" : " + expirationTime + " }";
+
+        String signingInput = Base64.getUrlEncoder().encodeToString(header.getBytes())
+                + "." + Base64.getUrlEncoder().encodeToString(payload.getBytes());
+
+        final byte[] signature;
+        if (signatureAlgorithm.isHmac()) {
+            Mac mac = Mac.getInstance(signatureAlgorithm.getJcaName());
+            mac.init(key);
+            signature = mac.doFinal(signingInput.getBytes());
+        } else {
+            Signature signer = Signature.getInstance(signatureAlgorithm.getJcaName());
+            signer.initSign((PrivateKey) key);
+            signer.update(signingInput.getBytes());
+            signature = signer.sign();
+        }
+        return signingInput + "." + Base64.getUrlEncoder().encodeToString(signature);
+    }
+}
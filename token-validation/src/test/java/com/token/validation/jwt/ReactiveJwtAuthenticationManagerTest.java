@@ -0,0 +1,84 @@
+package com.token.validation.jwt;
+
+import com.token.validation.signature.SignatureAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.server.resource.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.security.*;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+class ReactiveJwtAuthenticationManagerTest {
+
+    private KeyPair keyPair;
+    private Scheduler scheduler;
+    private ReactiveJwtAuthenticationManager manager;
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        keyPair = keyGen.generateKeyPair();
+        scheduler = Schedulers.newSingle("test-verification", true);
+        manager = new ReactiveJwtAuthenticationManager(new ReactiveJwtVerifier(
+                JwtVerifier.builder().key(SignatureAlgorithm.RS256, keyPair.getPublic()).build(), scheduler));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    void valid_tokens_are_authenticated_with_their_roles() throws GeneralSecurityException {
+        final String jwt = createJWT(keyPair.getPrivate(), Instant.now().getEpochSecond() + 300);
+
+        final Authentication authentication = manager.authenticate(new BearerTokenAuthenticationToken(jwt)).block();
+
+        Assertions.assertNotNull(authentication);
+        Assertions.assertTrue(authentication.isAuthenticated());
+        Assertions.assertEquals("john.doe@essentialprogramming.com", authentication.getPrincipal());
+        Assertions.assertEquals(Collections.singletonList("ROLE_visitor"), authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void invalid_and_malformed_tokens_are_rejected() throws GeneralSecurityException {
+        final String expired = createJWT(keyPair.getPrivate(), Instant.now().getEpochSecond() - 10);
+
+        Assertions.assertThrows(InvalidBearerTokenException.class,
+                () -> manager.authenticate(new BearerTokenAuthenticationToken(expired)).block());
+        Assertions.assertThrows(InvalidBearerTokenException.class,
+                () -> manager.authenticate(new BearerTokenAuthenticationToken("not a token")).block());
+    }
+
+    @Test
+    void other_authentications_are_left_to_other_managers() {
+        Assertions.assertNull(manager.authenticate(new UsernamePasswordAuthenticationToken("user", "password")).block());
+    }
+
+    private static String createJWT(PrivateKey privateKey, long expirationTime) throws GeneralSecurityException {
+        String header = "{ \"alg\" : \"RS256\", \"typ\" : \"JWT\" }";
+        String payload = "{ \"email\" : \"john.doe@essentialprogramming.com\", \"roles\" : \"visitor\", \"exp\" : " + expirationTime + " }";
+
+        String signingInput = Base64.getUrlEncoder().encodeToString(header.getBytes())
+                + "." + Base64.getUrlEncoder().encodeToString(payload.getBytes());
+
+        Signature signer = Signature.getInstance(SignatureAlgorithm.RS256.getJcaName());
+        signer.initSign(privateKey);
+        signer.update(signingInput.getBytes());
+        return signingInput + "." + Base64.getUrlEncoder().encodeToString(signer.sign());
+    }
+}
@@ -0,0 +1,128 @@
+package com.token.validation.jwt;
+
+import com.token.validation.jwt.exception.TokenValidationException;
+import com.token.validation.response.ValidationFailure;
+import com.token.validation.response.ValidationResponse;
+import com.token.validation.signature.SignatureAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.security.*;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class ReactiveJwtVerifierTest {
+
+    private KeyPair keyPair;
+    private Scheduler scheduler;
+    private final AtomicReference<String> verificationThread = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        keyPair = keyGen.generateKeyPair();
+        scheduler = Schedulers.newSingle("test-verification", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    void signature_is_verified_on_the_scheduler() throws GeneralSecurityException {
+        final ReactiveJwtVerifier verifier = new ReactiveJwtVerifier(verifier(), scheduler);
+        final String jwt = createJWT(keyPair.getPrivate(), Instant.now().getEpochSecond() + 300);
+
+        final Mono<ValidationResponse<JwtClaims>> response = verifier.verify(jwt)
+                .doOnNext(validationResponse -> verificationThread.set(Thread.currentThread().getName()));
+        Assertions.assertNull(verificationThread.get(), "Nothing runs before subscription");
+
+        Assertions.assertTrue(response.block().isValid());
+        Assertions.assertTrue(verificationThread.get().startsWith("test-verification"));
+        Assertions.assertEquals("issuer", verifier.verifyView(jwt).block().getClaims().getIssuer());
+    }
+
+    @Test
+    void expired_tokens_are_rejected_without_leaving_the_caller_thread() throws GeneralSecurityException {
+        final ReactiveJwtVerifier verifier = new ReactiveJwtVerifier(verifier(), scheduler);
+        final String jwt = createJWT(keyPair.getPrivate(), Instant.now().getEpochSecond() - 10);
+
+        final ValidationResponse<ClaimsView> response = verifier.verifyView(jwt)
+                .doOnNext(validationResponse -> verificationThread.set(Thread.currentThread().getName()))
+                .block();
+
+        Assertions.assertFalse(response.isValid());
+        Assertions.assertEquals(ValidationFailure.EXPIRED, response.getFailure());
+        Assertions.assertEquals("issuer", response.getClaims().getIssuer());
+        Assertions.assertEquals(Thread.currentThread().getName(), verificationThread.get());
+    }
+
+    @Test
+    void claims_are_checked_once() throws GeneralSecurityException {
+        final AtomicInteger checks = new AtomicInteger();
+        // The policy reads its clock once per check
+        final Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                checks.incrementAndGet();
+                return Instant.now();
+            }
+        };
+        final ReactiveJwtVerifier verifier = new ReactiveJwtVerifier(JwtVerifier.builder()
+                .key(SignatureAlgorithm.RS256, keyPair.getPublic())
+                .policy(ValidationPolicy.builder().clock(clock).issuer("issuer").build())
+                .build(), scheduler);
+        final String jwt = createJWT(keyPair.getPrivate(), Instant.now().getEpochSecond() + 300);
+
+        Assertions.assertTrue(verifier.verify(jwt).block().isValid());
+        Assertions.assertEquals(1, checks.get());
+        Assertions.assertTrue(verifier.verifyView(jwt).block().isValid());
+        Assertions.assertEquals(2, checks.get());
+    }
+
+    @Test
+    void malformed_tokens_are_signalled_as_errors() {
+        final ReactiveJwtVerifier verifier = new ReactiveJwtVerifier(verifier(), scheduler);
+
+        Assertions.assertThrows(TokenValidationException.class, () -> verifier.verify("not a token").block());
+    }
+
+    private JwtVerifier verifier() {
+        return JwtVerifier.builder().key(SignatureAlgorithm.RS256, keyPair.getPublic()).build();
+    }
+
+    private static String createJWT(PrivateKey privateKey, long expirationTime) throws GeneralSecurityException {
+        String header = "{ \"alg\" : \"RS256\", \"typ\" : \"JWT\" }";
+        String payload = "{ \"iss\" : \"issuer\", \"exp\" : " + expirationTime + " }";
+
+        String signingInput = Base64.getUrlEncoder().encodeToString(header.getBytes())
+                + "." + Base64.getUrlEncoder().encodeToString(payload.getBytes());
+
+        Signature signer = Signature.getInstance(SignatureAlgorithm.RS256.getJcaName());
+        signer.initSign(privateKey);
+        signer.update(signingInput.getBytes());
+        return signingInput + "." + Base64.getUrlEncoder().encodeToString(signer.sign());
+    }
+}
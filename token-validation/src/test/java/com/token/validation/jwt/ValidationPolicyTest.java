@@ -0,0 +1,117 @@
+package com.token.validation.jwt;
+
+import com.token.validation.response.ValidationFailure;
+import com.token.validation.response.ValidationResponse;
+import com.token.validation.signature.SignatureAlgorithm;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ValidationPolicyTest {
+
+    private static final long NOW = 1700000000L;
+    private static final Clock clock = Clock.fixed(Instant.ofEpochSecond(NOW), ZoneOffset.UTC);
+
+    private KeyPair keyPair;
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        keyPair = keyGen.generateKeyPair();
+    }
+
+    @Test
+    void time_claims_are_checked_with_clock_skew() throws IOException {
+        final ValidationPolicy strict = ValidationPolicy.builder().clock(clock).build();
+        final ValidationPolicy lenient = ValidationPolicy.builder().clock(clock).clockSkew(1, TimeUnit.MINUTES).build();
+
+        Assertions.assertEquals(ValidationFailure.EXPIRED, strict.check(claims("\"exp\" : " + NOW)));
+        Assertions.assertNull(lenient.check(claims("\"exp\" : " + NOW)));
+        Assertions.assertEquals(ValidationFailure.EXPIRED, lenient.check(claims("\"exp\" : " + (NOW - 60))));
+        Assertions.assertEquals(ValidationFailure.EXPIRED, lenient.check(claims("\"iss\" : \"issuer\"")));
+
+        Assertions.assertEquals(ValidationFailure.NOT_YET_VALID, strict.check(claims("\"exp\" : " + (NOW + 300) + ", \"nbf\" : " + (NOW + 30))));
+        Assertions.assertNull(lenient.check(claims("\"exp\" : " + (NOW + 300) + ", \"nbf\" : " + (NOW + 30))));
+    }
+
+    @Test
+    void issuer_and_audience_are_checked_when_configured() throws IOException {
+        final ValidationPolicy policy = ValidationPolicy.builder()
+                .clock(clock)
+                .issuer("issuer")
+                .audience("api")
+                .build();
+        final String exp = "\"exp\" : " + (NOW + 300) + ", ";
+
+        Assertions.assertNull(policy.check(claims(exp + "\"iss\" : \"issuer\", \"aud\" : \"api\"")));
+        Assertions.assertNull(policy.check(claims(exp + "\"iss\" : \"issuer\", \"aud\" : [\"web\", \"api\"]")));
+        Assertions.assertEquals(ValidationFailure.INVALID_ISSUER, policy.check(claims(exp + "\"iss\" : \"other\", \"aud\" : \"api\"")));
+        Assertions.assertEquals(ValidationFailure.INVALID_AUDIENCE, policy.check(claims(exp + "\"iss\" : \"issuer\", \"aud\" : [\"web\"]")));
+        Assertions.assertEquals(ValidationFailure.INVALID_AUDIENCE, policy.check(claims(exp + "\"iss\" : \"issuer\"")));
+    }
+
+    @Test
+    void signature_is_not_checked_for_tokens_failing_the_policy() throws GeneralSecurityException {
+        final AtomicInteger resolvedKeys = new AtomicInteger();
+        final KeyResolver keyResolver = header -> {
+            resolvedKeys.incrementAndGet();
+            return keyPair.getPublic();
+        };
+        final ValidationPolicy policy = ValidationPolicy.builder().clock(clock).issuer("issuer").build();
+
+        ValidationResponse<JwtClaims> expired = JwtUtil.verifyJwt(createJWT("\"iss\" : \"issuer\", \"exp\" : " + (NOW - 1)), keyResolver, policy);
+        ValidationResponse<JwtClaims> wrongIssuer = JwtUtil.verifyJwt(createJWT("\"iss\" : \"other\", \"exp\" : " + (NOW + 300)), keyResolver, policy);
+
+        Assertions.assertEquals(ValidationFailure.EXPIRED, expired.getFailure());
+        Assertions.assertEquals("issuer", expired.getClaims().getIssuer());
+        Assertions.assertEquals(ValidationFailure.INVALID_ISSUER, wrongIssuer.getFailure());
+        Assertions.assertEquals(0, resolvedKeys.get());
+
+        ValidationResponse<JwtClaims> valid = JwtUtil.verifyJwt(createJWT("\"iss\" : \"issuer\", \"exp\" : " + (NOW + 300)), keyResolver, policy);
+        Assertions.assertTrue(valid.isValid());
+        Assertions.assertNull(valid.getFailure());
+        Assertions.assertEquals(1, resolvedKeys.get());
+    }
+
+    @Test
+    void verifier_reports_the_failed_rule() throws GeneralSecurityException {
+        final JwtVerifier verifier = JwtVerifier.builder()
+                .key(SignatureAlgorithm.RS256, keyPair.getPublic())
+                .policy(ValidationPolicy.builder().clock(clock).build())
+                .build();
+        final String valid = createJWT("\"iss\" : \"issuer\", \"exp\" : " + (NOW + 300));
+        final String tampered = valid.substring(0, valid.lastIndexOf('.') + 1) + Base64.getUrlEncoder().encodeToString(new byte[256]);
+
+        Assertions.assertTrue(verifier.verifyView(valid).isValid());
+        Assertions.assertEquals(ValidationFailure.INVALID_SIGNATURE, verifier.verify(tampered).getFailure());
+        Assertions.assertEquals(ValidationFailure.EXPIRED, verifier.verifyView(createJWT("\"exp\" : " + NOW)).getFailure());
+    }
+
+    private static ClaimsView claims(String claims) throws IOException {
+        return ClaimsView.parse(("{ " + claims + " }").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String createJWT(String claims) throws GeneralSecurityException {
+        String header = "{ \"alg\" : \"RS256\", \"typ\" : \"JWT\" }";
+        String payload = "{ " + claims + " }";
+
+        String signingInput = Base64.getUrlEncoder().encodeToString(header.getBytes())
+                + "." + Base64.getUrlEncoder().encodeToString(payload.getBytes());
+
+        Signature signer = Signature.getInstance(SignatureAlgorithm.RS256.getJcaName());
+        signer.initSign(keyPair.getPrivate());
+        signer.update(signingInput.getBytes());
+        return signingInput + "." + Base64.getUrlEncoder().encodeToString(signer.sign());
+    }
+}
@@ -0,0 +1,146 @@
+package com.token.validation.jwt;
+
+import com.token.validation.response.ValidationResponse;
+import com.token.validation.signature.SignatureAlgorithm;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.*;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class VerifiedTokenCacheTest {
+
+    private KeyPair keyPair;
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        keyPair = generateRSAKeyPair();
+    }
+
+    @Test
+    void second_verification_of_the_same_token_is_a_hit() throws GeneralSecurityException {
+        final VerifiedTokenCache cache = new VerifiedTokenCache(16);
+        final String jwt = createJWT(keyPair.getPrivate(), Instant.now().getEpochSecond() + 300, "1");
+
+        Assertions.assertTrue(JwtUtil.verifyJwt(jwt, keyPair.getPublic(), cache).isValid());
+        ValidationResponse<JwtClaims> response = JwtUtil.verifyJwt(jwt, keyPair.getPublic(), cache);
+
+        Assertions.assertTrue(response.isValid());
+        Assertions.assertEquals("issuer", response.getClaims().getIssuer());
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void different_key_never_produces_a_hit() throws GeneralSecurityException {
+        final VerifiedTokenCache cache = new VerifiedTokenCache(16);
+        final String jwt = createJWT(keyPair.getPrivate(), Instant.now().getEpochSecond() + 300, "1");
+
+        Assertions.assertTrue(JwtUtil.verifyJwt(jwt, keyPair.getPublic(), cache).isValid());
+        Assertions.assertFalse(JwtUtil.verifyJwt(jwt, generateRSAKeyPair().getPublic(), cache).isValid());
+        Assertions.assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    void invalid_tokens_are_not_cached() throws GeneralSecurityException {
+        final VerifiedTokenCache cache = new VerifiedTokenCache(16);
+        final String expired = createJWT(keyPair.getPrivate(), Instant.now().getEpochSecond() - 10, "1");
+
+        Assertions.assertFalse(JwtUtil.verifyJwt(expired, keyPair.getPublic(), cache).isValid());
+        Assertions.assertFalse(JwtUtil.verifyJwt(expired, keyPair.getPublic(), cache).isValid());
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    void entries_expire_with_the_token() throws Exception {
+        final VerifiedTokenCache cache = new VerifiedTokenCache(16);
+        final long expiration = Instant.now().getEpochSecond() + 3;
+        final String jwt = createJWT(keyPair.getPrivate(), expiration, "1");
+        final AtomicInteger verifications = new AtomicInteger();
+
+        Assertions.assertTrue(cache.getOrVerify(jwt, keyPair.getPublic(), () -> {
+            verifications.incrementAndGet();
+            return JwtUtil.verifyJwt(jwt, keyPair.getPublic());
+        }).isValid());
+
+        while (Instant.now().getEpochSecond() < expiration) {
+            Thread.sleep(100);
+        }
+
+        Assertions.assertFalse(cache.getOrVerify(jwt, keyPair.getPublic(), () -> {
+            verifications.incrementAndGet();
+            return JwtUtil.verifyJwt(jwt, keyPair.getPublic());
+        }).isValid());
+        Assertions.assertEquals(2, verifications.get());
+        Assertions.assertEquals(1, cache.getExpirationCount());
+    }
+
+    @Test
+    void cache_size_is_bounded() throws GeneralSecurityException {
+        final VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        final long expiration = Instant.now().getEpochSecond() + 300;
+
+        for (int i = 0; i < 50; i++) {
+            String jwt = createJWT(keyPair.getPrivate(), expiration, String.valueOf(i));
+            Assertions.assertTrue(JwtUtil.verifyJwt(jwt, keyPair.getPublic(), cache).isValid());
+        }
+
+        Assertions.assertTrue(cache.size() <= 10);
+        Assertions.assertTrue(cache.getEvictionCount() >= 40);
+    }
+
+    @Test
+    void cached_claims_are_not_shared_between_callers() throws GeneralSecurityException {
+        final VerifiedTokenCache cache = new VerifiedTokenCache(16);
+        final JwtVerifier verifier = JwtVerifier.builder()
+                .key(SignatureAlgorithm.RS256, keyPair.getPublic())
+                .cache(cache)
+                .build();
+        final String jwt = createJWT(keyPair.getPrivate(), Instant.now().getEpochSecond() + 300, "1");
+
+        verifier.verify(jwt).getClaims().put("iss", "changed");
+
+        Assertions.assertEquals("issuer", verifier.verify(jwt).getClaims().getIssuer());
+        Assertions.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void claims_views_are_cached_separately_from_claims() throws GeneralSecurityException {
+        final VerifiedTokenCache cache = new VerifiedTokenCache(16);
+        final JwtVerifier verifier = JwtVerifier.builder()
+                .key(SignatureAlgorithm.RS256, keyPair.getPublic())
+                .cache(cache)
+                .build();
+        final String jwt = createJWT(keyPair.getPrivate(), Instant.now().getEpochSecond() + 300, "1");
+
+        Assertions.assertTrue(verifier.verify(jwt).isValid());
+        final ClaimsView view = verifier.verifyView(jwt).getClaims();
+
+        Assertions.assertSame(view, verifier.verifyView(jwt).getClaims());
+        Assertions.assertEquals("issuer", view.getIssuer());
+        Assertions.assertEquals(1, cache.getHitCount());
+    }
+
+    private static String createJWT(PrivateKey privateKey, long expirationTime, String id) throws GeneralSecurityException {
+        String header = "{ \"alg\" : \"RS256\", \"typ\" : \"JWT\" }";
+        String payload = "{ \"iss\" : \"issuer\", \"jti\" : \"" + id + "\", \"exp\" : " + expirationTime + " }";
+
+        String signingInput = Base64.getUrlEncoder().encodeToString(header.getBytes())
+                + "." + Base64.getUrlEncoder().encodeToString(payload.getBytes());
+
+        Signature signer = Signature.getInstance(SignatureAlgorithm.RS256.getJcaName());
+        signer.initSign(privateKey);
+        signer.update(signingInput.getBytes());
+        return signingInput + "." + Base64.getUrlEncoder().encodeToString(signer.sign());
+    }
+
+    private static KeyPair generateRSAKeyPair() throws NoSuchAlgorithmException {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        return keyGen.generateKeyPair();
+    }
+}
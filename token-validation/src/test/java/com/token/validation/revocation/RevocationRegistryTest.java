@@ -0,0 +1,203 @@
+package com.token.validation.revocation;
+
+import com.token.validation.jwt.JwtUtil;
+import com.token.validation.jwt.JwtVerifier;
+import com.token.validation.jwt.ValidationPolicy;
+import com.token.validation.jwt.VerifiedTokenCache;
+import com.token.validation.response.ValidationFailure;
+import com.token.validation.signature.SignatureAlgorithm;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.*;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RevocationRegistryTest {
+
+    private static final long NOW = 1700000000L;
+
+    private final MutableClock clock = new MutableClock(NOW);
+    private final RevocationRegistry registry = new RevocationRegistry(1000, 0.01, clock);
+
+    @Test
+    void revoked_ids_are_found_until_they_expire() {
+        registry.revoke("revoked", NOW + 60);
+        registry.revoke("expired", NOW - 1);
+
+        Assertions.assertTrue(registry.isRevoked("revoked"));
+        Assertions.assertFalse(registry.isRevoked("expired"));
+        Assertions.assertFalse(registry.isRevoked("unknown"));
+        Assertions.assertFalse(registry.isRevoked(null));
+
+        clock.now = NOW + 60;
+        Assertions.assertFalse(registry.isRevoked("revoked"));
+    }
+
+    @Test
+    void expired_ids_are_evicted() {
+        registry.revoke("short", NOW + 10);
+        registry.revoke("long", NOW + 3600);
+
+        clock.now = NOW + 120;
+        registry.revoke("new", NOW + 3600);
+
+        Assertions.assertEquals(2, registry.size());
+        Assertions.assertTrue(registry.isRevoked("long"));
+        Assertions.assertTrue(registry.isRevoked("new"));
+    }
+
+    @Test
+    void filter_grows_with_the_revocations() {
+        final RevocationRegistry small = new RevocationRegistry(10, 0.01, clock);
+        for (int i = 0; i < 10_000; i++) {
+            small.revoke("id-" + i, NOW + 60);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            Assertions.assertTrue(small.isRevoked("id-" + i));
+        }
+        Assertions.assertFalse(small.isRevoked("id-10000"));
+    }
+
+    @Test
+    void snapshot_is_saved_and_loaded(@TempDir Path directory) throws IOException {
+        final Path snapshot = directory.resolve("revoked-tokens");
+        registry.revoke("a", NOW + 60);
+        registry.revoke("b", NOW + 60);
+        registry.save(snapshot);
+
+        final RevocationRegistry loaded = new RevocationRegistry(1000, 0.01, clock);
+        loaded.revoke("not-in-snapshot", NOW + 60);
+        loaded.load(snapshot);
+
+        Assertions.assertTrue(loaded.isRevoked("a"));
+        Assertions.assertTrue(loaded.isRevoked("b"));
+        Assertions.assertFalse(loaded.isRevoked("not-in-snapshot"));
+    }
+
+    @Test
+    void invalid_snapshot_keeps_the_current_revocations(@TempDir Path directory) throws IOException {
+        final Path snapshot = directory.resolve("revoked-tokens");
+        Files.write(snapshot, ("# comment\n\nc " + (NOW + 60) + "\nd soon\n").getBytes(StandardCharsets.UTF_8));
+        registry.revoke("a", NOW + 60);
+
+        assertThrows(IOException.class, () -> registry.load(snapshot));
+        Assertions.assertTrue(registry.isRevoked("a"));
+        Assertions.assertFalse(registry.isRevoked("c"));
+    }
+
+    @Test
+    void negative_lookups_do_not_allocate() {
+        for (int i = 0; i < 1000; i++) {
+            registry.revoke("revoked-" + i, NOW + 60);
+        }
+        final String id = "V1StGXR8_Z5jdHi6B-myT";
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long thread = Thread.currentThread().getId();
+
+        int revoked = 0;
+        for (int i = 0; i < 100_000; i++) {
+            revoked += registry.isRevoked(id) ? 1 : 0;
+        }
+        final long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 100_000; i++) {
+            revoked += registry.isRevoked(id) ? 1 : 0;
+        }
+        final long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        Assertions.assertEquals(0, revoked);
+        Assertions.assertTrue(allocated < 1024, "Allocated " + allocated + " bytes");
+    }
+
+    @Test
+    void revoked_tokens_are_rejected_even_when_cached() throws GeneralSecurityException {
+        final KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        final KeyPair keyPair = keyGen.generateKeyPair();
+        final RevocationRegistry revocations = new RevocationRegistry(1000);
+        final JwtVerifier verifier = JwtVerifier.builder()
+                .key(SignatureAlgorithm.RS256, keyPair.getPublic())
+                .policy(ValidationPolicy.builder().revocations(revocations).build())
+                .cache(new VerifiedTokenCache(16))
+                .build();
+        final long expiration = Instant.now().getEpochSecond() + 300;
+        final String jwt = createJWT(keyPair.getPrivate(), "token-1", expiration);
+
+        Assertions.assertTrue(verifier.verify(jwt).isValid());
+        revocations.revoke("token-1", expiration);
+
+        Assertions.assertEquals(ValidationFailure.REVOKED, verifier.verify(jwt).getFailure());
+        Assertions.assertEquals(ValidationFailure.REVOKED, verifier.verifyView(jwt).getFailure());
+        Assertions.assertTrue(verifier.verify(createJWT(keyPair.getPrivate(), "token-2", expiration)).isValid());
+    }
+
+    @Test
+    void revoked_tokens_are_rejected_when_cached_by_jwt_util() throws GeneralSecurityException {
+        final KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        final KeyPair keyPair = keyGen.generateKeyPair();
+        final RevocationRegistry revocations = new RevocationRegistry(1000);
+        final ValidationPolicy policy = ValidationPolicy.builder().revocations(revocations).build();
+        final VerifiedTokenCache cache = new VerifiedTokenCache(16);
+        final long expiration = Instant.now().getEpochSecond() + 300;
+        final String jwt = createJWT(keyPair.getPrivate(), "token-1", expiration);
+
+        Assertions.assertTrue(JwtUtil.verifyJwt(jwt, keyPair.getPublic(), policy, cache).isValid());
+        revocations.revoke("token-1", expiration);
+
+        Assertions.assertEquals(ValidationFailure.REVOKED, JwtUtil.verifyJwt(jwt, keyPair.getPublic(), policy, cache).getFailure());
+        Assertions.assertEquals(1, cache.getHitCount());
+    }
+
+    private static String createJWT(PrivateKey privateKey, String id, long expirationTime) throws GeneralSecurityException {
+        String header = "{ \"alg\" : \"RS256\", \"typ\" : \"JWT\" }";
+        String payload = "{ \"iss\" : \"issuer\", \"jti\" : \"" + id + "\", \"exp\" : " + expirationTime + " }";
+
+        String signingInput = Base64.getUrlEncoder().encodeToString(header.getBytes())
+                + "." + Base64.getUrlEncoder().encodeToString(payload.getBytes());
+
+        Signature signer = Signature.getInstance(SignatureAlgorithm.RS256.getJcaName());
+        signer.initSign(privateKey);
+        signer.update(signingInput.getBytes());
+        return signingInput + "." + Base64.getUrlEncoder().encodeToString(signer.sign());
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile long now;
+
+        private MutableClock(long now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochSecond(now);
+        }
+
+        @Override
+        public long millis() {
+            return now * 1000L;
+        }
+    }
+}